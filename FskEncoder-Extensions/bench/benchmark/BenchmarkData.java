@@ -0,0 +1,162 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BenchmarkData.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import source.ihx.IhxException;
+import source.ihx.IhxMappedLexer;
+import source.ihx.IhxRecord;
+import source.ihx.IhxRecordType;
+
+/**
+ * Responsibilities:<br>
+ * Provide the input data of the benchmarks.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxMappedLexer.
+ * 
+ * <p>
+ * Description:<br>
+ * All benchmarks take their input from the files in testresources, the file name is a JMH parameter.
+ * A BIN file is loaded as it is, the DATA records of a HEX file are placed in a single buffer 
+ * which starts at the lowest load offset.
+ * <p>
+ * The loading is done once per trial, it isn't part of the measurements of the protocol benchmarks.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class BenchmarkData {
+
+	public static final String RESOURCES = "./testresources/";
+	
+	
+	private BenchmarkData() { /* static helper only */ }
+	
+	
+	/**
+	 * Returns the path of a file in testresources.
+	 * 
+	 * @param aFileName
+	 * the name of the file.
+	 * 
+	 * @return
+	 * the path relative to the project directory.
+	 */
+	public static Path path(final String aFileName) {
+		
+		return Paths.get(RESOURCES, aFileName);
+		
+	} // path()
+	
+	
+	/**
+	 * Returns the size of a file in testresources.
+	 * 
+	 * @param aFileName
+	 * the name of the file.
+	 * 
+	 * @return
+	 * the size in bytes.
+	 * 
+	 * @throws IOException
+	 * if the file can't be accessed.
+	 */
+	public static long size(final String aFileName) throws IOException {
+		
+		return Files.size(path(aFileName));
+		
+	} // size()
+	
+	
+	/**
+	 * Loads the data bytes of a file in testresources.
+	 * 
+	 * @param aFileName
+	 * the name of a .bin or .hex file.
+	 * 
+	 * @return
+	 * a read-only buffer with position 0 and the limit set to the number of data bytes.
+	 * 
+	 * @throws IOException
+	 * if the file can't be read.
+	 * 
+	 * @throws IhxException
+	 * if a HEX file is invalid.
+	 */
+	public static ByteBuffer load(final String aFileName) throws IOException, IhxException {
+		
+		if(! aFileName.endsWith(".hex")) return ByteBuffer.wrap(Files.readAllBytes(path(aFileName))).asReadOnlyBuffer();
+		
+		List<IhxRecord> records = new ArrayList<>();
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		lexer.setFile(path(aFileName).toString());
+		
+		IhxRecord record;
+		
+		int start = Integer.MAX_VALUE;
+		int end = 0;
+		
+		while((record = lexer.getRecord()) != null) {
+			
+			if(record.getRecordType() != IhxRecordType.DATA) continue;
+			
+			records.add(record);
+			
+			start = Math.min(start, record.getOffset());
+			end = Math.max(end, record.getOffset() + record.getData().length);
+			
+		} // elihw
+		
+		if(records.isEmpty()) return ByteBuffer.allocate(0).asReadOnlyBuffer();
+		
+		byte[] data = new byte[end - start];
+		
+		for(IhxRecord dataRecord : records) {
+			System.arraycopy(dataRecord.getData(), 0, data, dataRecord.getOffset() - start, dataRecord.getData().length);
+		}
+		
+		return ByteBuffer.wrap(data).asReadOnlyBuffer();
+		
+	} // load()
+	
+	
+} // class
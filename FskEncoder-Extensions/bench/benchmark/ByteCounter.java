@@ -0,0 +1,72 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ByteCounter.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Responsibilities:<br>
+ * Count the input bytes processed by a benchmark.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * JMH.
+ * 
+ * <p>
+ * Description:<br>
+ * A benchmark method takes this state as parameter and adds the size of its input on each invocation.
+ * JMH reports the counter as secondary result "bytes" in the unit of the primary result, 
+ * for a throughput benchmark with OutputTimeUnit SECONDS that's bytes per second.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ByteCounter {
+
+	public long bytes;
+	
+	
+	@Setup(Level.Iteration)
+	public void reset() {
+		
+		bytes = 0;
+		
+	} // reset()
+	
+	
+} // class
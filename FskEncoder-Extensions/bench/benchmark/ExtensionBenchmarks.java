@@ -0,0 +1,95 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ExtensionBenchmarks.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Responsibilities:<br>
+ * Run the benchmarks of the encode and parse paths.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Mpf1ProtocolBenchmark,<br>
+ * Mpf1BitEncoderBenchmark,<br>
+ * Mpf1DataBlockBenchmark,<br>
+ * Z80TrainerProtocolBenchmark,<br>
+ * IhxParserBenchmark,<br>
+ * IhxHexDecoderBenchmark,<br>
+ * IhxRecordTypeBenchmark,<br>
+ * BinReaderBenchmark.
+ * 
+ * <p>
+ * Description:<br>
+ * Runs all benchmarks of the bench source folder with the GC profiler, so each result comes with
+ * <ul>
+ *   <li> the throughput in invocations and input bytes per second </li>
+ *   <li> the allocation rate, gc.alloc.rate and gc.alloc.rate.norm </li>
+ *   <li> for the protocols the latency to the first sample block in sample time mode </li>
+ * </ul>
+ * JMH command line options can be given, e.g. -p fileName=Test.4000.00.hex to restrict the input.
+ * A single benchmark is run by the main method of its class.
+ * <p>
+ * Run from the project directory, the input is read from ./testresources:
+ * <pre>
+ * 	mvn -P bench test-compile exec:java
+ * </pre>
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class ExtensionBenchmarks {
+
+	protected static final String BENCHMARKS = "(Mpf1Protocol|Mpf1BitEncoder|Mpf1DataBlock|Z80TrainerProtocol|IhxParser|IhxHexDecoder|IhxRecordType|BinReader)Benchmark";
+	
+	
+	private ExtensionBenchmarks() { /* main only */ }
+	
+	
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		
+		new Runner(new OptionsBuilder()
+			.parent(new CommandLineOptions(args))
+			.include(BENCHMARKS)
+			.addProfiler(GCProfiler.class)
+			.build()
+		).run();
+		
+	} // main()
+	
+	
+} // class
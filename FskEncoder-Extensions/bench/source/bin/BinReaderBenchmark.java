@@ -0,0 +1,124 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BinReaderBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.bin;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.BenchmarkData;
+import benchmark.ByteCounter;
+import extension.model.MemoryMap;
+
+/**
+ * Responsibilities:<br>
+ * Measure the loading of a binary file into a MemoryMap.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BinReader.
+ * 
+ * <p>
+ * Description:<br>
+ * Each invocation loads the file into a fresh MemoryMap, the reported bytes are the size of the file.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinReaderBenchmark {
+
+	@Param({ "LedBlinkMode-v1.4.bin" })
+	protected String fileName;
+	
+	protected String path;
+	protected long fileSize;
+	
+	
+	@Setup
+	public void setUp() throws IOException {
+		
+		path = BenchmarkData.path(fileName).toString();
+		fileSize = BenchmarkData.size(fileName);
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public MemoryMap loadFile(final ByteCounter aCounter) {
+		
+		aCounter.bytes += fileSize;
+		
+		MemoryMap memoryMap = new MemoryMap();
+		
+		BinReader reader = new BinReader(memoryMap);
+		reader.setFilename(path);
+		
+		if(! reader.loadFile()) throw new IllegalStateException(reader.getOperationStatus());
+		
+		return memoryMap;
+		
+	} // loadFile()
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder()
+			.include(BinReaderBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
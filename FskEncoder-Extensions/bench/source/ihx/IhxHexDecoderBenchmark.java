@@ -0,0 +1,155 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxHexDecoderBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Responsibilities:<br>
+ * Measure the throughput of the IHX hex digit decoding.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxHexDecoder.
+ * 
+ * <p>
+ * Description:<br>
+ * Compares the former substring() / Integer.parseInt() translation of IhxRecord.ascii2bin()
+ * with the table driven IhxHexDecoder.
+ * Each invocation decodes all lines of the given hex file, 
+ * run it with -prof gc to see the allocation rate of both variants.
+ * <p>
+ * Run by the main method or by ExtensionBenchmarks with the bench profile.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IhxHexDecoderBenchmark {
+
+	@Param({ "./testresources/Test.4000.00.hex" })
+	protected String fileName;
+	
+	protected String[] lines;
+	protected byte[][] targets;
+	
+	
+	@Setup
+	public void setUp() throws IOException {
+		
+		List<String> content = Files.readAllLines(Paths.get(fileName));
+		
+		lines = content.toArray(new String[0]);
+		targets = new byte[lines.length][];
+		
+		for(int i = 0; i < lines.length; i++) {
+			targets[i] = new byte[lines[i].length() / 2];
+		}
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	public int substringParseInt() {
+		
+		int sum = 0;
+		
+		for(int l = 0; l < lines.length; l++) {
+			
+			String line = lines[l];
+			byte[] target = targets[l];
+			
+			for(int i = 0; i < target.length; i++) {
+				
+				int startIdx = i * 2 + 1;
+				
+				target[i] = (byte) Integer.parseInt(line.substring(startIdx, startIdx + 2), 16);
+				sum += target[i] & 0xFF;
+				
+			}
+			
+		} // rof
+		
+		return sum;
+		
+	} // substringParseInt()
+	
+	
+	@Benchmark
+	public int nibbleTable() throws IhxException {
+		
+		int sum = 0;
+		
+		for(int l = 0; l < lines.length; l++) {
+			sum += IhxHexDecoder.decode(lines[l], 1, targets[l], l + 1);
+		}
+		
+		return sum;
+		
+	} // nibbleTable()
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder()
+			.include(IhxHexDecoderBenchmark.class.getSimpleName())
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
@@ -0,0 +1,219 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxRecordTypeBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Responsibilities:<br>
+ * Measure the costs of the record type resolution.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxRecordType.
+ * 
+ * <p>
+ * Description:<br>
+ * Compares the former linear search over IhxRecordType.values() with the lookup table of IhxRecordType.toType().
+ * The record type ids are taken from the records of testresources/Test.4000.00.hex, 
+ * each invocation resolves all of them, the results are reported per record.
+ * <p>
+ * The main method runs the benchmark with the GC profiler, 
+ * gc.alloc.rate.norm must be 0 B/op for toType() while values() clones the enum array for each record.
+ * Before that it checks with the allocation counter of the HotSpot ThreadMXBean that toType() doesn't allocate, 
+ * the check is skipped on VMs without this counter.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IhxRecordTypeBenchmark {
+
+	protected static final String SRC_FILE = "./testresources/Test.4000.00.hex";
+	
+	protected static final int RECORDS = 513;
+	
+	protected static final int LOOKUPS = 1_000_000;
+	
+	/*
+	 * Fixed costs of the measurement itself, a linear search over values() needs about 30 MB for the lookups.
+	 */
+	protected static final long ALLOCATION_LIMIT = 64 * 1024;
+	
+	protected int[] ids;
+	
+	protected int lookupSum;
+	
+	
+	@Setup
+	public void setUp() throws IOException {
+		
+		List<String> lines = Files.readAllLines(Paths.get(SRC_FILE));
+		
+		if(lines.size() != RECORDS) throw new IllegalStateException("Unexpected number of records in " + SRC_FILE);
+		
+		ids = new int[RECORDS];
+		
+		for(int i = 0; i < RECORDS; i++) {
+			ids[i] = Integer.parseInt(lines.get(i).substring(7, 9), 16);
+		}
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public int linearSearch() {
+		
+		int sum = 0;
+		
+		for(int id : ids) {
+			
+			IhxRecordType type = IhxRecordType.UNKNOWN;
+			
+			for(IhxRecordType candidate : IhxRecordType.values()) {
+				if(candidate.toId() == id) {
+					type = candidate;
+					break;
+				}
+			}
+			
+			sum += type.ordinal();
+			
+		} // rof
+		
+		return sum;
+		
+	} // linearSearch()
+	
+	
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public int lookupTable() {
+		
+		int sum = 0;
+		
+		for(int id : ids) {
+			sum += IhxRecordType.toType(id).ordinal();
+		}
+		
+		return sum;
+		
+	} // lookupTable()
+	
+	
+	/*
+	 * Resolves LOOKUPS ids with the HotSpot allocation counter enabled, 
+	 * fails if toType() allocates.
+	 */
+	protected void checkAllocation() {
+		
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		
+		if(! (bean instanceof com.sun.management.ThreadMXBean)) return;
+		
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		
+		if(! threadBean.isThreadAllocatedMemorySupported()) return;
+		
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		
+		long threadId = Thread.currentThread().getId();
+		
+		lookup();
+		
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		lookup();
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+		
+		if(allocated >= ALLOCATION_LIMIT) {
+			throw new IllegalStateException(allocated + " bytes allocated for " + LOOKUPS + " lookups");
+		}
+		
+	} // checkAllocation()
+	
+	
+	/*
+	 * Resolves LOOKUPS ids of the records.
+	 */
+	private void lookup() {
+		
+		for(int i = 0; i < LOOKUPS; i++) {
+			lookupSum += IhxRecordType.toType(ids[i % RECORDS]).ordinal();
+		}
+		
+	} // lookup()
+	
+	
+	public static void main(final String[] args) throws RunnerException, IOException {
+		
+		IhxRecordTypeBenchmark benchmark = new IhxRecordTypeBenchmark();
+		
+		benchmark.setUp();
+		benchmark.checkAllocation();
+		
+		new Runner(new OptionsBuilder()
+			.include(IhxRecordTypeBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
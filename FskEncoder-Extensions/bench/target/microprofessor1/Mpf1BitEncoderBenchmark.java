@@ -0,0 +1,119 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Mpf1BitEncoderBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.microprofessor1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.ByteCounter;
+import extension.encoder.WaveCycleEncoder;
+
+/**
+ * Responsibilities:<br>
+ * Measure the creation of the MPF-1 bit patterns.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Mpf1BitEncoder,<br>
+ * WaveCycleEncoder.
+ * 
+ * <p>
+ * Description:<br>
+ * prepareSampleBuffers() renders the sound samples of a LOW and a HIGH bit, 
+ * it runs once per encoder and doesn't depend on the input file.
+ * The reported bytes are the samples of both bit patterns.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mpf1BitEncoderBenchmark {
+
+	protected static final int LOW_SAMPLES	= Mpf1BitEncoder.SAMPLING_RATE / Mpf1BitEncoder.F_LOW;
+	protected static final int HIGH_SAMPLES	= Mpf1BitEncoder.SAMPLING_RATE / Mpf1BitEncoder.F_HIGH;
+	
+	protected static final int SAMPLES_PER_INVOCATION = (8 * HIGH_SAMPLES) + (2 * LOW_SAMPLES) + (4 * HIGH_SAMPLES) + (4 * LOW_SAMPLES);
+	
+	protected Mpf1BitEncoder bitEncoder;
+	
+	
+	@Setup
+	public void setUp() {
+		
+		bitEncoder = new Mpf1BitEncoder(new WaveCycleEncoder(Mpf1BitEncoder.SAMPLING_RATE));
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public Mpf1BitEncoder prepareSampleBuffers(final ByteCounter aCounter) {
+		
+		aCounter.bytes += SAMPLES_PER_INVOCATION;
+		
+		bitEncoder.prepareSampleBuffers();
+		
+		return bitEncoder;
+		
+	} // prepareSampleBuffers()
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder()
+			.include(Mpf1BitEncoderBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
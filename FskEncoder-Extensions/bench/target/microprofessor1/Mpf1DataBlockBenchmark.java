@@ -0,0 +1,160 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Mpf1DataBlockBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.microprofessor1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import extension.encoder.BitEncoder;
+import extension.encoder.BitOrder;
+import extension.encoder.BitValue;
+import extension.encoder.ByteOrder;
+import extension.encoder.Encoder;
+import extension.encoder.WaveCycleEncoder;
+import target.tape.ByteBufferSampleSink;
+
+/**
+ * Responsibilities:<br>
+ * Measure the throughput of the MPF-1 data block encoding.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Encoder,<br>
+ * Mpf1ByteEnvelopeCache.
+ * 
+ * <p>
+ * Description:<br>
+ * Compares the bit by bit encoding of Encoder.encodeByteBuffer() with the bulk copy 
+ * out of the Mpf1ByteEnvelopeCache for a block of random data.
+ * Each invocation encodes DATA_SIZE bytes, so the reported operations per second 
+ * are the bytes encoded per second.
+ * <p>
+ * Run by the main method or by ExtensionBenchmarks with the bench profile.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mpf1DataBlockBenchmark {
+
+	protected static final int DATA_SIZE = 4096;
+	
+	protected ByteBuffer dataBuffer;
+	
+	protected Encoder encoder;
+	protected Mpf1ByteEnvelopeCache envelopeCache;
+	protected ByteBufferSampleSink sampleSink;
+	
+	
+	@Setup
+	public void setUp() {
+		
+		byte[] data = new byte[DATA_SIZE];
+		new Random(0x4D5046).nextBytes(data);
+		dataBuffer = ByteBuffer.wrap(data);
+		
+		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(Mpf1Protocol.SAMPLING_RATE);
+		BitEncoder bitEncoder = new Mpf1BitEncoder(waveCycleEncoder);
+		
+		encoder = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+			.withWaveCycleEncoder(waveCycleEncoder)
+			.withStartBits(Mpf1Protocol.NBR_START_BITS, BitValue.LOW)
+			.withStopBits(Mpf1Protocol.NBR_STOP_BITS, BitValue.HIGH)
+			;
+		
+		envelopeCache = new Mpf1ByteEnvelopeCache(bitEncoder);
+		
+		encoder.setBufferSize(DATA_SIZE * envelopeCache.getMaxEnvelopeSize());
+		sampleSink = new ByteBufferSampleSink(DATA_SIZE * envelopeCache.getMaxEnvelopeSize());
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	@OperationsPerInvocation(DATA_SIZE)
+	public ByteBuffer encoder() throws IllegalAccessException {
+		
+		encoder.clearSampleBuffer();
+		dataBuffer.rewind();
+		encoder.encodeByteBuffer(dataBuffer, true);
+		
+		return encoder.getSampleBuffer();
+		
+	} // encoder()
+	
+	
+	@Benchmark
+	@OperationsPerInvocation(DATA_SIZE)
+	public int envelopeCache() throws IOException {
+		
+		sampleSink.clear();
+		dataBuffer.rewind();
+		envelopeCache.encode(dataBuffer, sampleSink);
+		
+		return sampleSink.position();
+		
+	} // envelopeCache()
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder()
+			.include(Mpf1DataBlockBenchmark.class.getSimpleName())
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
@@ -0,0 +1,165 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Mpf1ProtocolBenchmark.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.microprofessor1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import benchmark.BenchmarkData;
+import benchmark.ByteCounter;
+import source.ihx.IhxException;
+import target.tape.TapeProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Measure the translation of a memory image into MPF-1 tape samples.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Mpf1Protocol,<br>
+ * BenchmarkData.
+ * 
+ * <p>
+ * Description:<br>
+ * compile() measures the complete in-memory translation, the throughput is reported 
+ * per invocation and in data bytes per second.<br>
+ * compileParallel() does the same with the data sections rendered on the common fork-join pool.<br>
+ * compileIncremental() changes a single data byte per invocation, as in an edit-assemble-upload loop.<br>
+ * firstSample() measures the latency until the first block of samples is available from stream(),
+ * that's the time a user waits until the playback starts.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Mpf1ProtocolBenchmark {
+
+	@Param({ "Test.0200.00.hex", "Test.0400.00.hex", "Test.0800.00.hex", "Test.4000.00.hex", "LedBlinkMode-v1.4.bin" })
+	protected String fileName;
+	
+	protected ByteBuffer data;
+	protected Mpf1Protocol protocol;
+	
+	
+	@Setup
+	public void setUp() throws IOException, IhxException {
+		
+		data = BenchmarkData.load(fileName);
+		
+		protocol = new Mpf1Protocol();
+		protocol.setFileName(0x0001);
+		protocol.setStartAddress(0x1800);
+		protocol.setEndAddress(0x1800 + data.limit() - 1);
+		
+	} // setUp()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public ByteBuffer compile(final ByteCounter aCounter) {
+		
+		aCounter.bytes += data.limit();
+		
+		return protocol.compile(data.duplicate());
+		
+	} // compile()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public ByteBuffer compileParallel(final ByteCounter aCounter) {
+		
+		aCounter.bytes += data.limit();
+		
+		return protocol.compile(data.duplicate(), ForkJoinPool.commonPool());
+		
+	} // compileParallel()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public ByteBuffer compileIncremental() {
+		
+		int index = data.limit() / 2;
+		data.put(index, (byte) (data.get(index) + 1));
+		
+		return protocol.compileIncremental(data.duplicate());
+		
+	} // compileIncremental()
+	
+	
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public ByteBuffer firstSample() {
+		
+		return protocol.stream(data.duplicate(), TapeProtocol.DEFAULT_CHUNK_SIZE).next();
+		
+	} // firstSample()
+	
+	
+	public static void main(final String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder()
+			.include(Mpf1ProtocolBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()
+		).run();
+		
+	} // main()
+
+
+} // class
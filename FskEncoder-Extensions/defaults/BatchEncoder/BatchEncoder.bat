@@ -0,0 +1,12 @@
+rem
+rem Headless batch encoder, runs without the FskEncoder GUI.
+rem
+rem e.g. BatchEncoder -i prog.hex -t MPF1 -o prog.raw
+rem      BatchEncoder --help
+rem
+
+@echo off
+
+set CLASS_PATH=../lib/*;../extensions/*
+
+java -Djava.awt.headless=true -cp "%CLASS_PATH%" batch.BatchEncoder %*
@@ -0,0 +1,5 @@
+rem
+rem append this line to the CLASSPATH definition in 
+rem the extension section of the FskEncoder.bat file
+
+set CLASS_PATH=%CLASS_PATH%;../extensions/Ihx32ReaderExtension.jar;
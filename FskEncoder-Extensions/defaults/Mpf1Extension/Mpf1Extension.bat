@@ -2,4 +2,4 @@ rem
 rem append this line to the CLASSPATH definition in 
 rem the extension section of the FskEncoder.bat file
 
-set CLASS_PATH=%CLASS_PATH%;../extensions/Mpf1Extension.jar;
+set CLASS_PATH=%CLASS_PATH%;../extensions/Mpf1Extension.jar;../extensions/TapeSupport.jar;
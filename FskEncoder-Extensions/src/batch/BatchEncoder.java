@@ -0,0 +1,476 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BatchEncoder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package batch;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+
+import extension.model.MemoryBlockDescription;
+import extension.model.MemoryMap;
+import extension.model.MemoryRegion;
+import extension.source.ReaderBase;
+import source.bin.BinReader;
+import source.ihx.IhxDataStream;
+import source.ihx.IhxException;
+import source.ihx.x8.Ihx8Reader;
+import target.tape.ByteBufferDataStream;
+import target.tape.ChannelSampleSink;
+import target.tape.DataStream;
+import target.tape.EdgeTape;
+import target.tape.TapeProtocol;
+import target.tape.WavSampleSink;
+
+/**
+ * Responsibilities:<br>
+ * Encode a memory region of an IHX or BIN file from the command line.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BatchOptions,<br>
+ * Ihx8Reader, BinReader,<br>
+ * IhxDataStream,<br>
+ * BatchTarget.
+ * 
+ * <p>
+ * Description:<br>
+ * The input file is loaded by the reader of the matching extension, the selected memory region
+ * is encoded by the protocol of the target system and the sound samples are written into a WAV file, 
+ * or as raw PCM data to a file or to stdout.
+ * <p>
+ * With --stream an IHX file is read by an IhxDataStream instead of a reader, the records are parsed 
+ * while the tape is encoded and written, see TapeProtocol.compile(DataStream, SampleSink, int).
+ * <p>
+ * With --edges the tape is laid out as run-length encoded edges, see TapeProtocol.compileEdges(ByteBuffer), 
+ * no PCM sample is rendered before the edges are expanded into the output chunk by chunk.
+ * <p>
+ * No Swing or AWT component is created, main() runs with java.awt.headless set.
+ * While samples are written to stdout, System.out is redirected to stderr, 
+ * so a console logger can't corrupt the samples.
+ * <p>
+ * Usage, e.g.:<br>
+ * <pre>
+ * 	java -cp ... batch.BatchEncoder -i prog.hex -t MPF1 -o prog.wav
+ * 	java -cp ... batch.BatchEncoder -i prog.hex -t Z80 --stream -o prog.wav
+ * 	java -cp ... batch.BatchEncoder -i prog.hex -t MPF1 --edges -o prog.wav
+ * 	java -cp ... batch.BatchEncoder -i rom.bin --offset 0x1000 --length 0x800 -t Z80 -a 0x1800 > prog.raw
+ * </pre>
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class BatchEncoder {
+	
+	public static final int EXIT_OK			= 0;
+	public static final int EXIT_USAGE		= 1;
+	public static final int EXIT_FAILURE	= 2;
+
+	private Logger logger = LogManager.getLogger(BatchEncoder.class.getName());
+	
+	protected final WritableByteChannel stdout;
+	protected final PrintStream messages;
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aStdout
+	 * the channel used for the output '-'.
+	 * 
+	 * @param aMessages
+	 * the stream for status and error messages.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aStdout or aMessages is null.
+	 */
+	public BatchEncoder(final WritableByteChannel aStdout, final PrintStream aMessages) {
+		logger.trace("BatchEncoder(): aStdout = {}, aMessages = {}", aStdout, aMessages);
+		
+		if(aStdout == null) throw new IllegalArgumentException("aStdout can't be null");
+		if(aMessages == null) throw new IllegalArgumentException("aMessages can't be null");
+		
+		stdout = aStdout;
+		messages = aMessages;
+		
+	} // BatchEncoder()
+	
+	
+	/**
+	 * Runs the encoder with the given command line arguments.
+	 * 
+	 * @param aArgs
+	 * the command line arguments, see BatchOptions.
+	 * 
+	 * @return
+	 * EXIT_OK on success, EXIT_USAGE for invalid arguments and EXIT_FAILURE if loading or encoding failed.
+	 */
+	public int run(final String[] aArgs) {
+		logger.trace("run(): aArgs = {}", (Object) aArgs);
+		
+		BatchOptions options = new BatchOptions();
+		CmdLineParser parser = new CmdLineParser(options);
+		
+		try {
+			
+			parser.parseArgument(aArgs);
+			
+			if(options.help) {
+				usage(parser);
+				return EXIT_OK;
+			}
+			
+			if(!options.list && options.target == null) throw new CmdLineException(parser, "Option \"-t (--target)\" is required", null);
+			
+			if(!options.isBinary() && (options.offset != null || options.length != null)) {
+				throw new CmdLineException(parser, "--offset and --length are valid for BIN files only", null);
+			}
+			
+			if(options.stream && (options.isBinary() || options.list)) {
+				throw new CmdLineException(parser, "--stream is valid for IHX files only and can't be combined with --list", null);
+			}
+			
+			if(options.edges && options.stream) {
+				throw new CmdLineException(parser, "--edges can't be combined with --stream", null);
+			}
+			
+		}
+		catch (CmdLineException e) {
+			messages.println(e.getMessage());
+			usage(parser);
+			
+			return EXIT_USAGE;
+			
+		} // yrt
+		
+		try {
+			
+			return encode(options);
+			
+		}
+		catch (NumberFormatException e) {
+			messages.println("Invalid number: " + e.getMessage());
+			
+			return EXIT_USAGE;
+			
+		}
+		catch (IOException | IhxException | IllegalArgumentException | IllegalAccessError e) {
+			messages.println("Encoding failed: " + e.getMessage());
+			logger.error("Encoding failed:", e);
+			
+			return EXIT_FAILURE;
+			
+		} // yrt
+		
+	} // run()
+	
+	
+	/*
+	 * Loads the input file, selects the region and writes the samples.
+	 */
+	protected int encode(final BatchOptions aOptions) throws IOException, IhxException {
+		logger.trace("encode(): aOptions = {}", aOptions);
+		
+		if(aOptions.stream) return encodeStream(aOptions);
+		
+		MemoryMap memoryMap = new MemoryMap();
+		ReaderBase reader = createReader(aOptions, memoryMap);
+		
+		reader.setFilename(aOptions.input.getPath());
+		
+		if(! reader.loadFile()) {
+			messages.println(aOptions.input + ": " + reader.getOperationStatus());
+			
+			return EXIT_FAILURE;
+			
+		}
+		
+		List<MemoryBlockDescription> memoryLayout = memoryMap.getMemoryLayout();
+		Collections.sort(memoryLayout);
+		
+		if(aOptions.list) {
+			list(memoryLayout);
+			
+			return EXIT_OK;
+			
+		}
+		
+		if(aOptions.region < 1 || aOptions.region > memoryLayout.size()) {
+			messages.println("Region " + aOptions.region + " doesn't exist, " + aOptions.input + " has " + memoryLayout.size() + " region(s).");
+			
+			return EXIT_USAGE;
+			
+		}
+		
+		MemoryBlockDescription block = memoryLayout.get(aOptions.region - 1);
+		MemoryRegion memoryRegion = memoryMap.getMemoryRegion(block.START_ADDRESS);
+		
+		long startAddress = BatchOptions.parseNumber(aOptions.address, block.START_ADDRESS);
+		long endAddress = startAddress + block.SIZE - 1;
+		
+		TapeProtocol protocol = aOptions.target.createProtocol((int) BatchOptions.parseNumber(aOptions.name, 1), startAddress, endAddress);
+		
+		ByteBuffer data = memoryRegion.getContent().duplicate();
+		
+		if(aOptions.edges) {
+			
+			writeEdges(aOptions, protocol, data);
+			
+		}
+		else if(! write(aOptions, protocol, new ByteBufferDataStream(data))) {
+			messages.println("Encoding stopped.");
+			
+			return EXIT_FAILURE;
+			
+		}
+		
+		messages.println(String.format("Encoded region %d (0x%04X-0x%04X, %d bytes) of %s for %s at 0x%04X to %s.", 
+			aOptions.region, block.START_ADDRESS, block.END_ADDRESS, block.SIZE, aOptions.input, 
+			aOptions.target, startAddress, aOptions.output)
+		);
+		
+		return EXIT_OK;
+		
+	} // encode()
+	
+	
+	/*
+	 * Encodes an IHX file while it's parsed, the pre-scan of the IhxDataStream provides the addresses of the block.
+	 */
+	protected int encodeStream(final BatchOptions aOptions) throws IOException, IhxException {
+		logger.trace("encodeStream(): aOptions = {}", aOptions);
+		
+		IhxDataStream ihxStream = new IhxDataStream(aOptions.input.getPath());
+		
+		if(ihxStream.getSize() == 0) {
+			messages.println(aOptions.input + ": no data to encode.");
+			
+			return EXIT_FAILURE;
+			
+		}
+		
+		long startAddress = BatchOptions.parseNumber(aOptions.address, ihxStream.getStartAddress());
+		long endAddress = startAddress + ihxStream.getSize() - 1;
+		
+		TapeProtocol protocol = aOptions.target.createProtocol((int) BatchOptions.parseNumber(aOptions.name, 1), startAddress, endAddress);
+		
+		DataStream data = new DataStream() {
+			
+			@Override
+			public int size() { return ihxStream.getSize(); }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { return ihxStream.open(); }
+			
+			@Override
+			public long byteSum() { return ihxStream.getByteSum(); }
+			
+		};
+		
+		if(! write(aOptions, protocol, data)) {
+			messages.println("Encoding stopped.");
+			
+			return EXIT_FAILURE;
+			
+		}
+		
+		messages.println(String.format("Encoded 0x%04X-0x%04X, %d bytes, of %s for %s at 0x%04X to %s.", 
+			ihxStream.getStartAddress(), ihxStream.getEndAddress(), ihxStream.getSize(), aOptions.input, 
+			aOptions.target, startAddress, aOptions.output)
+		);
+		
+		return EXIT_OK;
+		
+	} // encodeStream()
+	
+	
+	/*
+	 * Compiles the tape and writes the samples to the output given by the options.
+	 */
+	protected boolean write(final BatchOptions aOptions, final TapeProtocol aProtocol, final DataStream aData) throws IOException {
+		
+		if(BatchOptions.STDOUT.equals(aOptions.output)) {
+			
+			return aProtocol.compile(aData, stdout, TapeProtocol.DEFAULT_CHUNK_SIZE);
+			
+		}
+		else if(aOptions.isWav()) {
+			
+			return aProtocol.compile(aData, Paths.get(aOptions.output), TapeProtocol.DEFAULT_CHUNK_SIZE);
+			
+		}
+		else {
+			
+			try(FileChannel channel = FileChannel.open(Paths.get(aOptions.output), 
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+			) {
+				
+				return aProtocol.compile(aData, channel, TapeProtocol.DEFAULT_CHUNK_SIZE);
+				
+			} // yrt
+			
+		} // esle
+		
+	} // write()
+	
+	
+	/*
+	 * Lays out the tape as edges and expands them into the output given by the options.
+	 */
+	protected void writeEdges(final BatchOptions aOptions, final TapeProtocol aProtocol, final ByteBuffer aData) throws IOException {
+		
+		EdgeTape edgeTape = aProtocol.compileEdges(aData);
+		
+		logger.trace("writeEdges(): edgeTape = {}", edgeTape);
+		
+		if(BatchOptions.STDOUT.equals(aOptions.output)) {
+			
+			edgeTape.expand(new ChannelSampleSink(stdout), TapeProtocol.DEFAULT_CHUNK_SIZE);
+			
+		}
+		else if(aOptions.isWav()) {
+			
+			Path wavFile = Paths.get(aOptions.output);
+			
+			// the edges are expanded to signed samples
+			try(WavSampleSink wavSink = new WavSampleSink(wavFile, edgeTape.getSamplingRate())) {
+				
+				edgeTape.expand(wavSink, TapeProtocol.DEFAULT_CHUNK_SIZE);
+				
+			} // yrt
+			
+		}
+		else {
+			
+			try(FileChannel channel = FileChannel.open(Paths.get(aOptions.output), 
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+			) {
+				
+				edgeTape.expand(new ChannelSampleSink(channel), TapeProtocol.DEFAULT_CHUNK_SIZE);
+				
+			} // yrt
+			
+		} // esle
+		
+	} // writeEdges()
+	
+	
+	/*
+	 * Creates the reader that matches the input file.
+	 */
+	protected ReaderBase createReader(final BatchOptions aOptions, final MemoryMap aMemoryMap) throws IhxException {
+		logger.trace("createReader(): aOptions = {}", aOptions);
+		
+		if(! aOptions.isBinary()) {
+			
+			Ihx8Reader ihxReader = new Ihx8Reader(aMemoryMap);
+			ihxReader.setOverlapPolicy(aOptions.overlap);
+			
+			return ihxReader;
+			
+		} // fi
+		
+		BinReader binReader = new BinReader(aMemoryMap);
+		binReader.setWindow(BatchOptions.parseNumber(aOptions.offset, 0), BatchOptions.parseNumber(aOptions.length, BinReader.TO_END));
+		
+		return binReader;
+		
+	} // createReader()
+	
+	
+	/*
+	 * Prints the memory layout, one region per line.
+	 */
+	protected void list(final List<MemoryBlockDescription> aMemoryLayout) {
+		
+		PrintStream listing = new PrintStream(Channels.newOutputStream(stdout), true);
+		
+		int region = 1;
+		
+		for(MemoryBlockDescription block : aMemoryLayout) {
+			listing.println(String.format("%d: 0x%04X-0x%04X %d bytes", region++, block.START_ADDRESS, block.END_ADDRESS, block.SIZE));
+		} // rof
+		
+		listing.flush();
+		
+	} // list()
+	
+	
+	/*
+	 * Prints the usage to the message stream.
+	 */
+	protected void usage(final CmdLineParser aParser) {
+		
+		messages.println("java batch.BatchEncoder [options]");
+		aParser.printUsage(messages);
+		
+	} // usage()
+	
+	
+	/**
+	 * Entry point of the batch encoder.
+	 * 
+	 * @param args
+	 * the command line arguments, see BatchOptions.
+	 */
+	public static void main(final String[] args) {
+		
+		System.setProperty("java.awt.headless", "true");
+		
+		/*
+		 * Keep the real stdout for the samples and route everything else to stderr.
+		 */
+		@SuppressWarnings("resource")
+		WritableByteChannel stdout = new FileOutputStream(FileDescriptor.out).getChannel();
+		System.setOut(System.err);
+		
+		System.exit(new BatchEncoder(stdout, System.err).run(args));
+		
+	} // main()
+
+
+} // class
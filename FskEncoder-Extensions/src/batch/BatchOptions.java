@@ -0,0 +1,176 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BatchOptions.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package batch;
+
+import java.io.File;
+
+import org.kohsuke.args4j.Option;
+
+import source.ihx.IhxOverlapPolicy;
+
+/**
+ * Responsibilities:<br>
+ * Hold the command line options of the batch encoder.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * CmdLineParser of args4j.
+ * 
+ * <p>
+ * Description:<br>
+ * The fields are filled by args4j, addresses and numbers are kept as strings
+ * so they can be given decimal or hexadecimal with a leading 0x.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class BatchOptions {
+
+	public static final String STDOUT = "-";
+	
+	@Option(name = "-i", aliases = "--input", metaVar = "FILE", required = true, 
+			usage = "IHX or BIN file to encode, a .bin extension selects the BIN reader")
+	protected File input;
+	
+	@Option(name = "-t", aliases = "--target", metaVar = "TARGET", 
+			usage = "target system: MPF1 or Z80")
+	protected BatchTarget target;
+	
+	@Option(name = "-o", aliases = "--output", metaVar = "FILE", 
+			usage = "file for the samples, WAV for a .wav extension, raw PCM otherwise, - writes raw PCM to stdout (default)")
+	protected String output = STDOUT;
+	
+	@Option(name = "-r", aliases = "--region", metaVar = "N", 
+			usage = "number of the memory region to encode, starting at 1 (default)")
+	protected int region = 1;
+	
+	@Option(name = "-a", aliases = "--address", metaVar = "ADDR", 
+			usage = "load address on the target, default is the start address of the region")
+	protected String address;
+	
+	@Option(name = "-n", aliases = "--name", metaVar = "NBR", 
+			usage = "MPF-1 file name or Z80 trainer program number, default 1")
+	protected String name = "1";
+	
+	@Option(name = "--offset", metaVar = "OFFSET", 
+			usage = "BIN only: file offset of the window to load")
+	protected String offset;
+	
+	@Option(name = "--length", metaVar = "LENGTH", 
+			usage = "BIN only: length of the window to load, default up to the end of the file")
+	protected String length;
+	
+	@Option(name = "--overlap", metaVar = "POLICY", 
+			usage = "IHX only: records writing different bytes to the same address, ERROR (default), FIRST_WINS or LAST_WINS")
+	protected IhxOverlapPolicy overlap = IhxOverlapPolicy.ERROR;
+	
+	@Option(name = "-s", aliases = "--stream", 
+			usage = "IHX only: encode while the file is parsed, without a memory map, the file must hold a single block in address order")
+	protected boolean stream;
+	
+	@Option(name = "-e", aliases = "--edges", 
+			usage = "write the square wave of the tape's edges instead of the encoder samples, can't be combined with --stream")
+	protected boolean edges;
+	
+	@Option(name = "-l", aliases = "--list", 
+			usage = "list the memory regions of the input file and exit")
+	protected boolean list;
+	
+	@Option(name = "-h", aliases = "--help", help = true, 
+			usage = "print this help and exit")
+	protected boolean help;
+	
+	
+	/**
+	 * Tells whether the input is a binary file.
+	 * 
+	 * @return
+	 * true if the input file has the extension .bin.
+	 */
+	public boolean isBinary() {
+		
+		return input.getName().toLowerCase().endsWith(".bin");
+		
+	} // isBinary()
+	
+	
+	/**
+	 * Tells whether the samples are written into a WAV file.
+	 * 
+	 * @return
+	 * true if the output file has the extension .wav.
+	 */
+	public boolean isWav() {
+		
+		return output.toLowerCase().endsWith(".wav");
+		
+	} // isWav()
+	
+	
+	/**
+	 * Parses a decimal or a hexadecimal number with a leading 0x.
+	 * 
+	 * @param aNumber
+	 * the number to parse.
+	 * 
+	 * @param aDefault
+	 * the value returned if aNumber is null.
+	 * 
+	 * @return
+	 * the value of aNumber.
+	 * 
+	 * @throws NumberFormatException
+	 * if aNumber isn't a valid number.
+	 */
+	public static long parseNumber(final String aNumber, final long aDefault) {
+		
+		if(aNumber == null) return aDefault;
+		
+		return Long.decode(aNumber.trim());
+		
+	} // parseNumber()
+	
+	
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "BatchOptions [input=" + input + ", target=" + target + ", output=" + output + ", region=" + region
+			+ ", address=" + address + ", name=" + name + ", offset=" + offset + ", length=" + length + ", overlap=" + overlap + ", stream=" + stream + ", edges=" + edges + ", list=" + list + "]";
+	}
+
+
+} // class
@@ -0,0 +1,110 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BatchTarget.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package batch;
+
+import target.microprofessor1.Mpf1Protocol;
+import target.tape.TapeProtocol;
+import target.z80trainer.Z80TrainerProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Create and set up the protocol of a target system.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Mpf1Protocol,<br>
+ * Z80TrainerProtocol.
+ * 
+ * <p>
+ * Description:<br>
+ * The name given on the command line selects the target, the case is ignored.<br>
+ * aName is the file name of an MPF-1 tape respectively the program number of a Z80 trainer tape.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public enum BatchTarget {
+	
+	MPF1 {
+		
+		@Override
+		public TapeProtocol createProtocol(final int aName, final long aStartAddress, final long aEndAddress) {
+			
+			Mpf1Protocol protocol = new Mpf1Protocol();
+			
+			protocol.setFileName(aName);
+			protocol.setStartAddress(aStartAddress);
+			protocol.setEndAddress(aEndAddress);
+			
+			return protocol;
+			
+		} // createProtocol()
+		
+	},
+	
+	Z80 {
+		
+		@Override
+		public TapeProtocol createProtocol(final int aName, final long aStartAddress, final long aEndAddress) {
+			
+			Z80TrainerProtocol protocol = new Z80TrainerProtocol();
+			
+			protocol.setProgramNbr(aName);
+			protocol.setStartAddress(aStartAddress);
+			protocol.setEndAddress(aEndAddress);
+			
+			return protocol;
+			
+		} // createProtocol()
+		
+	};
+	
+	
+	/**
+	 * Creates a protocol ready to compile a block of data.
+	 * 
+	 * @param aName
+	 * the file name or program number written to the tape.
+	 * 
+	 * @param aStartAddress
+	 * the address of the first data byte on the target.
+	 * 
+	 * @param aEndAddress
+	 * the address of the last data byte on the target.
+	 * 
+	 * @return
+	 * the protocol of the target system.
+	 */
+	public abstract TapeProtocol createProtocol(final int aName, final long aStartAddress, final long aEndAddress);
+	
+	
+} // enum
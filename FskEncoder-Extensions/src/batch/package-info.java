@@ -0,0 +1,47 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : package-info.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+/**
+ * 
+ * Responsibilities:<br>
+ * Container for the headless command line encoder.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Packages source and target.
+ * 
+ * <p>
+ * Description:<br>
+ * Loads an IHX or BIN file with the reader extensions and encodes a memory region with a target protocol,
+ * without any Swing or AWT component. Intended for bulk conversions on build servers.
+ * <p>
+ * @author Stefan
+ *
+ */
+package batch;
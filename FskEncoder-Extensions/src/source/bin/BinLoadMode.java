@@ -0,0 +1,57 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BinLoadMode.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.bin;
+
+/**
+ * Responsibilities:<br>
+ * Select how BinReader brings a binary file into memory.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BinReader.
+ * 
+ * <p>
+ * Description:<br>
+ * HEAP reads the file, or its window, into a byte array. This is the default.<br>
+ * MAPPED maps the file through a FileChannel, the file content is handed over as a read-only view
+ * and only the bytes taken into a memory region are copied.
+ * The memory region always holds its own copy, so a full load gains nothing by mapping the file.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public enum BinLoadMode {
+	
+	HEAP,
+	MAPPED
+	
+} // enum
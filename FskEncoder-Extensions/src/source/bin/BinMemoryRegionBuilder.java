@@ -30,6 +30,8 @@
 
 package source.bin;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -61,7 +63,7 @@ import source.ihx.IhxException;
 public class BinMemoryRegionBuilder extends MemoryRegionBuilder {
 	
 	private Logger logger = LogManager.getLogger(BinMemoryRegionBuilder.class.getName());
-
+	
 	
 	/**
 	 * @param aMemoryMap
@@ -92,4 +94,58 @@ public class BinMemoryRegionBuilder extends MemoryRegionBuilder {
 	} // append()
 	
 	
+	/**
+	 * Creates the memory region from a view of the file content.<br>
+	 * 
+	 * Only the bytes between its position and limit are copied into the memory region, the position of the view 
+	 * isn't changed. The view isn't kept, so a mapped file is released as soon as the caller drops it.
+	 * 
+	 * @param aContent
+	 * the file content, usually a read-only buffer mapped from the file.
+	 * 
+	 * @throws IhxException
+	 * never, declared by append(DataRecord).
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aContent is null.
+	 * 
+	 * @throws IllegalAccessError
+	 * if a memory region has already been created.
+	 */
+	public void append(final ByteBuffer aContent) throws IhxException {
+		logger.trace("append(): aContent = {}", aContent);
+		
+		if(aContent == null) throw new IllegalArgumentException("aContent can't be null");
+		
+		BinRecord record;
+		
+		try {
+			
+			record = new BinRecord(1, aContent);
+			
+		}
+		catch (Exception e) {
+			throw new IhxException(e.getMessage());
+			
+		} // yrt
+		
+		append(record);
+		
+	} // append()
+	
+	
+	@Override
+	public void clear() {
+		logger.trace("clear()");
+		
+		super.clear();
+		
+		/*
+		 * A reload, e.g. with a different window, starts a new region.
+		 */
+		memoryRegion = null;
+		
+	} // clear()
+	
+	
 } // ssalc
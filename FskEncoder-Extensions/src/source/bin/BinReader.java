@@ -30,10 +30,14 @@
 
 package source.bin;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import javax.swing.filechooser.FileNameExtensionFilter;
 
@@ -41,20 +45,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import extension.model.MemoryMap;
-import extension.source.DataRecord;
 import extension.source.ReaderBase;
 
 /**
  * Responsibilities:<br>
- * 
+ * Load a binary file into a MemoryMap.
  * 
  * <p>
  * Collaborators:<br>
- * 
+ * BinMemoryRegionBuilder.
  * 
  * <p>
  * Description:<br>
- * 
+ * The file, or a window of it given by setWindow(), becomes a single memory region starting at offset 0.<br>
+ * By default the bytes are read into a byte array, BinLoadMode.MAPPED hands a read-only view of the mapped file 
+ * over to BinMemoryRegionBuilder instead. The memory region holds a copy in both modes, so mapping only pays off
+ * for a small window of a large file.
+ * In both modes only the bytes of the window are read respectively mapped.
  * 
  * <p>
  * @author Stefan
@@ -68,6 +75,13 @@ public class BinReader extends ReaderBase {
 	
 	private Logger logger = LogManager.getLogger(BinReader.class.getName());
 	private BinMemoryRegionBuilder memoryRegionBuilder;
+	
+	public static final long TO_END = -1;
+	
+	protected BinLoadMode loadMode = BinLoadMode.HEAP;
+	
+	protected long windowOffset = 0;
+	protected long windowLength = TO_END;
 
 	/**
 	 * @param aMemoryMap
@@ -102,22 +116,36 @@ public class BinReader extends ReaderBase {
 	public boolean loadFile() throws IllegalAccessError {
 		logger.trace("loadFile()");
 		
-		FileInputStream fis = null;
-		
 		try{
 
 			memoryRegionBuilder.clear();
 		
-			File file = new File(sourceFileName);
+			Path file = Paths.get(sourceFileName);
 			
-			byte[] bytes = new byte[(int) file.length()];
+			ByteBuffer content;
 			
-			fis = new FileInputStream(file);
-			fis.read(bytes);
-			fis.close();
+			try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				
+				long size = channel.size();
+				long length = windowLength == TO_END ? size - windowOffset : windowLength;
+				
+				if(windowOffset > size || windowOffset + length > size) {
+					operationStatus = String.format("Window 0x%X + 0x%X exceeds the file size of 0x%X bytes.", windowOffset, Math.max(0, length), size);
+					logger.error(operationStatus);
+					
+					return false;
+					
+				}
+				
+				if(length > Integer.MAX_VALUE) throw new IOException("Window too large: " + length + " bytes");
+				
+				content = loadMode == BinLoadMode.MAPPED 
+					? channel.map(MapMode.READ_ONLY, windowOffset, length) 
+					: read(channel, windowOffset, (int) length);
+				
+			} // yrt
 		  
-			DataRecord record = new BinRecord(1, bytes);
-			memoryRegionBuilder.append(record);
+			memoryRegionBuilder.append(content.asReadOnlyBuffer());
 			
 			operationStatus = "Successfuly loaded.";
 			logger.info(operationStatus);
@@ -125,7 +153,7 @@ public class BinReader extends ReaderBase {
 			return true;
 		  
 		} 
-		catch (FileNotFoundException e) {
+		catch (NoSuchFileException e) {
 			operationStatus = "Internal processing error, '" + e.getClass().getName() + ": " + e.getCause() + "'.";
 			logger.fatal(operationStatus);
 			
@@ -150,6 +178,92 @@ public class BinReader extends ReaderBase {
 	} // loadFile()
 	
 
+	/**
+	 * Selects how the file is brought into memory, HEAP is the default.
+	 * 
+	 * @param aLoadMode
+	 * the load mode used by the following calls of loadFile().
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aLoadMode is null.
+	 */
+	public void setLoadMode(final BinLoadMode aLoadMode) {
+		logger.trace("setLoadMode(): aLoadMode = {}", aLoadMode);
+		
+		if(aLoadMode == null) throw new IllegalArgumentException("aLoadMode can't be null");
+		
+		loadMode = aLoadMode;
+		
+	} // setLoadMode()
+	
+	
+	public BinLoadMode getLoadMode() { return loadMode; }
+	
+	
+	/**
+	 * Restricts the following calls of loadFile() to a window of the file.<br>
+	 * 
+	 * Only the bytes of the window are brought into memory, they form a memory region starting at offset 0.
+	 * 
+	 * @param aOffset
+	 * the file offset of the first byte to load.
+	 * 
+	 * @param aLength
+	 * the number of bytes to load, TO_END loads everything behind aOffset.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aOffset is negative or aLength is neither TO_END nor greater than 0.
+	 */
+	public void setWindow(final long aOffset, final long aLength) {
+		logger.trace("setWindow(): aOffset = {}, aLength = {}", aOffset, aLength);
+		
+		if(aOffset < 0) throw new IllegalArgumentException("aOffset can't be negative");
+		if(aLength != TO_END && aLength < 1) throw new IllegalArgumentException("aLength must be greater than 0");
+		
+		windowOffset = aOffset;
+		windowLength = aLength;
+		
+	} // setWindow()
+	
+	
+	/**
+	 * Removes the window, the following calls of loadFile() load the complete file again.
+	 */
+	public void clearWindow() {
+		logger.trace("clearWindow()");
+		
+		setWindow(0, TO_END);
+		
+	} // clearWindow()
+	
+	
+	public long getWindowOffset() { return windowOffset; }
+	
+	public long getWindowLength() { return windowLength; }
+	
+	
+	/*
+	 * Reads aLength bytes starting at aOffset into a heap buffer.
+	 * A channel may return less bytes than requested, so read until the buffer is full.
+	 */
+	protected ByteBuffer read(final FileChannel aChannel, final long aOffset, final int aLength) throws IOException {
+		logger.trace("read(): aOffset = {}, aLength = {}", aOffset, aLength);
+		
+		ByteBuffer content = ByteBuffer.allocate(aLength);
+		
+		while(content.hasRemaining()) {
+			
+			if(aChannel.read(content, aOffset + content.position()) < 0) throw new IOException("Unexpected end of file");
+			
+		} // elihw
+		
+		content.flip();
+		
+		return content;
+		
+	} // read()
+	
+	
 	/*
 	 * Set up the environment to be ready to work. 
 	 */
@@ -206,6 +206,49 @@ public class BinReaderControl extends ReaderExtensionControl implements ChangeLi
 	/**
 	 * 
 	 */
+	/**
+	 * Reloads the file restricted to the window entered in the GUI.<br>
+	 * 
+	 * A blank offset starts at the beginning of the file, a blank length loads up to the end of the file.
+	 * Only the window is kept in the memory map and sent to the target.
+	 */
+	protected void applyWindow() {
+		logger.trace("applyWindow()");
+		
+		if(!(inputReader instanceof BinReader)) return;
+		
+		BinReader binReader = (BinReader) inputReader;
+		
+		try {
+			
+			long offset = parseNumber(binReaderGui.getTxtOffset(), 0);
+			long length = parseNumber(binReaderGui.getTxtLength(), BinReader.TO_END);
+			
+			binReader.setWindow(offset, length);
+			
+		}
+		catch (IllegalArgumentException e) {
+			
+			statusMessenger.setStatusMessage("Please enter a valid file offset and length!");
+			return;
+			
+		} // yrt
+		
+		boolean loaded = binReader.loadFile();
+		
+		statusMessenger.setStatusMessage(binReader.getOperationStatus());
+		
+		if(loaded) {
+			
+			binReaderGui.setMemoryBlock(memoryMap.getMemoryLayout().get(0));
+			
+			if(getStartAddress() != -1) setEndAddress();
+			
+		}
+		
+	} // applyWindow()
+
+
 	private void setEndAddress() {
 		logger.trace("setEndAddress()");
 		
@@ -234,22 +277,32 @@ public class BinReaderControl extends ReaderExtensionControl implements ChangeLi
 			
 		}
 		
-		long startAddress = 0;
+		return parseNumber(startAddressString, -1);
 		
-		if(startAddressString.matches("^0[xX].*")) {
+	} // getStartAddress()
+
+
+	/*
+	 * Parses a decimal or a hexadecimal number with a leading 0x, aDefault is returned for a blank string.
+	 * 
+	 * @throws NumberFormatException
+	 * if the string isn't a valid number.
+	 */
+	protected long parseNumber(final String aNumber, final long aDefault) {
+		
+		if(aNumber == null || aNumber.isBlank()) return aDefault;
+		
+		String number = aNumber.trim();
+		
+		if(number.matches("^0[xX].*")) {
 			
-			startAddress = Long.parseLong(startAddressString.replaceAll("^0[xX]", ""), 16);
+			return Long.parseLong(number.replaceAll("^0[xX]", ""), 16);
 					
-		}
-		else {
-			
-			startAddress = Long.parseLong(startAddressString);
-
 		}
 		
-		return startAddress;
+		return Long.parseLong(number);
 		
-	} // getStartAddress()
+	} // parseNumber()
 
 
 	@Override
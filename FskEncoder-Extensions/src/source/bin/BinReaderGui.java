@@ -80,6 +80,12 @@ public class BinReaderGui extends MemoryMapGui {
 
 	private JTextField txtEndAddress;
 	
+	private JTextField txtSize;
+	
+	private JTextField txtOffset;
+	
+	private JTextField txtLength;
+	
 
 	public BinReaderGui(final BinReaderControl aMemoryMapController) {
 		logger.trace("Ihx8ReaderGui(): aMemoryMapController = {}", aMemoryMapController);
@@ -115,7 +121,7 @@ public class BinReaderGui extends MemoryMapGui {
 		txtEndAddress.setFocusable(false);
 		txtEndAddress.setFocusTraversalKeysEnabled(false);
 		
-		JTextField txtSize = new JTextField();
+		txtSize = new JTextField();
 		txtSize.setName("txtSize");
 		txtSize.setColumns(10);
 		txtSize.setEditable(false);
@@ -123,14 +129,31 @@ public class BinReaderGui extends MemoryMapGui {
 		txtSize.setFocusTraversalKeysEnabled(false);
 		txtSize.setText(String.format("0x%02X", memoryBlock.SIZE));
 		
+		/*
+		 * Offset and length select the window of the file to load, blank fields load the complete file.
+		 */
+		txtOffset = new JTextField();
+		txtOffset.setName("txtOffset");
+		txtOffset.setColumns(10);
+		txtOffset.setEditable(true);
+		txtOffset.addActionListener(e -> memoryMapController.applyWindow());
+		
+		txtLength = new JTextField();
+		txtLength.setName("txtLength");
+		txtLength.setColumns(10);
+		txtLength.setEditable(true);
+		txtLength.addActionListener(e -> memoryMapController.applyWindow());
+		
 		JPanel detail = new JPanel();
-		detail.setLayout(new MigLayout("insets 0 0 0 0", "[100px,left] 20 [60] 20 [60] 25 [60] 25 [60]", ""));
+		detail.setLayout(new MigLayout("insets 0 0 0 0", "[100px,left] 20 [60] 20 [60] 25 [60] 25 [60] 25 [60] 25 [60]", ""));
 		
 		detail.add(lblMemoryRegion, "growx"); // NOSONAR
 		detail.add(new JLabel(), "gapleft 10");
 		detail.add(txtStartAddress, "growx");
 		detail.add(txtEndAddress, "growx");
 		detail.add(txtSize, "growx");
+		detail.add(txtOffset, "growx");
+		detail.add(txtLength, "growx");
 		
 		return detail;
 
@@ -145,15 +168,19 @@ public class BinReaderGui extends MemoryMapGui {
 		JLabel lblStartAddress = new JLabel("Start Adr");
 		JLabel lblEndAddress = new JLabel("End Adr");
 		JLabel lblSize = new JLabel("Size");
+		JLabel lblOffset = new JLabel("File Offset");
+		JLabel lblLength = new JLabel("Length");
 
 		JPanel heading = new JPanel();
-		heading.setLayout(new MigLayout("insets 0 0 0 0", "[100px,left] 20 [60] 20 [60] 25 [60] 25 [60]", ""));
+		heading.setLayout(new MigLayout("insets 0 0 0 0", "[100px,left] 20 [60] 20 [60] 25 [60] 25 [60] 25 [60] 25 [60]", ""));
 		
 		heading.add(lblMemoryRegion, "growx");
 		heading.add(lblSelect, "growx");
 		heading.add(lblStartAddress, "growx");
 		heading.add(lblEndAddress, "growx");
 		heading.add(lblSize, "growx");
+		heading.add(lblOffset, "growx");
+		heading.add(lblLength, "growx");
 		
 		return heading;
 		
@@ -228,6 +255,45 @@ public class BinReaderGui extends MemoryMapGui {
 	} // getTxtSize()
 
 
+	/**
+	 * @return
+	 * the content of the file offset field.
+	 */
+	public String getTxtOffset() {
+		logger.trace("getTxtOffset()");
+		
+		return txtOffset.getText();
+		
+	} // getTxtOffset()
+
+
+	/**
+	 * @return
+	 * the content of the length field.
+	 */
+	public String getTxtLength() {
+		logger.trace("getTxtLength()");
+		
+		return txtLength.getText();
+		
+	} // getTxtLength()
+
+
+	/**
+	 * Replaces the memory block after the file has been reloaded with a different window.
+	 * 
+	 * @param aMemoryBlock
+	 * the description of the reloaded memory region.
+	 */
+	public void setMemoryBlock(final MemoryBlockDescription aMemoryBlock) {
+		logger.trace("setMemoryBlock(): aMemoryBlock = {}", aMemoryBlock);
+		
+		memoryBlock = aMemoryBlock;
+		txtSize.setText(String.format("0x%02X", memoryBlock.SIZE));
+		
+	} // setMemoryBlock()
+
+
 	/**
 	 * @param aEndAddress
 	 */
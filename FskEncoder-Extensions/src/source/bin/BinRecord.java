@@ -30,6 +30,8 @@
 
 package source.bin;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -61,6 +63,8 @@ public class BinRecord extends Record {
 
 	/**
 	 * @param aRecordNumber
+	 * @param aContent
+	 * either a byte array or a ByteBuffer, the bytes between position and limit of a buffer are taken.
 	 * @throws Exception 
 	 */
 	public BinRecord(int aRecordNumber, final Object aContent) throws Exception {
@@ -78,7 +82,24 @@ public class BinRecord extends Record {
 		logger.trace("parseContent(): aContent = {}", aContent);
 		
 		offset = 0x0000;
-		dataBuffer = (byte[]) aContent;
+		
+		if(aContent instanceof ByteBuffer) {
+			
+			ByteBuffer content = ((ByteBuffer) aContent).duplicate();
+			
+			/*
+			 * The framework builds the memory region from getData(), so the view is copied once into the 
+			 * record's byte array. The mapping only saves reading the bytes outside the view.
+			 */
+			dataBuffer = new byte[content.remaining()];
+			content.get(dataBuffer);
+			
+		}
+		else {
+			
+			dataBuffer = (byte[]) aContent;
+			
+		}
 
 	} // parseContent()
 
@@ -0,0 +1,100 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxBlockRecord.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.source.Record;
+
+/**
+ * Responsibilities:<br>
+ * Carry a contiguous block of a collected memory image into a MemoryRegion.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Ihx8MemoryRegionBuilder,<br>
+ * Ihx32MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * The IHX MemoryRegionBuilders collect the DATA records first and create the MemoryRegions once the EOF record 
+ * is received. Each block becomes a single record with its absolute address as offset, the creation of the 
+ * MemoryRegion is left to the base class as for any other record.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxBlockRecord extends Record {
+	
+	private Logger logger = LogManager.getLogger(IhxBlockRecord.class.getName());
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aRecordNumber
+	 * the sequence number of the block.
+	 * 
+	 * @param aStartAddress
+	 * the address of the first byte.
+	 * 
+	 * @param aContent
+	 * the bytes of the block, the array is taken over.
+	 * 
+	 * @throws IhxException
+	 * if the block starts beyond the offset range of a record.
+	 */
+	public IhxBlockRecord(final int aRecordNumber, final long aStartAddress, final byte[] aContent) throws IhxException {
+		super(aRecordNumber);
+		
+		logger.trace("IhxBlockRecord(): aRecordNumber = {}, aStartAddress = {}", aRecordNumber, aStartAddress);
+		
+		if(aStartAddress < 0 || aStartAddress > Integer.MAX_VALUE) 
+			throw new IhxException(String.format("Address 0x%08X out of range", aStartAddress));
+		
+		offset = (int) aStartAddress;
+		
+		parseContent(aContent);
+		
+	} // IhxBlockRecord()
+	
+	
+	@Override
+	protected void parseContent(final Object aContent) {
+		
+		dataBuffer = (byte[]) aContent;
+		
+	} // parseContent()
+	
+	
+} // ssalc
@@ -0,0 +1,81 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxBufferRecordFactory.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Responsibilities:<br>
+ * Create an IhxRecord from a line held as ASCII bytes in a buffer.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxMappedLexer,<br>
+ * IhxRecord.
+ * 
+ * <p>
+ * Description:<br>
+ * The byte oriented counterpart of IhxRecordFactory.
+ * The default factory is the constructor reference IhxRecord::new, 
+ * the record is decoded in place without creating a String for the line.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@FunctionalInterface
+public interface IhxBufferRecordFactory {
+
+	/**
+	 * Creates a record from the bytes between aStart and aEnd.
+	 * 
+	 * @param aRecordNumber
+	 * the line number of the record within the source file.
+	 * 
+	 * @param aContent
+	 * the buffer holding the line, its position must not be changed.
+	 * 
+	 * @param aStart
+	 * absolute index of the first character of the line.
+	 * 
+	 * @param aEnd
+	 * absolute index behind the last character of the line, the line terminator excluded.
+	 * 
+	 * @return
+	 * the parsed record.
+	 * 
+	 * @throws IhxException
+	 * if the line violates the IHX format.
+	 */
+	IhxRecord create(final int aRecordNumber, final ByteBuffer aContent, final int aStart, final int aEnd) throws IhxException;
+	
+	
+} // interface
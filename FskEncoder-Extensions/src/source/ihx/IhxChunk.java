@@ -0,0 +1,217 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxChunk.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Responsibilities:<br>
+ * Decode the records of a range of complete lines of a mapped IHX file.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxMappedLexer,<br>
+ * IhxBufferRecordFactory,<br>
+ * IhxParallelParser.
+ * 
+ * <p>
+ * Description:<br>
+ * IhxMappedLexer splits a mapped file into chunks that start and end on line boundaries.
+ * The chunks are processed independently on a fork-join pool in two steps:
+ * <ol>
+ *   <li> countLines() determines the number of lines, the lexer derives the number of the first line of each chunk from it </li>
+ *   <li> decode() creates the records with their final line numbers </li>
+ * </ol>
+ * The decoding stops at the first invalid line of a chunk, the records in front of it are kept 
+ * and the IhxException is provided by getError().
+ * So the records and the error can be handed over in line order, exactly as the serial path does.
+ * <p>
+ * The buffer is only read by absolute gets, several chunks can share it.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxChunk {
+
+	protected final ByteBuffer content;
+	protected final IhxBufferRecordFactory recordFactory;
+	protected final int start;
+	protected final int end;
+	
+	protected int firstLine;
+	protected int lineCount;
+	
+	protected List<IhxRecord> records = Collections.emptyList();
+	protected IhxException error;
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aContent
+	 * the mapped file.
+	 * 
+	 * @param aRecordFactory
+	 * creates the records.
+	 * 
+	 * @param aStart
+	 * absolute index of the first character of the first line.
+	 * 
+	 * @param aEnd
+	 * absolute index behind the line terminator of the last line.
+	 */
+	public IhxChunk(final ByteBuffer aContent, final IhxBufferRecordFactory aRecordFactory, final int aStart, final int aEnd) {
+		
+		content = aContent;
+		recordFactory = aRecordFactory;
+		start = aStart;
+		end = aEnd;
+		
+	} // IhxChunk()
+	
+	
+	/**
+	 * Counts the lines of the chunk, empty lines included.
+	 */
+	public void countLines() {
+		
+		int count = 0;
+		int idx = start;
+		
+		while(idx < end) {
+			
+			idx = IhxMappedLexer.nextLine(content, IhxMappedLexer.lineEnd(content, idx, end), end);
+			count++;
+			
+		} // elihw
+		
+		lineCount = count;
+		
+	} // countLines()
+	
+	
+	/**
+	 * Creates the records of all non-empty lines, starting with line number getFirstLine().
+	 * The decoding stops at the first line that violates the IHX format.
+	 */
+	public void decode() {
+		
+		List<IhxRecord> decoded = new ArrayList<>(Math.max(lineCount, 1));
+		
+		int line = firstLine;
+		int idx = start;
+		
+		try {
+			
+			while(idx < end) {
+				
+				int lineEnd = IhxMappedLexer.lineEnd(content, idx, end);
+				
+				if(lineEnd > idx) decoded.add(recordFactory.create(line, content, idx, lineEnd));
+				
+				idx = IhxMappedLexer.nextLine(content, lineEnd, end);
+				line++;
+				
+			} // elihw
+			
+		} // yrt
+		catch(IhxException e) {
+			error = e;
+		}
+		
+		records = decoded;
+		
+	} // decode()
+	
+	
+	/**
+	 * Returns the number of the first line of the chunk.
+	 * 
+	 * @return
+	 * the 1-based line number within the file.
+	 */
+	public int getFirstLine() { return firstLine; }
+	
+	
+	/**
+	 * Sets the number of the first line of the chunk.
+	 * 
+	 * @param aFirstLine
+	 * the 1-based line number within the file.
+	 */
+	public void setFirstLine(final int aFirstLine) { firstLine = aFirstLine; }
+	
+	
+	/**
+	 * Returns the number of lines, valid after countLines().
+	 * 
+	 * @return
+	 * the number of lines, empty lines included.
+	 */
+	public int getLineCount() { return lineCount; }
+	
+	
+	/**
+	 * Returns the decoded records, valid after decode().
+	 * 
+	 * @return
+	 * the records in line order, up to the first invalid line.
+	 */
+	public List<IhxRecord> getRecords() { return records; }
+	
+	
+	/**
+	 * Returns the format violation that stopped decode().
+	 * 
+	 * @return
+	 * the exception of the first invalid line or null if all lines are valid.
+	 */
+	public IhxException getError() { return error; }
+	
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxChunk [start=" + start + ", end=" + end + ", firstLine=" + firstLine + ", lineCount=" + lineCount
+				+ ", records=" + records.size() + ", error=" + error + "]";
+	}
+	
+
+} // ssalc
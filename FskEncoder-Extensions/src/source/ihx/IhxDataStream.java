@@ -0,0 +1,281 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxDataStream.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Provide the data of an IHX file, holding a single contiguous block, as a stream of bytes.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxMappedLexer,<br>
+ * IhxRecord.
+ * 
+ * <p>
+ * Description:<br>
+ * The constructor runs a fast pre-scan over the records, it only checks the addresses, counts the bytes and sums them up.
+ * Each DATA record must continue where the previous one ended, i.e. the file holds a single block in address order,
+ * as written by most assemblers for a single program.
+ * Start address, end address, size and byte sum are known afterwards, e.g. for the header and the checksum of a tape,
+ * so the file is parsed twice only.
+ * <p>
+ * open() parses the file again and delivers the payload of the DATA records record by record, 
+ * no MemoryMap and no MemoryRegion are built. 
+ * Files with gaps, overlapping records or records in any other order have to be loaded by the Ihx8Reader.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxDataStream {
+
+	private Logger logger = LogManager.getLogger(IhxDataStream.class.getName());
+	
+	protected final String fileName;
+	
+	protected long startAddress = 0;
+	protected int size = 0;
+	protected long byteSum = 0;
+	
+	
+	/**
+	 * Constructor, runs the pre-scan of the file.
+	 * 
+	 * @param aFile
+	 * the name of the IHX file.
+	 * 
+	 * @throws IhxException<br>
+	 * if a line violates the IHX format<br>
+	 * or the DATA records don't form a single contiguous block in address order<br>
+	 * or the file holds other records than DATA and EOF.
+	 * 
+	 * @throws IOException
+	 * if the file can't be read.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aFile is null or blank.
+	 */
+	public IhxDataStream(final String aFile) throws IhxException, IOException {
+		logger.trace("IhxDataStream(): aFile = {}", aFile);
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		lexer.setFile(aFile);
+		
+		fileName = aFile;
+		
+		try {
+			
+			long nextAddress = -1;
+			IhxRecord record;
+			
+			while((record = dataRecord(lexer)) != null) {
+				
+				byte[] data = record.getData();
+				int length = data.length;
+				
+				if(length == 0) continue;
+				
+				if(nextAddress < 0) {
+					
+					startAddress = record.getOffset();
+					
+				}
+				else if(record.getOffset() != nextAddress) {
+					
+					throw new IhxException(String.format("DATA record in line %d at 0x%04X doesn't continue the block at 0x%04X", 
+							record.getRecordNumber(), record.getOffset(), nextAddress));
+					
+				} // esle
+				
+				nextAddress = record.getOffset() + length;
+				size += length;
+				
+				for(byte value : data) {
+					byteSum += value & 0xFF;
+				} // rof
+				
+			} // elihw
+			
+		}
+		finally {
+			lexer.close();
+			
+		} // yrt
+		
+		logger.trace("IhxDataStream(): startAddress = {}, size = {}, byteSum = {}", startAddress, size, byteSum);
+		
+	} // IhxDataStream()
+	
+	
+	/**
+	 * Starts a new pass over the file.
+	 * 
+	 * @return
+	 * a channel delivering the payload of the DATA records in the order of the file.
+	 * 
+	 * @throws IOException
+	 * if the file can't be opened.
+	 */
+	public ReadableByteChannel open() throws IOException {
+		logger.trace("open()");
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		lexer.setFile(fileName);
+		
+		return new RecordChannel(lexer);
+		
+	} // open()
+	
+	
+	public long getStartAddress() { return startAddress; }
+	
+	public long getEndAddress() { return startAddress + size - 1; }
+	
+	public int getSize() { return size; }
+	
+	/*
+	 * Sum of all data bytes, each taken as a value from 0 to 255.
+	 */
+	public long getByteSum() { return byteSum; }
+	
+	
+	/*
+	 * Returns the next DATA record, null after the EOF record or at the end of the file.
+	 */
+	protected static IhxRecord dataRecord(final IhxLexer aLexer) throws IhxException, IOException {
+		
+		IhxRecord record = aLexer.getRecord();
+		
+		if(record == null || record.getRecordType() == IhxRecordType.EOF) return null;
+		
+		if(record.getRecordType() != IhxRecordType.DATA) 
+			throw new IhxException("Unsupported " + record.getRecordType() + " record in line " + record.getRecordNumber());
+		
+		return record;
+		
+	} // dataRecord()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return String.format("IhxDataStream [fileName=%s, startAddress=0x%04X, size=%d]", fileName, startAddress, size);
+	}
+	
+	
+	/*
+	 * Delivers the payload of the DATA records, the next record is parsed when the current one is used up.
+	 */
+	protected static class RecordChannel implements ReadableByteChannel {
+		
+		protected IhxLexer lexer;
+		protected ByteBuffer current = ByteBuffer.allocate(0);
+		
+		
+		protected RecordChannel(final IhxLexer aLexer) {
+			
+			lexer = aLexer;
+			
+		} // RecordChannel()
+		
+		
+		@Override
+		public int read(final ByteBuffer aDestination) throws IOException {
+			
+			if(lexer == null) throw new ClosedChannelException();
+			
+			int count = 0;
+			
+			try {
+				
+				while(aDestination.hasRemaining()) {
+					
+					if(! current.hasRemaining()) {
+						
+						IhxRecord record = dataRecord(lexer);
+						
+						if(record == null) break;
+						
+						current = ByteBuffer.wrap(record.getData());
+						
+					} // fi
+					
+					int length = Math.min(aDestination.remaining(), current.remaining());
+					
+					aDestination.put(current.array(), current.position(), length);
+					current.position(current.position() + length);
+					count += length;
+					
+				} // elihw
+				
+			}
+			catch(IhxException e) {
+				throw new IOException(e.getMessage(), e);
+				
+			} // yrt
+			
+			return (count == 0 && aDestination.hasRemaining()) ? -1 : count;
+			
+		} // read()
+		
+		
+		@Override
+		public boolean isOpen() { return lexer != null; }
+		
+		
+		@Override
+		public void close() {
+			
+			if(lexer != null) lexer.close();
+			
+			lexer = null;
+			
+		} // close()
+		
+		
+	} // class
+	
+
+} // ssalc
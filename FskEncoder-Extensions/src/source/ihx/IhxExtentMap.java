@@ -0,0 +1,311 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxExtentMap.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Collect data records in address order and merge them into the fewest contiguous extents.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Ihx8MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * The extents are kept in a tree sorted by their start address, an extent never touches or overlaps another one.
+ * A new range is merged with all extents it overlaps or adjoins, so the records may arrive in any order, 
+ * as written by linkers like SDCC, and still end up in a single extent per contiguous memory area.
+ * <p>
+ * Adding a range costs O(log n) to find its neighbours, n records therefore O(n log n). 
+ * The largest extent concerned by a range absorbs the others, it grows in place at its end or its front
+ * with spare capacity on both sides. Records in ascending or descending address order therefore 
+ * don't copy the extent they extend each time.
+ * <p>
+ * Overlapping bytes are overwritten by the range added last.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxExtentMap {
+
+	private Logger logger = LogManager.getLogger(IhxExtentMap.class.getName());
+	
+	protected static final int MIN_CAPACITY = 256;
+	
+	protected final TreeMap<Long, Extent> extents = new TreeMap<>();
+	
+	protected long size = 0;
+	
+	
+	/**
+	 * Adds a range of bytes, merging it with all extents it overlaps or adjoins.
+	 * 
+	 * @param aAddress
+	 * the address of the first byte.
+	 * 
+	 * @param aData
+	 * the array holding the bytes.
+	 * 
+	 * @param aOffset
+	 * index of the first byte in aData.
+	 * 
+	 * @param aLength
+	 * number of bytes to add.
+	 * 
+	 * @return
+	 * the number of bytes that were already present and got overwritten.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aData is null<br>
+	 * or the range doesn't fit into aData<br>
+	 * or aAddress is negative.
+	 */
+	public int put(final long aAddress, final byte[] aData, final int aOffset, final int aLength) {
+		logger.trace("put(): aAddress = {}, aOffset = {}, aLength = {}", aAddress, aOffset, aLength);
+		
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+		if(aOffset < 0 || aLength < 0 || aOffset + aLength > aData.length) throw new IllegalArgumentException("range exceeds aData");
+		if(aAddress < 0) throw new IllegalArgumentException("aAddress can't be negative");
+		
+		if(aLength == 0) return 0;
+		
+		long end = aAddress + aLength;
+		
+		Map.Entry<Long, Extent> floor = extents.floorEntry(aAddress);
+		Extent first = floor != null && floor.getValue().end() >= aAddress ? floor.getValue() : null;
+		
+		long low = first == null ? aAddress : first.start;
+		
+		/*
+		 * All extents starting between the first merge candidate and the end of the new range, inclusive,
+		 * overlap or adjoin the new range.
+		 */
+		NavigableMap<Long, Extent> touched = extents.subMap(low, true, end, true);
+		
+		Extent base = null;
+		int overwritten = 0;
+		
+		for(Extent extent : touched.values()) {
+			
+			overwritten += (int) Math.max(0, Math.min(end, extent.end()) - Math.max(aAddress, extent.start));
+			if(base == null || extent.length > base.length) base = extent;
+			
+		} // rof
+		
+		/*
+		 * The largest extent absorbs the smaller ones, so each byte is moved only a few times.
+		 */
+		List<Extent> merged = new ArrayList<>(touched.values());
+		
+		if(base == null) base = new Extent(aAddress, aLength);
+		
+		touched.clear();
+		
+		for(Extent extent : merged) {
+			if(extent != base) base.put(extent.start, extent.data, extent.offset, extent.length);
+		} // rof
+		
+		base.put(aAddress, aData, aOffset, aLength);
+		extents.put(base.start, base);
+		
+		size += aLength - overwritten;
+		
+		return overwritten;
+		
+	} // put()
+	
+	
+	/**
+	 * Returns the extents collected so far.
+	 * 
+	 * @return
+	 * the contiguous extents in ascending address order.
+	 */
+	public Collection<Extent> getExtents() { return extents.values(); }
+	
+	
+	
+	/**
+	 * Drops all extents.
+	 */
+	public void clear() {
+		logger.trace("clear()");
+		
+		extents.clear();
+		size = 0;
+		
+	} // clear()
+	
+	
+	/**
+	 * Returns the number of extents.
+	 * 
+	 * @return
+	 * the number of contiguous memory areas.
+	 */
+	public int getExtentCount() { return extents.size(); }
+	
+	
+	/**
+	 * Returns the number of bytes held by all extents.
+	 * 
+	 * @return
+	 * the number of bytes, each address counted once.
+	 */
+	public long getSize() { return size; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxExtentMap [extents=" + extents.size() + ", size=" + size + "]";
+	}
+	
+	
+	/**
+	 * Responsibilities:<br>
+	 * A contiguous range of bytes.
+	 * <p>
+	 * The buffer is larger than the extent, the content starts at offset. Records added at the end
+	 * or in front of it therefore don't need a copy each.
+	 */
+	public static class Extent {
+		
+		protected long start;
+		protected byte[] data;
+		protected int offset = 0;
+		protected int length = 0;
+		
+		
+		protected Extent(final long aStart, final int aCapacity) {
+			
+			start = aStart;
+			data = new byte[Math.max(aCapacity, MIN_CAPACITY)];
+			
+		} // Extent()
+		
+		
+		/*
+		 * Copies aLength bytes to aAddress, the extent grows if the range starts in front of it or ends behind it.
+		 * A gap between the range and the extent is left to be filled by the caller.
+		 */
+		protected void put(final long aAddress, final byte[] aData, final int aOffset, final int aLength) {
+			
+			if(aAddress < start) {
+				
+				int grow = (int) (start - aAddress);
+				
+				if(grow > offset) {
+					
+					/*
+					 * The spare capacity in front doubles like the one at the end.
+					 */
+					int front = Math.max(grow, Math.max(length, MIN_CAPACITY));
+					byte[] newData = new byte[front + data.length - offset];
+					
+					System.arraycopy(data, offset, newData, front, length);
+					data = newData;
+					offset = front;
+					
+				} // fi
+				
+				offset -= grow;
+				length += grow;
+				start = aAddress;
+				
+			} // fi
+			
+			int index = offset + (int) (aAddress - start);
+			int newEnd = Math.max(offset + length, index + aLength);
+			
+			if(newEnd > data.length) data = Arrays.copyOf(data, Math.max(newEnd, data.length * 2));
+			
+			System.arraycopy(aData, aOffset, data, index, aLength);
+			length = newEnd - offset;
+			
+		} // put()
+		
+		
+		/*
+		 * Address behind the last byte.
+		 */
+		protected long end() { return start + length; }
+		
+		
+		public long getStartAddress() { return start; }
+		
+		public long getEndAddress() { return start + length - 1; }
+		
+		public int getSize() { return length; }
+		
+		
+		/**
+		 * Returns the bytes of the extent.
+		 * 
+		 * @return
+		 * a copy of the content, trimmed to the size of the extent.
+		 */
+		public byte[] getContent() { return Arrays.copyOfRange(data, offset, offset + length); }
+
+
+		/**
+		 * Returns a string representation of the current instance.
+		 * 
+		 * @return
+		 * a string representing the current state of this object. 
+		 */
+		@Override
+		public String toString() {
+			return String.format("Extent [start=0x%04X, length=%d]", start, length);
+		}
+		
+		
+	} // class
+	
+
+} // ssalc
@@ -0,0 +1,205 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxHexDecoder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Responsibilities:<br>
+ * Translate the ASCII hex digits of an IHX record into their binary values.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxRecord.
+ * 
+ * <p>
+ * Description:<br>
+ * The decoder looks up each digit in a table of 128 nibble values, 
+ * no intermediate strings are created and no number parser is involved.<br>
+ * The digits are read straight from the characters of a line or from the bytes of a buffer.
+ * Upper and lower case digits are accepted.
+ * <p>
+ * While the pairs of digits are translated the sum of the resulting bytes is calculated,
+ * the caller uses it to verify the record checksum.
+ * <p>
+ * A character which isn't a hex digit is reported by an IhxException 
+ * with the line number and the 1-based column of the offending character.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class IhxHexDecoder {
+
+	protected static final byte INVALID = -1;
+	
+	private static final byte[] NIBBLES = new byte[128];
+	
+	static {
+		
+		Arrays.fill(NIBBLES, INVALID);
+		
+		for(int c = '0'; c <= '9'; c++) NIBBLES[c] = (byte) (c - '0');
+		for(int c = 'A'; c <= 'F'; c++) NIBBLES[c] = (byte) (c - 'A' + 10);
+		for(int c = 'a'; c <= 'f'; c++) NIBBLES[c] = (byte) (c - 'a' + 10);
+		
+	}
+	
+	
+	private IhxHexDecoder() { /* static helper only */ }
+	
+	
+	/**
+	 * Returns the value of a single hex digit.
+	 * 
+	 * @param aChar
+	 * the ASCII code of the digit.
+	 * 
+	 * @return
+	 * the value 0..15 or INVALID if aChar isn't a hex digit.
+	 */
+	public static int nibble(final int aChar) {
+		
+		return (aChar & ~0x7F) == 0 ? NIBBLES[aChar] : INVALID;
+		
+	} // nibble()
+	
+	
+	/**
+	 * Translates pairs of hex digits into bytes.
+	 * 
+	 * @param aContent
+	 * the characters of the line.
+	 * 
+	 * @param aStart
+	 * index of the first digit within aContent.
+	 * 
+	 * @param aTarget
+	 * receives aTarget.length bytes, 2 * aTarget.length digits are read.
+	 * 
+	 * @param aLineNumber
+	 * the line number used in the error message.
+	 * 
+	 * @return
+	 * the sum of all decoded bytes, each taken as unsigned value.
+	 * 
+	 * @throws IhxException
+	 * if a character isn't a hex digit.
+	 */
+	public static int decode(final CharSequence aContent, final int aStart, final byte[] aTarget, final int aLineNumber) throws IhxException {
+		
+		int sum = 0;
+		int idx = aStart;
+		
+		for(int i = 0; i < aTarget.length; i++) {
+			
+			int high = nibble(aContent.charAt(idx));
+			if(high == INVALID) throw invalidDigit(aContent.charAt(idx), aLineNumber, idx);
+			
+			int low = nibble(aContent.charAt(idx + 1));
+			if(low == INVALID) throw invalidDigit(aContent.charAt(idx + 1), aLineNumber, idx + 1);
+			
+			int value = (high << 4) | low;
+			
+			aTarget[i] = (byte) value;
+			sum += value;
+			idx += 2;
+			
+		} // rof
+		
+		return sum;
+		
+	} // decode()
+	
+	
+	/**
+	 * Translates pairs of hex digits held as ASCII bytes in a buffer.<br>
+	 * The buffer is read with absolute gets, its position isn't changed.
+	 * 
+	 * @param aContent
+	 * the buffer holding the line.
+	 * 
+	 * @param aStart
+	 * absolute index of the first digit within aContent.
+	 * 
+	 * @param aLineStart
+	 * absolute index of the first character of the line, used to calculate the column in the error message.
+	 * 
+	 * @param aTarget
+	 * receives aTarget.length bytes, 2 * aTarget.length digits are read.
+	 * 
+	 * @param aLineNumber
+	 * the line number used in the error message.
+	 * 
+	 * @return
+	 * the sum of all decoded bytes, each taken as unsigned value.
+	 * 
+	 * @throws IhxException
+	 * if a byte isn't a hex digit.
+	 */
+	public static int decode(final ByteBuffer aContent, final int aStart, final int aLineStart, final byte[] aTarget, final int aLineNumber) throws IhxException {
+		
+		int sum = 0;
+		int idx = aStart;
+		
+		for(int i = 0; i < aTarget.length; i++) {
+			
+			int high = nibble(aContent.get(idx) & 0xFF);
+			if(high == INVALID) throw invalidDigit((char) (aContent.get(idx) & 0xFF), aLineNumber, idx - aLineStart);
+			
+			int low = nibble(aContent.get(idx + 1) & 0xFF);
+			if(low == INVALID) throw invalidDigit((char) (aContent.get(idx + 1) & 0xFF), aLineNumber, idx + 1 - aLineStart);
+			
+			int value = (high << 4) | low;
+			
+			aTarget[i] = (byte) value;
+			sum += value;
+			idx += 2;
+			
+		} // rof
+		
+		return sum;
+		
+	} // decode()
+	
+	
+	/*
+	 * Builds the exception for an invalid digit, aIndex is the 0-based index within the line.
+	 */
+	private static IhxException invalidDigit(final char aChar, final int aLineNumber, final int aIndex) {
+		
+		return new IhxException("Invalid hex digit '" + aChar + "' in line " + aLineNumber + ", column " + (aIndex + 1));
+		
+	} // invalidDigit()
+	
+	
+} // ssalc
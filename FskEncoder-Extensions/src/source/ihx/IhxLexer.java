@@ -27,55 +27,181 @@
  *
  */
 
-
 package source.ihx;
 
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import extension.source.Lexer;
-
 /**
  * Responsibilities:<br>
- * The IHX specific implementation of the Lexer class.
+ * Read an IHX file line by line and turn each line into an IhxRecord.
  * 
  * <p>
  * Collaborators:<br>
- * Lexer,<br>
+ * IhxRecordFactory,<br>
  * IhxReader,<br>
  * IhxParser.
  * 
  * <p>
  * Description:<br>
- * The one and only function of this class is to set up the base class with the required parameters.
+ * The records are created by an IhxRecordFactory, by default the constructor reference IhxRecord::new.
+ * Formerly the generic Lexer of the framework created them through Constructor.newInstance(), 
+ * which added the reflection overhead to each line and wrapped an IhxException in an InvocationTargetException.
+ * Now an IhxException reaches the caller unchanged.
  * <p>
- * All the work is done in the base class!.
+ * The record number handed to the factory is the line number within the file, empty lines are skipped.
+ * The file is closed as soon as the last line is read.
  * 
  * <p>
  * @author Stefan
  *
  */
 
-public class IhxLexer extends Lexer<IhxRecord> {
+public class IhxLexer {
 
 	private Logger logger = LogManager.getLogger(IhxLexer.class.getName());
 	
+	protected final IhxRecordFactory recordFactory;
+	
+	protected BufferedReader reader;
+	protected int recordIndex;
+	
+	
 	/**
-	 * Default constructor.
-	 * 
-	 * It supplies the constructor of the base class with an Constructor object of the required record type.
+	 * Default constructor.<br>
+	 * The records are created by IhxRecord::new.
+	 */
+	public IhxLexer() {
+		this(IhxRecord::new);
+		
+	} // IhxLexer()
+	
+	
+	/**
+	 * Constructor.
 	 * 
-	 * @throws SecurityException 
-	 * @throws NoSuchMethodException 
-	 * if the given Constructor object is invalid. 
+	 * @param aRecordFactory
+	 * creates the records from the lines of the file.
 	 * 
+	 * @throws IllegalArgumentException
+	 * if aRecordFactory is null.
 	 */
-	public IhxLexer() throws NoSuchMethodException, SecurityException {
-		super(IhxRecord.class.getConstructor(int.class, String.class));
+	public IhxLexer(final IhxRecordFactory aRecordFactory) {
+		logger.trace("IhxLexer(): aRecordFactory = {}", aRecordFactory);
+		
+		if(aRecordFactory == null) throw new IllegalArgumentException("aRecordFactory can't be null");
 		
-		logger.trace("IhxLexer()");
+		recordFactory = aRecordFactory;
 
 	} // IhxLexer()
 	
+	
+	/**
+	 * Opens the file to read the records from.<br>
+	 * A file opened before is closed.
+	 * 
+	 * @param aFile
+	 * the name of the IHX file.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aFile is null<br>
+	 * or aFile is blank.
+	 * 
+	 * @throws FileNotFoundException
+	 * if aFile can't be opened.
+	 */
+	public void setFile(final String aFile) throws FileNotFoundException {
+		logger.trace("setFile(): aFile = {}", aFile);
+		
+		validateFile(aFile);
+		
+		close();
+		
+		reader = new BufferedReader(new FileReader(aFile));
+		recordIndex = 0;
+		
+	} // setFile()
+	
+	
+	/**
+	 * Returns the record of the next non-empty line.
+	 * 
+	 * @return
+	 * the next record or null if the end of the file is reached or no file is set.
+	 * 
+	 * @throws IhxException
+	 * if the line violates the IHX format.
+	 * 
+	 * @throws IOException
+	 * if the file can't be read.
+	 */
+	public IhxRecord getRecord() throws IhxException, IOException {
+		logger.trace("getRecord()");
+		
+		if(reader == null) return null;
+		
+		String line;
+		
+		while((line = reader.readLine()) != null) {
+			
+			recordIndex++;
+			
+			if(! line.isEmpty()) return recordFactory.create(recordIndex, line);
+			
+		} // elihw
+		
+		close();
+		
+		return null;
+		
+	} // getRecord()
+	
+	
+	/*
+	 * Checks the file name given to setFile().
+	 */
+	protected void validateFile(final String aFile) {
+		
+		if(aFile == null) throw new IllegalArgumentException("aFile cant be null!");
+		if(aFile.isBlank()) throw new IllegalArgumentException("aFile cant be blank nor empty!");
+		
+	} // validateFile()
+	
+	
+	/*
+	 * Closes the current file, if any.
+	 */
+	protected void close() {
+		
+		if(reader == null) return;
+		
+		try {
+			reader.close();
+		}
+		catch (IOException e) {
+			logger.warn("Unable to close the source file: {}", e.getMessage());
+		}
+		
+		reader = null;
+		
+	} // close()
+	
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxLexer [reader=" + reader + ", recordIndex=" + recordIndex + "]";
+	}
+	
 
 } // ssalc
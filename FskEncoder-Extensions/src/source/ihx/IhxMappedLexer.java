@@ -0,0 +1,425 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxMappedLexer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Read the records of an IHX file from a memory mapped view of the file.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxBufferRecordFactory,<br>
+ * IhxReader,<br>
+ * IhxParser.
+ * 
+ * <p>
+ * Description:<br>
+ * Intel HEX is pure ASCII, decoding each line into a String just to turn it back into bytes is wasted work.
+ * This lexer maps the whole file read-only with FileChannel.map() and scans the mapped buffer for the line ends.
+ * Each line is handed over as a range of the buffer to an IhxBufferRecordFactory, 
+ * by default IhxRecord::new, which decodes the record in place.
+ * <p>
+ * Line numbering follows IhxLexer: CR, LF and CR LF terminate a line, empty lines are counted but skipped.
+ * <p>
+ * setFile() only opens the file, it is mapped on the first call to getRecord() or getChunks().
+ * The file is closed right after mapping, the mapping stays valid until the buffer is released.
+ * <p>
+ * getChunks() is the bulk alternative to getRecord() used by IhxParallelParser. 
+ * It splits the remaining lines into IhxChunks and decodes them on a fork-join pool.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxMappedLexer extends IhxLexer {
+
+	private Logger logger = LogManager.getLogger(IhxMappedLexer.class.getName());
+	
+	protected static final byte CR = '\r';
+	protected static final byte LF = '\n';
+	
+	protected final IhxBufferRecordFactory bufferRecordFactory;
+	
+	protected RandomAccessFile file;
+	protected ByteBuffer content;
+	protected int position;
+	
+	
+	/**
+	 * Default constructor.<br>
+	 * The records are created by IhxRecord::new.
+	 */
+	public IhxMappedLexer() {
+		this(IhxRecord::new);
+		
+	} // IhxMappedLexer()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aRecordFactory
+	 * creates the records from the lines of the mapped file.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aRecordFactory is null.
+	 */
+	public IhxMappedLexer(final IhxBufferRecordFactory aRecordFactory) {
+		logger.trace("IhxMappedLexer(): aRecordFactory = {}", aRecordFactory);
+		
+		if(aRecordFactory == null) throw new IllegalArgumentException("aRecordFactory can't be null");
+		
+		bufferRecordFactory = aRecordFactory;
+
+	} // IhxMappedLexer()
+	
+	
+	/**
+	 * Opens the file to read the records from.<br>
+	 * A file opened before is closed.
+	 * 
+	 * @param aFile
+	 * the name of the IHX file.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aFile is null<br>
+	 * or aFile is blank.
+	 * 
+	 * @throws FileNotFoundException
+	 * if aFile can't be opened.
+	 */
+	@Override
+	public void setFile(final String aFile) throws FileNotFoundException {
+		logger.trace("setFile(): aFile = {}", aFile);
+		
+		validateFile(aFile);
+		
+		close();
+		
+		file = new RandomAccessFile(aFile, "r");
+		position = 0;
+		recordIndex = 0;
+		
+	} // setFile()
+	
+	
+	/**
+	 * Returns the record of the next non-empty line.
+	 * 
+	 * @return
+	 * the next record or null if the end of the file is reached or no file is set.
+	 * 
+	 * @throws IhxException
+	 * if the line violates the IHX format.
+	 * 
+	 * @throws IOException
+	 * if the file can't be mapped.
+	 */
+	@Override
+	public IhxRecord getRecord() throws IhxException, IOException {
+		logger.trace("getRecord()");
+		
+		if(content == null) {
+			
+			if(file == null) return null;
+			
+			map();
+			
+		} // fi
+		
+		int limit = content.limit();
+		
+		while(position < limit) {
+			
+			int lineStart = position;
+			int lineEnd = lineEnd(content, lineStart, limit);
+			
+			position = nextLine(content, lineEnd, limit);
+			recordIndex++;
+			
+			if(lineEnd > lineStart) return bufferRecordFactory.create(recordIndex, content, lineStart, lineEnd);
+			
+		} // elihw
+		
+		close();
+		
+		return null;
+		
+	} // getRecord()
+	
+	
+	/**
+	 * Decodes all remaining lines of the file in parallel.<br>
+	 * The lines are split into chunks of about aChunkSize bytes, each chunk ends on a line boundary.
+	 * The pool counts the lines of the chunks first, so that each chunk knows the number of its first line,
+	 * then it decodes the chunks.
+	 * <p>
+	 * Afterwards the lexer is at the end of the file, getRecord() returns null.
+	 * 
+	 * @param aPool
+	 * the fork-join pool to run the chunks on.
+	 * 
+	 * @param aChunkSize
+	 * the minimum number of bytes per chunk.
+	 * 
+	 * @return
+	 * the decoded chunks in line order, an empty list if the end of the file is reached or no file is set.
+	 * 
+	 * @throws IOException
+	 * if the file can't be mapped or the calling thread is interrupted.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aPool is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public List<IhxChunk> getChunks(final ForkJoinPool aPool, final int aChunkSize) throws IOException {
+		logger.trace("getChunks(): aPool = {}, aChunkSize = {}", aPool, aChunkSize);
+		
+		if(aPool == null) throw new IllegalArgumentException("aPool can't be null");
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+		
+		List<IhxChunk> chunks = new ArrayList<>();
+		
+		if(content == null) {
+			
+			if(file == null) return chunks;
+			
+			map();
+			
+		} // fi
+		
+		int limit = content.limit();
+		
+		while(position < limit) {
+			
+			int end = limit - position <= aChunkSize 
+					? limit 
+					: nextLine(content, lineEnd(content, position + aChunkSize, limit), limit);
+			
+			chunks.add(new IhxChunk(content, bufferRecordFactory, position, end));
+			position = end;
+			
+		} // elihw
+		
+		invoke(aPool, chunks, IhxChunk::countLines);
+		
+		for(IhxChunk chunk : chunks) {
+			
+			chunk.setFirstLine(recordIndex + 1);
+			recordIndex += chunk.getLineCount();
+			
+		} // rof
+		
+		invoke(aPool, chunks, IhxChunk::decode);
+		
+		close();
+		
+		return chunks;
+		
+	} // getChunks()
+	
+	
+	/*
+	 * Runs aTask for all chunks on the pool and waits for their completion.
+	 */
+	protected void invoke(final ForkJoinPool aPool, final List<IhxChunk> aChunks, final Consumer<IhxChunk> aTask) throws IOException {
+		
+		List<Callable<Void>> tasks = new ArrayList<>(aChunks.size());
+		
+		for(IhxChunk chunk : aChunks) {
+			tasks.add(() -> { aTask.accept(chunk); return null; });
+		}
+		
+		try {
+			
+			for(Future<Void> task : aPool.invokeAll(tasks)) {
+				task.get();
+			}
+			
+		} // yrt
+		catch(InterruptedException e) {
+			
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while decoding the IHX file");
+			
+		}
+		catch(ExecutionException e) {
+			
+			if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if(e.getCause() instanceof Error) throw (Error) e.getCause();
+			
+			throw new IllegalStateException(e.getCause());
+			
+		} // hctac
+		
+	} // invoke()
+	
+	
+	/*
+	 * Maps the opened file and closes it, the mapping remains valid.
+	 */
+	protected void map() throws IOException {
+		
+		try(RandomAccessFile source = file) {
+			
+			FileChannel channel = source.getChannel();
+			
+			if(channel.size() > Integer.MAX_VALUE) throw new IOException("File too large to be mapped: " + channel.size() + " bytes");
+			
+			content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+		} // yrt
+		finally {
+			file = null;
+		}
+		
+		logger.debug("map(): content = {}", content);
+		
+	} // map()
+	
+	
+	/**
+	 * Returns the index of the first CR or LF at or behind aFrom.
+	 * 
+	 * @param aContent
+	 * the buffer to scan.
+	 * 
+	 * @param aFrom
+	 * absolute index to start the scan at.
+	 * 
+	 * @param aLimit
+	 * absolute index to stop the scan at.
+	 * 
+	 * @return
+	 * the index of the line terminator or aLimit if there is none.
+	 */
+	public static int lineEnd(final ByteBuffer aContent, final int aFrom, final int aLimit) {
+		
+		int idx = aFrom;
+		
+		while(idx < aLimit) {
+			
+			byte b = aContent.get(idx);
+			
+			if(b == LF || b == CR) break;
+			
+			idx++;
+			
+		} // elihw
+		
+		return idx;
+		
+	} // lineEnd()
+	
+	
+	/**
+	 * Skips the line terminator at aLineEnd, a CR LF pair counts as a single terminator.
+	 * 
+	 * @param aContent
+	 * the buffer to scan.
+	 * 
+	 * @param aLineEnd
+	 * absolute index of the line terminator as returned by lineEnd().
+	 * 
+	 * @param aLimit
+	 * absolute index to stop the scan at.
+	 * 
+	 * @return
+	 * the index of the first character of the next line.
+	 */
+	public static int nextLine(final ByteBuffer aContent, final int aLineEnd, final int aLimit) {
+		
+		int idx = aLineEnd;
+		
+		if(idx < aLimit && aContent.get(idx) == CR) idx++;
+		if(idx < aLimit && aContent.get(idx) == LF) idx++;
+		
+		return idx;
+		
+	} // nextLine()
+	
+	
+	/*
+	 * Closes the current file and releases the mapped buffer, if any.
+	 */
+	@Override
+	protected void close() {
+		
+		if(file != null) {
+			
+			try {
+				file.close();
+			}
+			catch (IOException e) {
+				logger.warn("Unable to close the source file: {}", e.getMessage());
+			}
+			
+			file = null;
+			
+		} // fi
+		
+		content = null;
+		
+		super.close();
+		
+	} // close()
+	
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxMappedLexer [content=" + content + ", position=" + position + ", recordIndex=" + recordIndex + "]";
+	}
+	
+
+} // ssalc
@@ -0,0 +1,440 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxOverlapIndex.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Detect DATA records that write to addresses already written by an earlier record 
+ * and resolve them according to an IhxOverlapPolicy.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxOverlapPolicy,<br>
+ * Ihx8MemoryRegionBuilder,<br>
+ * Ihx32MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * The index keeps a tree of non overlapping spans sorted by their start address. 
+ * Each span knows the record which owns its bytes, a reference to the payload of that record 
+ * and its line number.
+ * <p>
+ * A new record is looked up in O(log n), records starting behind all spans known so far, 
+ * the usual case of a file in address order, skip the look up. 
+ * If the record overlaps spans with different bytes, a conflict is reported with the line numbers of both records.
+ * <p>
+ * The bytes to keep are handed to a Store, for FIRST_WINS only the parts not written before.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxOverlapIndex {
+
+	private Logger logger = LogManager.getLogger(IhxOverlapIndex.class.getName());
+	
+	protected final TreeMap<Long, Span> spans = new TreeMap<>();
+	protected final List<Conflict> conflicts = new ArrayList<>();
+	
+	protected IhxOverlapPolicy policy;
+	
+	/*
+	 * Address behind the highest span.
+	 */
+	protected long top = 0;
+	
+	
+	/**
+	 * Default constructor, conflicts are treated as an error.
+	 */
+	public IhxOverlapIndex() {
+		this(IhxOverlapPolicy.ERROR);
+		
+	} // IhxOverlapIndex()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aPolicy
+	 * the policy to apply on conflicting records.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aPolicy is null.
+	 */
+	public IhxOverlapIndex(final IhxOverlapPolicy aPolicy) {
+		logger.trace("IhxOverlapIndex(): aPolicy = {}", aPolicy);
+		
+		setPolicy(aPolicy);
+		
+	} // IhxOverlapIndex()
+	
+	
+	/**
+	 * Adds the payload of a DATA record and writes the bytes to keep into aStore.
+	 * 
+	 * @param aRecordNumber
+	 * the line number of the record, reported on conflicts.
+	 * 
+	 * @param aAddress
+	 * the address of the first byte.
+	 * 
+	 * @param aData
+	 * the array holding the payload, it's referenced by the index and must not be changed afterwards.
+	 * 
+	 * @param aOffset
+	 * index of the first byte in aData.
+	 * 
+	 * @param aLength
+	 * number of bytes to add.
+	 * 
+	 * @param aStore
+	 * receives the bytes to keep.
+	 * 
+	 * @throws IhxException
+	 * if the policy is ERROR and the record conflicts with an earlier one, nothing is written in that case.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aData or aStore is null<br>
+	 * or the range doesn't fit into aData.
+	 */
+	public void add(final int aRecordNumber, final long aAddress, final byte[] aData, final int aOffset, final int aLength, 
+			final Store aStore) throws IhxException {
+		logger.trace("add(): aRecordNumber = {}, aAddress = {}, aLength = {}", aRecordNumber, aAddress, aLength);
+		
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+		if(aStore == null) throw new IllegalArgumentException("aStore can't be null");
+		if(aOffset < 0 || aLength < 0 || aOffset + aLength > aData.length) throw new IllegalArgumentException("range exceeds aData");
+		
+		if(aLength == 0) return;
+		
+		long end = aAddress + aLength;
+		Span span = new Span(aAddress, end, aRecordNumber, aData, aOffset);
+		
+		if(aAddress >= top) {
+			
+			/*
+			 * Behind all records known so far, there's nothing to overlap.
+			 */
+			spans.put(aAddress, span);
+			top = end;
+			
+			aStore.write(aAddress, aData, aOffset, aLength);
+			
+			return;
+			
+		} // fi
+		
+		Map.Entry<Long, Span> floor = spans.floorEntry(aAddress);
+		long low = floor != null && floor.getValue().end > aAddress ? floor.getKey() : aAddress;
+		
+		List<Span> overlapped = new ArrayList<>(spans.subMap(low, true, end, false).values());
+		
+		for(Span earlier : overlapped) {
+			
+			Conflict conflict = earlier.compare(span);
+			
+			if(conflict == null) continue;
+			
+			if(policy == IhxOverlapPolicy.ERROR) {
+				
+				throw new IhxException(String.format("Conflicting data at 0x%04X in line %d and line %d", 
+						conflict.getAddress(), conflict.getFirstRecord(), conflict.getSecondRecord()));
+				
+			} // fi
+			
+			logger.warn("{}, policy {}", conflict, policy);
+			conflicts.add(conflict);
+			
+		} // rof
+		
+		if(policy == IhxOverlapPolicy.FIRST_WINS) {
+			
+			fillGaps(span, overlapped, aStore);
+			
+		}
+		else {
+			
+			replace(span, overlapped);
+			aStore.write(aAddress, aData, aOffset, aLength);
+			
+		} // esle
+		
+		top = Math.max(top, end);
+		
+	} // add()
+	
+	
+	/**
+	 * Drops all spans and conflicts, the policy is kept.
+	 */
+	public void clear() {
+		logger.trace("clear()");
+		
+		spans.clear();
+		conflicts.clear();
+		top = 0;
+		
+	} // clear()
+	
+	
+	/**
+	 * Returns the conflicts resolved by FIRST_WINS or LAST_WINS.
+	 * 
+	 * @return
+	 * the conflicts in the order they were detected.
+	 */
+	public List<Conflict> getConflicts() { return Collections.unmodifiableList(conflicts); }
+	
+	
+	public IhxOverlapPolicy getPolicy() { return policy; }
+	
+	
+	/**
+	 * Sets the policy for the records added from now on.
+	 * 
+	 * @param aPolicy
+	 * the policy to apply on conflicting records.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aPolicy is null.
+	 */
+	public void setPolicy(final IhxOverlapPolicy aPolicy) {
+		
+		if(aPolicy == null) throw new IllegalArgumentException("aPolicy can't be null");
+		
+		policy = aPolicy;
+		
+	} // setPolicy()
+	
+	
+	/**
+	 * Returns the number of spans.
+	 * 
+	 * @return
+	 * the number of address ranges with a different owner.
+	 */
+	public int getSpanCount() { return spans.size(); }
+	
+	
+	/*
+	 * Adds the parts of aSpan not covered by the overlapped spans, the earlier records keep their bytes.
+	 */
+	protected void fillGaps(final Span aSpan, final List<Span> aOverlapped, final Store aStore) {
+		
+		long cursor = aSpan.start;
+		
+		for(Span earlier : aOverlapped) {
+			
+			if(earlier.start > cursor) addPart(aSpan, cursor, earlier.start, aStore);
+			
+			cursor = Math.max(cursor, earlier.end);
+			
+		} // rof
+		
+		if(cursor < aSpan.end) addPart(aSpan, cursor, aSpan.end, aStore);
+		
+	} // fillGaps()
+	
+	
+	/*
+	 * Adds aSpan and cuts the overlapped spans back to the parts outside of it.
+	 */
+	protected void replace(final Span aSpan, final List<Span> aOverlapped) {
+		
+		for(Span earlier : aOverlapped) {
+			
+			spans.remove(earlier.start);
+			
+			if(earlier.start < aSpan.start) spans.put(earlier.start, earlier.part(earlier.start, aSpan.start));
+			if(earlier.end > aSpan.end) spans.put(aSpan.end, earlier.part(aSpan.end, earlier.end));
+			
+		} // rof
+		
+		spans.put(aSpan.start, aSpan);
+		
+	} // replace()
+	
+	
+	/*
+	 * Adds the range aStart..aEnd of aSpan as a span of its own and writes its bytes.
+	 */
+	protected void addPart(final Span aSpan, final long aStart, final long aEnd, final Store aStore) {
+		
+		Span part = aSpan.part(aStart, aEnd);
+		
+		spans.put(aStart, part);
+		aStore.write(aStart, part.data, part.offset, (int) (aEnd - aStart));
+		
+	} // addPart()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxOverlapIndex [policy=" + policy + ", spans=" + spans.size() + ", conflicts=" + conflicts.size() + "]";
+	}
+	
+	
+	/**
+	 * Responsibilities:<br>
+	 * Receive the bytes of a record that are kept after resolving overlaps.
+	 * <p>
+	 * Matches IhxExtentMap.put() and IhxSparseMemory.write().
+	 */
+	@FunctionalInterface
+	public interface Store {
+		
+		void write(final long aAddress, final byte[] aData, final int aOffset, final int aLength);
+		
+	} // interface
+	
+	
+	/**
+	 * Responsibilities:<br>
+	 * Two records writing different bytes into the same address range.
+	 */
+	public static class Conflict {
+		
+		protected final long address;
+		protected final int length;
+		protected final int firstRecord;
+		protected final int secondRecord;
+		
+		
+		protected Conflict(final long aAddress, final int aLength, final int aFirstRecord, final int aSecondRecord) {
+			
+			address = aAddress;
+			length = aLength;
+			firstRecord = aFirstRecord;
+			secondRecord = aSecondRecord;
+			
+		} // Conflict()
+		
+		
+		public long getAddress() { return address; }
+		
+		public int getLength() { return length; }
+		
+		public int getFirstRecord() { return firstRecord; }
+		
+		public int getSecondRecord() { return secondRecord; }
+
+
+		/**
+		 * Returns a string representation of the current instance.
+		 * 
+		 * @return
+		 * a string representing the current state of this object. 
+		 */
+		@Override
+		public String toString() {
+			return String.format("Conflict [address=0x%04X, length=%d, firstRecord=%d, secondRecord=%d]", 
+					address, length, firstRecord, secondRecord);
+		}
+		
+		
+	} // class
+	
+	
+	/*
+	 * An address range start..end - 1 owned by a record, its bytes start at data[offset].
+	 */
+	protected static class Span {
+		
+		protected final long start;
+		protected final long end;
+		protected final int recordNumber;
+		protected final byte[] data;
+		protected final int offset;
+		
+		
+		protected Span(final long aStart, final long aEnd, final int aRecordNumber, final byte[] aData, final int aOffset) {
+			
+			start = aStart;
+			end = aEnd;
+			recordNumber = aRecordNumber;
+			data = aData;
+			offset = aOffset;
+			
+		} // Span()
+		
+		
+		/*
+		 * The range aStart..aEnd of this span, owned by the same record.
+		 */
+		protected Span part(final long aStart, final long aEnd) {
+			
+			return new Span(aStart, aEnd, recordNumber, data, offset + (int) (aStart - start));
+			
+		} // part()
+		
+		
+		/*
+		 * Compares the bytes both spans have in common, returns null if they are equal.
+		 */
+		protected Conflict compare(final Span aLater) {
+			
+			long low = Math.max(start, aLater.start);
+			long high = Math.min(end, aLater.end);
+			
+			int from = offset + (int) (low - start);
+			int laterFrom = aLater.offset + (int) (low - aLater.start);
+			int length = (int) (high - low);
+			
+			if(Arrays.mismatch(data, from, from + length, aLater.data, laterFrom, laterFrom + length) < 0) return null;
+			
+			return new Conflict(low, length, recordNumber, aLater.recordNumber);
+			
+		} // compare()
+		
+		
+	} // class
+	
+
+} // ssalc
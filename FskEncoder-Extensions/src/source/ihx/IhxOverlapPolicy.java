@@ -0,0 +1,62 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxOverlapPolicy.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+/**
+ * Responsibilities:<br>
+ * Enumerates the ways to resolve DATA records that write different bytes to the same address.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxOverlapIndex
+ * 
+ * <p>
+ * Description:<br>
+ * Records overlapping with the same bytes aren't a conflict and are accepted by each policy.
+ * <ul>
+ *   <li> ERROR: the file is rejected with the line numbers of both records</li>
+ *   <li> FIRST_WINS: the record read first keeps its bytes, the conflict is logged</li>
+ *   <li> LAST_WINS: the record read last overwrites the bytes, the conflict is logged</li>
+ * </ul>
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public enum IhxOverlapPolicy {
+
+	ERROR,
+	FIRST_WINS,
+	LAST_WINS,
+	;
+	
+} // ssalc
@@ -0,0 +1,179 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxParallelParser.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.source.DataRecord;
+import extension.source.MemoryRegionBuilder;
+import extension.source.ReaderException;
+
+/**
+ * Responsibilities:<br>
+ * Decode the records of an IHX file on several cores and hand them over to the MemoryRegionBuilder in line order.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxMappedLexer,<br>
+ * IhxChunk,<br>
+ * MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * IHX records are self-contained lines with their own checksum, only the stitching of the memory regions 
+ * depends on the order of the records.<br>
+ * So the IhxMappedLexer splits the file into chunks which are decoded and checked on a fork-join pool.
+ * Afterwards the records are appended chunk by chunk to the MemoryRegionBuilder.
+ * <p>
+ * The result is the same as for IhxParser.parse(). 
+ * If a line is invalid, all records in front of it are appended before its IhxException is thrown,
+ * so the MemoryRegionBuilder reports its own errors for earlier lines first, as it does on the serial path.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxParallelParser extends IhxParser {
+
+	private Logger logger = LogManager.getLogger(IhxParallelParser.class.getName());
+	
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	
+	protected final IhxMappedLexer mappedLexer;
+	protected final ForkJoinPool pool;
+	protected final int chunkSize;
+	
+	
+	/**
+	 * Constructor.<br>
+	 * The chunks are decoded on the common pool with a size of DEFAULT_CHUNK_SIZE.
+	 * 
+	 * @param aLexer 
+	 * the IhxMappedLexer to read records from.
+	 * 
+	 * @param aMemoryRegionBuilder
+	 * receives the IhxRecords and build a MemoryImage from it.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aLexer is null<br>
+	 * or aMemoryRegionBuilder is null.
+	 */
+	public IhxParallelParser(final IhxMappedLexer aLexer, final MemoryRegionBuilder aMemoryRegionBuilder) {
+		this(aLexer, aMemoryRegionBuilder, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+		
+	} // IhxParallelParser(...)
+
+
+	/**
+	 * Constructor.<br>
+	 * 
+	 * @param aLexer 
+	 * the IhxMappedLexer to read records from.
+	 * 
+	 * @param aMemoryRegionBuilder
+	 * receives the IhxRecords and build a MemoryImage from it.
+	 * 
+	 * @param aPool
+	 * the fork-join pool to decode the chunks on.
+	 * 
+	 * @param aChunkSize
+	 * the minimum number of bytes per chunk.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aLexer is null<br>
+	 * or aMemoryRegionBuilder is null<br>
+	 * or aPool is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public IhxParallelParser(final IhxMappedLexer aLexer, final MemoryRegionBuilder aMemoryRegionBuilder, final ForkJoinPool aPool, final int aChunkSize) {
+		super(aLexer, aMemoryRegionBuilder);
+
+		logger.trace("IhxParallelParser(): aPool = {}, aChunkSize = {}", aPool, aChunkSize);
+		
+		if(aPool == null) throw new IllegalArgumentException("aPool can't be null");
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+		
+		mappedLexer = aLexer;
+		pool = aPool;
+		chunkSize = aChunkSize;
+	
+	} // IhxParallelParser(...)
+
+
+	/**
+	 * The trigger to run the parser process.<br>
+	 * The file is decoded in parallel, the records are handed over to the MemoryRegionBuilder in line order.
+	 * 
+	 * @throws IhxException
+	 * on IHX format violations, the one with the lowest line number is reported.
+	 *  
+	 * @throws ReaderException
+	 * if the MemoryRegionBuilder rejects a record.
+	 *  
+	 * @throws IOException
+	 * on errors reading the source file.
+	 */
+	@Override
+	public void parse() throws ReaderException, IOException {
+		logger.trace("parse()");
+		
+		memoryRegionBuilder.clear();
+		
+		for(IhxChunk chunk : mappedLexer.getChunks(pool, chunkSize)) {
+			
+			for(DataRecord record : chunk.getRecords()) {
+				memoryRegionBuilder.append(record);
+			}
+			
+			if(chunk.getError() != null) throw chunk.getError();
+			
+		} // rof
+		
+	} // parse()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxParallelParser [chunkSize=" + chunkSize + ", " + super.toString() + "]";
+	}
+	
+	
+} // ssalc
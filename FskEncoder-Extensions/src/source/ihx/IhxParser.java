@@ -31,7 +31,6 @@
 package source.ihx;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -103,15 +102,9 @@ public class IhxParser {
 	 *  
 	 * @throws IOException
 	 * on errors reading the source file
-	 *  
-	 * @throws InvocationTargetException 
-	 * @throws IllegalArgumentException 
-	 * @throws IllegalAccessException 
-	 * @throws InstantiationException 
-	 * if errors occurs on instantiation of an IhxRecord.
 	 * 
 	 */
-	public void parse() throws ReaderException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, IOException {
+	public void parse() throws ReaderException, IOException {
 		logger.trace("parse()");
 		
 		
@@ -30,6 +30,8 @@
 
 package source.ihx;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -118,6 +120,36 @@ public class IhxRecord extends Record {
 	} // IhxRecord(...)
 	
 	
+	/**
+	 * Constructor.<br>
+	 * Parses a record straight from the ASCII bytes of a buffer, e.g. a memory mapped file.
+	 * No String is created for the record, the buffer position isn't changed.
+	 * 
+	 * @param aRecordNumber 
+	 * the line number of the record.
+	 * 
+	 * @param aContent 
+	 * the buffer holding the record.
+	 * 
+	 * @param aStart 
+	 * absolute index of the first character of the line.
+	 * 
+	 * @param aEnd 
+	 * absolute index behind the last character of the line, the line terminator excluded.
+	 * 
+	 * @throws IhxException 
+	 * if the parser detects any format violation.
+	 */
+	public IhxRecord(final int aRecordNumber, final ByteBuffer aContent, final int aStart, final int aEnd) throws IhxException {
+		super(aRecordNumber);
+
+		logger.trace("IhxRecord(): aRecordNumber = {}, aStart = {}, aEnd = {}", aRecordNumber, aStart, aEnd);
+
+		parseContent(aContent, aStart, aEnd);
+
+	} // IhxRecord(...)
+	
+	
 	/**
 	 * Returns the length of the record as defined in the record data.
 	 * 
@@ -145,32 +177,49 @@ public class IhxRecord extends Record {
 	 * While the conversion steps on byte by byte a checksum is calculated in parallel.
 	 * 
 	 * The binary data are returned in a byte[].
+	 * An IhxException is thrown if a character isn't a hex digit.
 	 */
-	protected byte[] ascii2bin(final String aContent) {
+	protected byte[] ascii2bin(final String aContent) throws IhxException {
 		logger.trace("ascii2bin(): aContent = {}", aContent);
 		
-        byte[] hexcontent = new byte[aContent.length() / 2];
-        chkeckSum = 0;
-        
-        int startIdx;
-        int endIdx;
-        
-        for (int i = 0; i < hexcontent.length; i++) {
-        	
-        	startIdx = i * 2 + 1;
-        	endIdx   = startIdx + 2;
-        	
-            String num = aContent.substring(startIdx, endIdx);
-            hexcontent[i] = (byte) Integer.parseInt(num, HEX);
-            chkeckSum += hexcontent[i] & 0xff;
-            
-        }
-        
-        return hexcontent;
-        
+		byte[] hexcontent = new byte[binLength(aContent.length())];
+		
+		chkeckSum = IhxHexDecoder.decode(aContent, RECORD_MARK.length(), hexcontent, super.recordNumber);
+		
+		return hexcontent;
+		
+	} // ascii2bin(...)
+	
+	
+	/*
+	 * Same as ascii2bin(String) but reads the digits from the bytes between aStart and aEnd.
+	 */
+	protected byte[] ascii2bin(final ByteBuffer aContent, final int aStart, final int aEnd) throws IhxException {
+		logger.trace("ascii2bin(): aStart = {}, aEnd = {}", aStart, aEnd);
+		
+		byte[] hexcontent = new byte[binLength(aEnd - aStart)];
+		
+		chkeckSum = IhxHexDecoder.decode(aContent, aStart + RECORD_MARK.length(), aStart, hexcontent, super.recordNumber);
+		
+		return hexcontent;
+		
 	} // ascii2bin(...)
 	
 	
+	/*
+	 * Calculates the number of binary bytes of a line with aLength characters.
+	 * The record mark must be followed by pairs of hex digits, a dangling digit is reported as invalid record length.
+	 */
+	protected int binLength(final int aLength) throws IhxException {
+		
+		if((aLength - RECORD_MARK.length()) % 2 != 0)
+			throw new IhxException("Invalid record length in line " + super.recordNumber);
+		
+		return (aLength - RECORD_MARK.length()) / 2;
+		
+	} // binLength(...)
+	
+	
 	/*
 	 * Verifies the checksum and throws an IhxException on an invalid result.
 	 * The checksum must always be 0!
@@ -222,17 +271,39 @@ public class IhxRecord extends Record {
 
 		recordMark(content);
 
-		byte[] binRecord = ascii2bin(content);
+		parseBinary(ascii2bin(content));
 		
-		recordLength(binRecord);
-		offset(binRecord);
-		rectype(binRecord);
-		infoOrData(binRecord);
-		checksum();
+	} // parseContent(...)
+	
+	
+	/*
+	 * Parses the ASCII bytes between aStart and aEnd of the given buffer.
+	 */
+	protected void parseContent(final ByteBuffer aContent, final int aStart, final int aEnd) throws IhxException {
+		logger.trace("parseContent(): aStart = {}, aEnd = {}", aStart, aEnd);
+
+		recordMark(aContent, aStart, aEnd);
+
+		parseBinary(ascii2bin(aContent, aStart, aEnd));
 		
 	} // parseContent(...)
 	
 	
+	/*
+	 * Evaluates the binary equivalent of a record.
+	 * For each part of the record structure a specific method is responsible.
+	 */
+	protected void parseBinary(final byte[] aBinRecord) throws IhxException {
+		
+		recordLength(aBinRecord);
+		offset(aBinRecord);
+		rectype(aBinRecord);
+		infoOrData(aBinRecord);
+		checksum();
+		
+	} // parseBinary(...)
+	
+	
 	/*
 	 * Extracts and validates the record length field.
 	 * A IhxException is thrown if the resulting payload in not equal to the length field of the record structure.
@@ -240,6 +311,9 @@ public class IhxRecord extends Record {
 	protected void recordLength(final byte[] aBinRecord) throws IhxException {
 		logger.trace("recordLength(): aContent = {}", aBinRecord);
 		
+		if(aBinRecord.length < 5)
+			throw new IhxException("Invalid record length in line " + super.recordNumber);
+		
 		recordLength = aBinRecord[0];
 		
 		if(recordLength != aBinRecord.length - 5)
@@ -259,6 +333,18 @@ public class IhxRecord extends Record {
 			throw new IhxException("Invalid IHX record in line " + super.recordNumber);
 		
 	} // recordMark(...)
+	
+	
+	/*
+	 * Same as recordMark(String) for a line held in a buffer.
+	 */
+	protected void recordMark(final ByteBuffer aContent, final int aStart, final int aEnd) throws IhxException {
+		logger.trace("recordMark(): aStart = {}, aEnd = {}", aStart, aEnd);
+
+		if(aEnd <= aStart || aContent.get(aStart) != RECORD_MARK.charAt(0)) 
+			throw new IhxException("Invalid IHX record in line " + super.recordNumber);
+		
+	} // recordMark(...)
 
 
 	/*
@@ -0,0 +1,74 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxRecordFactory.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+/**
+ * Responsibilities:<br>
+ * Create an IhxRecord from a single line of an IHX file.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxLexer,<br>
+ * IhxRecord.
+ * 
+ * <p>
+ * Description:<br>
+ * The IhxLexer hands each line over to a factory of this type. 
+ * The default factory is the constructor reference IhxRecord::new, 
+ * no reflection is involved in the creation of the records.<br>
+ * Readers with a specialised record class supply their own constructor reference.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@FunctionalInterface
+public interface IhxRecordFactory {
+
+	/**
+	 * Creates a record from the given line.
+	 * 
+	 * @param aRecordNumber
+	 * the line number of aContent within the source file.
+	 * 
+	 * @param aContent
+	 * the line to parse.
+	 * 
+	 * @return
+	 * the parsed record.
+	 * 
+	 * @throws IhxException
+	 * if aContent violates the IHX format.
+	 */
+	IhxRecord create(final int aRecordNumber, final String aContent) throws IhxException;
+	
+	
+} // interface
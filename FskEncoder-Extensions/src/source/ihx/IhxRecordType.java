@@ -30,6 +30,8 @@
 
 package source.ihx;
 
+import java.util.Arrays;
+
 /**
  * Responsibilities:<br>
  * Enumerates all valid record types of the <b>Intel Hex Format</b> based on the document
@@ -65,6 +67,22 @@ public enum IhxRecordType {
     UNKNOWN		(0xFF),
     ;
     
+	/*
+	 * Lookup table for toType(), indexed by the record type id of the IHX record.
+	 * Each id without an own type resolves to UNKNOWN.
+	 */
+	private static final IhxRecordType[] TYPES = new IhxRecordType[256];
+	
+	static {
+		
+		Arrays.fill(TYPES, UNKNOWN);
+		
+		for (IhxRecordType type : values()) {
+			TYPES[type.id] = type;
+		}
+		
+	}
+	
 	int id;
 
     IhxRecordType(int id) {
@@ -81,22 +99,17 @@ public enum IhxRecordType {
     }
 
     /**
-     * Convert integer id to enum type
+     * Convert integer id to enum type.<br>
+     * The type is taken from a lookup table, no search and no allocation is involved.
      *
      * @param id 
      * integer value as in the recordType field of an ihx record
      * 
-     * @return enum value associated to the given id.
+     * @return enum value associated to the given id, UNKNOWN if the id is out of the range 0..255 or not defined.
      */
     public static IhxRecordType toType(int id) {
     	
-        for (IhxRecordType d : IhxRecordType.values()) {
-            if (d.id == id) {
-                return d;
-            }
-        }
-        
-        return IhxRecordType.UNKNOWN;
+        return (id & ~0xFF) == 0 ? TYPES[id] : UNKNOWN;
         
     } // fromInt(...)
 	
@@ -0,0 +1,402 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxSparseMemory.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Hold a memory image of a 32 bit address space, spending memory only on the populated areas.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Ihx32MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * The address space is split into pages of PAGE_SIZE bytes, a page is only allocated when the first byte 
+ * is written into it. Each page keeps a bit per byte to tell written bytes from untouched ones.<br>
+ * An image of a few kilobytes spread over a multi-megabyte address space takes a few pages, 
+ * independent of the distance between the populated areas.
+ * <p>
+ * getBlocks() returns the populated areas as contiguous blocks in ascending address order.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IhxSparseMemory {
+
+	private Logger logger = LogManager.getLogger(IhxSparseMemory.class.getName());
+	
+	public static final int PAGE_BITS			= 12;
+	public static final int PAGE_SIZE			= 1 << PAGE_BITS;
+	public static final long MAX_ADDRESS		= 0xFFFF_FFFFL;
+	
+	protected static final int PAGE_MASK		= PAGE_SIZE - 1;
+	
+	protected final TreeMap<Long, Page> pages = new TreeMap<>();
+	
+	protected long size = 0;
+	
+	
+	/**
+	 * Writes a range of bytes into the memory image.
+	 * 
+	 * @param aAddress
+	 * the address of the first byte.
+	 * 
+	 * @param aData
+	 * the array holding the bytes.
+	 * 
+	 * @param aOffset
+	 * index of the first byte in aData.
+	 * 
+	 * @param aLength
+	 * number of bytes to write.
+	 * 
+	 * @return
+	 * the number of bytes that were already populated and got overwritten.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aData is null<br>
+	 * or the range doesn't fit into aData<br>
+	 * or the range exceeds the address space.
+	 */
+	public int write(final long aAddress, final byte[] aData, final int aOffset, final int aLength) {
+		logger.trace("write(): aAddress = {}, aOffset = {}, aLength = {}", aAddress, aOffset, aLength);
+		
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+		if(aOffset < 0 || aLength < 0 || aOffset + aLength > aData.length) throw new IllegalArgumentException("range exceeds aData");
+		if(aAddress < 0 || aAddress + aLength - 1 > MAX_ADDRESS) throw new IllegalArgumentException(String.format("range exceeds address space: 0x%08X", aAddress));
+		
+		int overwritten = 0;
+		long address = aAddress;
+		int offset = aOffset;
+		int remaining = aLength;
+		
+		while(remaining > 0) {
+			
+			Page page = pages.computeIfAbsent(address >>> PAGE_BITS, key -> new Page());
+			
+			int index = (int) (address & PAGE_MASK);
+			int length = Math.min(remaining, PAGE_SIZE - index);
+			
+			overwritten += page.put(index, aData, offset, length);
+			
+			address += length;
+			offset += length;
+			remaining -= length;
+			
+		} // elihw
+		
+		size += aLength - overwritten;
+		
+		return overwritten;
+		
+	} // write()
+	
+	
+	/**
+	 * Writes a complete array into the memory image.
+	 * 
+	 * @param aAddress
+	 * the address of the first byte.
+	 * 
+	 * @param aData
+	 * the bytes to write.
+	 * 
+	 * @return
+	 * the number of bytes that were already populated and got overwritten.
+	 */
+	public int write(final long aAddress, final byte[] aData) {
+		
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+		
+		return write(aAddress, aData, 0, aData.length);
+		
+	} // write()
+	
+	
+	/**
+	 * Tells whether a byte has been written at the given address.
+	 * 
+	 * @param aAddress
+	 * the address to check.
+	 * 
+	 * @return
+	 * true if the byte is populated.
+	 */
+	public boolean isPopulated(final long aAddress) {
+		
+		Page page = pages.get(aAddress >>> PAGE_BITS);
+		
+		return page != null && page.isSet((int) (aAddress & PAGE_MASK));
+		
+	} // isPopulated()
+	
+	
+	/**
+	 * Returns the byte at the given address.
+	 * 
+	 * @param aAddress
+	 * the address to read.
+	 * 
+	 * @return
+	 * the byte, 0 if the address isn't populated.
+	 */
+	public byte get(final long aAddress) {
+		
+		Page page = pages.get(aAddress >>> PAGE_BITS);
+		
+		return page == null ? 0 : page.data[(int) (aAddress & PAGE_MASK)];
+		
+	} // get()
+	
+	
+	/**
+	 * Returns the populated areas of the memory image.
+	 * 
+	 * @return
+	 * the contiguous blocks in ascending address order, each with a copy of its content.
+	 */
+	public List<Block> getBlocks() {
+		logger.trace("getBlocks()");
+		
+		List<Block> blocks = new ArrayList<>();
+		
+		long start = -1;
+		long end = -2;
+		
+		for(Map.Entry<Long, Page> entry : pages.entrySet()) {
+			
+			long base = entry.getKey() << PAGE_BITS;
+			Page page = entry.getValue();
+			
+			for(int index = 0; index < PAGE_SIZE; index++) {
+				
+				if((index & 0x3F) == 0 && page.mask[index >>> 6] == 0) {
+					
+					/*
+					 * 64 untouched bytes in a row.
+					 */
+					index += 0x3F;
+					continue;
+					
+				} // fi
+				
+				if(! page.isSet(index)) continue;
+				
+				long address = base + index;
+				
+				if(address != end + 1) {
+					
+					if(start >= 0) blocks.add(block(start, end));
+					start = address;
+					
+				} // fi
+				
+				end = address;
+				
+			} // rof
+			
+		} // rof
+		
+		if(start >= 0) blocks.add(block(start, end));
+		
+		return blocks;
+		
+	} // getBlocks()
+	
+	
+	/**
+	 * Drops the complete memory image.
+	 */
+	public void clear() {
+		logger.trace("clear()");
+		
+		pages.clear();
+		size = 0;
+		
+	} // clear()
+	
+	
+	/**
+	 * Returns the number of populated bytes.
+	 * 
+	 * @return
+	 * the number of bytes written, each address counted once.
+	 */
+	public long getSize() { return size; }
+	
+	
+	/**
+	 * Returns the number of allocated pages.
+	 * 
+	 * @return
+	 * the number of pages holding at least one populated byte.
+	 */
+	public int getPageCount() { return pages.size(); }
+	
+	
+	/*
+	 * Copies the bytes between aStart and aEnd into a new block.
+	 */
+	protected Block block(final long aStart, final long aEnd) {
+		
+		byte[] content = new byte[(int) (aEnd - aStart + 1)];
+		
+		long address = aStart;
+		int offset = 0;
+		
+		while(offset < content.length) {
+			
+			Page page = pages.get(address >>> PAGE_BITS);
+			
+			int index = (int) (address & PAGE_MASK);
+			int length = Math.min(content.length - offset, PAGE_SIZE - index);
+			
+			System.arraycopy(page.data, index, content, offset, length);
+			
+			address += length;
+			offset += length;
+			
+		} // elihw
+		
+		return new Block(aStart, content);
+		
+	} // block()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "IhxSparseMemory [pages=" + pages.size() + ", size=" + size + "]";
+	}
+	
+	
+	/**
+	 * Responsibilities:<br>
+	 * A contiguous area of populated bytes.
+	 */
+	public static class Block {
+		
+		protected final long startAddress;
+		protected final byte[] content;
+		
+		
+		protected Block(final long aStartAddress, final byte[] aContent) {
+			
+			startAddress = aStartAddress;
+			content = aContent;
+			
+		} // Block()
+		
+		
+		public long getStartAddress() { return startAddress; }
+		
+		public long getEndAddress() { return startAddress + content.length - 1; }
+		
+		public int getSize() { return content.length; }
+		
+		public byte[] getContent() { return content; }
+
+
+		/**
+		 * Returns a string representation of the current instance.
+		 * 
+		 * @return
+		 * a string representing the current state of this object. 
+		 */
+		@Override
+		public String toString() {
+			return String.format("Block [startAddress=0x%08X, size=%d]", startAddress, content.length);
+		}
+		
+		
+	} // class
+	
+	
+	/*
+	 * A page of the address space with a bit per byte marking the populated ones.
+	 */
+	protected static class Page {
+		
+		protected final byte[] data = new byte[PAGE_SIZE];
+		protected final long[] mask = new long[PAGE_SIZE / Long.SIZE];
+		
+		
+		/*
+		 * Copies aLength bytes to aIndex and returns the number of bytes that were set before.
+		 */
+		protected int put(final int aIndex, final byte[] aData, final int aOffset, final int aLength) {
+			
+			System.arraycopy(aData, aOffset, data, aIndex, aLength);
+			
+			int overwritten = 0;
+			
+			for(int index = aIndex; index < aIndex + aLength; index++) {
+				
+				long bit = 1L << (index & 0x3F);
+				
+				if((mask[index >>> 6] & bit) != 0) overwritten++;
+				
+				mask[index >>> 6] |= bit;
+				
+			} // rof
+			
+			return overwritten;
+			
+		} // put()
+		
+		
+		protected boolean isSet(final int aIndex) {
+			
+			return (mask[aIndex >>> 6] & (1L << (aIndex & 0x3F))) != 0;
+			
+		} // isSet()
+		
+		
+	} // class
+	
+
+} // ssalc
@@ -0,0 +1,332 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Ihx32MemoryRegionBuilder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx.x32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.model.ExtendableMemory;
+import extension.source.DataRecord;
+import extension.source.MemoryRegionBuilder;
+import source.ihx.IhxBlockRecord;
+import source.ihx.IhxException;
+import source.ihx.IhxOverlapIndex;
+import source.ihx.IhxRecord;
+import source.ihx.IhxRecordType;
+import source.ihx.IhxSparseMemory;
+
+/**
+ * Responsibilities:<br>
+ * IHX specific implementation of MemoryRegionBuilder for extended addresses.
+ * Receive IhxRecords of all record types and build the memory image of a 32 bit address space.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * IhxParser,<br>
+ * IhxSparseMemory,<br>
+ * IhxOverlapIndex,<br>
+ * MemoryRegionBuilder
+ * 
+ * <p>
+ * Description:<br>
+ * EXT_SEG and EXT_LIN records set the base address for the subsequent DATA records:
+ * <ul>
+ *   <li> EXT_SEG: base = segment * 16, the offset of the data wraps around within the 64 KB segment</li>
+ *   <li> EXT_LIN: base = upper 16 address bits * 65536</li>
+ * </ul>
+ * START_SEG and START_LIN records hold the entry point of the program, it's kept for getEntryPoint().
+ * <p>
+ * The DATA records are written into an IhxSparseMemory, so memory is only spent on the populated areas 
+ * of the address space. The records may therefore come in any order. 
+ * Records writing different bytes to the same address are resolved by the IhxOverlapIndex.
+ * On the EOF record each contiguous block of the image is handed over to the base class as a MemoryRegion.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class Ihx32MemoryRegionBuilder extends MemoryRegionBuilder {
+
+	private Logger logger = LogManager.getLogger(Ihx32MemoryRegionBuilder.class.getName());
+	
+	protected static final int SEGMENT_SIZE = 0x10000;
+	
+	protected final IhxSparseMemory memory = new IhxSparseMemory();
+	protected final IhxOverlapIndex overlapIndex;
+	
+	protected long baseAddress = 0;
+	protected boolean segmented = false;
+	protected long entryPoint = -1;
+	
+	
+	/**
+	 * Default constructor, conflicting DATA records are treated as an error.
+	 * 
+	 * @param aMemoryMap 
+	 * the MemoryMap which is build during a parsing process.
+	 * 
+	 */
+	public Ihx32MemoryRegionBuilder(final ExtendableMemory aMemoryMap) {
+		this(aMemoryMap, new IhxOverlapIndex());
+		
+	} // Ihx32MemoryRegionBuilder()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aMemoryMap 
+	 * the MemoryMap which is build during a parsing process.
+	 * 
+	 * @param aOverlapIndex
+	 * the index which resolves overlapping DATA records.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aOverlapIndex is null.
+	 */
+	public Ihx32MemoryRegionBuilder(final ExtendableMemory aMemoryMap, final IhxOverlapIndex aOverlapIndex) {
+		super(aMemoryMap);
+		
+		logger.trace("Ihx32MemoryRegionBuilder()");
+		
+		if(aOverlapIndex == null) throw new IllegalArgumentException("aOverlapIndex can't be null");
+		
+		overlapIndex = aOverlapIndex;
+		
+	} // Ihx32MemoryRegionBuilder()
+	
+	
+	/**
+	 * Takes an IhxRecord and decides on it's type the further processing.
+	 * 
+	 * @param aDataRecord 
+	 * an IhxRecord to process.
+	 * 
+	 * @throws IhxException<br>
+	 * if a record appears after an EOF record<br>
+	 * or an address record has an invalid length<br>
+	 * or a DATA record exceeds the address space<br>
+	 * or conflicts with an earlier DATA record and the policy is ERROR.
+	 */
+	@Override
+	public void append(final DataRecord aDataRecord) throws IhxException {
+		logger.trace("append(IhxRecord): aDataRecord = {}", aDataRecord);
+		
+		if(aDataRecord == null) throw new IllegalArgumentException("aDataRecord can't be null.");
+		if(eofFlag == true) throw new IhxException("Invalid file structure: DATA record after EOF record");
+		
+		IhxRecord record = (IhxRecord) aDataRecord;
+		
+		IhxRecordType recordType = record.getRecordType();
+		
+		if(recordType == IhxRecordType.DATA) {
+			
+			dataRecord(record);
+			
+		}
+		else if(recordType == IhxRecordType.EOF) {
+			
+			eofRecord();
+			
+		}
+		else if(recordType == IhxRecordType.EXT_SEG) {
+			
+			baseAddress = address(record, 2) << 4;
+			segmented = true;
+			
+		}
+		else if(recordType == IhxRecordType.EXT_LIN) {
+			
+			baseAddress = address(record, 2) << 16;
+			segmented = false;
+			
+		}
+		else if(recordType == IhxRecordType.START_SEG) {
+			
+			long address = address(record, 4);
+			entryPoint = ((address >>> 16) << 4) + (address & 0xFFFF);
+			
+		}
+		else if(recordType == IhxRecordType.START_LIN) {
+			
+			entryPoint = address(record, 4);
+			
+		}
+		else {
+			throw new IhxException("unknown recordType " + recordType);
+		}
+		
+	} // append()
+	
+	
+	@Override
+	public void clear() {
+		logger.trace("clear()");
+		
+		super.clear();
+		
+		memory.clear();
+		overlapIndex.clear();
+		baseAddress = 0;
+		segmented = false;
+		entryPoint = -1;
+		
+	} // clear()
+	
+	
+	/**
+	 * Returns the entry point given by a START_SEG or START_LIN record.
+	 * 
+	 * @return
+	 * the linear start address, -1 if the file doesn't define one.
+	 */
+	public long getEntryPoint() { return entryPoint; }
+	
+	
+	/**
+	 * Returns the memory image collected so far.
+	 * 
+	 * @return
+	 * the sparse memory holding all DATA records.
+	 */
+	public IhxSparseMemory getMemory() { return memory; }
+	
+	
+	/**
+	 * Returns the index which resolves overlapping DATA records.
+	 * 
+	 * @return
+	 * the overlap index, holding the policy and the conflicts of the last file.
+	 */
+	public IhxOverlapIndex getOverlapIndex() { return overlapIndex; }
+
+
+	/*
+	 * Writes the payload of a DATA record at base address + offset.
+	 * 
+	 * In segmented mode the offset wraps around at the end of the segment, the record is split in that case.
+	 * The address range is checked before, so only the bytes to keep are written.
+	 */
+	protected void dataRecord(final IhxRecord aDataRecord) throws IhxException {
+		logger.trace("dataRecord(IhxRecord): aDataRecord = {}", aDataRecord);
+		
+		byte[] data = aDataRecord.getData();
+		int offset = aDataRecord.getOffset();
+		
+		int head = segmented ? Math.min(data.length, SEGMENT_SIZE - offset) : data.length;
+		
+		int recordNumber = aDataRecord.getRecordNumber();
+		
+		if(! inRange(baseAddress + offset, head) || ! inRange(baseAddress, data.length - head)) 
+			throw new IhxException("Address out of range in line " + recordNumber);
+		
+		overlapIndex.add(recordNumber, baseAddress + offset, data, 0, head, memory::write);
+		
+		if(head < data.length) overlapIndex.add(recordNumber, baseAddress, data, head, data.length - head, memory::write);
+		
+	} // dataRecord()
+	
+	
+	/*
+	 * Handles an EOF record.
+	 * 
+	 * The eofFlag is set to true to indicate that no more records can be accepted.
+	 * Next, each block of the memory image is handed over to the base class as a memory region.
+	 */
+	protected void eofRecord() throws IhxException {
+		logger.trace("eofRecord()");
+		
+		eofFlag = true;
+		
+		int blockNumber = 0;
+		
+		for(IhxSparseMemory.Block block : memory.getBlocks()) {
+			
+			newRegion(new IhxBlockRecord(++blockNumber, block.getStartAddress(), block.getContent()));
+			logger.trace(String.format("newRegion: memoryRegion.endAddress = 0x%08X", memoryRegion.getEndAddress()));
+			endRegion();
+			
+		} // rof
+		
+	} // eofRecord()
+	
+	
+	/*
+	 * Tells whether aLength bytes starting at aAddress fit into the address space.
+	 */
+	protected boolean inRange(final long aAddress, final int aLength) {
+		
+		return aLength == 0 || (aAddress >= 0 && aAddress + aLength - 1 <= IhxSparseMemory.MAX_ADDRESS);
+		
+	} // inRange()
+	
+	
+	/*
+	 * Returns the big endian value of an address record, after checking the record length.
+	 */
+	protected long address(final IhxRecord aRecord, final int aLength) throws IhxException {
+		
+		byte[] data = aRecord.getData();
+		
+		if(data.length != aLength) 
+			throw new IhxException("Invalid " + aRecord.getRecordType() + " record in line " + aRecord.getRecordNumber());
+		
+		long address = 0;
+		
+		for(byte value : data) {
+			address = (address << 8) | (value & 0xFF);
+		} // rof
+		
+		return address;
+		
+	} // address()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "Ihx32MemoryRegionBuilder [eofRecord=" + eofFlag
+			+ ", baseAddress=" + baseAddress 
+			+ ", segmented=" + segmented 
+			+ ", entryPoint=" + entryPoint 
+			+ ", memory=" + memory
+			+ ", overlapIndex=" + overlapIndex
+			+ ", " + super.toString()
+			+ "]";
+	}
+
+
+} // ssalc
@@ -0,0 +1,126 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Ihx32Reader.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx.x32;
+
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.model.MemoryMap;
+import source.ihx.IhxException;
+import source.ihx.IhxMappedLexer;
+import source.ihx.IhxParallelParser;
+import source.ihx.x8.Ihx8Reader;
+
+/**
+ * Responsibilities:<br>
+ * Controls the loading of a ihx32 structured file, i.e. an Intel Hex file with extended address records.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Ihx8Reader,<br>
+ * Ihx32MemoryRegionBuilder.
+ * 
+ * <p>
+ * Description:<br>
+ * Same as the Ihx8Reader, but the records are handed over to an Ihx32MemoryRegionBuilder.
+ * The MemoryMap is served with the populated blocks of the 32 bit address space.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class Ihx32Reader extends Ihx8Reader {
+
+	private Logger logger = LogManager.getLogger(Ihx32Reader.class.getName());
+	
+	protected Ihx32MemoryRegionBuilder memoryRegionBuilder;
+	
+	
+	/**
+	 * Constructor, which takes a MemoryMap as parameter. <br>
+	 * This MemoryMap is served by the reader with every detected MemoryRegion.
+	 * 
+	 * @throws IhxException 
+	 * if the set up of Lexer and Parser fails.
+	 * 
+	 */
+	public Ihx32Reader(final MemoryMap aMemoryMap) throws IhxException {
+		super(aMemoryMap);
+		
+		logger.trace("Ihx32Reader()");
+		
+		filter = new FileNameExtensionFilter("Intel Hex 32", "hex", "ihx", "i32", "h32");
+		
+	} // Ihx32Reader()
+	
+	
+	/**
+	 * Returns the entry point of the program loaded last.
+	 * 
+	 * @return
+	 * the linear start address, -1 if the file doesn't define one.
+	 */
+	public long getEntryPoint() { return memoryRegionBuilder.getEntryPoint(); }
+	
+	
+	/*
+	 * Same as Ihx8Reader.setUp(), with the MemoryRegionBuilder for extended addresses.
+	 * Called by the constructor of the super class.
+	 */
+	@Override
+	protected void setUp() throws IhxException {
+		
+		memoryRegionBuilder = new Ihx32MemoryRegionBuilder(memoryMap, overlapIndex);
+		IhxMappedLexer mappedLexer = new IhxMappedLexer();
+		
+		lexer = mappedLexer;
+		parser = new IhxParallelParser(mappedLexer, memoryRegionBuilder);
+		
+	} // setUp()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "Ihx32Reader [memoryRegionBuilder=" + memoryRegionBuilder 
+				+ ", " + super.toString()
+				+ "]";
+	}
+	
+	
+} // ssalc
@@ -0,0 +1,88 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Ihx32ReaderExtension.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx.x32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.control.StatusMessenger;
+import extension.factory.InputReaderExtensionFactory;
+import extension.model.InputReaderExtensionDao;
+import extension.model.MemoryMap;
+import source.ihx.IhxException;
+import source.ihx.x8.Ihx8ReaderControl;
+
+/**
+ * Responsibilities:<br>
+ * Factory of the ihx32 input reader extension.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Ihx32Reader,<br>
+ * Ihx8ReaderControl.
+ * 
+ * <p>
+ * Description:<br>
+ * The memory regions are selected with the same control and GUI as for ihx8 files.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class Ihx32ReaderExtension implements InputReaderExtensionFactory {
+
+	private Logger logger = LogManager.getLogger(Ihx32ReaderExtension.class.getName());
+	
+	@Override
+	public InputReaderExtensionDao getInputReaderExtensions(StatusMessenger aStatusMessenger) {
+		logger.trace("getInputReaderExtensions(): aStatusMessenger = {}", aStatusMessenger);
+		
+		if(aStatusMessenger == null) throw new IllegalArgumentException("aStatusMessenger can't be null");
+		
+		try {
+			
+			MemoryMap memoryMap = new MemoryMap();
+			Ihx32Reader reader = new Ihx32Reader(memoryMap);
+			
+			Ihx8ReaderControl control = new Ihx8ReaderControl(aStatusMessenger);
+			
+			return new InputReaderExtensionDao(reader, memoryMap, control.getGui(), control);
+			
+		} catch (IhxException e) {
+			logger.error("Unable to initialize Ihx32Reader, reason: {}", e);
+		}
+		
+		return null;
+		
+	} // getInputReaderExtensions()
+
+	
+} // ssalc
@@ -0,0 +1,52 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : package-info.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+/**
+ * Responsibilities:<br>
+ * Encapsulates the extended address Intel Hex Format (ihx32) specific implementation of the
+ * MemoryRegionBuilder and Reader. 
+ * 
+ * <p>
+ * Collaborators: Packages<br>
+ * source.ihx,<br>
+ * source.ihx.x8,<br>
+ * model.
+ * 
+ * <p>
+ * Description:<br>
+ * Beside DATA and EOF records, the EXT_SEG, EXT_LIN, START_SEG and START_LIN records are processed,
+ * so images beyond 64 KB, e.g. for banked boards, can be loaded.
+ * Lexer and Parser are shared with the ihx8 reader.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+package source.ihx.x32;
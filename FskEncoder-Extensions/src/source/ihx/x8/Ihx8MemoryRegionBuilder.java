@@ -36,7 +36,10 @@ import org.apache.logging.log4j.Logger;
 import extension.model.ExtendableMemory;
 import extension.source.DataRecord;
 import extension.source.MemoryRegionBuilder;
+import source.ihx.IhxBlockRecord;
 import source.ihx.IhxException;
+import source.ihx.IhxExtentMap;
+import source.ihx.IhxOverlapIndex;
 import source.ihx.IhxRecord;
 import source.ihx.IhxRecordType;
 
@@ -48,6 +51,8 @@ import source.ihx.IhxRecordType;
  * <p>
  * Collaborators:<br>
  * IhxParser,<br>
+ * IhxExtentMap,<br>
+ * IhxOverlapIndex,<br>
  * MemoryRegionBuilder
  * 
  * <p>
@@ -55,6 +60,13 @@ import source.ihx.IhxRecordType;
  * The IhxMemoryRegionBuilder receives IhxRecords and determines on their IhxRecordType whether to treat it as 
  * DATA or as EOF record.<br>
  * The further processing of the incoming record is based on that decision.  
+ * <p>
+ * The DATA records are collected in an IhxExtentMap, which merges adjacent and overlapping records 
+ * regardless of their order in the file. On the EOF record each extent is handed over to the base class as 
+ * a MemoryRegion, so the file results in the fewest contiguous MemoryRegions.
+ * <p>
+ * Before, each DATA record passes the IhxOverlapIndex, which detects records writing different bytes 
+ * to the same address and resolves them according to its IhxOverlapPolicy.
  * 
  * <p>
  * @author Stefan
@@ -65,35 +77,58 @@ public class Ihx8MemoryRegionBuilder extends MemoryRegionBuilder {
 
 	private Logger logger = LogManager.getLogger(Ihx8MemoryRegionBuilder.class.getName());
 	
+	protected final IhxExtentMap extentMap = new IhxExtentMap();
+	protected final IhxOverlapIndex overlapIndex;
+	
 	/**
-	 * Default constructor.
+	 * Default constructor, conflicting DATA records are treated as an error.
 	 * 
 	 * @param aMemoryMap 
 	 * the MemoryMap which is build during a parsing process.
 	 * 
 	 */
 	public Ihx8MemoryRegionBuilder(final ExtendableMemory aMemoryMap) {
+		this(aMemoryMap, new IhxOverlapIndex());
+		
+	} // IhxMemoryRegionBuilder()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aMemoryMap 
+	 * the MemoryMap which is build during a parsing process.
+	 * 
+	 * @param aOverlapIndex
+	 * the index which resolves overlapping DATA records.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aOverlapIndex is null.
+	 */
+	public Ihx8MemoryRegionBuilder(final ExtendableMemory aMemoryMap, final IhxOverlapIndex aOverlapIndex) {
 		super(aMemoryMap);
 		
 		logger.trace("IhxMemoryRegionBuilder()");
 		
+		if(aOverlapIndex == null) throw new IllegalArgumentException("aOverlapIndex can't be null");
+		
+		overlapIndex = aOverlapIndex;
+		
 	} // IhxMemoryRegionBuilder()
 	
 	
 	/**
 	 * Takes an IhxRecord and decides on it's type (DATA or EOF) the further processing.
 	 * <p>
-	 * On receive of the first DATA record at all a new MemoryRegion object is created and feed with the DATA record. 
-	 * This MemoryRegion is feed with all subsequent DATA records.
-	 * <p>
-	 * If the source file contains more than one memory region, the creation of different MemoryRegions is handled 
-	 * in the base class. 
+	 * DATA records are collected and merged with the records they overlap or adjoin. 
+	 * On receive of the EOF record a MemoryRegion is created for each contiguous memory area.
 	 * 
 	 * @param aDataRecord 
 	 * an IhxRecord to process.
 	 * 
-	 * @throws IhxException 
-	 * if a DATA record appears after an EOF record.
+	 * @throws IhxException<br>
+	 * if a DATA record appears after an EOF record<br>
+	 * or conflicts with an earlier DATA record and the policy is ERROR.
 	 */
 	@Override
 	public void append(final DataRecord aDataRecord) throws IhxException {
@@ -121,27 +156,42 @@ public class Ihx8MemoryRegionBuilder extends MemoryRegionBuilder {
 	} // IhxDataRecord()
 
 
+	@Override
+	public void clear() {
+		logger.trace("clear()");
+		
+		super.clear();
+		
+		extentMap.clear();
+		overlapIndex.clear();
+		
+	} // clear()
+	
+	
+	/**
+	 * Returns the index which resolves overlapping DATA records.
+	 * 
+	 * @return
+	 * the overlap index, holding the policy and the conflicts of the last file.
+	 */
+	public IhxOverlapIndex getOverlapIndex() { return overlapIndex; }
+
+
 	/*
 	 * Processing of the DATA record.
 	 * 
-	 * If no memory region is defined, a new one is created and served with the current record.
-	 * 
-	 * All subsequent records are appended to that memory region until method extendRegion() of the superclass detects
-	 * a disruption of the current memory block. Than it closes the current memory region and requests this method 
-	 * to create a new memory region.
+	 * The payload is checked against the earlier records and the bytes to keep are merged into the extent map.
 	 * 
 	 */
-	protected void dataRecord(final IhxRecord aDataRecord) {
+	protected void dataRecord(final IhxRecord aDataRecord) throws IhxException {
 		logger.trace("dataRecord(IhxRecord): aDataRecord = {}", aDataRecord);
-
-		if(memoryRegion == null) {
-			newRegion((DataRecord) aDataRecord);
-			logger.trace(String.format("newRegion: memoryRegion.endAddress = 0x%04X", memoryRegion.getEndAddress()));
-		}
-		else {
-			logger.trace(String.format("extendRegion: memoryRegion.endAddress = 0x%04X", memoryRegion.getEndAddress()));
-			extendRegion((DataRecord) aDataRecord);
-		}
+		
+		long offset = aDataRecord.getOffset();
+		byte[] data = aDataRecord.getData();
+		
+		if(data == null || data.length == 0) return;
+		
+		overlapIndex.add(aDataRecord.getRecordNumber(), offset, data, 0, data.length, extentMap::put);
 		
 	} // dataRecord()
 	
@@ -150,14 +200,23 @@ public class Ihx8MemoryRegionBuilder extends MemoryRegionBuilder {
 	 * Handles an EOF record.
 	 * 
 	 * The eofRecord is set to true to indicate that no more records can be accepted.
-	 * Next, it requests the base class to close the current memory region. 
+	 * Next, each extent is handed over to the base class as a memory region. 
 	 * 
 	 */
-	protected void eofRecord() {
+	protected void eofRecord() throws IhxException {
 		logger.trace("eofRecord()");
 
-		eofFlag = true;			
-		endRegion();
+		eofFlag = true;
+		
+		int blockNumber = 0;
+		
+		for(IhxExtentMap.Extent extent : extentMap.getExtents()) {
+			
+			newRegion(new IhxBlockRecord(++blockNumber, extent.getStartAddress(), extent.getContent()));
+			logger.trace(String.format("newRegion: memoryRegion.endAddress = 0x%04X", memoryRegion.getEndAddress()));
+			endRegion();
+			
+		} // rof
 		
 	} // eofRecord()
 
@@ -172,6 +231,8 @@ public class Ihx8MemoryRegionBuilder extends MemoryRegionBuilder {
 	public String toString() {
 		return "IhxMemoryRegionBuilder [eofRecord=" + eofFlag
 			+ ", " + super.toString()
+			+ ", extentMap=" + extentMap
+			+ ", overlapIndex=" + overlapIndex
 			+ "]";
 	}
 
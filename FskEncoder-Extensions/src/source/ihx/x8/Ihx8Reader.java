@@ -32,7 +32,7 @@ package source.ihx.x8;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 
 import javax.swing.filechooser.FileNameExtensionFilter;
 
@@ -44,6 +44,10 @@ import extension.source.ReaderBase;
 import extension.source.ReaderException;
 import source.ihx.IhxException;
 import source.ihx.IhxLexer;
+import source.ihx.IhxMappedLexer;
+import source.ihx.IhxOverlapIndex;
+import source.ihx.IhxOverlapPolicy;
+import source.ihx.IhxParallelParser;
 import source.ihx.IhxParser;
 
 /**
@@ -61,8 +65,8 @@ import source.ihx.IhxParser;
  * 
  * <p>
  * Collaborators:<br>
- * IhxLexer,<br>
- * IhxParser,<br>
+ * IhxMappedLexer,<br>
+ * IhxParallelParser,<br>
  * MemoryMap,<br>
  * GUI.
  * 
@@ -83,17 +87,18 @@ public class Ihx8Reader extends ReaderBase {
 	protected IhxLexer lexer;
 	protected IhxParser parser;
 	
+	/*
+	 * The GUI has no control for the policy, LAST_WINS keeps files with conflicting records loading as before.
+	 */
+	protected final IhxOverlapIndex overlapIndex = new IhxOverlapIndex(IhxOverlapPolicy.LAST_WINS);
+	
 	
 	/**
 	 * Constructor, which takes a MemoryPas as parameter. <br>
 	 * This MemoryMap is served by the reader with every detected MemoryRegion.
 	 * 
 	 * @throws IhxException 
-	 * if the Parser is unable to parse a raw record.
-	 * 
-	 * @throws SecurityException 
-	 * @throws NoSuchMethodException 
-	 * If the Lexer is unable to create a raw record.
+	 * if the set up of Lexer and Parser fails.
 	 * 
 	 */
 	public Ihx8Reader(final MemoryMap aMemoryMap) throws IhxException {
@@ -103,22 +108,9 @@ public class Ihx8Reader extends ReaderBase {
 		
 		filter = new FileNameExtensionFilter("Intel Hex", "hex", "ihx", "i8x", "i8h");
 		
-		// TODO: test coverage
-
-		try {
-			
-			setUp();
-			
-			operationStatus = "Initialized.";
-			
-		} catch (NoSuchMethodException | SecurityException e) {
-
-			operationStatus = "Internal processing error, '" + e.getClass().getName() + ": " + e.getCause() + "'.";
-			logger.fatal(operationStatus);
-			
-			throw new IhxException("Unable to initialize IhxReader, details provided by getOperationStatus()");
-			
-		}
+		setUp();
+		
+		operationStatus = "Initialized.";
 
 	} // IhxReader()
 	
@@ -153,11 +145,7 @@ public class Ihx8Reader extends ReaderBase {
 			
 			return false;
 		
-		} catch (InstantiationException 
-				| IllegalAccessException
-				| IllegalArgumentException
-				| InvocationTargetException
-				e) {
+		} catch (IllegalArgumentException e) {
 			
 			operationStatus = "Internal processing error, '" + e.getClass().getName() + ": " + e.getCause() + "'.";
 			logger.fatal(operationStatus);
@@ -183,15 +171,45 @@ public class Ihx8Reader extends ReaderBase {
 	} // loadFile()
 	
 	
+	/**
+	 * Sets the policy for DATA records writing different bytes to the same address, 
+	 * applied from the next file loaded on. The default is LAST_WINS, 
+	 * callers like the batch encoder opt into ERROR to reject such files.
+	 * 
+	 * @param aPolicy
+	 * the policy to apply on conflicting records.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aPolicy is null.
+	 */
+	public void setOverlapPolicy(final IhxOverlapPolicy aPolicy) {
+		logger.trace("setOverlapPolicy(): aPolicy = {}", aPolicy);
+		
+		overlapIndex.setPolicy(aPolicy);
+		
+	} // setOverlapPolicy()
+	
+	
+	/**
+	 * Returns the conflicts of the file loaded last, resolved by the policy FIRST_WINS or LAST_WINS.
+	 * 
+	 * @return
+	 * the conflicting records in the order of their detection.
+	 */
+	public List<IhxOverlapIndex.Conflict> getConflicts() { return overlapIndex.getConflicts(); }
+	
+	
 	/*
 	 * Set up the environment to be ready to work. 
 	 */
-	protected void setUp() throws NoSuchMethodException, SecurityException {
+	protected void setUp() throws IhxException {
 		logger.trace("setUp()");
 		
-		Ihx8MemoryRegionBuilder memoryRegionBuilder = new Ihx8MemoryRegionBuilder(memoryMap);
-		lexer = new IhxLexer();
-		parser = new IhxParser(lexer, memoryRegionBuilder);
+		Ihx8MemoryRegionBuilder memoryRegionBuilder = new Ihx8MemoryRegionBuilder(memoryMap, overlapIndex);
+		IhxMappedLexer mappedLexer = new IhxMappedLexer();
+		
+		lexer = mappedLexer;
+		parser = new IhxParallelParser(mappedLexer, memoryRegionBuilder);
 		
 	} // setUp()
 
@@ -0,0 +1,76 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Mpf1ByteEnvelopeCache.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.microprofessor1;
+
+import extension.encoder.BitEncoder;
+import target.tape.ByteEnvelopeCache;
+
+/**
+ * Responsibilities:<br>
+ * Provide the sound samples of a complete MPF-1 envelope for every possible byte value.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BitEncoder, usually the Mpf1BitEncoder,<br>
+ * ByteEnvelopeCache.
+ * 
+ * <p>
+ * Description:<br>
+ * The MPF-1 envelope is fixed: 1 start bit '0', 8 data bits lsb first and 1 stop bit '1'.
+ * So all 256 envelopes are rendered once from the bit samples of the BitEncoder and stored 
+ * back to back in a single table, see ByteEnvelopeCache.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class Mpf1ByteEnvelopeCache extends ByteEnvelopeCache {
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param aBitEncoder
+	 * the bit encoder providing the samples for a single '0' and '1' bit.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aBitEncoder is null.
+	 */
+	public Mpf1ByteEnvelopeCache(final BitEncoder aBitEncoder) {
+		super(
+			aBitEncoder, 
+			Mpf1Protocol.NBR_START_BITS, Mpf1Protocol.START_BIT_VALUE, 
+			Mpf1Protocol.NBR_STOP_BITS, Mpf1Protocol.STOP_BIT_VALUE
+		);
+		
+	} // Mpf1ByteEnvelopeCache()
+
+
+} // class
@@ -29,7 +29,10 @@
 
 package target.microprofessor1;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,9 +44,16 @@ import extension.encoder.ByteOrder;
 import extension.encoder.Encoder;
 import extension.encoder.SilenceEncoder;
 import extension.encoder.WaveCycleEncoder;
-import extension.protocol.BackgroundTaskProtokol;
 import extension.protocol.DefaultChecksumCalculator;
 import extension.sound.FskAudioFormat;
+import target.tape.ByteEnvelopeCache;
+import target.tape.EdgeTimeline;
+import target.tape.SampleSink;
+import target.tape.TapeData;
+import target.tape.TapeJob;
+import target.tape.TapeProtocol;
+import target.tape.TapeSection;
+import target.tape.WaveformCache;
 
 /**
  * Responsibilities:<br>
@@ -57,7 +67,9 @@ import extension.sound.FskAudioFormat;
  * 	<li>SilenceEncoder</li>
  * 	<li>WaveCycleEncoder</li>
  * 	<li>Mpf1BitEncoder</li>
+ * 	<li>Mpf1ByteEnvelopeCache</li>
  * 	<li>Encoder</li>
+ * 	<li>TapeProtocol</li>
  * </ul>
  * 
  * <p>
@@ -140,7 +152,7 @@ import extension.sound.FskAudioFormat;
  *
  */
 
-public class Mpf1Protocol extends BackgroundTaskProtokol {
+public class Mpf1Protocol extends TapeProtocol {
 
 	private Logger logger = LogManager.getLogger(Mpf1Protocol.class.getName());
 	
@@ -180,6 +192,12 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 	protected static final int TAIL_SYNC			= 4000;		//cycle
 	protected static final int F_TAIL_SYNC			= 2000;		// Hz
 	
+	/*
+	 * Names of the cached waveforms
+	 */
+	protected static final String SILENCE			= "silence";
+	protected static final String WAVE_CYCLE		= "wave cycle";
+	
 
 	protected int numericFileName;
 	protected boolean haveFileName = false;
@@ -189,6 +207,8 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 	protected int endAdr;
 	protected boolean haveEndAdr = false;
 
+	protected Mpf1ByteEnvelopeCache envelopeCache;
+
 
 	/**
 	 * Constructor.
@@ -198,11 +218,13 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 		logger.trace("Mpf1Protocol()");
 		
 		checksumCalculator	= new DefaultChecksumCalculator(0x00FF);
+		byteSumMask			= 0x00FF;
 		
 		SilenceEncoder silenceEncoder = new SilenceEncoder(SAMPLING_RATE);
 		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(SAMPLING_RATE);
 		
 		BitEncoder bitEncoder = new Mpf1BitEncoder(waveCycleEncoder);
+		envelopeCache = new Mpf1ByteEnvelopeCache(bitEncoder);
 		
 		encoder = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
 			.withSilenceEncoder(silenceEncoder)
@@ -256,7 +278,28 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 	 * @return FskAudioFormat 
 	 * The used audio format
 	 */
+	@Override
 	public FskAudioFormat getAudioFormat() { return new FskAudioFormat(SAMPLING_RATE); }
+
+	
+	@Override
+	public int getSamplingRate() { return SAMPLING_RATE; }
+	
+	
+	/**
+	 * Takes file name, start address and end address from the job.
+	 */
+	@Override
+	public void configure(final TapeJob aJob) {
+		logger.trace("configure(): aJob = {}", aJob);
+		
+		if(aJob == null) throw new IllegalArgumentException("aJob can't be null");
+		
+		setFileName(aJob.getName());
+		setStartAddress(aJob.getStartAddress());
+		setEndAddress(aJob.getEndAddress());
+		
+	} // configure()
 	
 	
 	/**
@@ -276,15 +319,14 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 
 
 	/**
-	 * Starts the translation of the given data buffer and returns the generated sound samples.
-	 * 
-	 * Translation is performed according to the defined protocol.
-	 * A sound sample buffer is filled with all protocol elements and data and then returned.
+	 * Checks that file name, start address and end address are set.
 	 * 
+	 * @throws IllegalAccessError
+	 * if a parameter is missing or the start address isn't less than the end address.
 	 */
 	@Override
-	public ByteBuffer compile(final ByteBuffer aDataBuffer) {
-		logger.trace("compile(): aDataBuffer = {}", aDataBuffer);
+	protected void validate() {
+		logger.trace("validate()");
 		
 		if(!haveFileName) {
 			logger.trace("ERROR: aFileName not set!");
@@ -308,113 +350,156 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 				numericFileName, startAdr, endAdr, (endAdr - startAdr + 1))
 		);
 
-		isRunning = true;
-		currentProgress = 0;
-		setFullProgress(aDataBuffer.limit());
-		
-		calculateBufferSize(aDataBuffer);
-		encoder.setBufferSize(soundSampleBufferSize);
-		
-		logger.trace("compile(): buffer alloc");
-
-		// TODO: Test coverage
-		
-		try {
-			silence();
-			progress(SILENCE_BLOCK);
-			if(!isRunning) return null;
-						
-			syncPatern(F_LEAD_IN, LEAD_IN);			
-			progress(LEAD_IN);
-			if(!isRunning) return null;
-			
-			fileName();
-			progress(FILE_NAME);
-			if(!isRunning) return null;
-			
-			address(startAdr);
-			progress(START_ADR);
-			if(!isRunning) return null;
-			
-			address(endAdr);
-			progress(END_ADR);
-			if(!isRunning) return null;
-			
-			
-			checkSum(aDataBuffer);
-			progress(CK_SUM);
-			if(!isRunning) return null;
-			
-			
-			syncPatern(F_MID_SYNC, MID_SYNC);
-			progress(MID_SYNC);
-			if(!isRunning) return null;
-			
-			
-			dataBlock(aDataBuffer);
-			progress(aDataBuffer.limit());
-			if(!isRunning) return null;
-			
-			
-			syncPatern(F_TAIL_SYNC, TAIL_SYNC);
-			progress(TAIL_SYNC);
-			if(!isRunning) return null;
-			
-			
-			silence();
-			progress(SILENCE_BLOCK);
-			if(!isRunning) return null;
-			
-		}
-		catch(IllegalAccessException e) {
-			logger.error("Unexpected exception caught:", e);
-		}
-		
-		return encoder.getSampleBuffer();
-		
-	} // compile()
+	} // validate()
 	
 	
 	/*
-	 * Calculates the amount of sound samples needed.
+	 * Describes the MPF-1 tape as a list of sections.
 	 * 
 	 * The encoder knows the size of the sound samples and provides a method to obtain that value.
+	 * Each protocol element is multiplied by the number of items used for its encoding,
+	 * giving the maximum number of sound samples of that section.
 	 * 
-	 * Each protocol element is now multiplied by the number of items used for their encoding.
-	 * Lastly a sum is calculated over all protocol elements representing the maximum number of 
-	 * sound samples.
+	 * The data block is split into sections of at most aBlockSize bytes.
+	 * All MPF-1 envelopes have the same size and the envelope cache is thread-safe, 
+	 * so the data sections are concurrent ones.
 	 * 
 	 */
-	protected void calculateBufferSize(final ByteBuffer aDataBuffer) {
-		logger.trace("calculateBufferSize(): aDataBuffer = {}", aDataBuffer);
+	@Override
+	protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+		logger.trace("tapeLayout(): aTapeData = {}, aBlockSize = {}", aTapeData, aBlockSize);
 		
 		int sampleSize = encoder.getSampleSize();
-		int envelopeSize = 
-				(NBR_START_BITS * sampleSize) 
-			  + (8 * sampleSize) 
-			  + (NBR_STOP_BITS * sampleSize)
-			  ;
+		int envelopeSize = envelopeSize();
+		int silenceSize = silenceSamples(SAMPLING_RATE, SILENCE_BLOCK);
+		
+		WaveformCache.Key silenceWaveform = waveform(SILENCE, 0, SILENCE_BLOCK);
+		
+		List<TapeSection> layout = new ArrayList<>();
+		
 		/*
 		 * For a better readability a tabular form is used.
 		 */
-		soundSampleBufferSize
-			// item					mult	samples
-			= SILENCE_BLOCK				* 1		* (int)(SAMPLING_RATE * SILENCE_BLOCK / 1000) + 1	// samples
-			+ LEAD_IN				* 1		* sampleSize	// wave cycles
-			+ FILE_NAME				* 2		* envelopeSize	// word
-			+ START_ADR				* 2		* envelopeSize	// word
-			+ END_ADR				* 2		* envelopeSize	// word
-			+ CK_SUM				* 1		* envelopeSize	// bytes
-			+ MID_SYNC				* 1		* sampleSize	// wave cycles
-			+ aDataBuffer.limit()	* 1		* envelopeSize	// bytes
-			+ CK_SUM				* 1		* envelopeSize	// bytes
-			+ TAIL_SYNC				* 1		* sampleSize	// wave cycles
-			+ SILENCE_BLOCK				* 1		* (int)(SAMPLING_RATE * SILENCE_BLOCK / 1000) + 1	// samples
-			;
+		// 							section			item			mult	samples							progress		waveform
+		layout.add(cachedSection("silence",										silenceSize,					SILENCE_BLOCK,	silenceWaveform,	this::silence));
+		layout.add(cachedSection("lead sync",		LEAD_IN			* 1		* sampleSize,					LEAD_IN,		waveform(WAVE_CYCLE, F_LEAD_IN, LEAD_IN),		() -> syncPatern(F_LEAD_IN, LEAD_IN)));
+		layout.add(encoderSection("file name",		FILE_NAME		* 2		* envelopeSize,					FILE_NAME,		this::fileName));
+		layout.add(encoderSection("start address",	START_ADR		* 2		* envelopeSize,					START_ADR,		() -> address(startAdr)));
+		layout.add(encoderSection("end address",	END_ADR			* 2		* envelopeSize,					END_ADR,		() -> address(endAdr)));
+		layout.add(encoderSection(CHECKSUM_SECTION,		CK_SUM			* 1		* envelopeSize,					CK_SUM,			() -> checkSum(aTapeData)));
+		layout.add(cachedSection("mid sync",		MID_SYNC		* 1		* sampleSize,					MID_SYNC,		waveform(WAVE_CYCLE, F_MID_SYNC, MID_SYNC),		() -> syncPatern(F_MID_SYNC, MID_SYNC)));
+		
+		for(ByteBuffer block : aTapeData.blocks(aBlockSize)) {
+			layout.add(new TapeSection(DATA_SECTION,		block.limit()	* 1		* envelopeSize,					block.limit(),	sampleSink -> dataBlock(block, sampleSink),	true));
+		}
+		
+		layout.add(cachedSection("tail sync",		TAIL_SYNC		* 1		* sampleSize,					TAIL_SYNC,		waveform(WAVE_CYCLE, F_TAIL_SYNC, TAIL_SYNC),	() -> syncPatern(F_TAIL_SYNC, TAIL_SYNC)));
+		layout.add(cachedSection("silence",										silenceSize,					SILENCE_BLOCK,	silenceWaveform,	this::silence));
+		
+		return layout;
+		
+	} // tapeLayout()
+	
+	
+	/*
+	 * Same layout as tapeLayout(), as edges.
+	 */
+	@Override
+	protected void edgeLayout(final ByteBuffer aDataBuffer, final EdgeTimeline aTimeline) {
+		logger.trace("edgeLayout(): aDataBuffer = {}", aDataBuffer);
+		
+		aTimeline.silence(SILENCE_BLOCK);
+		aTimeline.cycles(F_LEAD_IN, LEAD_IN);
 		
-		logger.trace("soundSampleBufferSize = {}", soundSampleBufferSize);
+		edgeWord(numericFileName, aTimeline);
+		edgeWord(startAdr, aTimeline);
+		edgeWord(endAdr, aTimeline);
 		
-	} //calculateBufferSize()	
+		edgeByte((byte) dataChecksum(aDataBuffer), aTimeline);
+		
+		aTimeline.cycles(F_MID_SYNC, MID_SYNC);
+		
+		for(int n = 0; n < aDataBuffer.limit(); n++) {
+			edgeByte(aDataBuffer.get(n), aTimeline);
+		} // rof
+		
+		aTimeline.cycles(F_TAIL_SYNC, TAIL_SYNC);
+		aTimeline.silence(SILENCE_BLOCK);
+		
+	} // edgeLayout()
+	
+	
+	/*
+	 * '0' is 8 cycles F_HIGH and 2 cycles F_LOW, '1' is 4 cycles F_HIGH and 4 cycles F_LOW.
+	 */
+	@Override
+	protected void edgeBit(final int aBit, final EdgeTimeline aTimeline) {
+		
+		if(aBit == 0) {
+			aTimeline.cycles(F_HIGH, 8);
+			aTimeline.cycles(F_LOW, 2);
+		}
+		else {
+			aTimeline.cycles(F_HIGH, 4);
+			aTimeline.cycles(F_LOW, 4);
+		} // esle
+		
+	} // edgeBit()
+	
+	
+	protected void edgeByte(final byte aByte, final EdgeTimeline aTimeline) {
+		
+		edgeEnvelope(aByte, NBR_START_BITS, START_BIT_VALUE, NBR_STOP_BITS, STOP_BIT_VALUE, aTimeline);
+		
+	} // edgeByte()
+	
+	
+	/*
+	 * Low byte first.
+	 */
+	protected void edgeWord(final int aWord, final EdgeTimeline aTimeline) {
+		
+		edgeByte((byte) (aWord & 0x00FF), aTimeline);
+		edgeByte((byte) ((aWord >> 8) & 0x00FF), aTimeline);
+		
+	} // edgeWord()
+	
+	
+	@Override
+	protected ByteEnvelopeCache getEnvelopeCache() { return envelopeCache; }
+	
+	
+	@Override
+	protected String tapeParameters() {
+		
+		return String.format("0x%04X, 0x%04X, 0x%04X", numericFileName, startAdr, endAdr);
+		
+	} // tapeParameters()
+	
+	
+	/*
+	 * Same as the checksum section of the tape layout.
+	 */
+	@Override
+	protected void renderChecksum(final ByteBuffer aDataBuffer, final SampleSink aSampleSink) throws IllegalAccessException, IOException {
+		
+		encoder.setBufferSize(CK_SUM * envelopeSize());
+		checkSum(tapeData(aDataBuffer));
+		
+		aSampleSink.write(samples(encoder.getSampleBuffer()));
+		
+	} // renderChecksum()
+	
+	
+	/*
+	 * Start bit, 8 data bits and stop bit, as rendered by the envelope cache.
+	 */
+	@Override
+	protected int envelopeSize() {
+		
+		return envelopeCache.getMaxEnvelopeSize();
+		
+	} // envelopeSize()
 	
 
 	/*
@@ -433,30 +518,20 @@ public class Mpf1Protocol extends BackgroundTaskProtokol {
 	} //address()
 
 
-	protected void checkSum(final ByteBuffer aDataBuffer) throws IllegalAccessException {
-		logger.trace("chkSum()");
-		
-		aDataBuffer.rewind();
-		checksumCalculator.clear();
-		
-		logger.trace("dataBlock(): aDataBuffer = {}", aDataBuffer);
-		
-		for(int n = 0; n < aDataBuffer.limit(); n++) {
-//			logger.trace("dataBlock(): n = {}, byte = {}", n, String.format("%02X", aDataBuffer.get(n)));
-			checksumCalculator.sumUp(aDataBuffer.get(n));
-		}
+	protected void checkSum(final TapeData aTapeData) throws IllegalAccessException {
+		logger.trace("chkSum(): aTapeData = {}", aTapeData);
 		
-		int chkSum = checksumCalculator.getCheckSum();	
+		int chkSum = aTapeData.getChecksum();	
 		encoder.encodeByte((byte)chkSum, true);
 		
 	} //checkSum()
 
 
-	protected void dataBlock(final ByteBuffer aDataBuffer) throws IllegalAccessException {
-		logger.trace("dataBlock(): aDataBuffer = {}", aDataBuffer);
+	protected void dataBlock(final ByteBuffer aDataBlock, final SampleSink aSampleSink) throws IOException {
+		logger.trace("dataBlock(): aDataBlock = {}", aDataBlock);
 		
-		aDataBuffer.rewind();
-		encoder.encodeByteBuffer(aDataBuffer, true);
+		aDataBlock.rewind();
+		envelopeCache.encode(aDataBlock, aSampleSink);
 		
 	} //dataBlock()
 
@@ -0,0 +1,136 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ByteBufferDataStream.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Responsibilities:<br>
+ * Provide the data bytes held in a buffer as a DataStream.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol.
+ *
+ * <p>
+ * Description:<br>
+ * Each pass reads the buffer from index 0 up to its limit, the position of the buffer isn't changed.
+ * Mainly used to compare the pipelined compile with compile(ByteBuffer).
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ByteBufferDataStream implements DataStream {
+
+	protected final ByteBuffer dataBuffer;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aDataBuffer
+	 * the buffer holding the data bytes.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aDataBuffer is null.
+	 */
+	public ByteBufferDataStream(final ByteBuffer aDataBuffer) {
+
+		if(aDataBuffer == null) throw new IllegalArgumentException("aDataBuffer can't be null");
+
+		dataBuffer = aDataBuffer;
+
+	} // ByteBufferDataStream()
+
+
+	@Override
+	public int size() { return dataBuffer.limit(); }
+
+
+	@Override
+	public long byteSum() { return TapeProtocol.byteSum(dataBuffer, 0, dataBuffer.limit()); }
+
+
+	@Override
+	public ReadableByteChannel open() {
+
+		ByteBuffer data = dataBuffer.duplicate();
+		data.rewind();
+
+		return new ReadableByteChannel() {
+
+			protected boolean open = true;
+
+			@Override
+			public int read(final ByteBuffer aDestination) throws ClosedChannelException {
+
+				if(! open) throw new ClosedChannelException();
+				if(! data.hasRemaining()) return -1;
+
+				int length = Math.min(aDestination.remaining(), data.remaining());
+
+				ByteBuffer part = data.duplicate();
+				part.limit(part.position() + length);
+				aDestination.put(part);
+				data.position(data.position() + length);
+
+				return length;
+
+			} // read()
+
+			@Override
+			public boolean isOpen() { return open; }
+
+			@Override
+			public void close() { open = false; }
+
+		};
+
+	} // open()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "ByteBufferDataStream [dataBuffer=" + dataBuffer + "]";
+	}
+
+
+} // class
@@ -0,0 +1,179 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ByteBufferSampleSink.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Responsibilities:<br>
+ * Collect sound samples in a single heap buffer.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * SampleBlockIterator.
+ *
+ * <p>
+ * Description:<br>
+ * Used by TapeProtocol.compile(ByteBuffer) to assemble a complete tape in memory.
+ * The buffer is allocated once with the maximum size calculated from the tape layout.
+ * <p>
+ * SampleBlockIterator reuses a single instance to hold the samples of the section currently streamed,
+ * in that case the buffer grows to the size of the largest section.
+ * <p>
+ * TapeProtocol.compile(ByteBuffer, ForkJoinPool) lets each concurrent section write into its own slice of the tape.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ByteBufferSampleSink implements SampleSink {
+
+	protected ByteBuffer sampleBuffer;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aCapacity
+	 * the maximum number of samples the sink can take.
+	 */
+	public ByteBufferSampleSink(final int aCapacity) {
+
+		sampleBuffer = ByteBuffer.allocate(aCapacity);
+
+	} // ByteBufferSampleSink()
+
+
+	/**
+	 * Constructor, the samples are written into the given buffer.
+	 *
+	 * The buffer is only replaced by a larger one if more samples arrive than it can take.
+	 *
+	 * @param aSampleBuffer
+	 * the buffer to fill, starting at its current position.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aSampleBuffer is null.
+	 */
+	public ByteBufferSampleSink(final ByteBuffer aSampleBuffer) {
+
+		if(aSampleBuffer == null) throw new IllegalArgumentException("aSampleBuffer can't be null");
+
+		sampleBuffer = aSampleBuffer;
+
+	} // ByteBufferSampleSink()
+
+
+	@Override
+	public void write(final ByteBuffer aSamples) {
+
+		ensureCapacity(aSamples.remaining());
+		sampleBuffer.put(aSamples);
+
+	} // write()
+
+
+	@Override
+	public void write(final byte[] aSamples, final int aOffset, final int aLength) {
+
+		ensureCapacity(aLength);
+		sampleBuffer.put(aSamples, aOffset, aLength);
+
+	} // write()
+
+
+	/**
+	 * Discards all samples collected so far, the allocated buffer is kept.
+	 */
+	public void clear() {
+
+		sampleBuffer.clear();
+
+	} // clear()
+
+
+	/**
+	 * Returns the number of samples collected so far.
+	 *
+	 * @return
+	 * the current write position.
+	 */
+	public int position() { return sampleBuffer.position(); }
+
+
+	/**
+	 * Returns the collected samples.
+	 *
+	 * @return
+	 * a buffer with position 0 and the limit set behind the last sample written.
+	 */
+	public ByteBuffer getSampleBuffer() {
+
+		ByteBuffer samples = sampleBuffer.duplicate();
+		samples.flip();
+
+		return samples;
+
+	} // getSampleBuffer()
+
+
+	/*
+	 * Grows the buffer if aLength more samples don't fit.
+	 */
+	protected void ensureCapacity(final int aLength) {
+
+		if(sampleBuffer.remaining() >= aLength) return;
+
+		int capacity = Math.max(sampleBuffer.position() + aLength, sampleBuffer.capacity() * 2);
+
+		ByteBuffer grown = ByteBuffer.allocate(capacity);
+		sampleBuffer.flip();
+		grown.put(sampleBuffer);
+
+		sampleBuffer = grown;
+
+	} // ensureCapacity()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "ByteBufferSampleSink [sampleBuffer=" + sampleBuffer + "]";
+	}
+
+
+} // class
@@ -0,0 +1,373 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ByteEnvelopeCache.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.encoder.BitEncoder;
+import extension.encoder.BitValue;
+import extension.encoder.ByteOrder;
+
+/**
+ * Responsibilities:<br>
+ * Provide the sound samples of a complete envelope for every possible byte value.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BitEncoder,<br>
+ * SampleSink.
+ * 
+ * <p>
+ * Description:<br>
+ * An envelope consists of the start bits, 8 data bits lsb first and the stop bits.
+ * As long as the envelope is fixed, all 256 envelopes can be rendered from the bit samples 
+ * of the BitEncoder and stored back to back in a single table, together with the offset of each envelope.
+ * <p>
+ * Encoding a data byte is then reduced to a single bulk copy out of the table,
+ * instead of splitting the byte into bits and copying the bit samples one by one.
+ * <p>
+ * The table is built on first use and is read only afterwards, so an instance can be shared by several threads.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ByteEnvelopeCache {
+
+	private Logger logger = LogManager.getLogger(ByteEnvelopeCache.class.getName());
+	
+	protected static final int BYTE_VALUES		= 256;
+	
+	protected final BitEncoder bitEncoder;
+	
+	protected final int nbrStartBits;
+	protected final int startBit;
+	protected final int nbrStopBits;
+	protected final int stopBit;
+	
+	protected volatile byte[] envelopes;
+	protected final int[] offsets = new int[BYTE_VALUES + 1];
+	
+	protected int maxEnvelopeSize = 0;
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aBitEncoder
+	 * the bit encoder providing the samples for a single '0' and '1' bit.
+	 * 
+	 * @param aNbrStartBits
+	 * number of start bits.
+	 * 
+	 * @param aStartBitValue
+	 * value of the start bits.
+	 * 
+	 * @param aNbrStopBits
+	 * number of stop bits.
+	 * 
+	 * @param aStopBitValue
+	 * value of the stop bits.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * if aBitEncoder, aStartBitValue or aStopBitValue is null<br>
+	 * or the number of start or stop bits is negative.
+	 */
+	public ByteEnvelopeCache(
+			final BitEncoder aBitEncoder, 
+			final int aNbrStartBits, 
+			final BitValue aStartBitValue, 
+			final int aNbrStopBits, 
+			final BitValue aStopBitValue
+	) {
+		logger.trace("ByteEnvelopeCache(): aBitEncoder = {}", aBitEncoder);
+		
+		if(aBitEncoder == null) throw new IllegalArgumentException("aBitEncoder can't be null");
+		if(aStartBitValue == null) throw new IllegalArgumentException("aStartBitValue can't be null");
+		if(aStopBitValue == null) throw new IllegalArgumentException("aStopBitValue can't be null");
+		if(aNbrStartBits < 0) throw new IllegalArgumentException("aNbrStartBits can't be negative");
+		if(aNbrStopBits < 0) throw new IllegalArgumentException("aNbrStopBits can't be negative");
+		
+		bitEncoder = aBitEncoder;
+		
+		nbrStartBits = aNbrStartBits;
+		startBit = aStartBitValue == BitValue.HIGH ? 1 : 0;
+		nbrStopBits = aNbrStopBits;
+		stopBit = aStopBitValue == BitValue.HIGH ? 1 : 0;
+		
+	} // ByteEnvelopeCache()
+	
+	
+	/**
+	 * Writes the envelope of a single byte to aSampleSink.
+	 * 
+	 * @param aByte
+	 * the byte to encode.
+	 * 
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 * 
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	public void encode(final byte aByte, final SampleSink aSampleSink) throws IOException {
+		
+		byte[] table = table();
+		int value = aByte & 0xFF;
+		
+		aSampleSink.write(table, offsets[value], offsets[value + 1] - offsets[value]);
+		
+	} // encode()
+	
+	
+	/**
+	 * Writes the envelopes of all bytes between position and limit of aDataBuffer to aSampleSink.
+	 * 
+	 * The position of aDataBuffer isn't changed.
+	 * 
+	 * @param aDataBuffer
+	 * the bytes to encode.
+	 * 
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 * 
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	public void encode(final ByteBuffer aDataBuffer, final SampleSink aSampleSink) throws IOException {
+		logger.trace("encode(): aDataBuffer = {}", aDataBuffer);
+		
+		byte[] table = table();
+		
+		for(int n = aDataBuffer.position(); n < aDataBuffer.limit(); n++) {
+			
+			int value = aDataBuffer.get(n) & 0xFF;
+			
+			aSampleSink.write(table, offsets[value], offsets[value + 1] - offsets[value]);
+			
+		} // rof
+		
+	} // encode()
+	
+	
+	/**
+	 * Writes the envelopes of both bytes of a 16 bit word to aSampleSink.
+	 * 
+	 * @param aWord
+	 * the word to encode, only the lower 16 bits are used.
+	 * 
+	 * @param aByteOrder
+	 * BIG_ENDIAN sends the high byte first, LITTLE_ENDIAN the low byte.
+	 * 
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 * 
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	public void encodeWord(final int aWord, final ByteOrder aByteOrder, final SampleSink aSampleSink) throws IOException {
+		
+		byte loByte = (byte)(aWord & 0x00FF);
+		byte hiByte = (byte)((aWord >> 8) & 0x00FF);
+		
+		if(aByteOrder == ByteOrder.BIG_ENDIAN) {
+			encode(hiByte, aSampleSink);
+			encode(loByte, aSampleSink);
+		}
+		else {
+			encode(loByte, aSampleSink);
+			encode(hiByte, aSampleSink);
+		} // esle
+		
+	} // encodeWord()
+	
+	
+	/**
+	 * Returns the number of samples of the envelope for aByte.
+	 * 
+	 * @param aByte
+	 * the byte of interest.
+	 * 
+	 * @return
+	 * the size of the envelope in samples.
+	 */
+	public int getEnvelopeSize(final byte aByte) {
+		
+		table();
+		int value = aByte & 0xFF;
+		
+		return offsets[value + 1] - offsets[value];
+		
+	} // getEnvelopeSize()
+	
+	
+	/**
+	 * Returns the number of samples of the largest envelope.
+	 * 
+	 * @return
+	 * the maximum envelope size in samples.
+	 */
+	public int getMaxEnvelopeSize() { 
+		
+		table();
+		
+		return maxEnvelopeSize; 
+		
+	} // getMaxEnvelopeSize()
+	
+	
+	/*
+	 * Returns the envelope table, renders it on first use.
+	 */
+	protected byte[] table() {
+		
+		byte[] table = envelopes;
+		
+		if(table == null) {
+			synchronized(this) {
+				
+				table = envelopes;
+				
+				if(table == null) {
+					table = render();
+					envelopes = table;
+				}
+				
+			} // synchronized
+		} // fi
+		
+		return table;
+		
+	} // table()
+	
+	
+	/*
+	 * Renders all envelopes into a new table and fills in the offsets.
+	 */
+	protected byte[] render() {
+		logger.trace("render()");
+		
+		byte[][] bitSamples = new byte[][] {
+			samples(bitEncoder.encode(0, 1)),
+			samples(bitEncoder.encode(1, 1))
+		};
+		
+		int frameSize = nbrStartBits * bitSamples[startBit].length + nbrStopBits * bitSamples[stopBit].length;
+		
+		for(int value = 0; value < BYTE_VALUES; value++) {
+			
+			int envelopeSize = frameSize;
+			
+			for(int bit = 0; bit < 8; bit++) {
+				envelopeSize += bitSamples[(value >> bit) & 0x01].length;
+			} // rof
+			
+			offsets[value + 1] = offsets[value] + envelopeSize;
+			maxEnvelopeSize = Math.max(maxEnvelopeSize, envelopeSize);
+			
+		} // rof
+		
+		byte[] table = new byte[offsets[BYTE_VALUES]];
+		
+		for(int value = 0; value < BYTE_VALUES; value++) {
+			
+			int position = offsets[value];
+			
+			for(int n = 0; n < nbrStartBits; n++) {
+				position = append(table, bitSamples[startBit], position);
+			} // rof
+			
+			for(int bit = 0; bit < 8; bit++) {
+				position = append(table, bitSamples[(value >> bit) & 0x01], position);
+			} // rof
+			
+			for(int n = 0; n < nbrStopBits; n++) {
+				position = append(table, bitSamples[stopBit], position);
+			} // rof
+			
+		} // rof
+		
+		logger.trace("render(): table size = {}, maxEnvelopeSize = {}", table.length, maxEnvelopeSize);
+		
+		return table;
+		
+	} // render()
+	
+	
+	/*
+	 * Copies aSamples into aTable at aPosition and returns the position behind them.
+	 */
+	protected static int append(final byte[] aTable, final byte[] aSamples, final int aPosition) {
+		
+		System.arraycopy(aSamples, 0, aTable, aPosition, aSamples.length);
+		
+		return aPosition + aSamples.length;
+		
+	} // append()
+	
+	
+	/*
+	 * Extracts the samples of a bit, independent of whether the buffer was flipped or not.
+	 */
+	protected static byte[] samples(final ByteBuffer aBitSamples) {
+		
+		ByteBuffer samples = aBitSamples.duplicate();
+		
+		if(samples.position() != 0) samples.flip();
+		
+		byte[] bytes = new byte[samples.remaining()];
+		samples.get(bytes);
+		
+		return bytes;
+		
+	} // samples()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "ByteEnvelopeCache [nbrStartBits=" + nbrStartBits + ", startBit=" + startBit 
+				+ ", nbrStopBits=" + nbrStopBits + ", stopBit=" + stopBit 
+				+ ", rendered=" + (envelopes != null) 
+				+ "]";
+	}
+
+
+} // class
@@ -0,0 +1,99 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ChannelSampleSink.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Responsibilities:<br>
+ * Write sound samples to a WritableByteChannel.
+ *
+ * <p>
+ * Collaborators:<br>
+ * WritableByteChannel.
+ *
+ * <p>
+ * Description:<br>
+ * Adapter between the SampleSink interface and any NIO channel, e.g. a file, a pipe or a socket.
+ * The samples are written as raw PCM data, the channel is neither flushed nor closed.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ChannelSampleSink implements SampleSink {
+
+	protected final WritableByteChannel channel;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aChannel
+	 * the channel to write the samples to.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aChannel is null.
+	 */
+	public ChannelSampleSink(final WritableByteChannel aChannel) {
+
+		if(aChannel == null) throw new IllegalArgumentException("aChannel can't be null");
+
+		channel = aChannel;
+
+	} // ChannelSampleSink()
+
+
+	@Override
+	public void write(final ByteBuffer aSamples) throws IOException {
+
+		while(aSamples.hasRemaining()) {
+			channel.write(aSamples);
+		}
+
+	} // write()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "ChannelSampleSink [channel=" + channel + "]";
+	}
+
+
+} // class
@@ -0,0 +1,199 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ChunkingSampleSink.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Cut a stream of sound samples into chunks of a fixed size.
+ *
+ * <p>
+ * Collaborators:<br>
+ * SampleSink which receives the chunks.
+ *
+ * <p>
+ * Description:<br>
+ * The tape sections differ a lot in their size, from a single envelope up to several thousand wave cycles.
+ * This sink collects the incoming samples and forwards them in chunks of exactly aChunkSize samples.
+ * Only the very last chunk, delivered by flush(), may be shorter.
+ * <p>
+ * The chunk buffer is reused, the downstream sink must consume a chunk before it returns.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ChunkingSampleSink implements SampleSink {
+
+	private Logger logger = LogManager.getLogger(ChunkingSampleSink.class.getName());
+
+	protected final SampleSink sampleSink;
+	protected final ByteBuffer chunk;
+
+	protected long sampleCount = 0;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the chunks.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aChunkSize is less than 1<br>
+	 * or aSampleSink is null.
+	 */
+	public ChunkingSampleSink(final int aChunkSize, final SampleSink aSampleSink) {
+		logger.trace("ChunkingSampleSink(): aChunkSize = {}, aSampleSink = {}", aChunkSize, aSampleSink);
+
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+		if(aSampleSink == null) throw new IllegalArgumentException("aSampleSink can't be null");
+
+		sampleSink = aSampleSink;
+		chunk = ByteBuffer.allocate(aChunkSize);
+
+	} // ChunkingSampleSink()
+
+
+	@Override
+	public void write(final ByteBuffer aSamples) throws IOException {
+
+		sampleCount += aSamples.remaining();
+
+		while(aSamples.hasRemaining()) {
+
+			int length = Math.min(aSamples.remaining(), chunk.remaining());
+
+			ByteBuffer part = aSamples.duplicate();
+			part.limit(part.position() + length);
+			aSamples.position(aSamples.position() + length);
+
+			if(chunk.position() == 0 && length == chunk.capacity()) {
+
+				/*
+				 * A complete chunk is available in the source, no need to copy it.
+				 */
+				sampleSink.write(part);
+
+			}
+			else {
+
+				chunk.put(part);
+
+				if(! chunk.hasRemaining()) emit();
+
+			}
+
+		} // elihw
+
+	} // write()
+
+
+	@Override
+	public void write(final byte[] aSamples, final int aOffset, final int aLength) throws IOException {
+
+		sampleCount += aLength;
+
+		int offset = aOffset;
+		int remaining = aLength;
+
+		while(remaining > 0) {
+
+			int length = Math.min(remaining, chunk.remaining());
+
+			chunk.put(aSamples, offset, length);
+
+			offset += length;
+			remaining -= length;
+
+			if(! chunk.hasRemaining()) emit();
+
+		} // elihw
+
+	} // write()
+
+
+	/**
+	 * Delivers the samples collected so far, even if the chunk isn't complete.
+	 *
+	 * @throws IOException
+	 * if the downstream sink fails.
+	 */
+	public void flush() throws IOException {
+		logger.trace("flush(): chunk = {}", chunk);
+
+		if(chunk.position() > 0) emit();
+
+	} // flush()
+
+
+	/**
+	 * Returns the number of samples received by this sink.
+	 *
+	 * @return
+	 * the total number of samples written so far.
+	 */
+	public long getSampleCount() { return sampleCount; }
+
+
+	/*
+	 * Hands the current chunk over to the downstream sink and prepares it for reuse.
+	 */
+	protected void emit() throws IOException {
+
+		chunk.flip();
+		sampleSink.write(chunk);
+		chunk.clear();
+
+	} // emit()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "ChunkingSampleSink [chunk=" + chunk + ", sampleCount=" + sampleCount + "]";
+	}
+
+
+} // class
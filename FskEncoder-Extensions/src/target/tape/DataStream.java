@@ -0,0 +1,94 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : DataStream.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Responsibilities:<br>
+ * Provide the data bytes of a tape without holding them in a buffer.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * ByteBufferDataStream.
+ *
+ * <p>
+ * Description:<br>
+ * TapeProtocol.compile(DataStream, SampleSink, int) reads the data bytes while the tape is rendered,
+ * e.g. straight from the records of a source file.
+ * The size has to be known in advance, the header of a tape holds the addresses of the data block.
+ * A stream that finds its size by a pre-scan should sum up the bytes on the way, see byteSum().
+ * The checksum in the header is then known before the data is read.
+ * <p>
+ * Each call of open() starts a new pass over the data. Without a byte sum the protocol reads the data twice: 
+ * a pass for the checksum in the header, then the data block itself.
+ * All passes must deliver the same bytes.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public interface DataStream {
+
+	/**
+	 * Returns the number of data bytes.
+	 *
+	 * @return
+	 * the number of bytes each pass delivers.
+	 */
+	int size();
+
+
+	/**
+	 * Starts a new pass over the data.
+	 *
+	 * @return
+	 * a channel delivering the data bytes in address order, the caller closes it.
+	 *
+	 * @throws IOException
+	 * if the data can't be read.
+	 */
+	ReadableByteChannel open() throws IOException;
+
+
+	/**
+	 * Returns the sum of all data bytes, each taken as a value from 0 to 255.
+	 *
+	 * @return
+	 * the byte sum or -1 if it's unknown, then the protocol reads an extra pass to calculate the checksum.
+	 */
+	default long byteSum() { return -1; }
+
+
+} // interface
@@ -0,0 +1,203 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : DataStreamRenderer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Render the tape of a DataStream, reading each data block just before it's encoded.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * DataStream,<br>
+ * TapeData.
+ *
+ * <p>
+ * Description:<br>
+ * Used by TapeProtocol.compile(DataStream, SampleSink, int), an instance renders a single stream.
+ * The checksum is taken from the stream before the tape is laid out, see TapeProtocol.streamChecksum().
+ * The layout gets a TapeData of the stream: its size, this checksum and blocks that are all views of
+ * a single buffer of one block. The buffer is filled from the stream in front of each data section,
+ * so reading, encoding and output overlap and the memory needed doesn't depend on the size of the data.
+ * <p>
+ * All state lives in the renderer, the protocol and its other compile modes aren't affected.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class DataStreamRenderer {
+
+	private Logger logger = LogManager.getLogger(DataStreamRenderer.class.getName());
+
+	protected final TapeProtocol protocol;
+	protected final DataStream dataStream;
+	protected final int blockSize;
+	protected final int size;
+
+	protected ByteBuffer block;
+	protected int filled = 0;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aProtocol
+	 * the protocol whose tape is rendered.
+	 *
+	 * @param aDataStream
+	 * the data to translate.
+	 *
+	 * @param aBlockSize
+	 * the maximum number of data bytes per data section.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aProtocol or aDataStream is null<br>
+	 * or aBlockSize is less than 1.
+	 */
+	public DataStreamRenderer(final TapeProtocol aProtocol, final DataStream aDataStream, final int aBlockSize) {
+
+		if(aProtocol == null) throw new IllegalArgumentException("aProtocol can't be null");
+		if(aDataStream == null) throw new IllegalArgumentException("aDataStream can't be null");
+		if(aBlockSize < 1) throw new IllegalArgumentException("aBlockSize must be greater than 0");
+
+		protocol = aProtocol;
+		dataStream = aDataStream;
+		blockSize = aBlockSize;
+		size = aDataStream.size();
+
+	} // DataStreamRenderer()
+
+
+	/**
+	 * Renders the tape into aSampleSink.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @return
+	 * true if the complete tape was delivered, false if the translation was stopped.
+	 *
+	 * @throws IOException<br>
+	 * if the stream can't be read or doesn't deliver its size in bytes<br>
+	 * or a section can't be rendered<br>
+	 * or the sink fails.
+	 */
+	public boolean render(final SampleSink aSampleSink) throws IOException {
+		logger.trace("render(): aSampleSink = {}", aSampleSink);
+
+		int checksum = protocol.streamChecksum(dataStream, blockSize);
+
+		block = ByteBuffer.allocate(Math.min(blockSize, size));
+		filled = 0;
+
+		List<TapeSection> layout = protocol.tapeLayout(new TapeData(size, () -> checksum, this::view), blockSize);
+
+		try(ReadableByteChannel channel = dataStream.open()) {
+
+			for(TapeSection section : layout) {
+
+				/*
+				 * A data section encodes a view of block, its bytes are read now.
+				 */
+				if(TapeProtocol.DATA_SECTION.equals(section.getName())) fill(channel);
+
+				try {
+					if(! protocol.renderSection(section, aSampleSink)) return false;
+				}
+				catch(IllegalAccessException e) {
+					throw new IOException("section " + section.getName() + " can't be rendered", e);
+				}
+
+			} // rof
+
+		} // yrt
+
+		return true;
+
+	} // render()
+
+
+	/*
+	 * The block source of the TapeData, each data section sees the first aLength bytes of block.
+	 */
+	protected ByteBuffer view(final int aPosition, final int aLength) {
+
+		ByteBuffer view = block.duplicate();
+		view.clear();
+		view.limit(aLength);
+
+		return view.slice();
+
+	} // view()
+
+
+	/*
+	 * Reads the next blockSize bytes, or the rest of the data, from aChannel into block.
+	 */
+	protected void fill(final ReadableByteChannel aChannel) throws IOException {
+
+		ByteBuffer target = block.duplicate();
+		target.clear();
+		target.limit(Math.min(blockSize, size - filled));
+
+		while(target.hasRemaining()) {
+
+			if(aChannel.read(target) < 0) throw new IOException("data stream ended after " + (filled + target.position()) + " of " + size + " bytes");
+
+		} // elihw
+
+		filled += target.position();
+
+	} // fill()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "DataStreamRenderer [dataStream=" + dataStream + ", blockSize=" + blockSize + ", size=" + size + ", filled=" + filled + "]";
+	}
+
+
+} // class
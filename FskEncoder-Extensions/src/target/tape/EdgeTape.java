@@ -0,0 +1,278 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : EdgeTape.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Responsibilities:<br>
+ * Hold an EdgeTimeline rendered at one sampling rate as run-length encoded square-wave edges.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TimelineRenderer which builds the edges from an EdgeTimeline,<br>
+ * SampleSink which receives the expanded PCM samples.
+ *
+ * <p>
+ * Description:<br>
+ * The protocols describe a tape only once, as an EdgeTimeline in nanoseconds. 
+ * TimelineRenderer.toEdgeTape() rounds each half period of the timeline to whole samples of one sampling rate, 
+ * the result is kept here. Unlike the timeline an EdgeTape is expanded without any further timing calculation, 
+ * e.g. chunk by chunk into a WAV file by the batch encoder.
+ * <p>
+ * A cycle is a high level for the first half of its samples and a low level for the second half.
+ * An entry holds a run of equal cycles in a single int:
+ * <blockquote><tt><pre>
+ *   bits 31..16   number of cycles, 1 .. 65535
+ *   bits 15.. 8   samples at high level
+ *   bits  7.. 0   samples at low level
+ * </pre></tt></blockquote>
+ * An entry with no high and no low samples is a run of silence, its count is the number of samples.
+ * <p>
+ * A sync pattern of thousands of cycles is a single entry and a data byte just a few entries,
+ * so the tape takes a fraction of the memory of its PCM samples. 
+ * The edges are expanded to 8 bit signed PCM only when they are written to a sink.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class EdgeTape {
+
+	public static final byte HIGH_LEVEL		=  127;
+	public static final byte LOW_LEVEL		= -127;
+	public static final byte SILENCE_LEVEL	=    0;
+
+	protected static final int MAX_COUNT	= 0xFFFF;
+	protected static final int MAX_HALF		= 0xFF;
+
+	protected final int samplingRate;
+
+	protected int[] entries = new int[256];
+	protected int entryCount = 0;
+	protected long sampleCount = 0;
+
+
+	/**
+	 * Constructor, used by TimelineRenderer.toEdgeTape().
+	 *
+	 * @param aSamplingRate
+	 * the sampling rate the edges are measured in.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aSamplingRate is less than 1.
+	 */
+	protected EdgeTape(final int aSamplingRate) {
+
+		if(aSamplingRate < 1) throw new IllegalArgumentException("aSamplingRate must be greater than 0");
+
+		samplingRate = aSamplingRate;
+
+	} // EdgeTape()
+
+
+	/**
+	 * Expands the edges to 8 bit signed PCM samples and delivers them in chunks.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk, the last chunk may be shorter.
+	 *
+	 * @throws IOException
+	 * if the sink fails.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aSampleSink is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public void expand(final SampleSink aSampleSink, final int aChunkSize) throws IOException {
+
+		if(aSampleSink == null) throw new IllegalArgumentException("aSampleSink can't be null");
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+
+		byte[] chunk = new byte[aChunkSize];
+		int position = 0;
+
+		for(int n = 0; n < entryCount; n++) {
+
+			int entry = entries[n];
+			int count = entry >>> 16;
+			int high = (entry >> 8) & MAX_HALF;
+			int low = entry & MAX_HALF;
+
+			/*
+			 * Silence is a single run of count samples, a cycle a run of high and a run of low samples.
+			 */
+			int runs = high + low == 0 ? 1 : count * 2;
+
+			for(int run = 0; run < runs; run++) {
+
+				int length;
+				byte level;
+
+				if(high + low == 0) {
+					length = count;
+					level = SILENCE_LEVEL;
+				}
+				else if((run & 0x01) == 0) {
+					length = high;
+					level = HIGH_LEVEL;
+				}
+				else {
+					length = low;
+					level = LOW_LEVEL;
+				} // esle
+
+				while(length > 0) {
+
+					int part = Math.min(length, aChunkSize - position);
+
+					Arrays.fill(chunk, position, position + part, level);
+
+					position += part;
+					length -= part;
+
+					if(position == aChunkSize) {
+						aSampleSink.write(chunk, 0, position);
+						position = 0;
+					} // fi
+
+				} // elihw
+
+			} // rof
+
+		} // rof
+
+		if(position > 0) aSampleSink.write(chunk, 0, position);
+
+	} // expand()
+
+
+	/**
+	 * Expands the complete tape into a single buffer.
+	 *
+	 * @return
+	 * the 8 bit signed PCM samples.
+	 *
+	 * @throws IllegalStateException
+	 * if the tape exceeds the size of a buffer.
+	 */
+	public ByteBuffer toSamples() {
+
+		if(sampleCount > Integer.MAX_VALUE) throw new IllegalStateException("tape exceeds " + Integer.MAX_VALUE + " samples");
+
+		ByteBufferSampleSink sampleSink = new ByteBufferSampleSink((int) sampleCount);
+
+		try {
+			expand(sampleSink, TapeProtocol.DEFAULT_CHUNK_SIZE);
+		}
+		catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return sampleSink.getSampleBuffer();
+
+	} // toSamples()
+
+
+	public int getSamplingRate() { return samplingRate; }
+
+	public long getSampleCount() { return sampleCount; }
+
+	public int getEntryCount() { return entryCount; }
+
+
+	/**
+	 * Returns the memory taken by the edges.
+	 *
+	 * @return
+	 * the number of bytes used by the entries.
+	 */
+	public long getByteSize() { return (long) entryCount * Integer.BYTES; }
+
+
+	/*
+	 * Appends aCount cycles of aHigh and aLow samples, extending the last entry if it has the same shape.
+	 * aHigh and aLow 0 append aCount samples of silence. The caller keeps aHigh and aLow within MAX_HALF.
+	 */
+	protected void append(final int aHigh, final int aLow, final int aCount) {
+
+		sampleCount += (long) aCount * (aHigh + aLow == 0 ? 1 : aHigh + aLow);
+
+		int shape = (aHigh << 8) | aLow;
+		int remaining = aCount;
+
+		if(entryCount > 0 && remaining > 0) {
+
+			int last = entries[entryCount - 1];
+
+			if((last & 0xFFFF) == shape) {
+
+				int count = Math.min(MAX_COUNT - (last >>> 16), remaining);
+
+				entries[entryCount - 1] = last + (count << 16);
+				remaining -= count;
+
+			} // fi
+
+		} // fi
+
+		while(remaining > 0) {
+
+			int count = Math.min(MAX_COUNT, remaining);
+
+			if(entryCount == entries.length) entries = Arrays.copyOf(entries, entries.length * 2);
+
+			entries[entryCount++] = (count << 16) | shape;
+			remaining -= count;
+
+		} // elihw
+
+	} // append()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "EdgeTape [samplingRate=" + samplingRate + ", entryCount=" + entryCount + ", sampleCount=" + sampleCount + "]";
+	}
+
+
+} // class
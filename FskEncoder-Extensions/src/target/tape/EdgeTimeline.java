@@ -0,0 +1,259 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : EdgeTimeline.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.util.Arrays;
+
+/**
+ * Responsibilities:<br>
+ * Describe a tape as a timeline of square-wave half periods, independent of any sampling rate.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol which builds the timeline,<br>
+ * TimelineRenderer which turns it into PCM samples,<br>
+ * EdgeTape.
+ *
+ * <p>
+ * Description:<br>
+ * The protocols lay out a tape as wave cycles of a given frequency and periods of silence.
+ * The timeline keeps the durations of the half periods in nanoseconds, so the same timeline can be rendered 
+ * at the sampling rate of the target system as well as at the one preferred by the sound card, 
+ * without running the protocol logic again.
+ * <p>
+ * An entry holds a run of equal cycles in a single long:
+ * <blockquote><tt><pre>
+ *   bits 63..48   number of cycles, 1 .. 65535
+ *   bits 47..24   duration of the high half period in ns
+ *   bits 23.. 0   duration of the low half period in ns
+ * </pre></tt></blockquote>
+ * An entry without a high half period is a run of silence, each repetition lasts the duration of its low half period.
+ * <p>
+ * A half period is limited to 16.7 ms, the lowest frequency is therefore 30 Hz.
+ * A tape of some hundred thousand bits takes a few ten thousand entries, much less than its PCM samples.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class EdgeTimeline {
+
+	public static final long NANOS_PER_SECOND	= 1_000_000_000L;
+
+	protected static final int NANOS_PER_MILLI	= 1_000_000;
+	protected static final int MAX_COUNT		= 0xFFFF;
+	protected static final int MAX_HALF			= 0xFFFFFF;
+
+	protected long[] entries = new long[256];
+	protected int entryCount = 0;
+	protected long duration = 0;
+
+
+	/**
+	 * Appends wave cycles of the given frequency.
+	 *
+	 * @param aFrequency
+	 * the frequency in Hz.
+	 *
+	 * @param aCount
+	 * the number of cycles.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aFrequency is outside 30 Hz to 500 MHz<br>
+	 * or aCount is negative.
+	 */
+	public void cycles(final int aFrequency, final int aCount) {
+
+		if(aFrequency < 1) throw new IllegalArgumentException("aFrequency must be greater than 0");
+		if(aCount < 0) throw new IllegalArgumentException("aCount can't be negative");
+
+		long period = Math.round((double) NANOS_PER_SECOND / aFrequency);
+		long high = period / 2;
+		long low = period - high;
+
+		if(high < 1 || low > MAX_HALF) throw new IllegalArgumentException("a cycle of " + aFrequency + " Hz is out of range");
+
+		append((int) high, (int) low, aCount);
+
+	} // cycles()
+
+
+	/**
+	 * Appends a period of silence.
+	 *
+	 * @param aMilliSeconds
+	 * the duration of the silence.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aMilliSeconds is negative.
+	 */
+	public void silence(final int aMilliSeconds) {
+
+		if(aMilliSeconds < 0) throw new IllegalArgumentException("aMilliSeconds can't be negative");
+
+		append(0, NANOS_PER_MILLI, aMilliSeconds);
+
+	} // silence()
+
+
+	/**
+	 * Returns the number of cycles, or repetitions of silence, of the given entry.
+	 *
+	 * @param aIndex
+	 * index of the entry.
+	 *
+	 * @return
+	 * the repeat count.
+	 */
+	public int getCount(final int aIndex) { return (int) (entry(aIndex) >>> 48); }
+
+
+	/**
+	 * Returns the duration of the high half period of the given entry.
+	 *
+	 * @param aIndex
+	 * index of the entry.
+	 *
+	 * @return
+	 * the duration in ns, 0 if the entry is silence.
+	 */
+	public int getHigh(final int aIndex) { return (int) (entry(aIndex) >>> 24) & MAX_HALF; }
+
+
+	/**
+	 * Returns the duration of the low half period of the given entry.
+	 *
+	 * @param aIndex
+	 * index of the entry.
+	 *
+	 * @return
+	 * the duration in ns, for silence the duration of a single repetition.
+	 */
+	public int getLow(final int aIndex) { return (int) entry(aIndex) & MAX_HALF; }
+
+
+	/**
+	 * Tells whether the given entry is a run of silence.
+	 *
+	 * @param aIndex
+	 * index of the entry.
+	 *
+	 * @return
+	 * true if the entry has no high half period.
+	 */
+	public boolean isSilence(final int aIndex) { return getHigh(aIndex) == 0; }
+
+
+	public int getEntryCount() { return entryCount; }
+
+
+	/**
+	 * Returns the playing time of the timeline.
+	 *
+	 * @return
+	 * the duration in ns.
+	 */
+	public long getDuration() { return duration; }
+
+
+	/**
+	 * Returns the memory taken by the timeline.
+	 *
+	 * @return
+	 * the number of bytes used by the entries.
+	 */
+	public long getByteSize() { return (long) entryCount * Long.BYTES; }
+
+
+	/*
+	 * Returns the raw entry at aIndex.
+	 */
+	protected long entry(final int aIndex) {
+
+		if(aIndex < 0 || aIndex >= entryCount) throw new IndexOutOfBoundsException("aIndex " + aIndex + " out of 0 .. " + (entryCount - 1));
+
+		return entries[aIndex];
+
+	} // entry()
+
+
+	/*
+	 * Appends aCount repetitions of aHigh and aLow ns, extending the last entry if it has the same shape.
+	 */
+	protected void append(final int aHigh, final int aLow, final int aCount) {
+
+		duration += (long) aCount * (aHigh + aLow);
+
+		long shape = ((long) aHigh << 24) | aLow;
+		int remaining = aCount;
+
+		if(entryCount > 0 && remaining > 0) {
+
+			long last = entries[entryCount - 1];
+
+			if((last & 0xFFFF_FFFF_FFFFL) == shape) {
+
+				int count = Math.min(MAX_COUNT - (int) (last >>> 48), remaining);
+
+				entries[entryCount - 1] = last + ((long) count << 48);
+				remaining -= count;
+
+			} // fi
+
+		} // fi
+
+		while(remaining > 0) {
+
+			int count = Math.min(MAX_COUNT, remaining);
+
+			if(entryCount == entries.length) entries = Arrays.copyOf(entries, entries.length * 2);
+
+			entries[entryCount++] = ((long) count << 48) | shape;
+			remaining -= count;
+
+		} // elihw
+
+	} // append()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "EdgeTimeline [entryCount=" + entryCount + ", duration=" + duration + "]";
+	}
+
+
+} // class
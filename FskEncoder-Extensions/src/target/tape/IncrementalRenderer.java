@@ -0,0 +1,175 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IncrementalRenderer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Render a tape completely once and patch it for the following versions of the data.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * IncrementalTape.
+ *
+ * <p>
+ * Description:<br>
+ * Used by TapeProtocol.compileIncremental(ByteBuffer), each protocol instance owns one renderer.
+ * The tape of the last render is kept as IncrementalTape. If it can be patched for the new data,
+ * the progress of all sections is reported again and the patched samples are returned.
+ * Otherwise the tape is rendered section by section, the sample offsets of the first DATA_SECTION
+ * and of the CHECKSUM_SECTION are noted and a new IncrementalTape is created from them.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IncrementalRenderer {
+
+	private Logger logger = LogManager.getLogger(IncrementalRenderer.class.getName());
+
+	protected final TapeProtocol protocol;
+	protected IncrementalTape tape;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aProtocol
+	 * the protocol whose tape is rendered.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aProtocol is null.
+	 */
+	public IncrementalRenderer(final TapeProtocol aProtocol) {
+
+		if(aProtocol == null) throw new IllegalArgumentException("aProtocol can't be null");
+
+		protocol = aProtocol;
+
+	} // IncrementalRenderer()
+
+
+	/**
+	 * Renders the tape of aDataBuffer, reusing the tape of the previous call if possible.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @return
+	 * the sound samples or null if the translation was stopped or a section can't be rendered.
+	 */
+	public ByteBuffer render(final ByteBuffer aDataBuffer) {
+		logger.trace("render(): aDataBuffer = {}", aDataBuffer);
+
+		try {
+
+			IncrementalTape previous = tape;
+
+			if(previous != null && previous.patch(aDataBuffer)) {
+
+				for(int sectionProgress : previous.getProgress()) {
+					protocol.reportProgress(sectionProgress);
+				} // rof
+
+				return previous.getSamples();
+
+			} // fi
+
+			tape = null;
+
+			List<TapeSection> layout = protocol.tapeLayout(protocol.tapeData(aDataBuffer), Math.max(1, aDataBuffer.limit()));
+
+			ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(TapeSection.sampleCount(layout));
+
+			int dataOffset = -1;
+			int checksumOffset = -1;
+			int[] progress = new int[layout.size()];
+
+			for(int n = 0; n < layout.size(); n++) {
+
+				TapeSection section = layout.get(n);
+
+				if(TapeProtocol.DATA_SECTION.equals(section.getName()) && dataOffset < 0) dataOffset = sampleSink.position();
+				if(TapeProtocol.CHECKSUM_SECTION.equals(section.getName())) checksumOffset = sampleSink.position();
+
+				progress[n] = section.getProgress();
+
+				if(! protocol.renderSection(section, sampleSink)) return null;
+
+			} // rof
+
+			ByteBuffer samples = sampleSink.getSampleBuffer();
+
+			tape = IncrementalTape.create(protocol, samples, aDataBuffer, dataOffset, checksumOffset, progress);
+
+			return tape != null ? tape.getSamples() : samples;
+
+		}
+		catch(IllegalAccessException | IOException e) {
+			logger.error("Unexpected exception caught:", e);
+		}
+
+		return null;
+
+	} // render()
+
+
+	/**
+	 * Drops the kept tape, the next call renders the tape completely.
+	 */
+	public void reset() {
+		logger.trace("reset()");
+
+		tape = null;
+
+	} // reset()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "IncrementalRenderer [tape=" + tape + "]";
+	}
+
+
+} // class
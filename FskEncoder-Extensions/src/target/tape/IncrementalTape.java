@@ -0,0 +1,381 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IncrementalTape.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Keep the last compiled tape and patch it when only some data bytes change.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * ByteEnvelopeCache.
+ *
+ * <p>
+ * Description:<br>
+ * Each data byte is rendered into an envelope of its own, so the sample offset of every envelope is known.
+ * The tape keeps the samples, a copy of the data and these offsets.
+ * A new version of the data with the same size and the same tape parameters is compared byte by byte,
+ * only the envelopes of the changed bytes and the checksum envelope are rendered again and written in place.
+ * <p>
+ * If an envelope or the checksum changes its size, e.g. a Z80 trainer byte with a different number of '1' bits, 
+ * the following samples move. The tape is then copied into a new buffer: the unchanged samples in runs as large 
+ * as possible, the changed envelopes and the checksum rendered again, the trailing sync and silence at their new offset.
+ * <p>
+ * As long as no size changes the sample buffer is reused, a patch changes the samples returned by the previous compile.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class IncrementalTape {
+
+	private Logger logger = LogManager.getLogger(IncrementalTape.class.getName());
+
+	protected final TapeProtocol protocol;
+	protected final ByteEnvelopeCache envelopeCache;
+	protected final String parameters;
+	protected ByteBuffer samples;
+	protected final byte[] data;
+	protected final int[] envelopeOffsets;
+	protected int checksumOffset;
+	protected int checksumLength;
+	protected final int[] progress;
+
+
+	/*
+	 * Use create(), it verifies the offsets.
+	 */
+	protected IncrementalTape(
+			final TapeProtocol aProtocol, 
+			final String aParameters, 
+			final ByteBuffer aSamples, 
+			final byte[] aData, 
+			final int[] aEnvelopeOffsets, 
+			final int aChecksumOffset, 
+			final int aChecksumLength,
+			final int[] aProgress
+	) {
+
+		protocol = aProtocol;
+		envelopeCache = aProtocol.getEnvelopeCache();
+		parameters = aParameters;
+		samples = aSamples;
+		data = aData;
+		envelopeOffsets = aEnvelopeOffsets;
+		checksumOffset = aChecksumOffset;
+		checksumLength = aChecksumLength;
+		progress = aProgress;
+
+	} // IncrementalTape()
+
+
+	/**
+	 * Creates the incremental tape for a completely rendered tape.
+	 *
+	 * @param aProtocol
+	 * the protocol that rendered the tape.
+	 *
+	 * @param aSamples
+	 * the samples of the complete tape, position 0 and limit behind the last sample.
+	 *
+	 * @param aDataBuffer
+	 * the data of the tape.
+	 *
+	 * @param aDataOffset
+	 * the sample offset of the first data envelope.
+	 *
+	 * @param aChecksumOffset
+	 * the sample offset of the checksum envelope, -1 if it follows the last data envelope.
+	 *
+	 * @param aProgress
+	 * the progress of each section, reported again on every patch.
+	 *
+	 * @return
+	 * the new tape or null if the samples at the given offsets don't match the data.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to render the checksum.
+	 *
+	 * @throws IOException
+	 * never, the checksum is rendered into memory.
+	 */
+	public static IncrementalTape create(
+			final TapeProtocol aProtocol, 
+			final ByteBuffer aSamples, 
+			final ByteBuffer aDataBuffer, 
+			final int aDataOffset, 
+			final int aChecksumOffset, 
+			final int[] aProgress
+	) throws IllegalAccessException, IOException {
+
+		ByteEnvelopeCache cache = aProtocol.getEnvelopeCache();
+
+		byte[] data = new byte[aDataBuffer.limit()];
+		aDataBuffer.duplicate().clear().get(data);
+
+		int[] envelopeOffsets = new int[data.length + 1];
+		envelopeOffsets[0] = aDataOffset;
+
+		for(int n = 0; n < data.length; n++) {
+			envelopeOffsets[n + 1] = envelopeOffsets[n] + cache.getEnvelopeSize(data[n]);
+		} // rof
+
+		ByteBuffer checksum = checksum(aProtocol, ByteBuffer.wrap(data));
+		int checksumOffset = aChecksumOffset < 0 ? envelopeOffsets[data.length] : aChecksumOffset;
+
+		IncrementalTape tape = new IncrementalTape(
+			aProtocol, aProtocol.tapeParameters(), aSamples, data, envelopeOffsets, checksumOffset, checksum.remaining(), aProgress
+		);
+
+		/*
+		 * The offsets follow from the tape layout, a cheap plausibility check guards against a layout they don't fit.
+		 * The checksum is either in front of the data envelopes or behind them.
+		 */
+		boolean consistent = aDataOffset >= 0 
+			&& checksumOffset + checksum.remaining() <= aSamples.limit()
+			&& (checksumOffset + checksum.remaining() <= aDataOffset || checksumOffset >= envelopeOffsets[data.length])
+			&& tape.region(checksumOffset, checksum.remaining()).equals(checksum)
+			&& (data.length == 0 || tape.region(envelopeOffsets[0], envelopeOffsets[1] - envelopeOffsets[0]).equals(tape.envelope(data[0])))
+			&& (data.length == 0 || tape.region(envelopeOffsets[data.length - 1], envelopeOffsets[data.length] - envelopeOffsets[data.length - 1]).equals(tape.envelope(data[data.length - 1])));
+
+		if(! consistent) {
+			tape.logger.warn("create(): layout doesn't match the data, incremental compile is disabled");
+			return null;
+		}
+
+		return tape;
+
+	} // create()
+
+
+	/**
+	 * Patches the tape for a new version of the data.
+	 *
+	 * @param aDataBuffer
+	 * the new data, from index 0 up to its limit.
+	 *
+	 * @return
+	 * true if the tape was patched, false if size or tape parameters changed and it has to be rendered completely.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to render the checksum.
+	 *
+	 * @throws IOException
+	 * never, the samples are patched in memory.
+	 */
+	public boolean patch(final ByteBuffer aDataBuffer) throws IllegalAccessException, IOException {
+		logger.trace("patch(): aDataBuffer = {}", aDataBuffer);
+
+		if(aDataBuffer.limit() != data.length) return false;
+		if(! parameters.equals(protocol.tapeParameters())) return false;
+
+		List<Integer> changes = new ArrayList<>();
+		boolean resized = false;
+
+		for(int n = 0; n < data.length; n++) {
+
+			byte value = aDataBuffer.get(n);
+
+			if(value != data[n]) {
+
+				if(envelopeCache.getEnvelopeSize(value) != envelopeOffsets[n + 1] - envelopeOffsets[n]) resized = true;
+
+				changes.add(n);
+
+			} // fi
+
+		} // rof
+
+		logger.trace("patch(): {} bytes changed, resized = {}", changes.size(), resized);
+
+		if(changes.isEmpty()) return true;
+
+		ByteBuffer checksum = checksum(protocol, aDataBuffer.duplicate());
+
+		if(resized || checksum.remaining() != checksumLength) {
+
+			resize(aDataBuffer, changes, checksum);
+
+			return true;
+
+		} // fi
+
+		for(int n : changes) {
+
+			data[n] = aDataBuffer.get(n);
+			envelopeCache.encode(data[n], region(envelopeOffsets[n], envelopeOffsets[n + 1] - envelopeOffsets[n])::put);
+
+		} // rof
+
+		region(checksumOffset, checksumLength).put(checksum);
+
+		return true;
+
+	} // patch()
+
+
+	/*
+	 * Copies the tape into a buffer of the new size. 
+	 * The changed envelopes and the checksum are rendered, all other samples are copied in runs between them.
+	 * The envelope offsets and the checksum offset are moved by the size changes in front of them.
+	 */
+	protected void resize(final ByteBuffer aDataBuffer, final List<Integer> aChanges, final ByteBuffer aChecksum) throws IOException {
+
+		boolean checksumFirst = checksumOffset < envelopeOffsets[0];
+		int checksumDelta = aChecksum.remaining() - checksumLength;
+
+		int[] offsets = new int[envelopeOffsets.length];
+		offsets[0] = envelopeOffsets[0] + (checksumFirst ? checksumDelta : 0);
+
+		for(int n = 0; n < data.length; n++) {
+			offsets[n + 1] = offsets[n] + envelopeCache.getEnvelopeSize(aDataBuffer.get(n));
+		} // rof
+
+		int dataDelta = offsets[data.length] - envelopeOffsets[data.length];
+
+		ByteBuffer resized = ByteBuffer.allocate(samples.limit() + dataDelta + (checksumFirst ? 0 : checksumDelta));
+		int from = 0;
+
+		if(checksumFirst) {
+
+			resized.put(region(from, checksumOffset - from));
+			resized.put(aChecksum.duplicate());
+			from = checksumOffset + checksumLength;
+
+		} // fi
+
+		for(int n : aChanges) {
+
+			resized.put(region(from, envelopeOffsets[n] - from));
+
+			data[n] = aDataBuffer.get(n);
+			envelopeCache.encode(data[n], resized::put);
+
+			from = envelopeOffsets[n + 1];
+
+		} // rof
+
+		int newChecksumOffset = checksumOffset;
+
+		if(! checksumFirst) {
+
+			resized.put(region(from, checksumOffset - from));
+			newChecksumOffset = resized.position();
+			resized.put(aChecksum.duplicate());
+			from = checksumOffset + checksumLength;
+
+		} // fi
+
+		resized.put(region(from, samples.limit() - from));
+		resized.flip();
+
+		samples = resized;
+		checksumOffset = newChecksumOffset;
+		checksumLength = aChecksum.remaining();
+		System.arraycopy(offsets, 0, envelopeOffsets, 0, offsets.length);
+
+	} // resize()
+
+
+	/**
+	 * Returns the samples of the tape.
+	 *
+	 * @return
+	 * a view of the samples with position 0, it reflects later patches.
+	 */
+	public ByteBuffer getSamples() { return samples.duplicate(); }
+
+
+	public int[] getProgress() { return progress; }
+
+
+	/*
+	 * Renders the checksum envelope of aDataBuffer.
+	 */
+	protected static ByteBuffer checksum(final TapeProtocol aProtocol, final ByteBuffer aDataBuffer) throws IllegalAccessException, IOException {
+
+		ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(aProtocol.envelopeSize());
+		aProtocol.renderChecksum(aDataBuffer, sampleSink);
+
+		return sampleSink.getSampleBuffer();
+
+	} // checksum()
+
+
+	/*
+	 * Renders the envelope of a single byte.
+	 */
+	protected ByteBuffer envelope(final byte aByte) throws IOException {
+
+		ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(envelopeCache.getEnvelopeSize(aByte));
+		envelopeCache.encode(aByte, sampleSink);
+
+		return sampleSink.getSampleBuffer();
+
+	} // envelope()
+
+
+	/*
+	 * A writable view of aLength samples at aOffset.
+	 */
+	protected ByteBuffer region(final int aOffset, final int aLength) {
+
+		ByteBuffer region = samples.duplicate();
+		region.limit(aOffset + aLength).position(aOffset);
+
+		return region.slice();
+
+	} // region()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "IncrementalTape [parameters=" + parameters + ", samples=" + samples + ", dataSize=" + data.length 
+			+ ", checksumOffset=" + checksumOffset + ", checksumLength=" + checksumLength + "]";
+	}
+
+
+} // class
@@ -0,0 +1,291 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ParallelRenderer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Render the concurrent sections of a single tape in parallel, each into its precomputed slice of the result.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * TapeSection,<br>
+ * ForkJoinPool.
+ *
+ * <p>
+ * Description:<br>
+ * Used by TapeProtocol.compile(ByteBuffer, ForkJoinPool).
+ * The sections sharing the protocol's Encoder, like silence, sync pattern and header, are small.
+ * They are rendered first by the calling thread, each into a buffer of its own.
+ * Their real size and the exact size of the concurrent sections give the offset of every section in the result.
+ * Then the concurrent sections are rendered in parallel, each straight into its slice of the result,
+ * so a large image takes roughly as long as its largest range.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ParallelRenderer {
+
+	private Logger logger = LogManager.getLogger(ParallelRenderer.class.getName());
+
+	protected final TapeProtocol protocol;
+	protected final ForkJoinPool pool;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aProtocol
+	 * the protocol whose tape is rendered.
+	 *
+	 * @param aPool
+	 * the pool rendering the concurrent sections.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aProtocol or aPool is null.
+	 */
+	public ParallelRenderer(final TapeProtocol aProtocol, final ForkJoinPool aPool) {
+
+		if(aProtocol == null) throw new IllegalArgumentException("aProtocol can't be null");
+		if(aPool == null) throw new IllegalArgumentException("aPool can't be null");
+
+		protocol = aProtocol;
+		pool = aPool;
+
+	} // ParallelRenderer()
+
+
+	/**
+	 * Renders all sections of aLayout.
+	 *
+	 * @param aLayout
+	 * the tape layout.
+	 *
+	 * @return
+	 * the sound samples or null if the translation was stopped or a section can't be rendered.
+	 *
+	 * @throws IllegalArgumentException
+	 * if the tape exceeds Integer.MAX_VALUE samples.
+	 */
+	public ByteBuffer render(final List<TapeSection> aLayout) {
+		logger.trace("render(): aLayout = {}", aLayout);
+
+		int sectionCount = aLayout.size();
+		ByteBuffer[] serialSamples = new ByteBuffer[sectionCount];
+		int[] offsets = new int[sectionCount + 1];
+
+		/*
+		 * Sequential part, it fixes the offsets of all sections.
+		 */
+		try {
+			for(int n = 0; n < sectionCount; n++) {
+
+				TapeSection section = aLayout.get(n);
+
+				if(section.isConcurrent()) {
+
+					offsets[n + 1] = Math.addExact(offsets[n], section.getSampleCount());
+
+				}
+				else {
+
+					ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(section.getSampleCount());
+					section.render(sampleSink);
+
+					serialSamples[n] = sampleSink.getSampleBuffer();
+					offsets[n + 1] = Math.addExact(offsets[n], serialSamples[n].remaining());
+
+				} // esle
+
+				if(! protocol.running()) return null;
+
+			} // rof
+		}
+		catch(IllegalAccessException | IOException e) {
+			logger.error("Unexpected exception caught:", e);
+
+			/*
+			 * The offsets of the following sections are unknown, the tape can't be assembled.
+			 */
+			return null;
+		}
+		catch(ArithmeticException e) {
+			throw new IllegalArgumentException("tape exceeds " + Integer.MAX_VALUE + " samples");
+		}
+
+		byte[] samples = new byte[offsets[sectionCount]];
+
+		/*
+		 * Parallel part.
+		 */
+		List<RecursiveAction> tasks = new ArrayList<>();
+
+		for(int n = 0; n < sectionCount; n++) {
+
+			if(serialSamples[n] != null) {
+
+				serialSamples[n].get(samples, offsets[n], serialSamples[n].remaining());
+
+			}
+			else {
+
+				tasks.add(new SectionTask(aLayout.get(n), ByteBuffer.wrap(samples, offsets[n], offsets[n + 1] - offsets[n]).slice()));
+
+			} // esle
+
+		} // rof
+
+		try {
+
+			pool.invoke(new RecursiveAction() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() { invokeAll(tasks); }
+
+			});
+
+		}
+		catch(UncheckedIOException e) {
+			logger.error("Unexpected exception caught:", e.getCause());
+
+			/*
+			 * The slice of the broken section is incomplete, like the sequential part the tape is dropped.
+			 */
+			return null;
+		}
+
+		boolean running = true;
+
+		for(TapeSection section : aLayout) {
+			running = protocol.reportProgress(section.getProgress());
+		} // rof
+
+		if(! running) return null;
+
+		return ByteBuffer.wrap(samples);
+
+	} // render()
+
+
+	/**
+	 * Number of data bytes rendered per concurrent section, about four sections per worker thread.
+	 *
+	 * @param aDataSize
+	 * the number of data bytes.
+	 *
+	 * @param aParallelism
+	 * the number of worker threads.
+	 *
+	 * @return
+	 * the block size, at least TapeProtocol.MIN_PARALLEL_BLOCK.
+	 */
+	public static int blockSize(final int aDataSize, final int aParallelism) {
+
+		int blocks = Math.max(1, aParallelism) * 4;
+
+		return Math.max(TapeProtocol.MIN_PARALLEL_BLOCK, (aDataSize + blocks - 1) / blocks);
+
+	} // blockSize()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "ParallelRenderer [pool=" + pool + "]";
+	}
+
+
+	/*
+	 * Renders a concurrent section into its slice of the tape.
+	 * A section that can't be rendered fails the task with an UncheckedIOException, its cause tells why.
+	 */
+	protected class SectionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final TapeSection section;
+		protected final ByteBuffer slice;
+
+
+		protected SectionTask(final TapeSection aSection, final ByteBuffer aSlice) {
+
+			section = aSection;
+			slice = aSlice;
+
+		} // SectionTask()
+
+
+		@Override
+		protected void compute() {
+
+			if(! protocol.running()) return;
+
+			ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(slice);
+
+			try {
+				section.render(sampleSink);
+			}
+			catch(IllegalAccessException | IOException e) {
+				throw new UncheckedIOException(new IOException("section " + section.getName() + " can't be rendered", e));
+			}
+
+			if(sampleSink.position() != slice.capacity()) {
+				throw new IllegalStateException(
+					"section " + section.getName() + " rendered " + sampleSink.position() + " instead of " + slice.capacity() + " samples"
+				);
+			}
+
+		} // compute()
+
+
+	} // class
+
+
+} // class
@@ -0,0 +1,141 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : SampleBlockChannel.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Responsibilities:<br>
+ * Provide the sound samples of a tape as a ReadableByteChannel.
+ *
+ * <p>
+ * Collaborators:<br>
+ * SampleBlockIterator.
+ *
+ * <p>
+ * Description:<br>
+ * Created by TapeProtocol.channel(ByteBuffer, int).
+ * Adapter that pulls sample blocks from a SampleBlockIterator whenever the reader needs more samples.
+ * The channel reaches its end after the last section of the tape.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SampleBlockChannel implements ReadableByteChannel {
+
+	protected final SampleBlockIterator blocks;
+
+	protected ByteBuffer current = ByteBuffer.allocate(0);
+	protected boolean open = true;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aBlocks
+	 * the iterator providing the sample blocks.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aBlocks is null.
+	 */
+	public SampleBlockChannel(final SampleBlockIterator aBlocks) {
+
+		if(aBlocks == null) throw new IllegalArgumentException("aBlocks can't be null");
+
+		blocks = aBlocks;
+
+	} // SampleBlockChannel()
+
+
+	@Override
+	public int read(final ByteBuffer aDestination) throws IOException {
+
+		if(! open) throw new ClosedChannelException();
+
+		int count = 0;
+
+		try {
+			while(aDestination.hasRemaining()) {
+
+				if(! current.hasRemaining()) {
+
+					if(! blocks.hasNext()) break;
+
+					current = blocks.next();
+
+				} // fi
+
+				int length = Math.min(aDestination.remaining(), current.remaining());
+
+				ByteBuffer part = current.duplicate();
+				part.limit(part.position() + length);
+				aDestination.put(part);
+
+				current.position(current.position() + length);
+				count += length;
+
+			} // elihw
+		}
+		catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		return (count == 0 && aDestination.hasRemaining()) ? -1 : count;
+
+	} // read()
+
+
+	@Override
+	public boolean isOpen() { return open; }
+
+
+	@Override
+	public void close() { open = false; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "SampleBlockChannel [blocks=" + blocks + ", open=" + open + "]";
+	}
+
+
+} // class
@@ -0,0 +1,214 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : SampleBlockIterator.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Provide the sound samples of a tape as a sequence of fixed-size blocks, rendered on demand.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * TapeSection,<br>
+ * ByteBufferSampleSink.
+ *
+ * <p>
+ * Description:<br>
+ * Created by TapeProtocol.stream(ByteBuffer, int).
+ * Sections are rendered lazily, one at a time, while the caller pulls blocks by next(),
+ * so the audio line can start with the first block and the memory used stays in the range of
+ * the chunk size plus the largest non-data section.
+ * <p>
+ * The returned block is reused, it is only valid until the next call of hasNext() or next().
+ * <p>
+ * If the protocol is stopped the iteration ends after the section currently rendered.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SampleBlockIterator implements Iterator<ByteBuffer> {
+
+	private Logger logger = LogManager.getLogger(SampleBlockIterator.class.getName());
+
+	protected final TapeProtocol protocol;
+	protected final Iterator<TapeSection> sections;
+
+	protected final ByteBuffer block;
+	protected final ByteBufferSampleSink sectionSink;
+
+	protected ByteBuffer pending;
+	protected boolean blockReady = false;
+	protected boolean finished = false;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aProtocol
+	 * the protocol that renders the sections.
+	 *
+	 * @param aLayout
+	 * the sections of the tape.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per block.
+	 */
+	protected SampleBlockIterator(final TapeProtocol aProtocol, final List<TapeSection> aLayout, final int aChunkSize) {
+		logger.trace("SampleBlockIterator(): aLayout = {}, aChunkSize = {}", aLayout, aChunkSize);
+
+		protocol = aProtocol;
+		sections = aLayout.iterator();
+
+		block = ByteBuffer.allocate(aChunkSize);
+		sectionSink = new ByteBufferSampleSink(aChunkSize);
+
+		pending = ByteBuffer.allocate(0);
+
+	} // SampleBlockIterator()
+
+
+	@Override
+	public boolean hasNext() {
+
+		if(! blockReady) fill();
+
+		return block.hasRemaining();
+
+	} // hasNext()
+
+
+	/**
+	 * Returns the next block of samples.
+	 *
+	 * @return
+	 * a buffer holding up to aChunkSize samples, valid until the next call.
+	 *
+	 * @throws NoSuchElementException
+	 * if all samples of the tape were delivered.
+	 *
+	 * @throws UncheckedIOException
+	 * if a section fails to render.
+	 */
+	@Override
+	public ByteBuffer next() {
+
+		if(! hasNext()) throw new NoSuchElementException("end of tape reached");
+
+		blockReady = false;
+
+		return block;
+
+	} // next()
+
+
+	/*
+	 * Collects the samples of the next block, rendering sections as needed.
+	 */
+	protected void fill() {
+
+		block.clear();
+
+		while(block.hasRemaining()) {
+
+			if(! pending.hasRemaining() && ! advance()) break;
+
+			int length = Math.min(block.remaining(), pending.remaining());
+
+			ByteBuffer part = pending.duplicate();
+			part.limit(part.position() + length);
+			block.put(part);
+
+			pending.position(pending.position() + length);
+
+		} // elihw
+
+		block.flip();
+		blockReady = true;
+
+	} // fill()
+
+
+	/*
+	 * Renders the next section into the section buffer.
+	 * 
+	 * Returns false if there are no more sections or the protocol was stopped.
+	 */
+	protected boolean advance() {
+
+		if(finished || ! sections.hasNext()) return false;
+
+		sectionSink.clear();
+
+		TapeSection section = sections.next();
+
+		try {
+
+			finished = ! protocol.renderSection(section, sectionSink);
+
+		}
+		catch(IllegalAccessException e) {
+			throw new UncheckedIOException(new IOException("section " + section.getName() + " can't be rendered", e));
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		pending = sectionSink.getSampleBuffer();
+
+		return true;
+
+	} // advance()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "SampleBlockIterator [block=" + block + ", pending=" + pending + ", finished=" + finished + "]";
+	}
+
+
+} // class
@@ -0,0 +1,93 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : SampleSink.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Responsibilities:<br>
+ * Receive sound samples while a tape is rendered.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * TapeSection.
+ *
+ * <p>
+ * Description:<br>
+ * A TapeProtocol hands over the sound samples of each tape section as soon as the section is rendered.
+ * The samples between position and limit of the given buffer are consumed by the sink.
+ * <p>
+ * The buffer is only valid during the call, the sink must copy the samples if it needs them afterwards.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@FunctionalInterface
+public interface SampleSink {
+
+	/**
+	 * Consumes the remaining samples of the given buffer.
+	 *
+	 * @param aSamples
+	 * the sound samples to consume.
+	 *
+	 * @throws IOException
+	 * if the samples can't be delivered to their destination.
+	 */
+	void write(final ByteBuffer aSamples) throws IOException;
+
+
+	/**
+	 * Consumes a range of samples held in a byte array.
+	 *
+	 * @param aSamples
+	 * the array holding the sound samples.
+	 *
+	 * @param aOffset
+	 * index of the first sample to consume.
+	 *
+	 * @param aLength
+	 * number of samples to consume.
+	 *
+	 * @throws IOException
+	 * if the samples can't be delivered to their destination.
+	 */
+	default void write(final byte[] aSamples, final int aOffset, final int aLength) throws IOException {
+
+		write(ByteBuffer.wrap(aSamples, aOffset, aLength));
+
+	} // write()
+
+
+} // interface
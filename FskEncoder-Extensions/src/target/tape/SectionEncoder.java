@@ -0,0 +1,63 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : SectionEncoder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+/**
+ * Responsibilities:<br>
+ * Invoke the Encoder for a single tape section.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol.
+ *
+ * <p>
+ * Description:<br>
+ * Bridges the existing protocol helper methods, like silence() or address(int), into a TapeSection.
+ * The implementation encodes the section into the sample buffer of the protocol's Encoder, 
+ * TapeProtocol takes care of handing the result over to the sink.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@FunctionalInterface
+public interface SectionEncoder {
+
+	/**
+	 * Encodes the section by means of the protocol's Encoder.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to encode the section.
+	 */
+	void encode() throws IllegalAccessException;
+
+
+} // interface
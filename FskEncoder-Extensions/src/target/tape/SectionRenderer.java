@@ -0,0 +1,71 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : SectionRenderer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+
+/**
+ * Responsibilities:<br>
+ * Render the sound samples of a single tape section.
+ *
+ * <p>
+ * Collaborators:<br>
+ * SampleSink,<br>
+ * TapeSection.
+ *
+ * <p>
+ * Description:<br>
+ * A renderer is bound to exactly one section of a tape, e.g. the lead sync or a block of data bytes.
+ * When invoked it writes all samples of its section to the given sink.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+@FunctionalInterface
+public interface SectionRenderer {
+
+	/**
+	 * Renders the section and writes the samples to aSampleSink.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to encode the section.
+	 *
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	void render(final SampleSink aSampleSink) throws IllegalAccessException, IOException;
+
+
+} // interface
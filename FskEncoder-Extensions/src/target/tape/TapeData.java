@@ -0,0 +1,213 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeData.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Responsibilities:<br>
+ * Describe the data block of a single compile: its size, its checksum and the bytes of each data section.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * DataStreamRenderer.
+ *
+ * <p>
+ * Description:<br>
+ * TapeProtocol.tapeLayout() takes the data of a tape as TapeData, so the layout doesn't depend on where
+ * the bytes come from. TapeProtocol.tapeData(ByteBuffer) describes a data buffer, its blocks are views of the buffer.
+ * DataStreamRenderer describes a DataStream, the checksum is known from its pre-scan and all blocks are views
+ * of a single buffer, each read just before its section is encoded.
+ * <p>
+ * An instance belongs to a single compile, other compiles on the same protocol don't see it.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class TapeData {
+
+	protected final int size;
+	protected final IntSupplier checksum;
+	protected final BlockSource blockSource;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aSize
+	 * the number of data bytes.
+	 *
+	 * @param aChecksum
+	 * supplies the checksum of the data, as calculated by the protocol, when the tape needs it.
+	 *
+	 * @param aBlockSource
+	 * provides the bytes of a data section.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aSize is negative<br>
+	 * or aChecksum or aBlockSource is null.
+	 */
+	public TapeData(final int aSize, final IntSupplier aChecksum, final BlockSource aBlockSource) {
+
+		if(aSize < 0) throw new IllegalArgumentException("aSize can't be negative");
+		if(aChecksum == null) throw new IllegalArgumentException("aChecksum can't be null");
+		if(aBlockSource == null) throw new IllegalArgumentException("aBlockSource can't be null");
+
+		size = aSize;
+		checksum = aChecksum;
+		blockSource = aBlockSource;
+
+	} // TapeData()
+
+
+	/**
+	 * Describes the data held in a buffer.
+	 *
+	 * @param aDataBuffer
+	 * the data, from index 0 up to its limit.
+	 *
+	 * @param aChecksum
+	 * supplies the checksum of the data.
+	 *
+	 * @return
+	 * the data whose blocks are views sharing the content of aDataBuffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aDataBuffer or aChecksum is null.
+	 */
+	public static TapeData of(final ByteBuffer aDataBuffer, final IntSupplier aChecksum) {
+
+		if(aDataBuffer == null) throw new IllegalArgumentException("aDataBuffer can't be null");
+
+		return new TapeData(aDataBuffer.limit(), aChecksum, (position, length) -> {
+
+			ByteBuffer block = aDataBuffer.duplicate();
+			block.limit(position + length);
+			block.position(position);
+
+			return block.slice();
+
+		});
+
+	} // of()
+
+
+	/**
+	 * Splits the data into blocks of at most aBlockSize bytes.
+	 *
+	 * At least one block is returned, even for empty data.
+	 *
+	 * @param aBlockSize
+	 * the maximum size of a block.
+	 *
+	 * @return
+	 * the list of blocks as provided by the block source.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aBlockSize is less than 1.
+	 */
+	public List<ByteBuffer> blocks(final int aBlockSize) {
+
+		if(aBlockSize < 1) throw new IllegalArgumentException("aBlockSize must be greater than 0");
+
+		List<ByteBuffer> blocks = new ArrayList<>();
+
+		int position = 0;
+
+		do {
+			int length = Math.min(aBlockSize, size - position);
+
+			blocks.add(blockSource.block(position, length));
+
+			position += length;
+
+		} while(position < size);
+
+		return blocks;
+
+	} // blocks()
+
+
+	public int getSize() { return size; }
+
+
+	/**
+	 * Returns the checksum of the data.
+	 *
+	 * @return
+	 * the checksum as calculated by the protocol's ChecksumCalculator.
+	 */
+	public int getChecksum() { return checksum.getAsInt(); }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "TapeData [size=" + size + "]";
+	}
+
+
+	/**
+	 * Responsibilities:<br>
+	 * Provide the bytes of a single data section.
+	 */
+	@FunctionalInterface
+	public interface BlockSource {
+
+		/**
+		 * Returns the bytes from aPosition up to aPosition + aLength - 1 of the data.
+		 *
+		 * @param aPosition
+		 * index of the first byte in the data.
+		 *
+		 * @param aLength
+		 * the number of bytes.
+		 *
+		 * @return
+		 * a buffer of aLength bytes, position 0. Its content may be filled in later, before the section is rendered.
+		 */
+		ByteBuffer block(final int aPosition, final int aLength);
+
+
+	} // interface
+
+
+} // class
@@ -0,0 +1,278 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeEncodingService.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Encode several tapes at the same time.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeJob,<br>
+ * TapeProtocol,<br>
+ * ExecutorService.
+ *
+ * <p>
+ * Description:<br>
+ * A TapeProtocol keeps the parameters of the tape it is encoding, so a single instance can't encode two tapes at once.
+ * The service therefore holds a pool of protocol instances, created on demand by the given factory.
+ * Each job takes an idle instance, configures it from the immutable TapeJob and gives it back when done.
+ * So there are never more instances than jobs running in parallel and the setup of an instance,
+ * e.g. its envelope table, is reused by all following jobs.
+ * <p>
+ * The jobs run on the given executor, which may be shared with other services.
+ * If no executor is given, the service creates a fixed pool with one thread per core and shuts it down on close().
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class TapeEncodingService implements AutoCloseable {
+
+	private Logger logger = LogManager.getLogger(TapeEncodingService.class.getName());
+
+	protected final Supplier<? extends TapeProtocol> protocolFactory;
+	protected final ExecutorService executor;
+	protected final boolean ownExecutor;
+
+	protected final ConcurrentLinkedQueue<TapeProtocol> idleProtocols = new ConcurrentLinkedQueue<>();
+
+
+	/**
+	 * Constructor, the jobs run on a fixed thread pool owned by the service.
+	 *
+	 * @param aProtocolFactory
+	 * creates a new protocol instance, e.g. Mpf1Protocol::new.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aProtocolFactory is null.
+	 */
+	public TapeEncodingService(final Supplier<? extends TapeProtocol> aProtocolFactory) {
+		this(aProtocolFactory, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()), true);
+
+	} // TapeEncodingService()
+
+
+	/**
+	 * Constructor, the jobs run on a shared executor.
+	 *
+	 * @param aProtocolFactory
+	 * creates a new protocol instance, e.g. Mpf1Protocol::new.
+	 *
+	 * @param aExecutor
+	 * the executor running the jobs, it isn't shut down by the service.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aProtocolFactory or aExecutor is null.
+	 */
+	public TapeEncodingService(final Supplier<? extends TapeProtocol> aProtocolFactory, final ExecutorService aExecutor) {
+		this(aProtocolFactory, aExecutor, false);
+
+	} // TapeEncodingService()
+
+
+	protected TapeEncodingService(final Supplier<? extends TapeProtocol> aProtocolFactory, final ExecutorService aExecutor, final boolean aOwnExecutor) {
+		logger.trace("TapeEncodingService(): aProtocolFactory = {}, aExecutor = {}", aProtocolFactory, aExecutor);
+
+		if(aProtocolFactory == null) throw new IllegalArgumentException("aProtocolFactory can't be null");
+		if(aExecutor == null) throw new IllegalArgumentException("aExecutor can't be null");
+
+		protocolFactory = aProtocolFactory;
+		executor = aExecutor;
+		ownExecutor = aOwnExecutor;
+
+	} // TapeEncodingService()
+
+
+	/**
+	 * Encodes a tape in memory.
+	 *
+	 * @param aJob
+	 * the tape to encode.
+	 *
+	 * @return
+	 * the future sound samples, null if the translation was stopped.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aJob is null.
+	 */
+	public Future<ByteBuffer> submit(final TapeJob aJob) {
+		logger.trace("submit(): aJob = {}", aJob);
+
+		return submit(aJob, protocol -> protocol.compile(aJob.getData()));
+
+	} // submit()
+
+
+	/**
+	 * Encodes a tape into a WAV file.
+	 *
+	 * @param aJob
+	 * the tape to encode.
+	 *
+	 * @param aWavFile
+	 * the WAV file to write, an existing file is overwritten.
+	 *
+	 * @return
+	 * the future result, true if the complete tape was written.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aJob or aWavFile is null.
+	 */
+	public Future<Boolean> submit(final TapeJob aJob, final Path aWavFile) {
+		logger.trace("submit(): aJob = {}, aWavFile = {}", aJob, aWavFile);
+
+		if(aWavFile == null) throw new IllegalArgumentException("aWavFile can't be null");
+
+		return submit(aJob, protocol -> protocol.compile(aJob.getData(), aWavFile, TapeProtocol.DEFAULT_CHUNK_SIZE));
+
+	} // submit()
+
+
+	/**
+	 * Encodes a tape and delivers the samples in chunks to a sink.
+	 *
+	 * @param aJob
+	 * the tape to encode.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the chunks, it's called by the thread running the job.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk.
+	 *
+	 * @return
+	 * the future result, true if the complete tape was delivered.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aJob or aSampleSink is null.
+	 */
+	public Future<Boolean> submit(final TapeJob aJob, final SampleSink aSampleSink, final int aChunkSize) {
+		logger.trace("submit(): aJob = {}, aSampleSink = {}, aChunkSize = {}", aJob, aSampleSink, aChunkSize);
+
+		if(aSampleSink == null) throw new IllegalArgumentException("aSampleSink can't be null");
+
+		return submit(aJob, protocol -> protocol.compile(aJob.getData(), aSampleSink, aChunkSize));
+
+	} // submit()
+
+
+	/**
+	 * Shuts down the executor if it was created by the service.
+	 */
+	@Override
+	public void close() {
+		logger.trace("close()");
+
+		if(ownExecutor) executor.shutdown();
+
+	} // close()
+
+
+	/*
+	 * Runs a task with a protocol set up for aJob.
+	 */
+	protected <T> Future<T> submit(final TapeJob aJob, final JobTask<T> aTask) {
+
+		if(aJob == null) throw new IllegalArgumentException("aJob can't be null");
+
+		Callable<T> job = () -> {
+
+			TapeProtocol protocol = acquire();
+
+			try {
+
+				protocol.configure(aJob);
+
+				return aTask.run(protocol);
+
+			}
+			finally {
+
+				idleProtocols.offer(protocol);
+
+			} // yrt
+
+		};
+
+		return executor.submit(job);
+
+	} // submit()
+
+
+	/*
+	 * Takes an idle protocol or creates a new one.
+	 */
+	protected TapeProtocol acquire() {
+
+		TapeProtocol protocol = idleProtocols.poll();
+
+		return protocol != null ? protocol : protocolFactory.get();
+
+	} // acquire()
+
+
+	/*
+	 * The work done with the configured protocol.
+	 */
+	@FunctionalInterface
+	protected interface JobTask<T> {
+
+		T run(final TapeProtocol aProtocol) throws Exception;
+
+	} // interface
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "TapeEncodingService [executor=" + executor + ", ownExecutor=" + ownExecutor + ", idleProtocols=" + idleProtocols.size() + "]";
+	}
+
+
+} // class
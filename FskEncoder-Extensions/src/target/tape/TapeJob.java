@@ -0,0 +1,154 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeJob.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Responsibilities:<br>
+ * Describe a single tape to encode.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeEncodingService,<br>
+ * TapeProtocol.
+ *
+ * <p>
+ * Description:<br>
+ * A job holds everything that varies from tape to tape: the data and the parameters written to the tape header.
+ * The name is the file name of an MPF-1 tape respectively the program number of a Z80 trainer tape, 
+ * protocols without an end address ignore it.
+ * <p>
+ * A job is immutable, the data are copied when the job is created. 
+ * So it can be handed over to any thread without further synchronisation.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class TapeJob {
+
+	protected final ByteBuffer data;
+	protected final long startAddress;
+	protected final long endAddress;
+	protected final int name;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aData
+	 * the data to encode, the bytes between position and limit are taken.
+	 *
+	 * @param aStartAddress
+	 * the address of the first data byte on the target.
+	 *
+	 * @param aEndAddress
+	 * the address of the last data byte on the target.
+	 *
+	 * @param aName
+	 * the file name or program number written to the tape.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aData is null.
+	 */
+	public TapeJob(final ByteBuffer aData, final long aStartAddress, final long aEndAddress, final int aName) {
+
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+
+		ByteBuffer copy = ByteBuffer.allocate(aData.remaining());
+		copy.put(aData.duplicate());
+		copy.flip();
+
+		data = copy.asReadOnlyBuffer();
+		startAddress = aStartAddress;
+		endAddress = aEndAddress;
+		name = aName;
+
+	} // TapeJob()
+
+
+	/**
+	 * Creates a job whose end address follows from the size of the data.
+	 *
+	 * @param aData
+	 * the data to encode, the bytes between position and limit are taken.
+	 *
+	 * @param aStartAddress
+	 * the address of the first data byte on the target.
+	 *
+	 * @param aName
+	 * the file name or program number written to the tape.
+	 *
+	 * @return
+	 * the new job.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aData is null.
+	 */
+	public static TapeJob of(final ByteBuffer aData, final long aStartAddress, final int aName) {
+
+		if(aData == null) throw new IllegalArgumentException("aData can't be null");
+
+		return new TapeJob(aData, aStartAddress, aStartAddress + aData.remaining() - 1, aName);
+
+	} // of()
+
+
+	/**
+	 * Returns the data of the job.
+	 *
+	 * @return
+	 * a new read-only view with position 0, so each caller has its own position and limit.
+	 */
+	public ByteBuffer getData() { return data.duplicate(); }
+
+	public long getStartAddress() { return startAddress; }
+
+	public long getEndAddress() { return endAddress; }
+
+	public int getName() { return name; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "TapeJob [size=" + data.limit() + ", startAddress=" + String.format("0x%04X", startAddress) 
+			+ ", endAddress=" + String.format("0x%04X", endAddress) + ", name=" + name + "]";
+	}
+
+
+} // class
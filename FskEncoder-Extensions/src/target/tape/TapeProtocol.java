@@ -0,0 +1,1196 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeProtocol.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.encoder.BitValue;
+import extension.protocol.BackgroundTaskProtokol;
+import extension.sound.FskAudioFormat;
+
+/**
+ * Responsibilities:<br>
+ * Render a tape section by section, either into a single buffer or as a stream of sample chunks.
+ *
+ * <p>
+ * Collaborators:<br>
+ * <ul>
+ * 	<li>TapeSection</li>
+ * 	<li>TapeData</li>
+ * 	<li>SampleSink</li>
+ * 	<li>ChunkingSampleSink</li>
+ * 	<li>DataStreamRenderer</li>
+ * 	<li>ParallelRenderer</li>
+ * 	<li>IncrementalRenderer</li>
+ * 	<li>Encoder</li>
+ * </ul>
+ *
+ * <p>
+ * Description:<br>
+ * A concrete protocol describes its tape as a list of TapeSections, the tape layout.
+ * The layout is made for the TapeData of a single compile: size, checksum and the blocks of the data sections.
+ * This class walks through the layout and hands the samples of each section over to a SampleSink.
+ * <p>
+ * compile(ByteBuffer) keeps the classic behaviour and returns the complete tape in one buffer.
+ * compile(ByteBuffer, SampleSink, int) delivers the tape in chunks of a fixed size while it is rendered.
+ * stream(ByteBuffer, int) and channel(ByteBuffer, int) do the same on demand, the caller pulls the chunks.
+ * The data block is split into blocks of roughly one chunk, so the memory needed is set 
+ * by the chunk size and not by the size of the data.
+ * <p>
+ * compile(DataStream, SampleSink, int) reads the data bytes while the tape is rendered, e.g. straight from 
+ * the records of a source file, see DataStreamRenderer.
+ * <p>
+ * compile(ByteBuffer, ForkJoinPool) renders the concurrent sections of a single tape in parallel,
+ * each into its own precomputed slice of the result, see ParallelRenderer.
+ * An instance encodes one tape at a time, TapeEncodingService runs several TapeJobs in parallel.
+ * <p>
+ * compileIncremental(ByteBuffer) keeps the last tape and patches only the envelopes of changed data bytes
+ * and the checksum, see IncrementalRenderer and IncrementalTape.
+ * <p>
+ * compileTimeline(ByteBuffer) describes the tape as a timeline of square-wave half periods, independent of 
+ * the sampling rate, see EdgeTimeline and TimelineRenderer. 
+ * compileEdges(ByteBuffer) turns it into run-length encoded edges at the sampling rate of the protocol, see EdgeTape.
+ * <p>
+ * Sections that don't depend on the data, like silence and sync pattern, are taken from a WaveformCache 
+ * shared by all instances, so they are rendered only once per process.
+ * <p>
+ * Protocols with an additive byte checksum set byteSumMask, dataChecksum(ByteBuffer) then sums eight data bytes 
+ * per long read instead of passing each byte to the ChecksumCalculator.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public abstract class TapeProtocol extends BackgroundTaskProtokol {
+
+	private Logger logger = LogManager.getLogger(TapeProtocol.class.getName());
+
+	public static final int DEFAULT_CHUNK_SIZE	= 4096;		// samples
+	public static final int MIN_PARALLEL_BLOCK	= 4096;		// bytes
+
+	/*
+	 * Number of longs summed up in 16 bit lanes before they may overflow, 128 * 2 * 0xFF = 0xFF00
+	 */
+	protected static final int SUM_RUN		= 128;		// longs
+
+	/*
+	 * Section names compileIncremental() relies on
+	 */
+	protected static final String DATA_SECTION		= "data";
+	protected static final String CHECKSUM_SECTION	= "checksum";
+
+	protected WaveformCache waveformCache = WaveformCache.getShared();
+	protected final IncrementalRenderer incrementalRenderer = new IncrementalRenderer(this);
+
+	/*
+	 * Set by protocols whose checksum is the sum of all data bytes reduced by this mask, 0 if the
+	 * ChecksumCalculator has to see every byte. Must match the checksumCalculator of the protocol.
+	 */
+	protected int byteSumMask = 0;
+
+
+	/**
+	 * Starts the translation of the given data buffer and returns the generated sound samples.
+	 *
+	 * Translation is performed according to the tape layout of the protocol.
+	 * A sound sample buffer is filled with all protocol elements and data and then returned.
+	 *
+	 * @return
+	 * the sound samples or null if the translation was stopped.
+	 */
+	@Override
+	public ByteBuffer compile(final ByteBuffer aDataBuffer) {
+		logger.trace("compile(): aDataBuffer = {}", aDataBuffer);
+
+		prepare(aDataBuffer.limit());
+
+		List<TapeSection> layout = tapeLayout(tapeData(aDataBuffer), Math.max(1, aDataBuffer.limit()));
+
+		soundSampleBufferSize = TapeSection.sampleCount(layout);
+		logger.trace("soundSampleBufferSize = {}", soundSampleBufferSize);
+
+		ByteBufferSampleSink sampleSink = new ByteBufferSampleSink(soundSampleBufferSize);
+
+		try {
+			if(! render(layout, sampleSink)) return null;
+		}
+		catch(IOException e) {
+			logger.error("Unexpected exception caught:", e);
+
+			return null;
+		}
+
+		return sampleSink.getSampleBuffer();
+
+	} // compile()
+
+
+	/**
+	 * Translates the given data buffer on a fork-join pool and returns the generated sound samples.
+	 *
+	 * The data block is split into byte ranges, so there are a few ranges per worker thread.
+	 * The concurrent sections are rendered in parallel by a ParallelRenderer, the others by the calling thread.
+	 * <p>
+	 * The result is identical to compile(ByteBuffer).
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aPool
+	 * the pool rendering the concurrent sections.
+	 *
+	 * @return
+	 * the sound samples or null if the translation was stopped or a section can't be rendered.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aPool is null.
+	 */
+	public ByteBuffer compile(final ByteBuffer aDataBuffer, final ForkJoinPool aPool) {
+		logger.trace("compile(): aDataBuffer = {}, aPool = {}", aDataBuffer, aPool);
+
+		if(aPool == null) throw new IllegalArgumentException("aPool can't be null");
+
+		prepare(aDataBuffer.limit());
+
+		List<TapeSection> layout = tapeLayout(tapeData(aDataBuffer), ParallelRenderer.blockSize(aDataBuffer.limit(), aPool.getParallelism()));
+
+		ByteBuffer samples = new ParallelRenderer(this, aPool).render(layout);
+
+		if(samples != null) soundSampleBufferSize = samples.limit();
+		logger.trace("soundSampleBufferSize = {}", soundSampleBufferSize);
+
+		return samples;
+
+	} // compile()
+
+
+	/**
+	 * Translates the given data buffer, reusing the tape of the previous incremental compile if possible.
+	 *
+	 * If size and tape parameters are unchanged, only the envelopes of the changed data bytes and the checksum 
+	 * are rendered again, at their known sample offsets. 
+	 * Otherwise the tape is rendered completely and kept for the next call.
+	 * <p>
+	 * The data envelopes start with the first section named DATA_SECTION.
+	 * The checksum envelope is either a section named CHECKSUM_SECTION or follows the last data envelope.
+	 * <p>
+	 * The returned samples are patched in place by the next incremental compile, as long as all envelopes keep 
+	 * their size. If an envelope or the checksum changes its size, as most edits do on the Z80 trainer, 
+	 * the patched tape is returned in a new buffer, see IncrementalTape.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @return
+	 * the sound samples or null if the translation was stopped.
+	 */
+	public ByteBuffer compileIncremental(final ByteBuffer aDataBuffer) {
+		logger.trace("compileIncremental(): aDataBuffer = {}", aDataBuffer);
+
+		prepare(aDataBuffer.limit());
+
+		ByteBuffer samples = incrementalRenderer.render(aDataBuffer);
+
+		if(samples != null) soundSampleBufferSize = samples.limit();
+
+		return samples;
+
+	} // compileIncremental()
+
+
+	/**
+	 * Translates the given data buffer into square-wave edges instead of PCM samples.
+	 *
+	 * The edges are derived from compileTimeline(ByteBuffer) by TimelineRenderer.toEdgeTape(), 
+	 * each half period rounded to whole samples at the sampling rate of the protocol. No PCM sample is rendered.
+	 * The edges take a fraction of the memory of the samples and are expanded to PCM by EdgeTape.expand()
+	 * when written to the audio sink.
+	 * <p>
+	 * The timing equals the one of compile(ByteBuffer) up to this rounding, the wave form is a square wave.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @return
+	 * the edges of the tape.
+	 */
+	public EdgeTape compileEdges(final ByteBuffer aDataBuffer) {
+		logger.trace("compileEdges(): aDataBuffer = {}", aDataBuffer);
+
+		EdgeTape edgeTape = new TimelineRenderer(getSamplingRate()).toEdgeTape(compileTimeline(aDataBuffer));
+
+		logger.trace("compileEdges(): edgeTape = {}", edgeTape);
+
+		return edgeTape;
+
+	} // compileEdges()
+
+
+	/**
+	 * Translates the given data buffer into a timeline of square-wave half periods.
+	 *
+	 * The timeline doesn't depend on a sampling rate, a TimelineRenderer renders it at any rate 
+	 * without running the protocol again.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @return
+	 * the timeline of the tape.
+	 */
+	public EdgeTimeline compileTimeline(final ByteBuffer aDataBuffer) {
+		logger.trace("compileTimeline(): aDataBuffer = {}", aDataBuffer);
+
+		prepare(aDataBuffer.limit());
+
+		EdgeTimeline timeline = new EdgeTimeline();
+		edgeLayout(aDataBuffer, timeline);
+
+		logger.trace("compileTimeline(): timeline = {}", timeline);
+
+		return timeline;
+
+	} // compileTimeline()
+
+
+	/**
+	 * Drops the tape kept by compileIncremental(ByteBuffer), the next call renders the tape completely.
+	 */
+	public void resetIncremental() {
+		logger.trace("resetIncremental()");
+
+		incrementalRenderer.reset();
+
+	} // resetIncremental()
+
+
+	/**
+	 * Translates the given data buffer and delivers the sound samples in chunks of aChunkSize samples.
+	 *
+	 * The chunks are handed over as soon as they are available, so playback can start 
+	 * while the rest of the tape is still being rendered.
+	 * The last chunk may be shorter than aChunkSize.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the chunks.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk.
+	 *
+	 * @return
+	 * true if the complete tape was delivered, false if the translation was stopped.
+	 *
+	 * @throws IOException
+	 * if a section can't be rendered or the sink fails.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aSampleSink is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public boolean compile(final ByteBuffer aDataBuffer, final SampleSink aSampleSink, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataBuffer = {}, aSampleSink = {}, aChunkSize = {}", aDataBuffer, aSampleSink, aChunkSize);
+
+		ChunkingSampleSink chunkingSink = new ChunkingSampleSink(aChunkSize, aSampleSink);
+
+		prepare(aDataBuffer.limit());
+
+		List<TapeSection> layout = tapeLayout(tapeData(aDataBuffer), blockSize(aChunkSize));
+
+		soundSampleBufferSize = aChunkSize;
+
+		boolean complete = render(layout, chunkingSink);
+		chunkingSink.flush();
+
+		logger.trace("compile(): complete = {}, samples = {}", complete, chunkingSink.getSampleCount());
+
+		return complete;
+
+	} // compile()
+
+
+	/**
+	 * Translates the given data buffer and writes the sound samples as raw PCM data to aChannel.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aChannel
+	 * the channel to write to.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per write.
+	 *
+	 * @return
+	 * true if the complete tape was written, false if the translation was stopped.
+	 *
+	 * @throws IOException
+	 * if a section can't be rendered or writing to the channel fails.
+	 */
+	public boolean compile(final ByteBuffer aDataBuffer, final WritableByteChannel aChannel, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataBuffer = {}, aChannel = {}, aChunkSize = {}", aDataBuffer, aChannel, aChunkSize);
+
+		return compile(aDataBuffer, new ChannelSampleSink(aChannel), aChunkSize);
+
+	} // compile()
+
+
+	/**
+	 * Translates the given data buffer and writes the sound samples into a WAV file.
+	 *
+	 * The samples are streamed chunk by chunk, the tape is never held on the heap as a whole.
+	 * If a section can't be rendered or the translation was stopped the incomplete file is removed.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aWavFile
+	 * the WAV file to write, an existing file is overwritten.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per write.
+	 *
+	 * @return
+	 * true if the complete tape was written, false if the translation was stopped and the file removed.
+	 *
+	 * @throws IOException
+	 * if a section can't be rendered or writing the file fails.
+	 */
+	public boolean compile(final ByteBuffer aDataBuffer, final Path aWavFile, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataBuffer = {}, aWavFile = {}, aChunkSize = {}", aDataBuffer, aWavFile, aChunkSize);
+
+		WavSampleSink wavSink = newWavSampleSink(aWavFile);
+		boolean complete;
+
+		try(wavSink) {
+
+			complete = compile(aDataBuffer, wavSink, aChunkSize);
+
+		}
+		catch(IOException e) {
+
+			/*
+			 * A truncated tape with a valid WAV header would look like a complete one.
+			 */
+			Files.deleteIfExists(aWavFile);
+			throw e;
+
+		} // yrt
+
+		if(! complete) Files.deleteIfExists(aWavFile);
+
+		return complete;
+
+	} // compile()
+
+
+	/**
+	 * Translates the data of a stream and delivers the sound samples in chunks of aChunkSize samples.
+	 *
+	 * The checksum of the header is taken from the byte sum of aDataStream, found by its pre-scan.
+	 * Only if the stream doesn't know its byte sum, or the protocol has no additive checksum, 
+	 * the stream is read twice, see scan(DataStream, int).
+	 * Then the tape is rendered by a DataStreamRenderer as by compile(ByteBuffer, SampleSink, int), 
+	 * the bytes of each data section are read from the stream just before the section is encoded.
+	 * <p>
+	 * The data is held in a single buffer of one block, it's reused by all data sections.
+	 * The sound samples are identical to those of the data buffer compiled in one go.
+	 *
+	 * @param aDataStream
+	 * the data to translate.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the chunks.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk.
+	 *
+	 * @return
+	 * true if the complete tape was delivered, false if the translation was stopped.
+	 *
+	 * @throws IOException<br>
+	 * if the stream can't be read or doesn't deliver aDataStream.size() bytes<br>
+	 * or a section can't be rendered<br>
+	 * or the sink fails.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aDataStream or aSampleSink is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public boolean compile(final DataStream aDataStream, final SampleSink aSampleSink, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataStream = {}, aSampleSink = {}, aChunkSize = {}", aDataStream, aSampleSink, aChunkSize);
+
+		if(aDataStream == null) throw new IllegalArgumentException("aDataStream can't be null");
+
+		ChunkingSampleSink chunkingSink = new ChunkingSampleSink(aChunkSize, aSampleSink);
+
+		prepare(aDataStream.size());
+
+		soundSampleBufferSize = aChunkSize;
+
+		boolean complete = new DataStreamRenderer(this, aDataStream, blockSize(aChunkSize)).render(chunkingSink);
+
+		chunkingSink.flush();
+
+		logger.trace("compile(): complete = {}, samples = {}", complete, chunkingSink.getSampleCount());
+
+		return complete;
+
+	} // compile()
+
+
+	/**
+	 * Translates the data of a stream and writes the sound samples as raw PCM data to aChannel.
+	 *
+	 * @param aDataStream
+	 * the data to translate.
+	 *
+	 * @param aChannel
+	 * the channel to write to.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per write.
+	 *
+	 * @return
+	 * true if the complete tape was written, false if the translation was stopped.
+	 *
+	 * @throws IOException
+	 * if reading the stream or writing to the channel fails.
+	 */
+	public boolean compile(final DataStream aDataStream, final WritableByteChannel aChannel, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataStream = {}, aChannel = {}, aChunkSize = {}", aDataStream, aChannel, aChunkSize);
+
+		return compile(aDataStream, new ChannelSampleSink(aChannel), aChunkSize);
+
+	} // compile()
+
+
+	/**
+	 * Translates the data of a stream and writes the sound samples into a WAV file.
+	 *
+	 * If the stream or a section fails, or the translation was stopped, the incomplete file is removed.
+	 *
+	 * @param aDataStream
+	 * the data to translate.
+	 *
+	 * @param aWavFile
+	 * the WAV file to write, an existing file is overwritten.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per write.
+	 *
+	 * @return
+	 * true if the complete tape was written, false if the translation was stopped and the file removed.
+	 *
+	 * @throws IOException
+	 * if reading the stream, rendering a section or writing the file fails.
+	 */
+	public boolean compile(final DataStream aDataStream, final Path aWavFile, final int aChunkSize) throws IOException {
+		logger.trace("compile(): aDataStream = {}, aWavFile = {}, aChunkSize = {}", aDataStream, aWavFile, aChunkSize);
+
+		WavSampleSink wavSink = newWavSampleSink(aWavFile);
+		boolean complete;
+
+		try(wavSink) {
+
+			complete = compile(aDataStream, wavSink, aChunkSize);
+
+		}
+		catch(IOException e) {
+
+			/*
+			 * A truncated tape with a valid WAV header would look like a complete one.
+			 */
+			Files.deleteIfExists(aWavFile);
+			throw e;
+
+		} // yrt
+
+		if(! complete) Files.deleteIfExists(aWavFile);
+
+		return complete;
+
+	} // compile()
+
+
+	/**
+	 * Translates the given data buffer on demand, block by block.
+	 *
+	 * Each call of next() on the returned iterator renders just as many sections as needed 
+	 * to fill the next block of aChunkSize samples. 
+	 * The blocks follow the section order of the tape, the last block may be shorter.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per block.
+	 *
+	 * @return
+	 * an iterator over the sample blocks of the tape.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aChunkSize is less than 1.
+	 */
+	public SampleBlockIterator stream(final ByteBuffer aDataBuffer, final int aChunkSize) {
+		logger.trace("stream(): aDataBuffer = {}, aChunkSize = {}", aDataBuffer, aChunkSize);
+
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+
+		prepare(aDataBuffer.limit());
+
+		soundSampleBufferSize = aChunkSize;
+
+		return new SampleBlockIterator(this, tapeLayout(tapeData(aDataBuffer), blockSize(aChunkSize)), aChunkSize);
+
+	} // stream()
+
+
+	/**
+	 * Translates the given data buffer on demand and provides the sound samples as raw PCM data by a channel.
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aChunkSize
+	 * the number of samples rendered in advance.
+	 *
+	 * @return
+	 * a channel to read the sound samples from.
+	 */
+	public ReadableByteChannel channel(final ByteBuffer aDataBuffer, final int aChunkSize) {
+		logger.trace("channel(): aDataBuffer = {}, aChunkSize = {}", aDataBuffer, aChunkSize);
+
+		return new SampleBlockChannel(stream(aDataBuffer, aChunkSize));
+
+	} // channel()
+
+
+	/*
+	 * Checks the protocol parameters and resets the progress for aDataSize data bytes.
+	 */
+	protected void prepare(final int aDataSize) {
+		logger.trace("prepare(): aDataSize = {}", aDataSize);
+
+		validate();
+
+		isRunning = true;
+		currentProgress = 0;
+		setFullProgress(aDataSize);
+
+	} // prepare()
+
+
+	/**
+	 * Describes the data held in a buffer for the tape layout.
+	 *
+	 * @param aDataBuffer
+	 * the data, from index 0 up to its limit.
+	 *
+	 * @return
+	 * the data of a single compile, its blocks are views of aDataBuffer and its checksum is dataChecksum(aDataBuffer).
+	 */
+	protected TapeData tapeData(final ByteBuffer aDataBuffer) {
+
+		return TapeData.of(aDataBuffer, () -> dataChecksum(aDataBuffer));
+
+	} // tapeData()
+
+
+	/**
+	 * Calculates the checksum of the data block written to the tape.
+	 *
+	 * With byteSumMask set the bytes are summed up by byteSum(ByteBuffer, int, int).
+	 *
+	 * @param aDataBuffer
+	 * the data, from index 0 up to its limit.
+	 *
+	 * @return
+	 * the checksum as calculated by the protocol's ChecksumCalculator.
+	 */
+	protected int dataChecksum(final ByteBuffer aDataBuffer) {
+
+		if(byteSumMask != 0) return (int) (byteSum(aDataBuffer, 0, aDataBuffer.limit()) & byteSumMask);
+
+		checksumCalculator.clear();
+
+		for(int n = 0; n < aDataBuffer.limit(); n++) {
+			checksumCalculator.sumUp(aDataBuffer.get(n));
+		} // rof
+
+		return checksumCalculator.getCheckSum();
+
+	} // dataChecksum()
+
+
+	/*
+	 * Returns the checksum of the data of aDataStream.
+	 * The byte sum of the stream's pre-scan is used if there is one and the protocol has an additive checksum,
+	 * otherwise the stream is read by scan(DataStream, int).
+	 */
+	protected int streamChecksum(final DataStream aDataStream, final int aBlockSize) throws IOException {
+
+		long sum = aDataStream.byteSum();
+
+		if(byteSumMask != 0 && sum >= 0) return (int) (sum & byteSumMask);
+
+		return scan(aDataStream, aBlockSize);
+
+	} // streamChecksum()
+
+
+	/*
+	 * Reads a complete pass of a DataStream and returns the checksum of the data.
+	 */
+	protected int scan(final DataStream aDataStream, final int aBlockSize) throws IOException {
+		logger.trace("scan(): aDataStream = {}", aDataStream);
+
+		ByteBuffer block = ByteBuffer.allocate(Math.max(aBlockSize, 256));
+		long count = 0;
+		long sum = 0;
+
+		checksumCalculator.clear();
+
+		try(ReadableByteChannel channel = aDataStream.open()) {
+
+			while(channel.read(block) >= 0) {
+
+				block.flip();
+				count += block.remaining();
+
+				if(byteSumMask != 0) {
+					sum += byteSum(block, 0, block.limit());
+				}
+				else {
+
+					while(block.hasRemaining()) {
+						checksumCalculator.sumUp(block.get());
+					} // elihw
+
+				} // esle
+
+				block.clear();
+
+			} // elihw
+
+		} // yrt
+
+		if(count != aDataStream.size()) throw new IOException("data stream delivered " + count + " instead of " + aDataStream.size() + " bytes");
+
+		if(byteSumMask != 0) return (int) (sum & byteSumMask);
+
+		return checksumCalculator.getCheckSum();
+
+	} // scan()
+
+
+	/*
+	 * Renders all sections of aLayout into aSampleSink.
+	 * 
+	 * Returns false if the translation was stopped.
+	 * A section the encoder can't render ends the tape with an IOException, the samples delivered so far are incomplete.
+	 */
+	protected boolean render(final List<TapeSection> aLayout, final SampleSink aSampleSink) throws IOException {
+		logger.trace("render(): aLayout = {}, aSampleSink = {}", aLayout, aSampleSink);
+
+		for(TapeSection section : aLayout) {
+
+			try {
+				if(! renderSection(section, aSampleSink)) return false;
+			}
+			catch(IllegalAccessException e) {
+				throw new IOException("section " + section.getName() + " can't be rendered", e);
+			}
+
+		} // rof
+
+		return true;
+
+	} // render()
+
+
+	/*
+	 * Renders a single section and reports its progress.
+	 * 
+	 * Returns false if the translation was stopped.
+	 */
+	protected boolean renderSection(final TapeSection aSection, final SampleSink aSampleSink) throws IllegalAccessException, IOException {
+		logger.trace("renderSection(): aSection = {}", aSection);
+
+		aSection.render(aSampleSink);
+
+		return reportProgress(aSection.getProgress());
+
+	} // renderSection()
+
+
+	/*
+	 * Reports the progress of a section rendered by a collaborator.
+	 * 
+	 * Returns false if the translation was stopped.
+	 */
+	protected boolean reportProgress(final int aProgress) {
+
+		progress(aProgress);
+
+		return isRunning;
+
+	} // reportProgress()
+
+
+	/*
+	 * False once the translation was stopped, checked by the collaborators between sections.
+	 */
+	protected boolean running() { return isRunning; }
+
+
+	/**
+	 * Creates a section that is rendered by means of the protocol's Encoder.
+	 *
+	 * The encoder buffer is sized for the section only and the result is handed over to the sink
+	 * immediately after the section was encoded.
+	 *
+	 * @param aName
+	 * the name of the section.
+	 *
+	 * @param aSampleCount
+	 * the maximum number of samples produced by the section.
+	 *
+	 * @param aProgress
+	 * the amount of progress reported when the section is done.
+	 *
+	 * @param aSectionEncoder
+	 * invokes the encoder for the section.
+	 *
+	 * @return
+	 * the new section.
+	 */
+	protected TapeSection encoderSection(final String aName, final int aSampleCount, final int aProgress, final SectionEncoder aSectionEncoder) {
+
+		return new TapeSection(aName, aSampleCount, aProgress, sampleSink -> {
+
+			encoder.setBufferSize(aSampleCount);
+			aSectionEncoder.encode();
+
+			sampleSink.write(samples(encoder.getSampleBuffer()));
+
+		});
+
+	} // encoderSection()
+
+
+	/**
+	 * Creates a section whose samples don't depend on the data and are taken from the waveform cache.
+	 *
+	 * The samples are rendered by means of the protocol's Encoder on the first use only.
+	 * Without a cache the section behaves like an encoder section.
+	 *
+	 * @param aName
+	 * the name of the section.
+	 *
+	 * @param aSampleCount
+	 * the maximum number of samples produced by the section.
+	 *
+	 * @param aProgress
+	 * the amount of progress reported when the section is done.
+	 *
+	 * @param aWaveform
+	 * identifies the samples of the section, see waveform(String, int, int).
+	 *
+	 * @param aSectionEncoder
+	 * invokes the encoder for the section.
+	 *
+	 * @return
+	 * the new section.
+	 */
+	protected TapeSection cachedSection(final String aName, final int aSampleCount, final int aProgress, final WaveformCache.Key aWaveform, final SectionEncoder aSectionEncoder) {
+
+		WaveformCache cache = waveformCache;
+
+		if(cache == null) return encoderSection(aName, aSampleCount, aProgress, aSectionEncoder);
+
+		return new TapeSection(aName, aSampleCount, aProgress, sampleSink -> {
+
+			sampleSink.write(cache.get(aWaveform, () -> {
+
+				encoder.setBufferSize(aSampleCount);
+				aSectionEncoder.encode();
+
+				return samples(encoder.getSampleBuffer());
+
+			}));
+
+		});
+
+	} // cachedSection()
+
+
+	/**
+	 * Creates the cache key of a waveform rendered by this protocol.
+	 *
+	 * Sections with the same waveform, e.g. the leading and the trailing silence, share a single cache entry.
+	 *
+	 * @param aWaveform
+	 * the name of the waveform, e.g. "wave cycle" or "silence".
+	 *
+	 * @param aValue
+	 * the frequency or bit value, 0 if not applicable.
+	 *
+	 * @param aCount
+	 * the number of cycles, bits or milliseconds.
+	 *
+	 * @return
+	 * the key, made unique by the protocol class and its sampling rate.
+	 */
+	protected WaveformCache.Key waveform(final String aWaveform, final int aValue, final int aCount) {
+
+		return new WaveformCache.Key(getClass().getName(), aWaveform, aValue, aCount, getSamplingRate());
+
+	} // waveform()
+
+
+	/**
+	 * Sets the cache for the sections that don't depend on the data.
+	 *
+	 * @param aWaveformCache
+	 * the cache to use, null to render these sections on every compile.
+	 */
+	public void setWaveformCache(final WaveformCache aWaveformCache) {
+		logger.trace("setWaveformCache(): aWaveformCache = {}", aWaveformCache);
+
+		waveformCache = aWaveformCache;
+
+	} // setWaveformCache()
+
+
+	public WaveformCache getWaveformCache() { return waveformCache; }
+
+
+	/**
+	 * Sums up the unsigned bytes from index aFrom up to aTo - 1, eight bytes per long read.
+	 *
+	 * Each long is split into four 16 bit lanes holding the sum of two neighbouring bytes.
+	 * The lanes are accumulated for SUM_RUN longs and folded into the result before they can overflow,
+	 * the bytes behind the last complete long are added one by one.
+	 * The result doesn't depend on the byte order of aDataBuffer, its position and limit are left unchanged.
+	 *
+	 * @param aDataBuffer
+	 * the data to sum up.
+	 *
+	 * @param aFrom
+	 * index of the first byte.
+	 *
+	 * @param aTo
+	 * index behind the last byte.
+	 *
+	 * @return
+	 * the sum of all bytes, each taken as a value from 0 to 255.
+	 */
+	protected static long byteSum(final ByteBuffer aDataBuffer, final int aFrom, final int aTo) {
+
+		final long laneMask = 0x00FF00FF00FF00FFL;
+
+		long sum = 0;
+		int index = aFrom;
+		int words = (aTo - aFrom) / Long.BYTES;
+
+		while(words > 0) {
+
+			int run = Math.min(words, SUM_RUN);
+			long lanes = 0;
+
+			for(int n = 0; n < run; n++) {
+
+				long word = aDataBuffer.getLong(index);
+				lanes += (word & laneMask) + ((word >>> 8) & laneMask);
+
+				index += Long.BYTES;
+
+			} // rof
+
+			sum += (lanes & 0xFFFF) + ((lanes >>> 16) & 0xFFFF) + ((lanes >>> 32) & 0xFFFF) + (lanes >>> 48);
+			words -= run;
+
+		} // elihw
+
+		for(; index < aTo; index++) {
+			sum += aDataBuffer.get(index) & 0xFF;
+		} // rof
+
+		return sum;
+
+	} // byteSum()
+
+
+	/*
+	 * Returns a view of the samples held in an encoder buffer, independent of whether the buffer was flipped or not.
+	 */
+	protected static ByteBuffer samples(final ByteBuffer aSampleBuffer) {
+
+		ByteBuffer samples = aSampleBuffer.duplicate();
+
+		if(samples.position() != 0) samples.flip();
+
+		return samples;
+
+	} // samples()
+
+
+	/*
+	 * Number of data bytes rendered per section, so a data section roughly fills one chunk.
+	 */
+	protected int blockSize(final int aChunkSize) {
+
+		return Math.max(1, aChunkSize / envelopeSize());
+
+	} // blockSize()
+
+
+	/**
+	 * Appends the edges of a byte envelope: start bits, 8 data bits lsb first and stop bits.
+	 *
+	 * @param aByte
+	 * the byte to encode.
+	 *
+	 * @param aNbrStartBits
+	 * the number of start bits.
+	 *
+	 * @param aStartBitValue
+	 * the value of a start bit.
+	 *
+	 * @param aNbrStopBits
+	 * the number of stop bits.
+	 *
+	 * @param aStopBitValue
+	 * the value of a stop bit.
+	 *
+	 * @param aTimeline
+	 * the timeline to append to.
+	 */
+	protected void edgeEnvelope(
+			final byte aByte, 
+			final int aNbrStartBits, 
+			final BitValue aStartBitValue, 
+			final int aNbrStopBits, 
+			final BitValue aStopBitValue, 
+			final EdgeTimeline aTimeline
+	) {
+
+		int startBit = aStartBitValue == BitValue.HIGH ? 1 : 0;
+		int stopBit = aStopBitValue == BitValue.HIGH ? 1 : 0;
+
+		for(int n = 0; n < aNbrStartBits; n++) {
+			edgeBit(startBit, aTimeline);
+		} // rof
+
+		for(int bit = 0; bit < 8; bit++) {
+			edgeBit((aByte >> bit) & 0x01, aTimeline);
+		} // rof
+
+		for(int n = 0; n < aNbrStopBits; n++) {
+			edgeBit(stopBit, aTimeline);
+		} // rof
+
+	} // edgeEnvelope()
+
+
+	/*
+	 * Number of samples needed for the given period of silence.
+	 */
+	protected static int silenceSamples(final int aSamplingRate, final int aMilliSeconds) {
+
+		return (int) ((long) aSamplingRate * aMilliSeconds / 1000) + 1;
+
+	} // silenceSamples()
+
+
+	/**
+	 * Sets the tape parameters from a job, replacing those of the previous tape.
+	 *
+	 * @param aJob
+	 * the job to encode next.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aJob is null.
+	 */
+	public abstract void configure(final TapeJob aJob);
+
+
+	/**
+	 * Appends the edges of the complete tape, following the same tape layout as tapeLayout().
+	 *
+	 * @param aDataBuffer
+	 * the data to translate.
+	 *
+	 * @param aTimeline
+	 * the timeline to append to.
+	 */
+	protected abstract void edgeLayout(final ByteBuffer aDataBuffer, final EdgeTimeline aTimeline);
+
+
+	/**
+	 * Appends the wave cycles of a single bit.
+	 *
+	 * @param aBit
+	 * the bit value, 0 or 1.
+	 *
+	 * @param aTimeline
+	 * the timeline to append to.
+	 */
+	protected abstract void edgeBit(final int aBit, final EdgeTimeline aTimeline);
+
+
+	/**
+	 * Returns the envelope cache rendering the data bytes.
+	 *
+	 * @return
+	 * the envelope cache of the protocol.
+	 */
+	protected abstract ByteEnvelopeCache getEnvelopeCache();
+
+
+	/**
+	 * Returns the tape parameters written to the header, an incremental compile requires them to be unchanged.
+	 *
+	 * @return
+	 * a string holding all header parameters.
+	 */
+	protected abstract String tapeParameters();
+
+
+	/**
+	 * Renders the checksum envelope of the data, exactly as the tape layout does.
+	 *
+	 * @param aDataBuffer
+	 * the data, from index 0 up to its limit.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to encode the checksum.
+	 *
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	protected abstract void renderChecksum(final ByteBuffer aDataBuffer, final SampleSink aSampleSink) throws IllegalAccessException, IOException;
+
+
+	/**
+	 * Returns the sampling rate of the sound samples.
+	 *
+	 * @return
+	 * the sampling rate in Hz.
+	 */
+	public abstract int getSamplingRate();
+
+
+	/**
+	 * Returns the audio format of the sound samples.
+	 *
+	 * @return
+	 * the format the samples are played with.
+	 */
+	public abstract FskAudioFormat getAudioFormat();
+
+
+	/**
+	 * Opens a WAV file for the sound samples of this protocol.<br>
+	 * 
+	 * Sampling rate and signedness are taken from the audio format, 
+	 * so the file sounds like the samples played by the framework.
+	 *
+	 * @param aWavFile
+	 * the WAV file, an existing file is overwritten.
+	 *
+	 * @return
+	 * the sink writing into the file.
+	 *
+	 * @throws IOException
+	 * if the file can't be opened.
+	 */
+	protected WavSampleSink newWavSampleSink(final Path aWavFile) throws IOException {
+		
+		AudioFormat audioFormat = getAudioFormat();
+		
+		return new WavSampleSink(aWavFile, getSamplingRate(), audioFormat.getEncoding() == AudioFormat.Encoding.PCM_SIGNED);
+		
+	} // newWavSampleSink()
+
+
+	/**
+	 * Checks that all parameters required by the protocol are set.
+	 *
+	 * @throws IllegalAccessError
+	 * if a parameter is missing or invalid.
+	 */
+	protected abstract void validate();
+
+
+	/**
+	 * Returns the sections of the tape in the order they have to be rendered.
+	 *
+	 * @param aTapeData
+	 * the data to translate, size, checksum and blocks of the current compile.
+	 *
+	 * @param aBlockSize
+	 * the maximum number of data bytes per data section.
+	 *
+	 * @return
+	 * the tape layout.
+	 */
+	protected abstract List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize);
+
+
+	/**
+	 * Returns the number of samples used for a single byte including start and stop bits.
+	 *
+	 * @return
+	 * the size of an envelope in samples.
+	 */
+	protected abstract int envelopeSize();
+
+
+} // class
@@ -0,0 +1,193 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeSection.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Responsibilities:<br>
+ * Describe a single section of a tape.
+ *
+ * <p>
+ * Collaborators:<br>
+ * SectionRenderer,<br>
+ * SampleSink.
+ *
+ * <p>
+ * Description:<br>
+ * A tape is a sequence of sections, like silence, sync pattern, header fields and data blocks.
+ * Each section knows its name, the maximum number of samples it produces, the amount of progress 
+ * it represents and the renderer that produces the samples.
+ * <p>
+ * The sections are rendered one after the other, so only a single section has to be held in memory at a time.
+ * <p>
+ * A concurrent section doesn't touch any state shared with other sections, e.g. the protocol's Encoder.
+ * TapeProtocol.compile(ByteBuffer, ForkJoinPool) renders such sections in parallel, 
+ * the sample count of a concurrent section must be exact, not just a maximum.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class TapeSection {
+
+	protected final String name;
+	protected final int sampleCount;
+	protected final int progress;
+	protected final SectionRenderer renderer;
+	protected final boolean concurrent;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aName
+	 * the name of the section, used for logging purposes.
+	 *
+	 * @param aSampleCount
+	 * the maximum number of samples produced by the section.
+	 *
+	 * @param aProgress
+	 * the amount of progress reported when the section is done.
+	 *
+	 * @param aRenderer
+	 * the renderer producing the samples.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aName or aRenderer is null<br>
+	 * or aSampleCount is negative.
+	 */
+	public TapeSection(final String aName, final int aSampleCount, final int aProgress, final SectionRenderer aRenderer) {
+		this(aName, aSampleCount, aProgress, aRenderer, false);
+
+	} // TapeSection()
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aName
+	 * the name of the section, used for logging purposes.
+	 *
+	 * @param aSampleCount
+	 * the number of samples produced by the section, exact if aConcurrent is true.
+	 *
+	 * @param aProgress
+	 * the amount of progress reported when the section is done.
+	 *
+	 * @param aRenderer
+	 * the renderer producing the samples.
+	 *
+	 * @param aConcurrent
+	 * true if the section may be rendered in parallel to other sections.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aName or aRenderer is null<br>
+	 * or aSampleCount is negative.
+	 */
+	public TapeSection(final String aName, final int aSampleCount, final int aProgress, final SectionRenderer aRenderer, final boolean aConcurrent) {
+
+		if(aName == null) throw new IllegalArgumentException("aName can't be null");
+		if(aSampleCount < 0) throw new IllegalArgumentException("aSampleCount can't be negative");
+		if(aRenderer == null) throw new IllegalArgumentException("aRenderer can't be null");
+
+		name = aName;
+		sampleCount = aSampleCount;
+		progress = aProgress;
+		renderer = aRenderer;
+		concurrent = aConcurrent;
+
+	} // TapeSection()
+
+
+	/**
+	 * Renders the section into aSampleSink.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to encode the section.
+	 *
+	 * @throws IOException
+	 * if the sink fails.
+	 */
+	public void render(final SampleSink aSampleSink) throws IllegalAccessException, IOException {
+
+		renderer.render(aSampleSink);
+
+	} // render()
+
+
+	/**
+	 * Calculates the maximum number of samples of a complete tape.
+	 *
+	 * @param aLayout
+	 * the sections of the tape.
+	 *
+	 * @return
+	 * the sum of the sample counts of all sections.
+	 */
+	public static int sampleCount(final List<TapeSection> aLayout) {
+
+		long samples = 0;
+
+		for(TapeSection section : aLayout) {
+			samples += section.sampleCount;
+		}
+
+		if(samples > Integer.MAX_VALUE) throw new IllegalArgumentException("tape exceeds " + Integer.MAX_VALUE + " samples");
+
+		return (int) samples;
+
+	} // sampleCount()
+
+
+	public String getName() { return name; }
+	public int getSampleCount() { return sampleCount; }
+	public int getProgress() { return progress; }
+	public boolean isConcurrent() { return concurrent; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "TapeSection [name=" + name + ", sampleCount=" + sampleCount + ", progress=" + progress + ", concurrent=" + concurrent + "]";
+	}
+
+
+} // class
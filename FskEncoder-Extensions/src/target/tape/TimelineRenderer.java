@@ -0,0 +1,310 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TimelineRenderer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Render an EdgeTimeline into PCM samples at a given sampling rate.
+ *
+ * <p>
+ * Collaborators:<br>
+ * EdgeTimeline which describes the tape,<br>
+ * SampleSink which receives the samples,<br>
+ * EdgeTape.
+ *
+ * <p>
+ * Description:<br>
+ * The renderer keeps the exact time of every edge and places it on the nearest sample, 
+ * so the rounding errors of the single half periods don't add up over the tape.
+ * The samples are 8 bit signed PCM with the levels of EdgeTape.
+ * <p>
+ * A timeline may be rendered by any number of renderers, e.g. at the sampling rate of the target system 
+ * and at 44.1 kHz for the sound card.
+ * <p>
+ * toEdgeTape(EdgeTimeline) rounds each half period to whole samples instead, 
+ * which keeps the runs of equal cycles in the much more compact EdgeTape.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class TimelineRenderer {
+
+	private Logger logger = LogManager.getLogger(TimelineRenderer.class.getName());
+
+	protected static final long NANOS_PER_SECOND = EdgeTimeline.NANOS_PER_SECOND;
+
+	protected final int samplingRate;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aSamplingRate
+	 * the sampling rate of the rendered samples.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aSamplingRate is less than 1.
+	 */
+	public TimelineRenderer(final int aSamplingRate) {
+		logger.trace("TimelineRenderer(): aSamplingRate = {}", aSamplingRate);
+
+		if(aSamplingRate < 1) throw new IllegalArgumentException("aSamplingRate must be greater than 0");
+
+		samplingRate = aSamplingRate;
+
+	} // TimelineRenderer()
+
+
+	/**
+	 * Renders the timeline and delivers the samples in chunks.
+	 *
+	 * @param aTimeline
+	 * the timeline to render.
+	 *
+	 * @param aSampleSink
+	 * the sink that receives the samples.
+	 *
+	 * @param aChunkSize
+	 * the number of samples per chunk, the last chunk may be shorter.
+	 *
+	 * @throws IOException
+	 * if the sink fails.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aTimeline or aSampleSink is null<br>
+	 * or aChunkSize is less than 1.
+	 */
+	public void render(final EdgeTimeline aTimeline, final SampleSink aSampleSink, final int aChunkSize) throws IOException {
+		logger.trace("render(): aTimeline = {}, aSampleSink = {}, aChunkSize = {}", aTimeline, aSampleSink, aChunkSize);
+
+		if(aTimeline == null) throw new IllegalArgumentException("aTimeline can't be null");
+		if(aSampleSink == null) throw new IllegalArgumentException("aSampleSink can't be null");
+		if(aChunkSize < 1) throw new IllegalArgumentException("aChunkSize must be greater than 0");
+
+		byte[] chunk = new byte[aChunkSize];
+		int position = 0;
+
+		long time = 0;
+		long sample = 0;
+
+		for(int n = 0; n < aTimeline.getEntryCount(); n++) {
+
+			int count = aTimeline.getCount(n);
+			int high = aTimeline.getHigh(n);
+			int low = aTimeline.getLow(n);
+
+			/*
+			 * Silence is a single run, a cycle a high and a low half period.
+			 */
+			int runs = high == 0 ? 1 : count * 2;
+
+			for(int run = 0; run < runs; run++) {
+
+				byte level;
+
+				if(high == 0) {
+					time += (long) count * low;
+					level = EdgeTape.SILENCE_LEVEL;
+				}
+				else if((run & 0x01) == 0) {
+					time += high;
+					level = EdgeTape.HIGH_LEVEL;
+				}
+				else {
+					time += low;
+					level = EdgeTape.LOW_LEVEL;
+				} // esle
+
+				long edge = sampleAt(time);
+				long length = edge - sample;
+
+				sample = edge;
+
+				while(length > 0) {
+
+					int part = (int) Math.min(length, aChunkSize - position);
+
+					Arrays.fill(chunk, position, position + part, level);
+
+					position += part;
+					length -= part;
+
+					if(position == aChunkSize) {
+						aSampleSink.write(chunk, 0, position);
+						position = 0;
+					} // fi
+
+				} // elihw
+
+			} // rof
+
+		} // rof
+
+		if(position > 0) aSampleSink.write(chunk, 0, position);
+
+	} // render()
+
+
+	/**
+	 * Renders the complete timeline into a single buffer.
+	 *
+	 * @param aTimeline
+	 * the timeline to render.
+	 *
+	 * @return
+	 * the 8 bit signed PCM samples.
+	 *
+	 * @throws IllegalStateException
+	 * if the tape exceeds the size of a buffer.
+	 */
+	public ByteBuffer toSamples(final EdgeTimeline aTimeline) {
+
+		long sampleCount = getSampleCount(aTimeline);
+
+		if(sampleCount > Integer.MAX_VALUE) throw new IllegalStateException("tape exceeds " + Integer.MAX_VALUE + " samples");
+
+		ByteBufferSampleSink sampleSink = new ByteBufferSampleSink((int) sampleCount);
+
+		try {
+			render(aTimeline, sampleSink, TapeProtocol.DEFAULT_CHUNK_SIZE);
+		}
+		catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return sampleSink.getSampleBuffer();
+
+	} // toSamples()
+
+
+	/**
+	 * Converts the timeline into an EdgeTape at the sampling rate of this renderer.
+	 *
+	 * Each half period is rounded to whole samples, so the runs of equal cycles are kept.
+	 *
+	 * @param aTimeline
+	 * the timeline to convert.
+	 *
+	 * @return
+	 * the edges of the tape.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aTimeline is null<br>
+	 * or a half period doesn't fit into 1 to 255 samples.
+	 */
+	public EdgeTape toEdgeTape(final EdgeTimeline aTimeline) {
+		logger.trace("toEdgeTape(): aTimeline = {}", aTimeline);
+
+		if(aTimeline == null) throw new IllegalArgumentException("aTimeline can't be null");
+
+		EdgeTape edgeTape = new EdgeTape(samplingRate);
+
+		for(int n = 0; n < aTimeline.getEntryCount(); n++) {
+
+			int count = aTimeline.getCount(n);
+
+			if(aTimeline.isSilence(n)) {
+
+				edgeTape.append(0, 0, (int) sampleAt((long) count * aTimeline.getLow(n)));
+
+			}
+			else {
+
+				int high = (int) sampleAt(aTimeline.getHigh(n));
+				int low = (int) sampleAt(aTimeline.getLow(n));
+
+				if(high < 1 || low < 1 || high > EdgeTape.MAX_HALF || low > EdgeTape.MAX_HALF) {
+					throw new IllegalArgumentException("a half period of entry " + n + " doesn't fit at " + samplingRate + " Hz");
+				}
+
+				edgeTape.append(high, low, count);
+
+			} // esle
+
+		} // rof
+
+		return edgeTape;
+
+	} // toEdgeTape()
+
+
+	/**
+	 * Returns the number of samples the timeline renders to.
+	 *
+	 * @param aTimeline
+	 * the timeline to render.
+	 *
+	 * @return
+	 * the number of samples.
+	 */
+	public long getSampleCount(final EdgeTimeline aTimeline) {
+
+		if(aTimeline == null) throw new IllegalArgumentException("aTimeline can't be null");
+
+		return sampleAt(aTimeline.getDuration());
+
+	} // getSampleCount()
+
+
+	public int getSamplingRate() { return samplingRate; }
+
+
+	/*
+	 * Index of the sample nearest to aTime ns.
+	 */
+	protected long sampleAt(final long aTime) {
+
+		return (aTime * samplingRate + NANOS_PER_SECOND / 2) / NANOS_PER_SECOND;
+
+	} // sampleAt()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "TimelineRenderer [samplingRate=" + samplingRate + "]";
+	}
+
+
+} // class
@@ -0,0 +1,324 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : WavSampleSink.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Write sound samples into a WAV file.
+ *
+ * <p>
+ * Collaborators:<br>
+ * FileChannel.
+ *
+ * <p>
+ * Description:<br>
+ * The samples are streamed into the data chunk of a RIFF/WAVE container with 8 bit mono PCM,
+ * nothing but the current chunk is held on the heap.
+ * The header is written in front of the first samples by a single gathering write, 
+ * its size fields are back-patched by close() when the final size is known.
+ * <p>
+ * WAV stores 8 bit samples unsigned. Signed samples are converted while they are written, 
+ * unsigned samples are passed to the channel as they are.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class WavSampleSink implements SampleSink, Closeable {
+
+	private Logger logger = LogManager.getLogger(WavSampleSink.class.getName());
+
+	public static final int HEADER_SIZE		= 44;		// bytes
+	
+	protected static final int RIFF_SIZE_OFFSET	= 4;
+	protected static final int DATA_SIZE_OFFSET	= 40;
+	
+	protected static final long MAX_DATA_SIZE	= 0xFFFFFFFFL - (HEADER_SIZE - 8) - 1;
+	
+	protected static final int CONVERSION_SIZE	= 64 * 1024;
+	
+	protected final FileChannel channel;
+	protected final int samplingRate;
+	protected final boolean signedSamples;
+	
+	protected final ByteBuffer[] gather = new ByteBuffer[2];
+	
+	protected ByteBuffer header;
+	protected ByteBuffer conversion;
+	protected long dataSize = 0;
+	protected boolean closed = false;
+
+
+	/**
+	 * Constructor for signed 8 bit samples.
+	 *
+	 * @param aFile
+	 * the WAV file, an existing file is overwritten.
+	 *
+	 * @param aSamplingRate
+	 * the sampling rate of the samples in Hz.
+	 *
+	 * @throws IOException
+	 * if the file can't be opened.
+	 */
+	public WavSampleSink(final Path aFile, final int aSamplingRate) throws IOException {
+		this(aFile, aSamplingRate, true);
+		
+	} // WavSampleSink()
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aFile
+	 * the WAV file, an existing file is overwritten.
+	 *
+	 * @param aSamplingRate
+	 * the sampling rate of the samples in Hz.
+	 *
+	 * @param aSignedSamples
+	 * true if the samples are signed and must be converted to the unsigned WAV format.
+	 *
+	 * @throws IOException
+	 * if the file can't be opened.
+	 *
+	 * @throws IllegalArgumentException<br>
+	 * if aFile is null<br>
+	 * or aSamplingRate is less than 1.
+	 */
+	public WavSampleSink(final Path aFile, final int aSamplingRate, final boolean aSignedSamples) throws IOException {
+		logger.trace("WavSampleSink(): aFile = {}, aSamplingRate = {}, aSignedSamples = {}", aFile, aSamplingRate, aSignedSamples);
+
+		if(aFile == null) throw new IllegalArgumentException("aFile can't be null");
+		if(aSamplingRate < 1) throw new IllegalArgumentException("aSamplingRate must be greater than 0");
+
+		samplingRate = aSamplingRate;
+		signedSamples = aSignedSamples;
+		
+		header = header(aSamplingRate, 0);
+		
+		if(signedSamples) conversion = ByteBuffer.allocateDirect(CONVERSION_SIZE);
+		
+		channel = FileChannel.open(aFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+	} // WavSampleSink()
+
+
+	@Override
+	public void write(final ByteBuffer aSamples) throws IOException {
+
+		if(closed) throw new IOException("WavSampleSink is closed");
+		
+		if(dataSize + aSamples.remaining() > MAX_DATA_SIZE) throw new IOException("WAV file too large");
+		
+		if(! signedSamples) {
+			
+			dataSize += aSamples.remaining();
+			writeData(aSamples);
+			
+			return;
+			
+		}
+		
+		while(aSamples.hasRemaining()) {
+			
+			conversion.clear();
+			
+			int length = Math.min(aSamples.remaining(), conversion.capacity());
+			int position = aSamples.position();
+			
+			for(int n = 0; n < length; n++) {
+				conversion.put((byte) (aSamples.get(position + n) ^ 0x80));
+			} // rof
+			
+			aSamples.position(position + length);
+			conversion.flip();
+			
+			dataSize += length;
+			writeData(conversion);
+			
+		} // elihw
+
+	} // write()
+
+
+	/**
+	 * Completes the WAV file and closes it.<br>
+	 * 
+	 * A pad byte is appended if the data chunk has an odd size, then the size fields of the header are patched.
+	 *
+	 * @throws IOException
+	 * if the file can't be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		logger.trace("close(): dataSize = {}", dataSize);
+		
+		if(closed) return;
+		
+		closed = true;
+		
+		try {
+			
+			ByteBuffer pad = ByteBuffer.allocate((int) (dataSize & 1));
+			
+			writeData(pad);
+			
+			ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			
+			size.putInt(0, (int) (HEADER_SIZE - 8 + dataSize + pad.capacity()));
+			writeFully(size, RIFF_SIZE_OFFSET);
+			
+			size.putInt(0, (int) dataSize);
+			writeFully(size, DATA_SIZE_OFFSET);
+			
+		}
+		finally {
+			
+			channel.close();
+			
+		} // yrt
+		
+	} // close()
+
+
+	/**
+	 * Returns the number of samples written so far.
+	 *
+	 * @return
+	 * the size of the data chunk in bytes.
+	 */
+	public long getDataSize() { return dataSize; }
+
+
+	/**
+	 * Creates the header of an 8 bit mono PCM WAV file.
+	 *
+	 * @param aSamplingRate
+	 * the sampling rate in Hz.
+	 *
+	 * @param aDataSize
+	 * the size of the data chunk in bytes.
+	 *
+	 * @return
+	 * the header with position 0 and limit HEADER_SIZE.
+	 */
+	public static ByteBuffer header(final int aSamplingRate, final long aDataSize) {
+		
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		
+		header.put(new byte[] { 'R', 'I', 'F', 'F' });
+		header.putInt((int) (HEADER_SIZE - 8 + aDataSize + (aDataSize & 1)));
+		header.put(new byte[] { 'W', 'A', 'V', 'E' });
+		
+		header.put(new byte[] { 'f', 'm', 't', ' ' });
+		header.putInt(16);							// size of the fmt chunk
+		header.putShort((short) 1);				// PCM
+		header.putShort((short) 1);				// mono
+		header.putInt(aSamplingRate);
+		header.putInt(aSamplingRate);				// bytes per second
+		header.putShort((short) 1);				// block align
+		header.putShort((short) 8);				// bits per sample
+		
+		header.put(new byte[] { 'd', 'a', 't', 'a' });
+		header.putInt((int) aDataSize);
+		
+		header.flip();
+		
+		return header;
+		
+	} // header()
+
+
+	/*
+	 * Appends samples to the data chunk.
+	 * The header is still pending before the first samples, both are written by a single gathering write.
+	 */
+	protected void writeData(final ByteBuffer aData) throws IOException {
+		
+		if(header == null) {
+			
+			while(aData.hasRemaining()) channel.write(aData);
+			
+			return;
+			
+		}
+		
+		gather[0] = header;
+		gather[1] = aData;
+		
+		while(header.hasRemaining() || aData.hasRemaining()) channel.write(gather);
+		
+		gather[1] = null;
+		header = null;
+		
+	} // writeData()
+
+
+	/*
+	 * Writes the buffer at an absolute file position.
+	 */
+	protected void writeFully(final ByteBuffer aBuffer, final long aPosition) throws IOException {
+		
+		ByteBuffer buffer = aBuffer.duplicate();
+		buffer.clear();
+		
+		while(buffer.hasRemaining()) {
+			channel.write(buffer, aPosition + buffer.position());
+		} // elihw
+		
+	} // writeFully()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "WavSampleSink [samplingRate=" + samplingRate + ", signedSamples=" + signedSamples + ", dataSize=" + dataSize + ", closed=" + closed + "]";
+	}
+
+
+} // class
@@ -0,0 +1,256 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : WaveformCache.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * Keep the samples of waveforms that don't depend on the data, like silence, lead-in and sync pattern.
+ *
+ * <p>
+ * Collaborators:<br>
+ * TapeProtocol,<br>
+ * SectionEncoder.
+ *
+ * <p>
+ * Description:<br>
+ * A protocol renders the same preamble, sync and silence blocks on every compile.
+ * The cache renders each of these waveforms once per process and hands out read-only views of the samples afterwards.
+ * A waveform is identified by a Key made of protocol, waveform name, frequency or bit value, count and sampling rate.
+ * All protocols produce 8 bit signed mono samples, so the sampling rate determines the sample format.
+ * <p>
+ * The cache is thread-safe. If two threads miss the same key at the same time, both render the waveform 
+ * and the first result is kept, no lock is held while rendering.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class WaveformCache {
+
+	private static Logger logger = LogManager.getLogger(WaveformCache.class.getName());
+
+	private static final WaveformCache SHARED = new WaveformCache();
+
+	protected final ConcurrentMap<Key, ByteBuffer> waveforms = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Returns the cache shared by all protocol instances of the process.
+	 *
+	 * @return
+	 * the process-wide cache.
+	 */
+	public static WaveformCache getShared() { return SHARED; }
+
+
+	/**
+	 * Returns the samples of a waveform, rendering them on the first request.
+	 *
+	 * @param aKey
+	 * identifies the waveform.
+	 *
+	 * @param aRenderer
+	 * renders the samples if they aren't cached yet.
+	 *
+	 * @return
+	 * a read-only view of the samples with position 0.
+	 *
+	 * @throws IllegalAccessException
+	 * if the encoder refuses to render the waveform.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aKey or aRenderer is null.
+	 */
+	public ByteBuffer get(final Key aKey, final WaveformRenderer aRenderer) throws IllegalAccessException {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null");
+		if(aRenderer == null) throw new IllegalArgumentException("aRenderer can't be null");
+
+		ByteBuffer samples = waveforms.get(aKey);
+
+		if(samples == null) {
+
+			logger.trace("get(): rendering {}", aKey);
+
+			ByteBuffer rendered = aRenderer.render();
+
+			ByteBuffer copy = ByteBuffer.allocate(rendered.remaining());
+			copy.put(rendered);
+			copy.flip();
+
+			samples = waveforms.putIfAbsent(aKey, copy.asReadOnlyBuffer());
+
+			if(samples == null) samples = waveforms.get(aKey);
+
+		} // fi
+
+		return samples.duplicate();
+
+	} // get()
+
+
+	/**
+	 * Drops all cached waveforms.
+	 */
+	public void clear() {
+		logger.trace("clear()");
+
+		waveforms.clear();
+
+	} // clear()
+
+
+	/**
+	 * Returns the number of cached waveforms.
+	 *
+	 * @return
+	 * the number of keys in the cache.
+	 */
+	public int size() { return waveforms.size(); }
+
+
+	/**
+	 * Renders the samples of a waveform on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface WaveformRenderer {
+
+		/**
+		 * Renders the waveform.
+		 *
+		 * @return
+		 * the samples between position and limit, the cache keeps a copy.
+		 *
+		 * @throws IllegalAccessException
+		 * if the encoder refuses to render the waveform.
+		 */
+		ByteBuffer render() throws IllegalAccessException;
+
+	} // interface
+
+
+	/**
+	 * Identifies a waveform.
+	 */
+	public static final class Key {
+
+		protected final String protocol;
+		protected final String waveform;
+		protected final int value;
+		protected final int count;
+		protected final int samplingRate;
+
+
+		/**
+		 * Constructor.
+		 *
+		 * @param aProtocol
+		 * the protocol rendering the waveform, e.g. its class name.
+		 *
+		 * @param aWaveform
+		 * the name of the waveform, e.g. "wave cycle" or "silence".
+		 *
+		 * @param aValue
+		 * the frequency or bit value, 0 if not applicable.
+		 *
+		 * @param aCount
+		 * the number of cycles, bits or milliseconds.
+		 *
+		 * @param aSamplingRate
+		 * the sampling rate of the samples.
+		 *
+		 * @throws IllegalArgumentException
+		 * if aProtocol or aWaveform is null.
+		 */
+		public Key(final String aProtocol, final String aWaveform, final int aValue, final int aCount, final int aSamplingRate) {
+
+			if(aProtocol == null) throw new IllegalArgumentException("aProtocol can't be null");
+			if(aWaveform == null) throw new IllegalArgumentException("aWaveform can't be null");
+
+			protocol = aProtocol;
+			waveform = aWaveform;
+			value = aValue;
+			count = aCount;
+			samplingRate = aSamplingRate;
+
+		} // Key()
+
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(protocol, waveform, value, count, samplingRate);
+		}
+
+
+		@Override
+		public boolean equals(final Object aObject) {
+
+			if(this == aObject) return true;
+			if(! (aObject instanceof Key)) return false;
+
+			Key other = (Key) aObject;
+
+			return value == other.value && count == other.count && samplingRate == other.samplingRate 
+				&& protocol.equals(other.protocol) && waveform.equals(other.waveform);
+
+		} // equals()
+
+
+		@Override
+		public String toString() {
+			return "Key [protocol=" + protocol + ", waveform=" + waveform + ", value=" + value + ", count=" + count
+				+ ", samplingRate=" + samplingRate + "]";
+		}
+
+	} // class
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 *
+	 * @return
+	 * a string representing the current state of this object.
+	 */
+	@Override
+	public String toString() {
+		return "WaveformCache [size=" + waveforms.size() + "]";
+	}
+
+
+} // class
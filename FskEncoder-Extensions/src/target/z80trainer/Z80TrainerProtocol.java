@@ -29,7 +29,10 @@
 
 package target.z80trainer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,9 +45,16 @@ import extension.encoder.Encoder;
 import extension.encoder.FskBitEncoder;
 import extension.encoder.SilenceEncoder;
 import extension.encoder.WaveCycleEncoder;
-import extension.protocol.BackgroundTaskProtokol;
 import extension.protocol.Modulo256ChecksumCalculator;
 import extension.sound.FskAudioFormat;
+import target.tape.ByteEnvelopeCache;
+import target.tape.EdgeTimeline;
+import target.tape.SampleSink;
+import target.tape.TapeData;
+import target.tape.TapeJob;
+import target.tape.TapeProtocol;
+import target.tape.TapeSection;
+import target.tape.WaveformCache;
 
 /**
  * Responsibilities:<br>
@@ -58,6 +68,8 @@ import extension.sound.FskAudioFormat;
  * 	<li>SilenceEncoder</li>
  * 	<li>WaveCycleEncoder</li>
  * 	<li>Encoder</li>
+ * 	<li>ByteEnvelopeCache</li>
+ * 	<li>TapeProtocol</li>
  * </ul>
  * 
  * <p>
@@ -112,7 +124,7 @@ import extension.sound.FskAudioFormat;
  *
  */
 
-public class Z80TrainerProtocol extends BackgroundTaskProtokol {
+public class Z80TrainerProtocol extends TapeProtocol {
 
 	private Logger logger = LogManager.getLogger(Z80TrainerProtocol.class.getName());
 	
@@ -132,6 +144,8 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	protected static final BitValue STOP_BIT_VALUE		=	BitValue.HIGH;
 	
 	protected static final int SAMPLING_RATE			=	F_HIGH * 8;
+	
+	protected static final ByteOrder BYTE_ORDER		=	ByteOrder.BIG_ENDIAN;
 
 	/*
 	 * Structure of a complete file for upload
@@ -157,6 +171,13 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	
 	protected static final int CK_SUM				= 1;		// byte
 	
+	/*
+	 * Names of the cached waveforms
+	 */
+	protected static final String SILENCE			= "silence";
+	protected static final String BITS				= "bits";
+	protected static final String SYNC				= "sync";
+	
 	
 	protected int programNbr;
 	protected boolean haveProgramNbr = false;
@@ -164,6 +185,8 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	protected int startAdr;
 	protected boolean haveStartAdr = false;
 	
+	protected ByteEnvelopeCache envelopeCache;
+	
 	
 	/**
 	 * Constructor.
@@ -173,12 +196,15 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 		logger.trace("Z80Trainer()");
 		
 		checksumCalculator	= new Modulo256ChecksumCalculator();
+		byteSumMask			= 0x00FF;
 		
 		SilenceEncoder silenceEncoder = new SilenceEncoder(SAMPLING_RATE);
 		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(SAMPLING_RATE);
 		BitEncoder bitEncoder = new FskBitEncoder(F_LOW, F_HIGH, waveCycleEncoder);		
+		
+		envelopeCache = new ByteEnvelopeCache(bitEncoder, NBR_START_BITS, START_BIT_VALUE, NBR_STOP_BITS, STOP_BIT_VALUE);
 
-		encoder = new Encoder(bitEncoder, ByteOrder.BIG_ENDIAN, BitOrder.LSB_MSB)
+		encoder = new Encoder(bitEncoder, BYTE_ORDER, BitOrder.LSB_MSB)
 			.withSilenceEncoder(silenceEncoder)
 			.withWaveCycleEncoder(waveCycleEncoder)
 			.withStartBits(NBR_START_BITS, START_BIT_VALUE)
@@ -238,15 +264,14 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	}
 
 	/**
-	 * Starts the translation of the given data buffer and returns the generated sound samples.
-	 * 
-	 * Translation is performed according to the defined protocol.
-	 * A sound sample buffer is filled with all protocol elements and data and then returned.
+	 * Checks that program number and start address are set.
 	 * 
+	 * @throws IllegalAccessError
+	 * if a parameter is missing.
 	 */
 	@Override
-	public ByteBuffer compile(final ByteBuffer aDataBuffer) {
-		logger.trace("compile(): aDataBuffer = {}", aDataBuffer);
+	protected void validate() {
+		logger.trace("validate()");
 		
 		if(!haveProgramNbr) {
 			logger.trace("ERROR: aProgramNbr not set!");
@@ -257,105 +282,181 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 			throw new IllegalAccessError("aStartAdr not set!");
 		}
 		
-		isRunning = true;
-		currentProgress = 0;
-		setFullProgress(aDataBuffer.limit());
-		
-		calculateBufferSize(aDataBuffer);
-		encoder.setBufferSize(soundSampleBufferSize);
-		
-		try {
-
-			// TODO: Test coverage
-
-			silence();
-			progress(SILENCE_BLOCK);
-			if(!isRunning) return null;
-			
-			leadIn();
-			progress(LEAD_IN);
-			if(!isRunning) return null;
-			
-			syncPatern();
-			progress(MEASURE_0 + MEASURE_1);
-			if(!isRunning) return null;
-			
-			programNumber();
-			progress(PRG_NBR);
-			if(!isRunning) return null;
-			
-			startAddress();
-			progress(START_ADR + START_ADR_CKS);
-			if(!isRunning) return null;
-			
-			dataBlockLength(aDataBuffer);
-			progress(BLK_LEN + BLK_LEN_CKS);
-			if(!isRunning) return null;
-			
-			idleTime();
-			progress(CKS_IDLE_TIME);
-			if(!isRunning) return null;
-			
-			dataBlock(aDataBuffer);
-			progress(aDataBuffer.limit());
-			if(!isRunning) return null;
-			
-			silence();
-			progress(SILENCE_BLOCK);
-			
-		}
-		catch(IllegalAccessException e) {
-			logger.error("Unexpected exception caught:", e);
-		}
-		
-		return encoder.getSampleBuffer();
-		
-	} // compile()
+	} // validate()
 	
 	
 	/*
-	 * Calculates the amount of sound samples needed.
+	 * Describes the Z80 trainer tape as a list of sections.
 	 * 
 	 * The encoder knows the size of the sound samples and provides a method to obtain that value.
+	 * Each protocol element is multiplied by the number of items used for its encoding,
+	 * giving the maximum number of sound samples of that section.
 	 * 
-	 * Each protocol element is now multiplied by the number of items used for their encoding.
-	 * Lastly a sum is calculated over all protocol elements representing the maximum number of 
-	 * sound samples.
+	 * The data block is split into sections of at most aBlockSize bytes, 
+	 * the data block checksum is appended to the last one.
 	 * 
 	 */
-	protected void calculateBufferSize(final ByteBuffer aDataBuffer) {
-		logger.trace("calculateBufferSize(): aDataBuffer = {}", aDataBuffer);
+	@Override
+	protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+		logger.trace("tapeLayout(): aTapeData = {}, aBlockSize = {}", aTapeData, aBlockSize);
 		
 		int sampleSize = encoder.getSampleSize();
-		int envelopeSize = 
-				(NBR_START_BITS * sampleSize) 
-			  + (8 * sampleSize) 
-			  + (NBR_STOP_BITS * sampleSize)
-			  ;
+		int envelopeSize = envelopeSize();
+		int silenceSize = silenceSamples(SAMPLING_RATE, SILENCE_BLOCK);
+		
+		WaveformCache.Key silenceWaveform = waveform(SILENCE, 0, SILENCE_BLOCK);
+		
+		List<TapeSection> layout = new ArrayList<>();
 		
 		/*
 		 * For a better readability a tabular form is used.
 		 */
-		soundSampleBufferSize
-			// item					mult	samples
-			= SILENCE_BLOCK				* 1		* (int)(SAMPLING_RATE * SILENCE_BLOCK / 1000) + 1	// samples
-			+ LEAD_IN				* 1		* sampleSize	// bits	
-			+ MEASURE_0				* 1		* sampleSize	// bits
-			+ MEASURE_1				* 1		* sampleSize	// bits
-			+ PRG_NBR				* 2		* envelopeSize	// word
-			+ START_ADR				* 2		* envelopeSize	// word
-			+ START_ADR_CKS			* 1		* envelopeSize	// bytes
-			+ BLK_LEN				* 2		* envelopeSize	// word
-			+ BLK_LEN_CKS			* 1		* envelopeSize	// bytes
-			+ CKS_IDLE_TIME			* 1		* sampleSize	// bits
-			+ aDataBuffer.limit()	* 1		* envelopeSize	// bytes
-			+ CK_SUM				* 1		* envelopeSize	// bytes
-			+ SILENCE_BLOCK				* 1		* (int)(SAMPLING_RATE * SILENCE_BLOCK / 1000) + 1	// samples
-			;
+		// 							section				samples																progress						waveform
+		layout.add(cachedSection("silence",			silenceSize,														SILENCE_BLOCK,					silenceWaveform,								this::silence));
+		layout.add(cachedSection("lead in",			LEAD_IN * sampleSize,												LEAD_IN,						waveform(BITS, 1, LEAD_IN),						this::leadIn));
+		layout.add(cachedSection("sync",				(MEASURE_0 + MEASURE_1) * sampleSize,								MEASURE_0 + MEASURE_1,			waveform(SYNC, 0, MEASURE_0 + MEASURE_1),		this::syncPatern));
+		layout.add(new TapeSection("program number",	PRG_NBR * 2 * envelopeSize,											PRG_NBR,						this::programNumber));
+		layout.add(new TapeSection("start address",		(START_ADR * 2 + START_ADR_CKS) * envelopeSize,						START_ADR + START_ADR_CKS,		this::startAddress));
+		layout.add(new TapeSection("block length",		(BLK_LEN * 2 + BLK_LEN_CKS) * envelopeSize,							BLK_LEN + BLK_LEN_CKS,			sampleSink -> dataBlockLength(aTapeData, sampleSink)));
+		layout.add(cachedSection("idle time",			CKS_IDLE_TIME * sampleSize,											CKS_IDLE_TIME,					waveform(BITS, 1, CKS_IDLE_TIME),				this::idleTime));
+		
+		List<ByteBuffer> blocks = aTapeData.blocks(aBlockSize);
+		ByteBuffer lastBlock = blocks.get(blocks.size() - 1);
+		
+		for(ByteBuffer block : blocks) {
+			
+			if(block != lastBlock) {
+				layout.add(new TapeSection(DATA_SECTION,	block.limit() * envelopeSize,										block.limit(),					sampleSink -> dataBlock(block, sampleSink)));
+			}
+			else {
+				layout.add(new TapeSection(DATA_SECTION,	(block.limit() + CK_SUM) * envelopeSize,							block.limit(),					sampleSink -> {
+					dataBlock(block, sampleSink);
+					dataBlockChecksum(aTapeData, sampleSink);
+				}));
+			} // esle
+			
+		} // rof
+		
+		layout.add(cachedSection("silence",			silenceSize,														SILENCE_BLOCK,					silenceWaveform,								this::silence));
+		
+		return layout;
+		
+	} // tapeLayout()
+	
+	
+	/*
+	 * Same layout as tapeLayout(), as edges.
+	 */
+	@Override
+	protected void edgeLayout(final ByteBuffer aDataBuffer, final EdgeTimeline aTimeline) {
+		logger.trace("edgeLayout(): aDataBuffer = {}", aDataBuffer);
+		
+		aTimeline.silence(SILENCE_BLOCK);
+		
+		edgeBits(1, LEAD_IN, aTimeline);
+		edgeBits(0, MEASURE_0, aTimeline);
+		edgeBits(1, MEASURE_1, aTimeline);
+		
+		edgeWord(programNbr, aTimeline);
+		edgeWordWithChecksum(startAdr, aTimeline);
+		edgeWordWithChecksum(aDataBuffer.limit(), aTimeline);
+		
+		edgeBits(1, CKS_IDLE_TIME, aTimeline);
+		
+		for(int n = 0; n < aDataBuffer.limit(); n++) {
+			edgeByte(aDataBuffer.get(n), aTimeline);
+		} // rof
+		
+		edgeByte((byte) dataChecksum(aDataBuffer), aTimeline);
+		
+		aTimeline.silence(SILENCE_BLOCK);
+		
+	} // edgeLayout()
+	
+	
+	/*
+	 * '0' is 1 cycle F_LOW, '1' is 1 cycle F_HIGH.
+	 */
+	@Override
+	protected void edgeBit(final int aBit, final EdgeTimeline aTimeline) {
+		
+		aTimeline.cycles(aBit == 0 ? F_LOW : F_HIGH, 1);
+		
+	} // edgeBit()
+	
+	
+	protected void edgeBits(final int aBit, final int aCount, final EdgeTimeline aTimeline) {
+		
+		aTimeline.cycles(aBit == 0 ? F_LOW : F_HIGH, aCount);
 		
-		logger.trace("soundSampleBufferSize = {}", soundSampleBufferSize);
+	} // edgeBits()
+	
+	
+	protected void edgeByte(final byte aByte, final EdgeTimeline aTimeline) {
+		
+		edgeEnvelope(aByte, NBR_START_BITS, START_BIT_VALUE, NBR_STOP_BITS, STOP_BIT_VALUE, aTimeline);
+		
+	} // edgeByte()
+	
+	
+	/*
+	 * High byte first.
+	 */
+	protected void edgeWord(final int aWord, final EdgeTimeline aTimeline) {
+		
+		edgeByte((byte) ((aWord >> 8) & 0x00FF), aTimeline);
+		edgeByte((byte) (aWord & 0x00FF), aTimeline);
+		
+	} // edgeWord()
+	
+	
+	/*
+	 * High byte, low byte and their checksum.
+	 */
+	protected void edgeWordWithChecksum(final int aWord, final EdgeTimeline aTimeline) {
+		
+		checksumCalculator.clear();
+		checksumCalculator.sumUp((byte) (aWord & 0x00FF));
+		checksumCalculator.sumUp((byte) ((aWord >> 8) & 0x00FF));
+		
+		edgeWord(aWord, aTimeline);
+		edgeByte((byte) checksumCalculator.getCheckSum(), aTimeline);
 		
-	} //calculateBufferSize()	
+	} // edgeWordWithChecksum()
+	
+	
+	@Override
+	protected ByteEnvelopeCache getEnvelopeCache() { return envelopeCache; }
+	
+	
+	@Override
+	protected String tapeParameters() {
+		
+		return String.format("0x%04X, 0x%04X", programNbr, startAdr);
+		
+	} // tapeParameters()
+	
+	
+	/*
+	 * The checksum follows the last data envelope.
+	 */
+	@Override
+	protected void renderChecksum(final ByteBuffer aDataBuffer, final SampleSink aSampleSink) throws IOException {
+		
+		dataBlockChecksum(tapeData(aDataBuffer), aSampleSink);
+		
+	} // renderChecksum()
+	
+	
+	/*
+	 * Start bit, 8 data bits and stop bits, as rendered by the envelope cache.
+	 */
+	@Override
+	protected int envelopeSize() {
+		
+		return envelopeCache.getMaxEnvelopeSize();
+		
+	} // envelopeSize()
 	
 
 	/*
@@ -366,28 +467,27 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	 */
 	
 	
-	protected void dataBlock(final ByteBuffer aDataBuffer) throws IllegalAccessException {
-		logger.trace("dataBlock(): aDataBuffer = {}", aDataBuffer);
-		
-		encoder.encodeByteBuffer(aDataBuffer, true);
+	protected void dataBlock(final ByteBuffer aDataBlock, final SampleSink aSampleSink) throws IOException {
+		logger.trace("dataBlock(): aDataBlock = {}", aDataBlock);
 		
-		aDataBuffer.rewind();
-		checksumCalculator.clear();
+		envelopeCache.encode(aDataBlock, aSampleSink);
 		
-		for(int n = 0; n < aDataBuffer.limit(); n++) {
-			checksumCalculator.sumUp(aDataBuffer.get(n));			
-		} // rof
+	} //dataBlock()
+
+
+	protected void dataBlockChecksum(final TapeData aTapeData, final SampleSink aSampleSink) throws IOException {
+		logger.trace("dataBlockChecksum(): aTapeData = {}", aTapeData);
 		
-		int chkSum = checksumCalculator.getCheckSum();	
-		encoder.encodeByte((byte)chkSum, true);
+		int chkSum = aTapeData.getChecksum();	
+		envelopeCache.encode((byte)chkSum, aSampleSink);
 		
-	} //dataBlock()
+	} //dataBlockChecksum()
 
 
-	protected void dataBlockLength(final ByteBuffer aDataBuffer) throws IllegalAccessException {
-		logger.trace("dataBlockLength(): aDataBuffer = {}", aDataBuffer);
+	protected void dataBlockLength(final TapeData aTapeData, final SampleSink aSampleSink) throws IOException {
+		logger.trace("dataBlockLength(): aTapeData = {}", aTapeData);
 		
-		int bufferSize = aDataBuffer.limit();
+		int bufferSize = aTapeData.getSize();
 		
 		byte loByte = (byte)(bufferSize & 0x00FF);
 		byte hIbyte = (byte)((bufferSize >> 8) & 0x00FF);
@@ -396,10 +496,10 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 		checksumCalculator.sumUp(loByte);
 		checksumCalculator.sumUp(hIbyte);
 		
-		encoder.encodeWord(bufferSize, true);
+		envelopeCache.encodeWord(bufferSize, BYTE_ORDER, aSampleSink);
 
 		byte chkSum = (byte)checksumCalculator.getCheckSum();
-		encoder.encodeByte(chkSum, true);
+		envelopeCache.encode(chkSum, aSampleSink);
 	
 	} //dataBlockLength()
 
@@ -420,10 +520,10 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	} //leadIn()
 
 
-	protected void programNumber() {
+	protected void programNumber(final SampleSink aSampleSink) throws IOException {
 		logger.trace("programNumber()");
 		
-		encoder.encodeWord(programNbr, true);
+		envelopeCache.encodeWord(programNbr, BYTE_ORDER, aSampleSink);
 		
 	} //programNumber()
 	
@@ -436,7 +536,7 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	} //silence()
 
 
-	protected void startAddress() throws IllegalAccessException {
+	protected void startAddress(final SampleSink aSampleSink) throws IOException {
 		logger.trace("startAddress()");
 		
 		byte loByte = (byte)(startAdr & 0x00FF);
@@ -446,10 +546,10 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 		checksumCalculator.sumUp(loByte);
 		checksumCalculator.sumUp(hIbyte);
 		
-		encoder.encodeWord(startAdr, true);
+		envelopeCache.encodeWord(startAdr, BYTE_ORDER, aSampleSink);
 
 		byte chkSum = (byte)checksumCalculator.getCheckSum();
-		encoder.encodeByte(chkSum, true);
+		envelopeCache.encode(chkSum, aSampleSink);
 		
 	} //startAddress()
 
@@ -484,8 +584,28 @@ public class Z80TrainerProtocol extends BackgroundTaskProtokol {
 	 * @return FskAudioFormat 
 	 * The used audio format
 	 */
+	@Override
 	public FskAudioFormat getAudioFormat() { return new FskAudioFormat(SAMPLING_RATE); }
 
+	
+	@Override
+	public int getSamplingRate() { return SAMPLING_RATE; }
+	
+	
+	/**
+	 * Takes program number and start address from the job.
+	 */
+	@Override
+	public void configure(final TapeJob aJob) {
+		logger.trace("configure(): aJob = {}", aJob);
+		
+		if(aJob == null) throw new IllegalArgumentException("aJob can't be null");
+		
+		setProgramNbr(aJob.getName());
+		setStartAddress(aJob.getStartAddress());
+		
+	} // configure()
+
 
 	@Override
 	protected void setFullProgress(final int aBufferSize) {
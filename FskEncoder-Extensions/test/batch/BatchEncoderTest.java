@@ -0,0 +1,328 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BatchEncoderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import target.microprofessor1.Mpf1Protocol;
+import target.tape.WavSampleSink;
+import target.z80trainer.Z80TrainerProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Verify the headless batch encoder end-to-end.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BatchEncoder,<br>
+ * the reader extensions and the target protocols.
+ * 
+ * <p>
+ * Description:<br>
+ * The samples written by the batch encoder must be identical to those of an in-memory compile
+ * of the same memory region.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class BatchEncoderTest {
+
+	private static Logger LOGGER = null;
+
+	protected static final String PATH = "./testresources/";
+	
+	protected ByteArrayOutputStream stdout;
+	protected ByteArrayOutputStream messages;
+	protected BatchEncoder cut;
+	
+	@TempDir
+	protected Path tempDir;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		stdout = new ByteArrayOutputStream();
+		messages = new ByteArrayOutputStream();
+		
+		cut = new BatchEncoder(Channels.newChannel(stdout), new PrintStream(messages, true));
+		
+	}
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#BatchEncoder(java.nio.channels.WritableByteChannel, java.io.PrintStream)}.
+	 */
+	@Test
+	final void testBatchEncoder() {
+		LOGGER.info("testBatchEncoder()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> new BatchEncoder(null, System.err));
+		assertEquals("aStdout can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new BatchEncoder(Channels.newChannel(stdout), null));
+		assertEquals("aMessages can't be null", thrown.getMessage());
+		
+	} // testBatchEncoder()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 */
+	@Test
+	final void testRun_List() {
+		LOGGER.info("testRun_List()");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "3block.hex", "--list" }));
+		
+		assertEquals(
+			"1: 0x0000-0x001F 32 bytes" + System.lineSeparator() 
+			+ "2: 0x1000-0x103F 64 bytes" + System.lineSeparator() 
+			+ "3: 0x2000-0x207F 128 bytes" + System.lineSeparator(), 
+			stdout.toString()
+		);
+		
+	} // testRun_List()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 */
+	@Test
+	final void testRun_Mpf1Stdout() {
+		LOGGER.info("testRun_Mpf1Stdout()");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "3block.hex", "-t", "mpf1", "-r", "2", "-n", "0x0042" }));
+		
+		Mpf1Protocol protocol = new Mpf1Protocol();
+		protocol.setFileName(0x0042);
+		protocol.setStartAddress(0x1000);
+		protocol.setEndAddress(0x103F);
+		
+		assertArrayEquals(reference(protocol.compile(ByteBuffer.wrap(block(0x00, 0x40)))), stdout.toByteArray());
+		
+	} // testRun_Mpf1Stdout()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 */
+	@Test
+	final void testRun_Z80File() throws Exception {
+		LOGGER.info("testRun_Z80File()");
+		
+		Path output = tempDir.resolve("z80.raw");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "Z80", "-a", "0x1800", "-o", output.toString() }));
+		assertEquals(0, stdout.size());
+		
+		Z80TrainerProtocol protocol = new Z80TrainerProtocol();
+		protocol.setProgramNbr(1);
+		protocol.setStartAddress(0x1800);
+		
+		byte[] data = new byte[] {
+			0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07,
+			0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17,
+			0x20, 0x21, 0x22, 0x23, 0x24, 0x25, 0x26, 0x27,
+			0x30, 0x31, 0x32, 0x33, 0x34, 0x35, 0x36, 0x37,
+		};
+		
+		assertArrayEquals(reference(protocol.compile(ByteBuffer.wrap(data))), Files.readAllBytes(output));
+		
+	} // testRun_Z80File()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 */
+	@Test
+	final void testRun_BinWindow() throws Exception {
+		LOGGER.info("testRun_BinWindow()");
+		
+		String binFile = PATH + "LedBlinkMode-v1.4.bin";
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", binFile, "--offset", "0x10", "--length", "32", "-t", "MPF1", "-a", "0x1800" }));
+		
+		Mpf1Protocol protocol = new Mpf1Protocol();
+		protocol.setFileName(1);
+		protocol.setStartAddress(0x1800);
+		protocol.setEndAddress(0x181F);
+		
+		byte[] data = Arrays.copyOfRange(Files.readAllBytes(Path.of(binFile)), 0x10, 0x30);
+		
+		assertArrayEquals(reference(protocol.compile(ByteBuffer.wrap(data))), stdout.toByteArray());
+		
+	} // testRun_BinWindow()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 * 
+	 * The streamed IHX file renders the same tape as the file read into a memory map.
+	 */
+	@Test
+	final void testRun_Stream() throws Exception {
+		LOGGER.info("testRun_Stream()");
+		
+		Path output = tempDir.resolve("stream.raw");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "--stream", "-o", output.toString() }));
+		assertEquals(0, stdout.size());
+		
+		Path reference = tempDir.resolve("reader.raw");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "-o", reference.toString() }));
+		
+		assertArrayEquals(Files.readAllBytes(reference), Files.readAllBytes(output));
+		
+		assertEquals(BatchEncoder.EXIT_FAILURE, cut.run(new String[] { "-i", PATH + "3block.hex", "-t", "MPF1", "--stream" }));
+		assertEquals(0, stdout.size());
+		
+	} // testRun_Stream()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 * 
+	 * With --edges the output holds the expanded edges of the tape.
+	 */
+	@Test
+	final void testRun_Edges() throws Exception {
+		LOGGER.info("testRun_Edges()");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "3block.hex", "-t", "MPF1", "-r", "2", "--edges" }));
+		
+		Mpf1Protocol protocol = new Mpf1Protocol();
+		protocol.setFileName(1);
+		protocol.setStartAddress(0x1000);
+		protocol.setEndAddress(0x103F);
+		
+		byte[] samples = reference(protocol.compileEdges(ByteBuffer.wrap(block(0x00, 0x40))).toSamples());
+		
+		assertArrayEquals(samples, stdout.toByteArray());
+		
+		Path output = tempDir.resolve("edges.wav");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "-i", PATH + "3block.hex", "-t", "MPF1", "-r", "2", "--edges", "-o", output.toString() }));
+		
+		byte[] content = Files.readAllBytes(output);
+		
+		assertEquals(WavSampleSink.header(protocol.getSamplingRate(), samples.length), ByteBuffer.wrap(content, 0, WavSampleSink.HEADER_SIZE));
+		
+		for(int n = 0; n < samples.length; n++) {
+			assertEquals((byte) (samples[n] ^ 0x80), content[WavSampleSink.HEADER_SIZE + n]);
+		}
+		
+	} // testRun_Edges()
+
+	
+	/**
+	 * Test method for {@link batch.BatchEncoder#run(java.lang.String[])}.
+	 */
+	@Test
+	final void testRun_Errors() {
+		LOGGER.info("testRun_Errors()");
+		
+		assertEquals(BatchEncoder.EXIT_OK, cut.run(new String[] { "--help" }));
+		
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-t", "MPF1" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "C64" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "-r", "2" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "-a", "0xZZ" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "--offset", "0" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "--stream", "--list" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "LedBlinkMode-v1.4.bin", "-t", "MPF1", "-a", "0x1800", "--stream" }));
+		assertEquals(BatchEncoder.EXIT_USAGE, cut.run(new String[] { "-i", PATH + "1block.hex", "-t", "MPF1", "--stream", "--edges" }));
+		
+		assertEquals(BatchEncoder.EXIT_FAILURE, cut.run(new String[] { "-i", PATH + "NoSuchFile.bin", "-t", "MPF1" }));
+		
+		assertEquals(0, stdout.size());
+		
+	} // testRun_Errors()
+
+	
+	/*
+	 * Returns the bytes aFrom up to aTo - 1, that's the content of region 2 of 3block.hex for 0x00 - 0x40.
+	 */
+	protected byte[] block(final int aFrom, final int aTo) {
+		
+		byte[] block = new byte[aTo - aFrom];
+		
+		for(int n = 0; n < block.length; n++) block[n] = (byte) (aFrom + n);
+		
+		return block;
+		
+	} // block()
+	
+	
+	/*
+	 * Copies the samples of an in-memory compile.
+	 */
+	protected byte[] reference(final ByteBuffer aSamples) {
+		
+		byte[] samples = new byte[aSamples.remaining()];
+		aSamples.duplicate().get(samples);
+		
+		return samples;
+		
+	} // reference()
+
+
+} // class
@@ -0,0 +1,267 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : BinReaderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.bin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import extension.model.MemoryMap;
+import extension.model.MemoryRegion;
+
+/**
+ * Responsibilities:<br>
+ * Verify that BinReader loads a binary file, or a window of it, in both load modes.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BinReader,<br>
+ * BinMemoryRegionBuilder,<br>
+ * MemoryMap.
+ * 
+ * <p>
+ * Description:<br>
+ * The memory region created from ./testresources/LedBlinkMode-v1.4.bin must hold exactly the bytes of the file,
+ * regardless whether it's mapped or read into the heap.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class BinReaderTest {
+
+	private static Logger LOGGER = null;
+
+	protected static final String SRC_FILE = "./testresources/LedBlinkMode-v1.4.bin";
+	
+	protected MemoryMap memoryMap;
+	protected BinReader cut;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		memoryMap = new MemoryMap();
+		cut = new BinReader(memoryMap);
+		
+	}
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#loadFile()}.
+	 */
+	@Test
+	final void testLoadFile_Mapped() throws Exception {
+		LOGGER.info("testLoadFile_Mapped()");
+		
+		cut.setLoadMode(BinLoadMode.MAPPED);
+		
+		verifyLoad();
+		
+	} // testLoadFile_Mapped()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#loadFile()}.
+	 */
+	@Test
+	final void testLoadFile_Heap() throws Exception {
+		LOGGER.info("testLoadFile_Heap()");
+		
+		assertEquals(BinLoadMode.HEAP, cut.getLoadMode());
+		
+		verifyLoad();
+		
+	} // testLoadFile_Heap()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#loadFile()}.
+	 */
+	@Test
+	final void testLoadFile_NoFile() {
+		LOGGER.info("testLoadFile_NoFile()");
+		
+		cut.setFilename("./testresources/NoSuchFile.bin");
+		
+		assertFalse(cut.loadFile());
+		assertTrue(cut.getOperationStatus().startsWith("Internal processing error"));
+		
+	} // testLoadFile_NoFile()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#setLoadMode(BinLoadMode)}.
+	 */
+	@Test
+	final void testSetLoadMode() {
+		LOGGER.info("testSetLoadMode()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.setLoadMode(null));
+		assertEquals("aLoadMode can't be null", thrown.getMessage());
+		
+	} // testSetLoadMode()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#setWindow(long, long)}.
+	 */
+	@Test
+	final void testLoadFile_Window() throws Exception {
+		LOGGER.info("testLoadFile_Window()");
+		
+		byte[] reference = Files.readAllBytes(Paths.get(SRC_FILE));
+		
+		cut.setFilename(SRC_FILE);
+		
+		for(BinLoadMode loadMode : BinLoadMode.values()) {
+			
+			cut.setLoadMode(loadMode);
+			
+			cut.setWindow(0x10, 0x20);
+			
+			assertTrue(cut.loadFile());
+			assertEquals(ByteBuffer.wrap(Arrays.copyOfRange(reference, 0x10, 0x30)), memoryMap.getMemoryRegion(0).getContent());
+			
+			cut.setWindow(0x10, BinReader.TO_END);
+			
+			assertTrue(cut.loadFile());
+			assertEquals(ByteBuffer.wrap(Arrays.copyOfRange(reference, 0x10, reference.length)), memoryMap.getMemoryRegion(0).getContent());
+			
+			cut.setWindow(reference.length - 1, 2);
+			
+			assertFalse(cut.loadFile());
+			assertTrue(cut.getOperationStatus().contains("exceeds the file size"));
+			
+			cut.clearWindow();
+			
+			assertTrue(cut.loadFile());
+			assertEquals(ByteBuffer.wrap(reference), memoryMap.getMemoryRegion(0).getContent());
+			
+		} // rof
+		
+	} // testLoadFile_Window()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinReader#setWindow(long, long)}.
+	 */
+	@Test
+	final void testSetWindow() {
+		LOGGER.info("testSetWindow()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.setWindow(-1, 1));
+		assertEquals("aOffset can't be negative", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.setWindow(0, 0));
+		assertEquals("aLength must be greater than 0", thrown.getMessage());
+		
+		cut.setWindow(0x100, 0x200);
+		
+		assertEquals(0x100, cut.getWindowOffset());
+		assertEquals(0x200, cut.getWindowLength());
+		
+		cut.clearWindow();
+		
+		assertEquals(0, cut.getWindowOffset());
+		assertEquals(BinReader.TO_END, cut.getWindowLength());
+		
+	} // testSetWindow()
+
+	
+	/**
+	 * Test method for {@link source.bin.BinMemoryRegionBuilder#append(java.nio.ByteBuffer)}.
+	 */
+	@Test
+	final void testAppendByteBuffer() throws Exception {
+		LOGGER.info("testAppendByteBuffer()");
+		
+		BinMemoryRegionBuilder builder = new BinMemoryRegionBuilder(memoryMap);
+		
+		ByteBuffer content = ByteBuffer.wrap(new byte[] { 0x01, 0x02, 0x03 });
+		builder.append(content);
+		
+		// the view is left as it was
+		assertEquals(0, content.position());
+		assertEquals(3, content.remaining());
+		
+		// the memory region holds a copy
+		content.put(0, (byte) 0x7F);
+		
+		assertEquals(ByteBuffer.wrap(new byte[] { 0x01, 0x02, 0x03 }), memoryMap.getMemoryRegion(0).getContent());
+		
+		assertThrows(IllegalArgumentException.class, () -> builder.append((ByteBuffer) null));
+		
+	} // testAppendByteBuffer()
+
+	
+	/*
+	 * Loads SRC_FILE and compares the memory region with the file content.
+	 */
+	protected void verifyLoad() throws Exception {
+		
+		byte[] reference = Files.readAllBytes(Paths.get(SRC_FILE));
+		
+		cut.setFilename(SRC_FILE);
+		
+		assertTrue(cut.loadFile());
+		assertEquals("Successfuly loaded.", cut.getOperationStatus());
+		assertEquals(1, memoryMap.getRegionCount());
+		
+		MemoryRegion memoryRegion = memoryMap.getMemoryRegion(0);
+		
+		assertEquals(ByteBuffer.wrap(reference), memoryRegion.getContent());
+		
+	} // verifyLoad()
+
+
+} // class
@@ -0,0 +1,163 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxDataStreamTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxDataStream
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test, based on the files in ./testresources.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxDataStreamTest {
+
+	private static Logger LOGGER = null;
+
+	private static final String PATH = "./testresources/";
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxDataStream#IhxDataStream(String)}.
+	 */
+	@Test
+	final void testIhxDataStream() throws Exception {
+		LOGGER.info("testIhxDataStream()");
+		
+		IhxDataStream cut = new IhxDataStream(PATH + "1block.hex");
+		
+		assertEquals(0x0000, cut.getStartAddress());
+		assertEquals(0x001F, cut.getEndAddress());
+		assertEquals(32, cut.getSize());
+		assertEquals(880, cut.getByteSum());
+		assertEquals("IhxDataStream [fileName=./testresources/1block.hex, startAddress=0x0000, size=32]", cut.toString());
+		
+		cut = new IhxDataStream(PATH + "LedBlinkMode-v1.4.hex");
+		
+		assertEquals(0x2000, cut.getStartAddress());
+		assertEquals(0x227F, cut.getEndAddress());
+		assertEquals(640, cut.getSize());
+		assertEquals(55562, cut.getByteSum());
+		
+	} // testIhxDataStream()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxDataStream#IhxDataStream(String)}.
+	 * 
+	 * Only a single block in address order can be streamed.
+	 */
+	@Test
+	final void testIhxDataStream_Gap() {
+		LOGGER.info("testIhxDataStream_Gap()");
+		
+		Throwable thrown = assertThrows(IhxException.class, () -> new IhxDataStream(PATH + "3block.hex"));
+		assertEquals("DATA record in line 6 at 0x1000 doesn't continue the block at 0x0020", thrown.getMessage());
+		
+	} // testIhxDataStream_Gap()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxDataStream#open()}.
+	 * 
+	 * Each pass delivers the payload of all DATA records, the channel is read in small portions.
+	 */
+	@Test
+	final void testOpen() throws Exception {
+		LOGGER.info("testOpen()");
+		
+		IhxDataStream cut = new IhxDataStream(PATH + "1block.hex");
+		
+		for(int pass = 0; pass < 2; pass++) {
+			
+			ByteBuffer data = ByteBuffer.allocate(cut.getSize() + 8);
+			ByteBuffer part = ByteBuffer.allocate(5);
+			
+			ReadableByteChannel channel = cut.open();
+			
+			assertTrue(channel.isOpen());
+			
+			while(channel.read(part) >= 0) {
+				
+				part.flip();
+				data.put(part);
+				part.clear();
+				
+			} // elihw
+			
+			channel.close();
+			
+			assertFalse(channel.isOpen());
+			assertThrows(ClosedChannelException.class, () -> channel.read(part));
+			
+			assertEquals(32, data.position());
+			
+			for(int n = 0; n < 32; n++) {
+				assertEquals((byte) ((n / 8) * 0x10 + n % 8), data.get(n));
+			} // rof
+			
+		} // rof
+		
+	} // testOpen()
+
+
+} // class
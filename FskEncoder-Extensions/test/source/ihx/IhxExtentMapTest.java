@@ -0,0 +1,261 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxExtentMapTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import source.ihx.IhxExtentMap.Extent;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxExtentMap
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxExtentMapTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#put(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testPut_Arguments() {
+		LOGGER.info("testPut_Arguments()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.put(0, null, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> cut.put(0, new byte[4], 2, 3));
+		assertThrows(IllegalArgumentException.class, () -> cut.put(0, new byte[4], -1, 1));
+		assertThrows(IllegalArgumentException.class, () -> cut.put(-1, new byte[4], 0, 4));
+		
+		assertEquals(0, cut.put(0x1000, new byte[4], 0, 0));
+		assertEquals(0, cut.getExtentCount());
+		
+	} // testPut_Arguments()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#put(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testPut_InOrder() {
+		LOGGER.info("testPut_InOrder()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		byte[] record = new byte[16];
+		
+		for(int i = 0; i < 64; i++) {
+			
+			record[0] = (byte) i;
+			assertEquals(0, cut.put(0x8000 + i * 16, record, 0, 16));
+			
+		} // rof
+		
+		assertEquals(1, cut.getExtentCount());
+		assertEquals(1024, cut.getSize());
+		
+		Extent extent = cut.getExtents().iterator().next();
+		
+		assertEquals(0x8000, extent.getStartAddress());
+		assertEquals(0x83FF, extent.getEndAddress());
+		assertEquals(1024, extent.getSize());
+		assertEquals(63, extent.getContent()[63 * 16]);
+		
+	} // testPut_InOrder()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#put(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testPut_ReverseOrder() {
+		LOGGER.info("testPut_ReverseOrder()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		byte[] record = new byte[16];
+		byte[] buffer = null;
+		int copies = 0;
+		
+		for(int i = 1023; i >= 0; i--) {
+			
+			record[0] = (byte) i;
+			assertEquals(0, cut.put(0x8000 + i * 16, record, 0, 16));
+			
+			Extent extent = cut.getExtents().iterator().next();
+			
+			if(extent.data != buffer) copies++;
+			buffer = extent.data;
+			
+		} // rof
+		
+		assertEquals(1, cut.getExtentCount());
+		assertEquals(16384, cut.getSize());
+		
+		/*
+		 * The extent grows at its front with spare capacity, it isn't copied for every record.
+		 */
+		assertTrue(copies < 16, "copies = " + copies);
+		
+		Extent extent = cut.getExtents().iterator().next();
+		
+		assertEquals(0x8000, extent.getStartAddress());
+		assertEquals(0xBFFF, extent.getEndAddress());
+		
+		byte[] content = extent.getContent();
+		
+		for(int i = 0; i < 1024; i++) {
+			assertEquals((byte) i, content[i * 16]);
+		} // rof
+		
+	} // testPut_ReverseOrder()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#put(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testPut_OutOfOrder() {
+		LOGGER.info("testPut_OutOfOrder()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		
+		cut.put(0x0108, new byte[] { 9, 10, 11, 12 }, 0, 4);
+		cut.put(0x2000, new byte[] { 20 }, 0, 1);
+		cut.put(0x0100, new byte[] { 1, 2, 3, 4 }, 0, 4);
+		
+		assertEquals(3, cut.getExtentCount());
+		
+		cut.put(0x0104, new byte[] { 0, 5, 6, 7, 8, 0 }, 1, 4);
+		
+		assertEquals(2, cut.getExtentCount());
+		assertEquals(13, cut.getSize());
+		
+		List<Extent> extents = new ArrayList<>(cut.getExtents());
+		
+		assertEquals(0x0100, extents.get(0).getStartAddress());
+		assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 }, extents.get(0).getContent());
+		assertEquals(0x2000, extents.get(1).getStartAddress());
+		assertArrayEquals(new byte[] { 20 }, extents.get(1).getContent());
+		
+		cut.clear();
+		
+		assertEquals(0, cut.getExtentCount());
+		assertEquals(0, cut.getSize());
+		
+	} // testPut_OutOfOrder()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#put(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testPut_Overlap() {
+		LOGGER.info("testPut_Overlap()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		
+		cut.put(0x0100, new byte[] { 1, 1, 1, 1 }, 0, 4);
+		cut.put(0x0106, new byte[] { 2, 2, 2, 2 }, 0, 4);
+		
+		/*
+		 * Inside a single extent.
+		 */
+		assertEquals(2, cut.put(0x0101, new byte[] { 3, 3 }, 0, 2));
+		
+		/*
+		 * Bridging both extents, covers two bytes of each and the gap between them.
+		 */
+		assertEquals(4, cut.put(0x0102, new byte[] { 4, 4, 4, 4, 4, 4 }, 0, 6));
+		
+		assertEquals(1, cut.getExtentCount());
+		assertEquals(10, cut.getSize());
+		assertArrayEquals(new byte[] { 1, 3, 4, 4, 4, 4, 4, 4, 2, 2 }, cut.getExtents().iterator().next().getContent());
+		
+		/*
+		 * Covering the complete extent.
+		 */
+		assertEquals(10, cut.put(0x00FF, new byte[12], 0, 12));
+		
+		assertEquals(1, cut.getExtentCount());
+		assertEquals(12, cut.getSize());
+		
+	} // testPut_Overlap()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxExtentMap#toString()}.
+	 */
+	@Test
+	final void testToString() {
+		LOGGER.info("testToString()");
+		
+		IhxExtentMap cut = new IhxExtentMap();
+		cut.put(0x1000, new byte[] { 1, 2 }, 0, 2);
+		
+		assertEquals("IhxExtentMap [extents=1, size=2]", cut.toString());
+		assertEquals("Extent [start=0x1000, length=2]", cut.getExtents().iterator().next().toString());
+		
+	} // testToString()
+
+
+} // class
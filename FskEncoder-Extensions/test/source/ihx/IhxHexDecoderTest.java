@@ -0,0 +1,145 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxHexDecoderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxHexDecoder
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxHexDecoderTest {
+
+	private static Logger LOGGER = null;
+
+	private static final int LINE_NBR = 42;
+	
+	private static final String IHX_RECORD		= ":0400000001aBcDeF";
+	private static final byte[] IHX_BINARY		= { 0x04, 0x00, 0x00, 0x00, 0x01, (byte) 0xAB, (byte) 0xCD, (byte) 0xEF };
+	private static final int	IHX_SUM			= 0x04 + 0x01 + 0xAB + 0xCD + 0xEF;
+	
+	private static final String IHX_ERROR		= ":04000000G1ABCDEF";
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxHexDecoder#nibble(int)}.
+	 */
+	@Test
+	final void testNibble() {
+		LOGGER.info("testNibble()");
+		
+		String digits = "0123456789ABCDEF";
+		
+		for(int i = 0; i < digits.length(); i++) {
+			assertEquals(i, IhxHexDecoder.nibble(digits.charAt(i)));
+			assertEquals(i, IhxHexDecoder.nibble(Character.toLowerCase(digits.charAt(i))));
+		}
+		
+		assertEquals(IhxHexDecoder.INVALID, IhxHexDecoder.nibble('g'));
+		assertEquals(IhxHexDecoder.INVALID, IhxHexDecoder.nibble(':'));
+		assertEquals(IhxHexDecoder.INVALID, IhxHexDecoder.nibble(' '));
+		assertEquals(IhxHexDecoder.INVALID, IhxHexDecoder.nibble(0xC6));
+		assertEquals(IhxHexDecoder.INVALID, IhxHexDecoder.nibble(-1));
+		
+	} // testNibble()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxHexDecoder#decode(CharSequence, int, byte[], int)}.
+	 */
+	@Test
+	final void testDecodeCharSequence() throws IhxException {
+		LOGGER.info("testDecodeCharSequence()");
+		
+		byte[] target = new byte[IHX_BINARY.length];
+		
+		assertEquals(IHX_SUM, IhxHexDecoder.decode(IHX_RECORD, 1, target, LINE_NBR));
+		assertArrayEquals(IHX_BINARY, target);
+		
+		IhxException thrown = assertThrows(IhxException.class, () -> IhxHexDecoder.decode(IHX_ERROR, 1, target, LINE_NBR));
+		assertEquals("Invalid hex digit 'G' in line 42, column 10", thrown.getMessage());
+		
+	} // testDecodeCharSequence()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxHexDecoder#decode(ByteBuffer, int, int, byte[], int)}.
+	 */
+	@Test
+	final void testDecodeByteBuffer() throws IhxException {
+		LOGGER.info("testDecodeByteBuffer()");
+		
+		byte[] target = new byte[IHX_BINARY.length];
+		
+		ByteBuffer content = ByteBuffer.wrap(("\r\n" + IHX_RECORD).getBytes(StandardCharsets.US_ASCII));
+		
+		assertEquals(IHX_SUM, IhxHexDecoder.decode(content, 3, 2, target, LINE_NBR));
+		assertArrayEquals(IHX_BINARY, target);
+		assertEquals(0, content.position());
+		
+		ByteBuffer error = ByteBuffer.wrap(("\r\n" + IHX_ERROR).getBytes(StandardCharsets.US_ASCII));
+		
+		IhxException thrown = assertThrows(IhxException.class, () -> IhxHexDecoder.decode(error, 3, 2, target, LINE_NBR));
+		assertEquals("Invalid hex digit 'G' in line 42, column 10", thrown.getMessage());
+		
+	} // testDecodeByteBuffer()
+
+
+} // class
@@ -33,7 +33,6 @@ package source.ihx;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -108,11 +107,36 @@ class IhxLexerTest {
 	final void testIhxLexer() {
 		LOGGER.info("testIhxLexer()");
 		
-		/*
-		 * 	Implicitly tested
-		 */
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new IhxLexer(null));
+		assertEquals("aRecordFactory can't be null", thrown.getMessage());
 		
-		assertTrue(true);
+		List<Integer> recordNumbers = new ArrayList<>();
+		
+		IhxLexer cut = new IhxLexer((recordNumber, content) -> {
+			recordNumbers.add(recordNumber);
+			return new IhxRecord(recordNumber, content);
+		});
+		
+		try {
+			
+			cut.setFile("./testresources/Sample.ihx.hex");
+			
+			while(cut.getRecord() != null) { /* just count */ }
+			
+			/*
+			 * 22 records in 27 lines, a record is numbered by its line in the file
+			 */
+			assertEquals(22, recordNumbers.size());
+			assertEquals(1, recordNumbers.get(0).intValue());
+			assertEquals(27, recordNumbers.get(recordNumbers.size() - 1).intValue());
+			
+			assertNull(cut.getRecord());
+			
+		} catch (IhxException | IOException e) {
+
+			fail("unexpected exception: " + e);
+			
+		} // hctac
 
 	} // testIhxLexer()
 
@@ -128,28 +152,21 @@ class IhxLexerTest {
 		
 		assertDoesNotThrow(() -> new IhxLexer());
 		
-		try {
-			
-			final IhxLexer cut = new IhxLexer();
-			
-			illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(null));
-			assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be null!"));
-			
-			illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(""));
-			assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be blank nor empty!"));
+		final IhxLexer cut = new IhxLexer();
+		
+		illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(null));
+		assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be null!"));
+		
+		illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(""));
+		assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be blank nor empty!"));
 
-			illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(" \t "));
-			assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be blank nor empty!"));
-			
-			fileNotFound = assertThrows(FileNotFoundException.class, () -> cut.setFile("foo/bar.baz"));
-			assertTrue(fileNotFound.getMessage().startsWith("foo"));
-			
-			assertDoesNotThrow(() -> cut.setFile("./testresources/Sample.ihx.hex"));
-			
-		} 
-		catch (SecurityException | NoSuchMethodException e) {
-			fail("unexpected exception: " + e);
-		}
+		illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(" \t "));
+		assertTrue(illegalArgument.getMessage().equalsIgnoreCase("aFile cant be blank nor empty!"));
+		
+		fileNotFound = assertThrows(FileNotFoundException.class, () -> cut.setFile("foo/bar.baz"));
+		assertTrue(fileNotFound.getMessage().startsWith("foo"));
+		
+		assertDoesNotThrow(() -> cut.setFile("./testresources/Sample.ihx.hex"));
 		
 	} // testSetFile()
 
@@ -181,12 +198,10 @@ class IhxLexerTest {
 			
 			record = result.get(n);
 			assertTrue(record.getRecordType() == IhxRecordType.EOF);
-			assertTrue(record.getRecordNumber() == 28);
+			assertTrue(record.getRecordNumber() == 27);
 
 		
-		} catch (SecurityException | 
-				InstantiationException | IllegalAccessException | IllegalArgumentException | 
-				InvocationTargetException | IOException | NoSuchMethodException e) {
+		} catch (IhxException | IOException e) {
 
 			fail("unexpected exception: " + e);
 			
@@ -0,0 +1,229 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxMappedLexerTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxMappedLexer
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * IhxLexer as reference.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxMappedLexerTest {
+
+	private static Logger LOGGER = null;
+
+	private static final String RECORD_1	= ":20600000CD6760CD7360CD0963CD0063CD1B63CD8F61183C00000000000000000000000087";
+	private static final String RECORD_EOF	= ":00000001FF";
+	
+	@TempDir
+	Path tempDir;
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxMappedLexer#IhxMappedLexer(IhxBufferRecordFactory)}.
+	 */
+	@Test
+	final void testIhxMappedLexer() {
+		LOGGER.info("testIhxMappedLexer()");
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new IhxMappedLexer(null));
+		assertEquals("aRecordFactory can't be null", thrown.getMessage());
+		
+		assertDoesNotThrow(() -> new IhxMappedLexer());
+		
+	} // testIhxMappedLexer()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxMappedLexer#setFile(java.lang.String)}.
+	 */
+	@Test
+	final void testSetFile() {
+		LOGGER.info("testSetFile()");
+		
+		IllegalArgumentException illegalArgument;
+		FileNotFoundException fileNotFound;
+		
+		final IhxMappedLexer cut = new IhxMappedLexer();
+		
+		illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(null));
+		assertEquals("aFile cant be null!", illegalArgument.getMessage());
+		
+		illegalArgument = assertThrows(IllegalArgumentException.class, () -> cut.setFile(" \t "));
+		assertEquals("aFile cant be blank nor empty!", illegalArgument.getMessage());
+		
+		fileNotFound = assertThrows(FileNotFoundException.class, () -> cut.setFile("foo/bar.baz"));
+		assertTrue(fileNotFound.getMessage().startsWith("foo"));
+		
+		assertDoesNotThrow(() -> cut.setFile("./testresources/Sample.ihx.hex"));
+		
+	} // testSetFile()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxMappedLexer#getRecord()}.
+	 */
+	@Test
+	final void testGetRecord() throws IhxException, IOException {
+		LOGGER.info("testGetRecord()");
+		
+		IhxMappedLexer cut = new IhxMappedLexer();
+		assertNull(cut.getRecord());
+		
+		for(String file : new String[] { "./testresources/Sample.ihx.hex", "./testresources/Test.4000.00.hex", "./testresources/NoEofRecord.ihx.hex" }) {
+			
+			IhxLexer reference = new IhxLexer();
+			
+			reference.setFile(file);
+			cut.setFile(file);
+			
+			IhxRecord expected;
+			IhxRecord actual;
+			
+			do {
+				
+				expected = reference.getRecord();
+				actual = cut.getRecord();
+				
+				if(expected == null) {
+					assertNull(actual, file);
+				}
+				else {
+					assertEquals(expected.getRecordNumber(), actual.getRecordNumber(), file);
+					assertEquals(expected.getRecordType(), actual.getRecordType(), file);
+					assertEquals(expected.getOffset(), actual.getOffset(), file);
+					assertArrayEquals(expected.getData(), actual.getData(), file);
+				}
+				
+			} while(expected != null);
+			
+			assertNull(cut.getRecord());
+			
+		} // rof
+		
+	} // testGetRecord()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxMappedLexer#getRecord()}.
+	 */
+	@Test
+	final void testGetRecord_LineEnds() throws IhxException, IOException {
+		LOGGER.info("testGetRecord_LineEnds()");
+		
+		Path file = tempDir.resolve("lineEnds.hex");
+		Files.write(file, (RECORD_1 + "\r\r\n\n" + RECORD_1 + "\r" + RECORD_EOF).getBytes(StandardCharsets.US_ASCII));
+		
+		IhxMappedLexer cut = new IhxMappedLexer();
+		cut.setFile(file.toString());
+		
+		assertEquals(1, cut.getRecord().getRecordNumber());
+		assertEquals(4, cut.getRecord().getRecordNumber());
+		
+		IhxRecord eof = cut.getRecord();
+		assertEquals(5, eof.getRecordNumber());
+		assertEquals(IhxRecordType.EOF, eof.getRecordType());
+		
+		assertNull(cut.getRecord());
+		
+	} // testGetRecord_LineEnds()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxMappedLexer#getRecord()}.
+	 */
+	@Test
+	final void testGetRecord_Error() throws IOException {
+		LOGGER.info("testGetRecord_Error()");
+		
+		Path file = tempDir.resolve("error.hex");
+		Files.write(file, (RECORD_1 + "\r\n" + RECORD_1.replace("CD7360", "CD73X0") + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		
+		IhxMappedLexer cut = new IhxMappedLexer();
+		cut.setFile(file.toString());
+		
+		assertDoesNotThrow(() -> cut.getRecord());
+		
+		IhxException thrown = assertThrows(IhxException.class, () -> cut.getRecord());
+		assertEquals("Invalid hex digit 'X' in line 2, column 20", thrown.getMessage());
+		
+	} // testGetRecord_Error()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 * 
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+		
+		assertEquals("IhxMappedLexer [content=null, position=0, recordIndex=0]", new IhxMappedLexer().toString());
+		
+	} // testToString()
+
+
+} // class
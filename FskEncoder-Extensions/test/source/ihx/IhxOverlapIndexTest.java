@@ -0,0 +1,251 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxOverlapIndexTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import source.ihx.IhxExtentMap.Extent;
+import source.ihx.IhxOverlapIndex.Conflict;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxOverlapIndex
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * IhxExtentMap as store.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxOverlapIndexTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#IhxOverlapIndex(IhxOverlapPolicy)}.
+	 */
+	@Test
+	final void testIhxOverlapIndex() {
+		LOGGER.info("testIhxOverlapIndex()");
+		
+		assertEquals(IhxOverlapPolicy.ERROR, new IhxOverlapIndex().getPolicy());
+		assertEquals(IhxOverlapPolicy.LAST_WINS, new IhxOverlapIndex(IhxOverlapPolicy.LAST_WINS).getPolicy());
+		
+		assertThrows(IllegalArgumentException.class, () -> new IhxOverlapIndex(null));
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex();
+		IhxExtentMap store = new IhxExtentMap();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.add(1, 0, null, 0, 0, store::put));
+		assertThrows(IllegalArgumentException.class, () -> cut.add(1, 0, new byte[4], 0, 4, null));
+		assertThrows(IllegalArgumentException.class, () -> cut.add(1, 0, new byte[4], 2, 3, store::put));
+		
+	} // testIhxOverlapIndex()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#add(int, long, byte[], int, int, IhxOverlapIndex.Store)}.
+	 */
+	@Test
+	final void testAdd_Clean() throws IhxException {
+		LOGGER.info("testAdd_Clean()");
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex();
+		IhxExtentMap store = new IhxExtentMap();
+		
+		cut.add(1, 0x0100, new byte[] { 1, 2, 3, 4 }, 0, 4, store::put);
+		cut.add(2, 0x0104, new byte[] { 5, 6, 7, 8 }, 0, 4, store::put);
+		cut.add(3, 0x0000, new byte[] { 9 }, 0, 1, store::put);
+		
+		/*
+		 * Same bytes as record 1 and 2, that's no conflict. Record 4 takes over the overlapped bytes.
+		 */
+		cut.add(4, 0x0102, new byte[] { 3, 4, 5, 6 }, 0, 4, store::put);
+		
+		assertEquals(0, cut.getConflicts().size());
+		assertEquals(4, cut.getSpanCount());
+		assertEquals(9, store.getSize());
+		
+		cut.clear();
+		
+		assertEquals(0, cut.getSpanCount());
+		
+		cut.add(5, 0x0100, new byte[] { 0 }, 0, 1, store::put);
+		
+		assertEquals(1, cut.getSpanCount());
+		
+	} // testAdd_Clean()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#add(int, long, byte[], int, int, IhxOverlapIndex.Store)}.
+	 */
+	@Test
+	final void testAdd_Error() throws IhxException {
+		LOGGER.info("testAdd_Error()");
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex(IhxOverlapPolicy.ERROR);
+		IhxExtentMap store = new IhxExtentMap();
+		
+		cut.add(7, 0x0100, new byte[] { 1, 2, 3, 4 }, 0, 4, store::put);
+		
+		IhxException e = assertThrows(IhxException.class, () -> cut.add(12, 0x00FE, new byte[] { 0, 0, 1, 9 }, 0, 4, store::put));
+		
+		assertEquals("Conflicting data at 0x0100 in line 7 and line 12", e.getMessage());
+		assertEquals(4, store.getSize());
+		assertEquals(1, cut.getSpanCount());
+		assertEquals(0, cut.getConflicts().size());
+		
+	} // testAdd_Error()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#add(int, long, byte[], int, int, IhxOverlapIndex.Store)}.
+	 */
+	@Test
+	final void testAdd_FirstWins() throws IhxException {
+		LOGGER.info("testAdd_FirstWins()");
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex(IhxOverlapPolicy.FIRST_WINS);
+		IhxExtentMap store = new IhxExtentMap();
+		
+		cut.add(1, 0x0102, new byte[] { 1, 1 }, 0, 2, store::put);
+		cut.add(2, 0x0106, new byte[] { 2, 2 }, 0, 2, store::put);
+		cut.add(3, 0x0100, new byte[] { 3, 3, 3, 3, 3, 3, 3, 3, 3, 3 }, 0, 10, store::put);
+		
+		List<Conflict> conflicts = cut.getConflicts();
+		
+		assertEquals(2, conflicts.size());
+		assertEquals(0x0102, conflicts.get(0).getAddress());
+		assertEquals(2, conflicts.get(0).getLength());
+		assertEquals(1, conflicts.get(0).getFirstRecord());
+		assertEquals(3, conflicts.get(0).getSecondRecord());
+		assertEquals("Conflict [address=0x0106, length=2, firstRecord=2, secondRecord=3]", conflicts.get(1).toString());
+		
+		assertArrayEquals(new byte[] { 3, 3, 1, 1, 3, 3, 2, 2, 3, 3 }, content(store).get(0).getContent());
+		
+		/*
+		 * The gaps belong to record 3 now.
+		 */
+		IhxException e = assertThrows(IhxException.class, () -> {
+			cut.setPolicy(IhxOverlapPolicy.ERROR);
+			cut.add(4, 0x0104, new byte[] { 4 }, 0, 1, store::put);
+		});
+		
+		assertEquals("Conflicting data at 0x0104 in line 3 and line 4", e.getMessage());
+		
+	} // testAdd_FirstWins()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#add(int, long, byte[], int, int, IhxOverlapIndex.Store)}.
+	 */
+	@Test
+	final void testAdd_LastWins() throws IhxException {
+		LOGGER.info("testAdd_LastWins()");
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex(IhxOverlapPolicy.LAST_WINS);
+		IhxExtentMap store = new IhxExtentMap();
+		
+		cut.add(1, 0x0100, new byte[] { 1, 1, 1, 1, 1, 1, 1, 1 }, 0, 8, store::put);
+		cut.add(2, 0x0102, new byte[] { 0, 2, 2, 0 }, 1, 2, store::put);
+		
+		assertEquals(1, cut.getConflicts().size());
+		assertEquals(3, cut.getSpanCount());
+		assertArrayEquals(new byte[] { 1, 1, 2, 2, 1, 1, 1, 1 }, content(store).get(0).getContent());
+		
+		/*
+		 * Both parts of record 1 are still known by their line number.
+		 */
+		cut.setPolicy(IhxOverlapPolicy.ERROR);
+		
+		IhxException e = assertThrows(IhxException.class, () -> cut.add(3, 0x0107, new byte[] { 3 }, 0, 1, store::put));
+		assertEquals("Conflicting data at 0x0107 in line 1 and line 3", e.getMessage());
+		
+		e = assertThrows(IhxException.class, () -> cut.add(4, 0x0103, new byte[] { 4 }, 0, 1, store::put));
+		assertEquals("Conflicting data at 0x0103 in line 2 and line 4", e.getMessage());
+		
+	} // testAdd_LastWins()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxOverlapIndex#toString()}.
+	 */
+	@Test
+	final void testToString() throws IhxException {
+		LOGGER.info("testToString()");
+		
+		IhxOverlapIndex cut = new IhxOverlapIndex();
+		cut.add(1, 0x1000, new byte[] { 1, 2 }, 0, 2, new IhxExtentMap()::put);
+		
+		assertEquals("IhxOverlapIndex [policy=ERROR, spans=1, conflicts=0]", cut.toString());
+		
+	} // testToString()
+	
+	
+	/*
+	 * Returns the extents of aStore as a list.
+	 */
+	private List<Extent> content(final IhxExtentMap aStore) {
+		
+		return new ArrayList<>(aStore.getExtents());
+		
+	} // content()
+
+
+} // class
@@ -0,0 +1,285 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxParallelParserTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import extension.source.DataRecord;
+import extension.source.ReaderException;
+import source.ihx.x8.Ihx8MemoryRegionBuilder;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxParallelParser
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * IhxParser as reference.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.<br>
+ * The records appended to the MemoryRegionBuilder and the reported errors are compared with the serial IhxParser.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxParallelParserTest {
+
+	private static Logger LOGGER = null;
+
+	private static final String SRC_FILE = "./testresources/Test.4000.00.hex";
+	
+	private static final int[] CHUNK_SIZES = { 1, 100, 4096, IhxParallelParser.DEFAULT_CHUNK_SIZE };
+	
+	private static ForkJoinPool pool;
+	
+	@TempDir
+	Path tempDir;
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+		
+		pool = new ForkJoinPool(4);
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterAll
+	static void tearDownAfterClass() throws Exception {
+		pool.shutdown();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxParallelParser#IhxParallelParser(IhxMappedLexer, extension.source.MemoryRegionBuilder, ForkJoinPool, int)}.
+	 */
+	@Test
+	final void testIhxParallelParser() {
+		LOGGER.info("testIhxParallelParser()");
+		
+		IllegalArgumentException thrown;
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		Ihx8MemoryRegionBuilder memoryRegionBuilder = mock(Ihx8MemoryRegionBuilder.class);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new IhxParallelParser(null, memoryRegionBuilder));
+		assertEquals("aLexer can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new IhxParallelParser(lexer, null));
+		assertEquals("aMemoryRegionBuilder can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new IhxParallelParser(lexer, memoryRegionBuilder, null, 1));
+		assertEquals("aPool can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new IhxParallelParser(lexer, memoryRegionBuilder, pool, 0));
+		assertEquals("aChunkSize must be greater than 0", thrown.getMessage());
+		
+	} // testIhxParallelParser()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxParallelParser#parse()}.
+	 */
+	@Test
+	final void testParse() throws ReaderException, IOException {
+		LOGGER.info("testParse()");
+		
+		List<IhxRecord> expected = new ArrayList<>();
+		assertNull(parseSerial(SRC_FILE, expected));
+		
+		for(int chunkSize : CHUNK_SIZES) {
+			
+			List<IhxRecord> actual = new ArrayList<>();
+			assertNull(parseParallel(SRC_FILE, chunkSize, actual));
+			
+			assertRecords(expected, actual);
+			
+		} // rof
+		
+	} // testParse()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxParallelParser#parse()}.
+	 */
+	@Test
+	final void testParse_Error() throws ReaderException, IOException {
+		LOGGER.info("testParse_Error()");
+		
+		List<String> lines = Files.readAllLines(Paths.get(SRC_FILE));
+		
+		String invalid = lines.get(300);
+		lines.set(300, invalid.substring(0, 30) + "X" + invalid.substring(31));
+		
+		Path file = tempDir.resolve("error.hex");
+		Files.write(file, String.join("\r\n", lines).getBytes(StandardCharsets.US_ASCII));
+		
+		List<IhxRecord> expected = new ArrayList<>();
+		IhxException expectedError = parseSerial(file.toString(), expected);
+		
+		assertEquals("Invalid hex digit 'X' in line 301, column 31", expectedError.getMessage());
+		assertEquals(300, expected.size());
+		
+		for(int chunkSize : CHUNK_SIZES) {
+			
+			List<IhxRecord> actual = new ArrayList<>();
+			IhxException actualError = parseParallel(file.toString(), chunkSize, actual);
+			
+			assertNotNull(actualError);
+			assertEquals(expectedError.getMessage(), actualError.getMessage());
+			
+			assertRecords(expected, actual);
+			
+		} // rof
+		
+	} // testParse_Error()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 * 
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+		
+		IhxParallelParser cut = new IhxParallelParser(new IhxMappedLexer(), mock(Ihx8MemoryRegionBuilder.class));
+		
+		assertTrue(cut.toString().startsWith("IhxParallelParser [chunkSize=65536, IhxParser [lexer=IhxMappedLexer [content=null, position=0, recordIndex=0], "));
+		
+	} // testToString()
+	
+	
+	/*
+	 * Runs the serial IhxParser and collects the appended records.
+	 */
+	private IhxException parseSerial(final String aFile, final List<IhxRecord> aRecords) throws ReaderException, IOException {
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		lexer.setFile(aFile);
+		
+		return parse(new IhxParser(lexer, collector(aRecords)));
+		
+	} // parseSerial()
+	
+	
+	/*
+	 * Runs the IhxParallelParser and collects the appended records.
+	 */
+	private IhxException parseParallel(final String aFile, final int aChunkSize, final List<IhxRecord> aRecords) throws ReaderException, IOException {
+		
+		IhxMappedLexer lexer = new IhxMappedLexer();
+		lexer.setFile(aFile);
+		
+		return parse(new IhxParallelParser(lexer, collector(aRecords), pool, aChunkSize));
+		
+	} // parseParallel()
+	
+	
+	/*
+	 * Returns the IhxException thrown by the parser or null.
+	 */
+	private IhxException parse(final IhxParser aParser) throws ReaderException, IOException {
+		
+		try {
+			aParser.parse();
+		}
+		catch(IhxException e) {
+			return e;
+		}
+		
+		return null;
+		
+	} // parse()
+	
+	
+	/*
+	 * A MemoryRegionBuilder mock which adds each appended record to aRecords.
+	 */
+	private Ihx8MemoryRegionBuilder collector(final List<IhxRecord> aRecords) throws ReaderException {
+		
+		Ihx8MemoryRegionBuilder memoryRegionBuilder = mock(Ihx8MemoryRegionBuilder.class);
+		
+		doAnswer(invocation -> aRecords.add(invocation.getArgument(0))).when(memoryRegionBuilder).append(any(DataRecord.class));
+		
+		return memoryRegionBuilder;
+		
+	} // collector()
+	
+	
+	/*
+	 * Compares two lists of records field by field.
+	 */
+	private void assertRecords(final List<IhxRecord> aExpected, final List<IhxRecord> aActual) {
+		
+		assertEquals(aExpected.size(), aActual.size());
+		
+		for(int i = 0; i < aExpected.size(); i++) {
+			
+			assertEquals(aExpected.get(i).getRecordNumber(), aActual.get(i).getRecordNumber());
+			assertEquals(aExpected.get(i).getRecordType(), aActual.get(i).getRecordType());
+			assertEquals(aExpected.get(i).getOffset(), aActual.get(i).getOffset());
+			assertArrayEquals(aExpected.get(i).getData(), aActual.get(i).getData());
+			
+		} // rof
+		
+	} // assertRecords()
+
+
+} // class
@@ -34,7 +34,6 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -156,10 +155,6 @@ class IhxParserTest {
 		
 		catch (
 				ReaderException
-				| InstantiationException 
-				| IllegalAccessException 
-				| IllegalArgumentException
-				| InvocationTargetException
 				| IOException 
 				e) {
 			
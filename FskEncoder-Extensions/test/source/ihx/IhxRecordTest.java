@@ -32,6 +32,9 @@ package source.ihx;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -144,6 +147,51 @@ class IhxRecordTest {
 	} // testIhxRecordIntString()
 
 
+	/**
+	 * Test method for {@link source.ihx.IhxRecord#IhxRecord(int, ByteBuffer, int, int)}.
+	 */
+	@Test
+	final void testIhxRecordIntByteBuffer() throws IhxException {
+		LOGGER.info("testIhxRecordIntByteBuffer()");
+		
+		IhxException thrown;
+		
+		thrown = assertThrows(IhxException.class, () -> new IhxRecord(RECORD_NBR, wrap(IHX_ERROR_1_MARK), 2, IHX_ERROR_1_MARK.length() + 2));
+		assertEquals("Invalid IHX record in line " + RECORD_NBR, thrown.getMessage());
+		
+		thrown = assertThrows(IhxException.class, () -> new IhxRecord(RECORD_NBR, wrap(IHX_ERROR_2_LENG), 2, IHX_ERROR_2_LENG.length() + 2));
+		assertEquals("Invalid record length in line " + RECORD_NBR, thrown.getMessage());
+		
+		thrown = assertThrows(IhxException.class, () -> new IhxRecord(RECORD_NBR, wrap(IHX_ERROR_4_TYPE), 2, IHX_ERROR_4_TYPE.length() + 2));
+		assertEquals("Invalid record type in line " + RECORD_NBR, thrown.getMessage());
+		
+		thrown = assertThrows(IhxException.class, () -> new IhxRecord(RECORD_NBR, wrap(IHX_ERROR_5_CKSM), 2, IHX_ERROR_5_CKSM.length() + 2));
+		assertEquals("Invalid checksum in line " + RECORD_NBR, thrown.getMessage());
+		
+		thrown = assertThrows(IhxException.class, () -> new IhxRecord(RECORD_NBR, wrap(IHX_RECORD), 2, IHX_RECORD.length() + 1));
+		assertEquals("Invalid record length in line " + RECORD_NBR, thrown.getMessage());
+		
+		IhxRecord cut = new IhxRecord(RECORD_NBR, wrap(IHX_RECORD), 2, IHX_RECORD.length() + 2);
+		
+		assertEquals(RECORD_NBR, cut.getRecordNumber());
+		assertEquals(RECORD_LENGHT, cut.getRecordLength());
+		assertEquals(LOAD_OFFSET, cut.getOffset());
+		assertEquals(RECORD_TYPE, cut.getRecordType());
+		assertArrayEquals(RECORD_DATA, cut.getData());
+		
+	} // testIhxRecordIntByteBuffer()
+	
+	
+	/*
+	 * Puts aRecord between a preceding and a following line end.
+	 */
+	private static ByteBuffer wrap(final String aRecord) {
+		
+		return ByteBuffer.wrap(("\r\n" + aRecord + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		
+	} // wrap()
+
+
 	/**
 	 * Test method for {@link source.ihx.IhxRecord#getInfoOrData()}.
 	 */
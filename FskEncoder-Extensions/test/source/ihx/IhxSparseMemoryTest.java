@@ -0,0 +1,153 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : IhxSparseMemoryTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class IhxSparseMemory
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class IhxSparseMemoryTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxSparseMemory#write(long, byte[], int, int)}.
+	 */
+	@Test
+	final void testWrite() {
+		LOGGER.info("testWrite()");
+		
+		IhxSparseMemory cut = new IhxSparseMemory();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.write(0, null));
+		assertThrows(IllegalArgumentException.class, () -> cut.write(0, new byte[4], 2, 3));
+		assertThrows(IllegalArgumentException.class, () -> cut.write(-1, new byte[1]));
+		assertThrows(IllegalArgumentException.class, () -> cut.write(IhxSparseMemory.MAX_ADDRESS, new byte[2]));
+		
+		assertEquals(0, cut.write(0x0012_3456L, new byte[] { 1, 2, 3 }));
+		assertEquals(0, cut.write(IhxSparseMemory.MAX_ADDRESS, new byte[] { 4 }));
+		
+		assertEquals(2, cut.getPageCount());
+		assertEquals(4, cut.getSize());
+		
+		assertEquals(2, cut.write(0x0012_3457L, new byte[] { 5, 6, 7 }));
+		
+		assertEquals(5, cut.getSize());
+		assertEquals(1, cut.get(0x0012_3456L));
+		assertEquals(5, cut.get(0x0012_3457L));
+		assertEquals(7, cut.get(0x0012_3459L));
+		assertEquals(0, cut.get(0x0012_345AL));
+		assertTrue(cut.isPopulated(0x0012_3459L));
+		assertFalse(cut.isPopulated(0x0012_345AL));
+		assertFalse(cut.isPopulated(0x0800_0000L));
+		
+		cut.clear();
+		
+		assertEquals(0, cut.getPageCount());
+		assertEquals(0, cut.getSize());
+		
+	} // testWrite()
+
+
+	/**
+	 * Test method for {@link source.ihx.IhxSparseMemory#getBlocks()}.
+	 */
+	@Test
+	final void testGetBlocks() {
+		LOGGER.info("testGetBlocks()");
+		
+		IhxSparseMemory cut = new IhxSparseMemory();
+		
+		byte[] spanning = new byte[IhxSparseMemory.PAGE_SIZE + 16];
+		for(int n = 0; n < spanning.length; n++) spanning[n] = (byte) n;
+		
+		cut.write(0x00FF_0000L, new byte[] { 9 });
+		cut.write(0x0000_1000L - 8, spanning);
+		cut.write(0x0000_0000L, new byte[] { 1, 2 });
+		cut.write(0x0000_0003L, new byte[] { 3 });
+		
+		List<IhxSparseMemory.Block> blocks = cut.getBlocks();
+		
+		LOGGER.info("blocks: {}", blocks);
+		
+		assertEquals(4, blocks.size());
+		
+		assertEquals(0x0000_0000L, blocks.get(0).getStartAddress());
+		assertArrayEquals(new byte[] { 1, 2 }, blocks.get(0).getContent());
+		
+		assertEquals(0x0000_0003L, blocks.get(1).getStartAddress());
+		assertEquals(0x0000_0003L, blocks.get(1).getEndAddress());
+		
+		assertEquals(0x0000_0FF8L, blocks.get(2).getStartAddress());
+		assertEquals(spanning.length, blocks.get(2).getSize());
+		assertArrayEquals(spanning, blocks.get(2).getContent());
+		
+		assertEquals(0x00FF_0000L, blocks.get(3).getStartAddress());
+		assertArrayEquals(new byte[] { 9 }, blocks.get(3).getContent());
+		
+		assertEquals(4, cut.getPageCount());
+		
+	} // testGetBlocks()
+
+
+} // class
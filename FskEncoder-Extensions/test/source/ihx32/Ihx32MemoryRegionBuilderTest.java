@@ -0,0 +1,176 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Ihx32MemoryRegionBuilderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package source.ihx32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import extension.model.MemoryBlockDescription;
+import extension.model.MemoryMap;
+import source.ihx.IhxException;
+import source.ihx.IhxRecord;
+import source.ihx.x32.Ihx32MemoryRegionBuilder;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class Ihx32MemoryRegionBuilder
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class Ihx32MemoryRegionBuilderTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link source.ihx.x32.Ihx32MemoryRegionBuilder#append(extension.source.DataRecord)}.
+	 */
+	@Test
+	final void testAppend() throws Exception {
+		LOGGER.info("testAppend()");
+		
+		MemoryMap memoryMap = new MemoryMap();
+		Ihx32MemoryRegionBuilder cut = new Ihx32MemoryRegionBuilder(memoryMap);
+		
+		append(cut,
+			":020000040012E8",				// EXT_LIN 0x0012
+			":0410000001020304E2",			// 0x00121000
+			":021004000506DF",				// 0x00121004, extends the block
+			":020000021000EC",				// EXT_SEG 0x1000
+			":04FFFE000708090ADD",			// 0x0001FFFE, wraps around to 0x00010000
+			":0400000500121000D5",			// START_LIN 0x00121000
+			":00000001FF"					// EOF
+		);
+		
+		assertEquals(0x0012_1000L, cut.getEntryPoint());
+		assertEquals(10, cut.getMemory().getSize());
+		
+		List<MemoryBlockDescription> memoryLayout = memoryMap.getMemoryLayout();
+		
+		LOGGER.info("memoryLayout: {}", memoryLayout);
+		
+		assertEquals(3, memoryLayout.size());
+		
+		assertEquals(0x0001_0000L, memoryLayout.get(0).START_ADDRESS);
+		assertEquals(ByteBuffer.wrap(new byte[] { 9, 10 }), memoryMap.getMemoryRegion(memoryLayout.get(0).START_ADDRESS).getContent());
+		
+		assertEquals(0x0001_FFFEL, memoryLayout.get(1).START_ADDRESS);
+		assertEquals(ByteBuffer.wrap(new byte[] { 7, 8 }), memoryMap.getMemoryRegion(memoryLayout.get(1).START_ADDRESS).getContent());
+		
+		assertEquals(0x0012_1000L, memoryLayout.get(2).START_ADDRESS);
+		assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6 }), memoryMap.getMemoryRegion(memoryLayout.get(2).START_ADDRESS).getContent());
+		
+		assertThrows(IhxException.class, () -> cut.append(new IhxRecord(8, ":00000001FF")));
+		
+	} // testAppend()
+
+
+	/**
+	 * Test method for {@link source.ihx.x32.Ihx32MemoryRegionBuilder#append(extension.source.DataRecord)}
+	 * with a START_SEG record.
+	 */
+	@Test
+	final void testStartSegment() throws Exception {
+		LOGGER.info("testStartSegment()");
+		
+		Ihx32MemoryRegionBuilder cut = new Ihx32MemoryRegionBuilder(new MemoryMap());
+		
+		assertEquals(-1, cut.getEntryPoint());
+		
+		append(cut, ":0400000310000020C9");
+		
+		assertEquals(0x0001_0020L, cut.getEntryPoint());
+		
+		cut.clear();
+		
+		assertEquals(-1, cut.getEntryPoint());
+		
+	} // testStartSegment()
+
+
+	/**
+	 * Test method for {@link source.ihx.x32.Ihx32MemoryRegionBuilder#append(extension.source.DataRecord)}
+	 * with invalid records.
+	 */
+	@Test
+	final void testAppendInvalid() throws Exception {
+		LOGGER.info("testAppendInvalid()");
+		
+		Ihx32MemoryRegionBuilder cut = new Ihx32MemoryRegionBuilder(new MemoryMap());
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.append(null));
+		assertThrows(IhxException.class, () -> cut.append(new IhxRecord(1, ":0100000412E9")));
+		
+	} // testAppendInvalid()
+
+
+	/*
+	 * Appends the given lines as IhxRecords.
+	 */
+	private void append(final Ihx32MemoryRegionBuilder aBuilder, final String... aLines) throws IhxException {
+		
+		int recordNumber = 0;
+		
+		for(String line : aLines) {
+			aBuilder.append(new IhxRecord(++recordNumber, line));
+		} // rof
+		
+	} // append()
+
+
+} // class
@@ -33,6 +33,8 @@ package source.ihx8;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -44,6 +46,7 @@ import org.mockito.MockedConstruction;
 import org.mockito.Mockito;
 
 import extension.model.ExtendableMemory;
+import extension.model.MemoryMap;
 import extension.model.MemoryRegion;
 import source.ihx.IhxException;
 import source.ihx.IhxRecord;
@@ -151,6 +154,8 @@ class IhxMemoryRegionBuilderTest {
 		doReturn(START_ADDRESS, START_ADDRESS + 15 + 1)
 			.when(dataRecordMock).getOffset();
 		
+		doReturn(new byte[16]).when(dataRecordMock).getData();
+		
 		doReturn(IhxRecordType.DATA).when(dataRecordMock).getRecordType();
 		
 		doReturn(IhxRecordType.EOF).when(eofRecordMock).getRecordType();
@@ -182,6 +187,9 @@ class IhxMemoryRegionBuilderTest {
 			
 			assertDoesNotThrow(() -> cut.append(eofRecordMock));
 			
+			// both records form a single region
+			assertEquals(1, memoryRegionMock.constructed().size());
+			
 			thrown = assertThrows(IhxException.class, () -> cut.append(dataRecordMock));
 			assertEquals("Invalid file structure: DATA record after EOF record", thrown.getMessage());
 			
@@ -196,6 +204,39 @@ class IhxMemoryRegionBuilderTest {
 	} // testAppendIhxDataRecord()
 
 	
+	/**
+	 * Test method for {@link source.ihx.x8.Ihx8MemoryRegionBuilder#append(extension.source.DataRecord)}.
+	 * 
+	 * Records out of address order are merged with the records they adjoin, 
+	 * the regions are created at EOF in address order.
+	 */
+	@Test
+	final void testAppend_OutOfOrder() throws IhxException {
+		LOGGER.info("testAppend_OutOfOrder()");
+		
+		MemoryMap memoryMap = new MemoryMap();
+		Ihx8MemoryRegionBuilder cut = new Ihx8MemoryRegionBuilder(memoryMap);
+		
+		cut.append(dataRecord(1, 0x2000,  8, 0x80));
+		cut.append(dataRecord(2, 0x1010, 16, 0x10));
+		cut.append(dataRecord(3, 0x1800,  4, 0x40));
+		cut.append(dataRecord(4, 0x1000, 16, 0x00));		// in front of record 2
+		cut.append(dataRecord(5, 0x1020, 16, 0x20));		// behind record 2
+		cut.append(dataRecord(6, 0x1FF8,  8, 0x78));		// in front of record 1
+		
+		assertEquals(0, memoryMap.getRegionCount());
+		
+		cut.append(new IhxRecord(7, ":00000001FF"));
+		
+		assertEquals(3, memoryMap.getRegionCount());
+		
+		assertRegion(memoryMap, 0x1000, 0x30, 0x00);
+		assertRegion(memoryMap, 0x1800, 0x04, 0x40);
+		assertRegion(memoryMap, 0x1FF8, 0x10, 0x78);
+		
+	} // testAppend_OutOfOrder()
+
+	
 	/**
 	 * Test method for {@link source.ihx.x8.Ihx8MemoryRegionBuilder#feed(source.ihx8.IhxEofRecord)}.
 	 */
@@ -253,4 +294,46 @@ class IhxMemoryRegionBuilderTest {
 	} // testToString()
 	
 	
+	/*
+	 * A DATA record of aLength bytes counting up from aFirstByte.
+	 */
+	protected IhxRecord dataRecord(final int aRecordNumber, final int aAddress, final int aLength, final int aFirstByte) throws IhxException {
+		
+		StringBuilder content = new StringBuilder(String.format(":%02X%04X00", aLength, aAddress));
+		int sum = aLength + (aAddress >> 8) + (aAddress & 0xFF);
+		
+		for(int n = 0; n < aLength; n++) {
+			
+			int value = (aFirstByte + n) & 0xFF;
+			
+			content.append(String.format("%02X", value));
+			sum += value;
+			
+		} // rof
+		
+		content.append(String.format("%02X", -sum & 0xFF));
+		
+		return new IhxRecord(aRecordNumber, content.toString());
+		
+	} // dataRecord()
+	
+	
+	/*
+	 * Verifies the region at aStartAddress, aSize bytes counting up from aFirstByte.
+	 */
+	protected void assertRegion(final MemoryMap aMemoryMap, final long aStartAddress, final int aSize, final int aFirstByte) {
+		
+		MemoryRegion memoryRegion = aMemoryMap.getMemoryRegion(aStartAddress);
+		
+		assertNotNull(memoryRegion);
+		assertEquals(aStartAddress + aSize - 1, memoryRegion.getEndAddress());
+		
+		byte[] expected = new byte[aSize];
+		for(int n = 0; n < aSize; n++) expected[n] = (byte) (aFirstByte + n);
+		
+		assertEquals(ByteBuffer.wrap(expected), memoryRegion.getContent());
+		
+	} // assertRegion()
+	
+	
 } // ssalc
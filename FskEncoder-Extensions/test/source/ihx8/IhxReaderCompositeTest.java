@@ -48,6 +48,7 @@ import extension.model.MemoryMap;
 import extension.model.MemoryRegion;
 import extension.source.Reader;
 import source.ihx.IhxException;
+import source.ihx.IhxOverlapPolicy;
 import source.ihx.x8.Ihx8Reader;
 
 /**
@@ -67,7 +68,10 @@ import source.ihx.x8.Ihx8Reader;
  * </pre>
  * <p>
  * Description:<br>
- * There are three source files available in folder ./testresources.<br>
+ * There are three source files available in folder ./testresources, 
+ * 3block.unordered.hex holds the records of 3block.hex in random order.<br>
+ * In overlap.hex line 2 writes different bytes to 0x0004-0x0007 of line 1, line 3 repeats bytes of line 1, 
+ * it's loaded with each IhxOverlapPolicy and with the default LAST_WINS.<br>
  * Each of them is processed by a call to IhxReader.loadFile().<br>
  * After processing the result is obtained from MemoryMap and verifies against predefined reference data.
  * 
@@ -306,6 +310,145 @@ class IhxReaderCompositeTest {
 	} // ()
 
 
+	@Test
+	final void test_3blocksUnordered() {
+		LOGGER.info("test_3blocksUnordered()");
+		
+		srcFileName = PATH + "3block.unordered.hex";
+		ihxReader.setFilename(srcFileName);
+		ihxReader.loadFile();
+
+		assertEquals("Successfuly loaded.", ihxReader.getOperationStatus());
+		assertEquals(3, memoryMap.getRegionCount());
+		
+		memoryLayout = memoryMap.getMemoryLayout();
+		
+		assertEquals(3, memoryLayout.size());
+		
+		long[] startAddresses = new long[] { 0x00000, 0x01000, 0x02000 };
+		byte[][] references = new byte[][] { BLOCK_1, BLOCK_2, BLOCK_3 };
+		
+		for(int n = 0; n < references.length; n++) {
+			
+			memoryBlockDescription = memoryLayout.get(n);
+			
+			assertEquals(startAddresses[n], memoryBlockDescription.START_ADDRESS);
+			assertEquals(startAddresses[n] + references[n].length - 1, memoryBlockDescription.END_ADDRESS);
+			assertEquals(references[n].length, memoryBlockDescription.SIZE);
+			
+			memoryRegion = memoryMap.getMemoryRegion(memoryBlockDescription.START_ADDRESS);
+			reference    = references[n];
+			
+			verifyMemoryRegion();
+			
+		} // rof
+		
+	} // test_3blocksUnordered()
+
+
+	@Test
+	final void test_overlapError() {
+		LOGGER.info("test_overlapError()");
+		
+		Ihx8Reader reader = (Ihx8Reader) ihxReader;
+		
+		srcFileName = PATH + "overlap.hex";
+		reader.setFilename(srcFileName);
+		reader.setOverlapPolicy(IhxOverlapPolicy.ERROR);
+		
+		assertFalse(reader.loadFile());
+
+		assertEquals("Invalid IHX file '" + srcFileName + "', details: 'Conflicting data at 0x0004 in line 1 and line 2'.", ihxReader.getOperationStatus());
+		assertEquals(0, memoryMap.getRegionCount());
+		
+	} // test_overlapError()
+
+
+	@Test
+	final void test_overlapDefault() {
+		LOGGER.info("test_overlapDefault()");
+		
+		Ihx8Reader reader = (Ihx8Reader) ihxReader;
+		
+		srcFileName = PATH + "overlap.hex";
+		reader.setFilename(srcFileName);
+		
+		// LAST_WINS is the default, the file loads without setting a policy
+		assertTrue(reader.loadFile());
+		
+		assertEquals(1, memoryMap.getRegionCount());
+		assertEquals(1, reader.getConflicts().size());
+		
+		memoryLayout = memoryMap.getMemoryLayout();
+		memoryBlockDescription = memoryLayout.get(0);
+		
+		assertEquals(0x00000, memoryBlockDescription.START_ADDRESS);
+		
+		memoryRegion = memoryMap.getMemoryRegion(memoryBlockDescription.START_ADDRESS);
+		reference    = new byte[] { 0x00, 0x01, 0x02, 0x03, (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD };
+		
+		verifyMemoryRegion();
+		
+	} // test_overlapDefault()
+
+
+	@Test
+	final void test_overlapFirstWins() {
+		LOGGER.info("test_overlapFirstWins()");
+		
+		reference = new byte[] { 0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07 };
+		
+		loadOverlap(IhxOverlapPolicy.FIRST_WINS);
+		
+	} // test_overlapFirstWins()
+
+
+	@Test
+	final void test_overlapLastWins() {
+		LOGGER.info("test_overlapLastWins()");
+		
+		reference = new byte[] { 0x00, 0x01, 0x02, 0x03, (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD };
+		
+		loadOverlap(IhxOverlapPolicy.LAST_WINS);
+		
+	} // test_overlapLastWins()
+
+
+	/*
+	 * Loads overlap.hex with aPolicy, the conflict of line 1 and 2 is resolved, the repeated bytes of line 3 are no conflict.
+	 */
+	protected void loadOverlap(final IhxOverlapPolicy aPolicy) {
+		
+		Ihx8Reader reader = (Ihx8Reader) ihxReader;
+		
+		srcFileName = PATH + "overlap.hex";
+		reader.setFilename(srcFileName);
+		reader.setOverlapPolicy(aPolicy);
+		
+		assertTrue(reader.loadFile());
+
+		assertEquals("Successfuly loaded.", reader.getOperationStatus());
+		assertEquals(1, memoryMap.getRegionCount());
+		
+		assertEquals(1, reader.getConflicts().size());
+		assertEquals(0x0004, reader.getConflicts().get(0).getAddress());
+		assertEquals(4, reader.getConflicts().get(0).getLength());
+		assertEquals(1, reader.getConflicts().get(0).getFirstRecord());
+		assertEquals(2, reader.getConflicts().get(0).getSecondRecord());
+		
+		memoryLayout = memoryMap.getMemoryLayout();
+		memoryBlockDescription = memoryLayout.get(0);
+		
+		assertEquals(0x00000, memoryBlockDescription.START_ADDRESS);
+		assertEquals(0x00007, memoryBlockDescription.END_ADDRESS);
+		
+		memoryRegion = memoryMap.getMemoryRegion(memoryBlockDescription.START_ADDRESS);
+		
+		verifyMemoryRegion();
+		
+	} // loadOverlap()
+
+
 	/**
 	 * 
 	 */
@@ -39,7 +39,6 @@ import static org.mockito.Mockito.*;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -56,6 +55,8 @@ import extension.source.Reader;
 import extension.source.ReaderException;
 import source.ihx.IhxException;
 import source.ihx.IhxLexer;
+import source.ihx.IhxMappedLexer;
+import source.ihx.IhxParallelParser;
 import source.ihx.IhxParser;
 import source.ihx.x8.Ihx8MemoryRegionBuilder;
 import source.ihx.x8.Ihx8Reader;
@@ -130,8 +131,8 @@ class IhxReaderTest {
 		try(
 			
 			MockedConstruction<Ihx8MemoryRegionBuilder> mrbMockConstruction = Mockito.mockConstruction(Ihx8MemoryRegionBuilder.class);
-			MockedConstruction<IhxLexer> lexerMockConstruction = Mockito.mockConstruction(IhxLexer.class);
-			MockedConstruction<IhxParser> parserMockConstruction = Mockito.mockConstruction(IhxParser.class);
+			MockedConstruction<IhxMappedLexer> lexerMockConstruction = Mockito.mockConstruction(IhxMappedLexer.class);
+			MockedConstruction<IhxParallelParser> parserMockConstruction = Mockito.mockConstruction(IhxParallelParser.class);
 				
 		) { // resource
 			
@@ -288,8 +289,8 @@ class IhxReaderTest {
 		
 		try(
 				
-			MockedConstruction<IhxLexer> lexerMockConstruction = Mockito.mockConstruction(IhxLexer.class);
-			MockedConstruction<IhxParser> parserMockConstruction = Mockito.mockConstruction(IhxParser.class);
+			MockedConstruction<IhxMappedLexer> lexerMockConstruction = Mockito.mockConstruction(IhxMappedLexer.class);
+			MockedConstruction<IhxParallelParser> parserMockConstruction = Mockito.mockConstruction(IhxParallelParser.class);
 				
 		) { // resource
 			
@@ -313,11 +314,7 @@ class IhxReaderTest {
 				
 			} 
 			catch (
-				InstantiationException 
-				| IllegalAccessException 
-				| IllegalArgumentException
-				| InvocationTargetException 
-				| ReaderException 
+				ReaderException 
 				| IOException 
 				e) {
 				
@@ -351,7 +348,7 @@ class IhxReaderTest {
 		
 		try(
 			
-			MockedConstruction<IhxParser> parserMock = Mockito.mockConstruction(IhxParser.class,
+			MockedConstruction<IhxParallelParser> parserMock = Mockito.mockConstruction(IhxParallelParser.class,
 				(mock, context) -> {
 	
 					doThrow(FileNotFoundException.class).when(mock).parse();
@@ -393,9 +390,9 @@ class IhxReaderTest {
 		
 		try(
 			
-			MockedConstruction<IhxLexer> lexerMockConstruction = Mockito.mockConstruction(IhxLexer.class);
+			MockedConstruction<IhxMappedLexer> lexerMockConstruction = Mockito.mockConstruction(IhxMappedLexer.class);
 			
-			MockedConstruction<IhxParser> parserMock = Mockito.mockConstruction(IhxParser.class,
+			MockedConstruction<IhxParallelParser> parserMock = Mockito.mockConstruction(IhxParallelParser.class,
 				(mock, context) -> {
 	
 					doThrow(IOException.class).when(mock).parse();
@@ -436,9 +433,9 @@ class IhxReaderTest {
 		
 		try(
 			
-			MockedConstruction<IhxLexer> lexerMockConstruction = Mockito.mockConstruction(IhxLexer.class);
+			MockedConstruction<IhxMappedLexer> lexerMockConstruction = Mockito.mockConstruction(IhxMappedLexer.class);
 			
-			MockedConstruction<IhxParser> parserMock = Mockito.mockConstruction(IhxParser.class,
+			MockedConstruction<IhxParallelParser> parserMock = Mockito.mockConstruction(IhxParallelParser.class,
 				(mock, context) -> {
 	
 					doThrow(IhxException.class).when(mock).parse();
@@ -470,8 +467,8 @@ class IhxReaderTest {
 	 * Test method for {@link source.ihx.x8.Ihx8Reader#loadFile()}.
 	 */
 	@Test
-	final void testLoadFile_ReflectionError() {
-		LOGGER.info("testLoadFile_ReflectionError()");
+	final void testLoadFile_InternalError() {
+		LOGGER.info("testLoadFile_InternalError()");
 
 		final String SRC_FILE = "foo.bar";
 
@@ -479,18 +476,12 @@ class IhxReaderTest {
 		
 		try(
 			
-			MockedConstruction<IhxLexer> lexerMockConstruction = Mockito.mockConstruction(IhxLexer.class);
+			MockedConstruction<IhxMappedLexer> lexerMockConstruction = Mockito.mockConstruction(IhxMappedLexer.class);
 			
-			@SuppressWarnings("unchecked")
-			MockedConstruction<IhxParser> parserMock = Mockito.mockConstruction(IhxParser.class,
+			MockedConstruction<IhxParallelParser> parserMock = Mockito.mockConstruction(IhxParallelParser.class,
 				(mock, context) -> {
 	
-					doThrow(
-						InstantiationException.class,
-						IllegalAccessException.class,
-						IllegalArgumentException.class,
-						InvocationTargetException.class
-					).when(mock).parse();
+					doThrow(IllegalArgumentException.class).when(mock).parse();
 						
 				} // ->
 			) // mockConstruction
@@ -499,22 +490,10 @@ class IhxReaderTest {
 			Reader cut = new Ihx8Reader(memoryMapMock);
 			cut.setFilename(SRC_FILE);
 			
-			result = cut.loadFile();
-			assertFalse(result);
-			assertEquals("Internal processing error, 'java.lang.InstantiationException: null'.", cut.getOperationStatus());
-			
-			result = cut.loadFile();
-			assertFalse(result);
-			assertEquals("Internal processing error, 'java.lang.IllegalAccessException: null'.", cut.getOperationStatus());
-			
 			result = cut.loadFile();
 			assertFalse(result);
 			assertEquals("Internal processing error, 'java.lang.IllegalArgumentException: null'.", cut.getOperationStatus());
 			
-			result = cut.loadFile();
-			assertFalse(result);
-			assertEquals("Internal processing error, 'java.lang.reflect.InvocationTargetException: null'.", cut.getOperationStatus());
-			
 		} // yrt
 		catch(IhxException e) {
 			
@@ -523,7 +502,7 @@ class IhxReaderTest {
 		
 		}
 		
-	} // testLoadFile_ReflectionError()
+	} // testLoadFile_InternalError()
 
 
 	/**
@@ -544,10 +523,8 @@ class IhxReaderTest {
 			LOGGER.info("toString(): {}", cut.toString());		
 			
 			assertTrue(cut.toString().startsWith(
-				"IhxReader [lexer=Lexer [t=null, constructor=public source.ihx.IhxRecord(int,java.lang.String) " 
-					+ "throws source.ihx.IhxException, reader=null, recordIndex=0], " 
-				+ "parser=IhxParser [lexer=Lexer [t=null, constructor=public source.ihx.IhxRecord(int,java.lang.String) " 
-					+ "throws source.ihx.IhxException, reader=null, recordIndex=0], " 
+				"IhxReader [lexer=IhxMappedLexer [content=null, position=0, recordIndex=0], " 
+				+ "parser=IhxParallelParser [chunkSize=65536, IhxParser [lexer=IhxMappedLexer [content=null, position=0, recordIndex=0], " 
 				+ "memoryRegionBuilder=IhxMemoryRegionBuilder [eofRecord=false, MemoryRegionBuilder " 
 					+ "[startAddress=0x0000, memoryRegion=null, memoryMap=Mock for MemoryMap, hashCode: "));
 			
@@ -146,6 +146,15 @@ class IhxRecordTypeTest {
 		assertTrue(IhxRecordType.toType(  5) == IhxRecordType.START_LIN);
 		assertTrue(IhxRecordType.toType(255) == IhxRecordType.UNKNOWN);
 		
+		for(IhxRecordType type : IhxRecordType.values()) {
+			assertTrue(IhxRecordType.toType(type.toId()) == type);
+		}
+		
+		assertTrue(IhxRecordType.toType(  6) == IhxRecordType.UNKNOWN);
+		assertTrue(IhxRecordType.toType(0xEE) == IhxRecordType.UNKNOWN);
+		assertTrue(IhxRecordType.toType(0x100) == IhxRecordType.UNKNOWN);
+		assertTrue(IhxRecordType.toType( -1) == IhxRecordType.UNKNOWN);
+		
 	} // testToType()
 	
 
@@ -0,0 +1,210 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : Mpf1ByteEnvelopeCacheTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.microprofessor1;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import extension.encoder.BitEncoder;
+import extension.encoder.BitOrder;
+import extension.encoder.ByteOrder;
+import extension.encoder.Encoder;
+import extension.encoder.WaveCycleEncoder;
+
+/**
+ * Responsibilities:<br>
+ * Test the Mpf1ByteEnvelopeCache class.
+ * 
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * 
+ * <p>
+ * Description:<br>
+ * The envelopes taken from the cache must be identical to the envelopes assembled
+ * bit by bit from the samples of the Mpf1BitEncoder, 
+ * and a data block must be identical to the one of Encoder.encodeByteBuffer() it replaces.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class Mpf1ByteEnvelopeCacheTest {
+
+	private static Logger LOGGER = null;
+	
+	protected WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(Mpf1BitEncoder.SAMPLING_RATE);
+	protected BitEncoder bitEncoder = new Mpf1BitEncoder(waveCycleEncoder);
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+		
+	}
+
+
+	/**
+	 * Test method for {@link target.microprofessor1.Mpf1ByteEnvelopeCache#Mpf1ByteEnvelopeCache(BitEncoder)}.
+	 */
+	@Test
+	final void testMpf1ByteEnvelopeCache() {
+		LOGGER.info("testMpf1ByteEnvelopeCache()");
+		
+		assertThrows(IllegalArgumentException.class, () -> new Mpf1ByteEnvelopeCache(null));
+		
+		Mpf1ByteEnvelopeCache cut = new Mpf1ByteEnvelopeCache(bitEncoder);
+		
+		// 10 bits, 48 samples each
+		assertEquals(480, cut.getMaxEnvelopeSize());
+		assertEquals(480, cut.getEnvelopeSize((byte) 0xA5));
+		
+	} // testMpf1ByteEnvelopeCache()
+
+
+	/**
+	 * Test method for {@link target.microprofessor1.Mpf1ByteEnvelopeCache#encode(ByteBuffer, target.tape.SampleSink)}.
+	 */
+	@Test
+	final void testEncode() throws Exception {
+		LOGGER.info("testEncode()");
+		
+		Mpf1ByteEnvelopeCache cut = new Mpf1ByteEnvelopeCache(bitEncoder);
+		
+		for(int value = 0; value < 256; value++) {
+			
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			
+			cut.encode(ByteBuffer.wrap(new byte[] {(byte) value}), 
+				samples -> { while(samples.hasRemaining()) result.write(samples.get()); }
+			);
+			
+			assertArrayEquals(envelope(value), result.toByteArray(), "value " + value);
+			
+		} // rof
+		
+	} // testEncode()
+
+
+	/**
+	 * Test method for {@link target.microprofessor1.Mpf1ByteEnvelopeCache#encode(ByteBuffer, target.tape.SampleSink)}.
+	 * 
+	 * Random data blocks, compared byte for byte with the Encoder set up as by Mpf1Protocol.
+	 */
+	@Test
+	final void testEncode_Encoder() throws Exception {
+		LOGGER.info("testEncode_Encoder()");
+		
+		Mpf1ByteEnvelopeCache cut = new Mpf1ByteEnvelopeCache(bitEncoder);
+		
+		Encoder encoder = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+			.withWaveCycleEncoder(waveCycleEncoder)
+			.withStartBits(Mpf1Protocol.NBR_START_BITS, Mpf1Protocol.START_BIT_VALUE)
+			.withStopBits(Mpf1Protocol.NBR_STOP_BITS, Mpf1Protocol.STOP_BIT_VALUE)
+			;
+		
+		Random random = new Random(4711);
+		
+		for(int size : new int[] { 1, 2, 17, 256, 1000 }) {
+			
+			byte[] data = new byte[size];
+			random.nextBytes(data);
+			
+			encoder.setBufferSize(size * cut.getMaxEnvelopeSize());
+			encoder.encodeByteBuffer(ByteBuffer.wrap(data), true);
+			
+			ByteBuffer expected = encoder.getSampleBuffer().duplicate();
+			if(expected.position() != 0) expected.flip();
+			
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			
+			cut.encode(ByteBuffer.wrap(data), 
+				samples -> { while(samples.hasRemaining()) result.write(samples.get()); }
+			);
+			
+			byte[] reference = new byte[expected.remaining()];
+			expected.get(reference);
+			
+			assertArrayEquals(reference, result.toByteArray(), "size " + size);
+			
+		} // rof
+		
+	} // testEncode_Encoder()
+
+
+	/*
+	 * Assembles the envelope bit by bit: start bit '0', 8 data bits lsb first, stop bit '1'.
+	 */
+	protected byte[] envelope(final int aValue) {
+		
+		ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+		
+		append(envelope, 0);
+		
+		for(int bit = 0; bit < 8; bit++) {
+			append(envelope, (aValue >> bit) & 0x01);
+		}
+		
+		append(envelope, 1);
+		
+		return envelope.toByteArray();
+		
+	} // envelope()
+	
+	
+	protected void append(final ByteArrayOutputStream aEnvelope, final int aBit) {
+		
+		ByteBuffer samples = bitEncoder.encode(aBit, 1);
+		
+		for(int n = 0; n < samples.limit(); n++) {
+			aEnvelope.write(samples.get(n));
+		}
+		
+	} // append()
+
+
+} // class
@@ -42,9 +42,14 @@ import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -63,6 +68,13 @@ import extension.encoder.Encoder;
 import extension.protocol.DefaultChecksumCalculator;
 import target.support.Journal;
 import target.support.Step;
+import target.tape.ByteBufferDataStream;
+import target.tape.ByteBufferSampleSink;
+import target.tape.DataStream;
+import target.tape.EdgeTape;
+import target.tape.EdgeTimeline;
+import target.tape.TapeProtocol;
+import target.tape.TimelineRenderer;
 
 /**
  * Responsibilities:<br>
@@ -490,6 +502,9 @@ class Mpf1ProtocolTest {
 			cut.setStartAddress(0x1234);			
 			cut.setEndAddress(0x5678);
 			
+			// the mocked encoder must see every section
+			cut.setWaveformCache(null);
+			
 			cut.compile(dataBuffer);
 			
 		} // yrt
@@ -503,16 +518,23 @@ class Mpf1ProtocolTest {
 				new Step( 3, "withStopBits",			new Object[] {1, BitValue.HIGH.toString()}),
 
 				new Step( 4, "encodeSilence",		new Object[] {500}),
-				new Step( 5, "encodeWaveCycle",		new Object[] {1000, 4000}),
-				new Step( 6, "encodeWord",			new Object[] {39030, true}),
-				new Step( 7, "encodeWord",			new Object[] {4660, true}),
-				new Step( 8, "encodeWord",			new Object[] {22136, true}),
-				new Step( 9, "encodeByte",			new Object[] {-3, true}),
-				new Step(10, "encodeWaveCycle",		new Object[] {2000, 4000}),
-				new Step(11, "encodeByteBuffer",	new Object[] {new byte[] {0, 5, 80, 10, -96, 90, -91, -1}, true}),
-				new Step(12, "encodeWaveCycle",		new Object[] {2000, 4000}),
-				new Step(13, "encodeSilence",		new Object[] {500}),
-				new Step(14, "getSampleBuffer",		new Object[] {})
+				new Step( 5, "getSampleBuffer",		new Object[] {}),
+				new Step( 6, "encodeWaveCycle",		new Object[] {1000, 4000}),
+				new Step( 7, "getSampleBuffer",		new Object[] {}),
+				new Step( 8, "encodeWord",			new Object[] {39030, true}),
+				new Step( 9, "getSampleBuffer",		new Object[] {}),
+				new Step(10, "encodeWord",			new Object[] {4660, true}),
+				new Step(11, "getSampleBuffer",		new Object[] {}),
+				new Step(12, "encodeWord",			new Object[] {22136, true}),
+				new Step(13, "getSampleBuffer",		new Object[] {}),
+				new Step(14, "encodeByte",			new Object[] {-3, true}),
+				new Step(15, "getSampleBuffer",		new Object[] {}),
+				new Step(16, "encodeWaveCycle",		new Object[] {2000, 4000}),
+				new Step(17, "getSampleBuffer",		new Object[] {}),
+				new Step(18, "encodeWaveCycle",		new Object[] {2000, 4000}),
+				new Step(19, "getSampleBuffer",		new Object[] {}),
+				new Step(20, "encodeSilence",		new Object[] {500}),
+				new Step(21, "getSampleBuffer",		new Object[] {})
 			);
 
 		List<Step> steps = journal.getSteps();
@@ -570,6 +592,342 @@ class Mpf1ProtocolTest {
 		} // rof
 		
 	} // testCompile()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(java.nio.ByteBuffer, target.tape.SampleSink, int)}.
+	 * 
+	 * Every encoded section delivers 128 samples from the mocked encoder, every data byte 
+	 * an envelope of 480 samples from the envelope cache.
+	 * They must arrive in chunks of the requested size with a shorter last chunk only.
+	 */
+	@Test
+	final void testCompileStreaming() throws Exception {
+		LOGGER.info("testCompileStreaming()");
+		
+		Journal journal = new Journal(128);
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(8);
+		
+		List<Integer> chunks = new ArrayList<>();
+		
+		try(
+			MockedConstruction<Encoder> encoderMock = Mockito.mockConstruction(Encoder.class,
+				(mock, context) -> {
+				
+					doAnswer(journal).when(mock).withSilenceEncoder(any());
+					doAnswer(journal).when(mock).withWaveCycleEncoder(any());
+					doAnswer(journal).when(mock).withStartBits(anyInt(), any());
+					doAnswer(journal).when(mock).withStopBits(anyInt(),  any());
+
+					doAnswer(journal).when(mock).getSampleBuffer();
+	
+					when(mock.getSampleSize()).thenReturn(sampleSize);
+								
+			} // ->
+		  ) // mockConstruction(...)
+		) {
+
+			Mpf1Protocol cut = new Mpf1Protocol();
+			cut.setFileName(0x9876);
+			cut.setStartAddress(0x1234);			
+			cut.setEndAddress(0x5678);
+			
+			// the mocked encoder must see every section
+			cut.setWaveformCache(null);
+			
+			assertTrue(cut.compile(dataBuffer, samples -> chunks.add(samples.remaining()), 300));
+			
+		} // yrt
+		
+		LOGGER.info("chunks: {}", chunks);
+		
+		// 9 sections of 128 samples plus 8 data sections of 480 samples each
+		assertEquals(17, chunks.size());
+		
+		for(int n = 0; n < 16; n++) {
+			assertEquals(300, chunks.get(n).intValue());
+		}
+		
+		assertEquals(192, chunks.get(16).intValue());
+		
+	} // testCompileStreaming()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(java.nio.ByteBuffer, java.util.concurrent.ForkJoinPool)}.
+	 * 
+	 * The data block spans several parallel blocks with a shorter last one,
+	 * the result must equal the one of the sequential translation.
+	 */
+	@Test
+	final void testCompileParallel() {
+		LOGGER.info("testCompileParallel()");
+		
+		int size = 3 * TapeProtocol.MIN_PARALLEL_BLOCK + 17;
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(size);
+		for(int n = 0; n < size; n++) dataBuffer.put((byte) (n * 131 + 7));
+		dataBuffer.rewind();
+		
+		Mpf1Protocol cut = new Mpf1Protocol();
+		cut.setFileName(0x9876);
+		cut.setStartAddress(0x1000);			
+		cut.setEndAddress(0x1000 + size - 1);
+		
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		try {
+			
+			Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.compile(dataBuffer, (ForkJoinPool) null));
+			assertEquals("aPool can't be null", thrown.getMessage());
+			
+			ByteBuffer expected = cut.compile(dataBuffer.duplicate());
+			ByteBuffer actual = cut.compile(dataBuffer.duplicate(), pool);
+			
+			assertEquals(expected.remaining(), actual.remaining());
+			assertEquals(expected, actual);
+			
+		}
+		finally {
+			
+			pool.shutdown();
+			
+		} // yrt
+		
+	} // testCompileParallel()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(target.tape.DataStream, target.tape.SampleSink, int)}.
+	 * 
+	 * The data stream, read block by block, renders the same samples as the complete data buffer.
+	 * A stream that delivers less bytes than announced is rejected by the pre-scan.
+	 */
+	@Test
+	final void testCompileDataStream() throws Exception {
+		LOGGER.info("testCompileDataStream()");
+		
+		int size = 1000;
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(size);
+		for(int n = 0; n < size; n++) dataBuffer.put((byte) (n * 131 + 7));
+		dataBuffer.rewind();
+		
+		Mpf1Protocol cut = new Mpf1Protocol();
+		cut.setFileName(0x9876);
+		cut.setStartAddress(0x1000);
+		cut.setEndAddress(0x1000 + size - 1);
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.compile((DataStream) null, new ByteBufferSampleSink(1), 1));
+		assertEquals("aDataStream can't be null", thrown.getMessage());
+		
+		ByteBufferSampleSink expected = new ByteBufferSampleSink(1024);
+		ByteBufferSampleSink actual = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(dataBuffer.duplicate(), expected, 4096));
+		assertTrue(cut.compile(new ByteBufferDataStream(dataBuffer), actual, 4096));
+		
+		assertEquals(expected.getSampleBuffer(), actual.getSampleBuffer());
+		
+		DataStream shortStream = new DataStream() {
+			
+			@Override
+			public int size() { return size + 1; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { return new ByteBufferDataStream(dataBuffer).open(); }
+			
+		};
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(shortStream, new ByteBufferSampleSink(1024), 4096));
+		assertEquals("data stream delivered 1000 instead of 1001 bytes", thrown.getMessage());
+		
+		// the byte sum of the pre-scan gives the checksum, the stream is read once
+		int[] passes = new int[1];
+		
+		DataStream summedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { passes[0]++; return new ByteBufferDataStream(dataBuffer).open(); }
+			
+			@Override
+			public long byteSum() { return new ByteBufferDataStream(dataBuffer).byteSum(); }
+			
+		};
+		
+		ByteBufferSampleSink summed = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(summedStream, summed, 4096));
+		assertEquals(1, passes[0]);
+		assertEquals(expected.getSampleBuffer(), summed.getSampleBuffer());
+		
+		// without a byte sum the checksum takes an extra pass
+		passes[0] = 0;
+		
+		DataStream unsummedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { passes[0]++; return new ByteBufferDataStream(dataBuffer).open(); }
+			
+		};
+		
+		ByteBufferSampleSink unsummed = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(unsummedStream, unsummed, 4096));
+		assertEquals(2, passes[0]);
+		assertEquals(expected.getSampleBuffer(), unsummed.getSampleBuffer());
+		
+		DataStream shortSummedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size + 1; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { return new ByteBufferDataStream(dataBuffer).open(); }
+			
+			@Override
+			public long byteSum() { return 0; }
+			
+		};
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(shortSummedStream, new ByteBufferSampleSink(1024), 4096));
+		assertEquals("data stream ended after 1000 of 1001 bytes", thrown.getMessage());
+		
+	} // testCompileDataStream()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileIncremental(java.nio.ByteBuffer)}.
+	 * 
+	 * Changed data bytes patch the data envelopes and the checksum section in front of the mid sync.
+	 * A changed size or a changed header renders the tape completely.
+	 */
+	@Test
+	final void testCompileIncremental() {
+		LOGGER.info("testCompileIncremental()");
+		
+		byte[] data = new byte[1000];
+		for(int n = 0; n < data.length; n++) data[n] = (byte) (n * 131 + 7);
+		
+		Mpf1Protocol cut = new Mpf1Protocol();
+		Mpf1Protocol reference = new Mpf1Protocol();
+		
+		cut.setFileName(0x9876);
+		cut.setStartAddress(0x1000);
+		cut.setEndAddress(0x1000 + data.length - 1);
+		
+		reference.setFileName(0x9876);
+		reference.setStartAddress(0x1000);
+		reference.setEndAddress(0x1000 + data.length - 1);
+		
+		ByteBuffer first = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), first);
+		
+		data[0] ^= 0x55;
+		data[500] = (byte) 0xFF;
+		data[999] = 0x00;
+		
+		ByteBuffer patched = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		
+		// patched in place
+		assertTrue(patched.array() == first.array());
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), patched);
+		
+		ByteBuffer resized = cut.compileIncremental(ByteBuffer.wrap(data, 0, 999).slice());
+		
+		assertTrue(resized.array() != first.array());
+		assertEquals(reference.compile(ByteBuffer.wrap(data, 0, 999).slice()), resized);
+		
+		cut.resetIncremental();
+		
+		assertTrue(cut.compileIncremental(ByteBuffer.wrap(data, 0, 999).slice()).array() != resized.array());
+		
+	} // testCompileIncremental()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileEdges(java.nio.ByteBuffer)}.
+	 * 
+	 * The edges take exactly the samples of compile(), silence, header, data and checksum included.
+	 * All '0' bits, all '1' bits and random data give envelopes and checksums of different lengths.
+	 */
+	@Test
+	final void testCompileEdges() {
+		LOGGER.info("testCompileEdges()");
+		
+		List<byte[]> dataSets = new ArrayList<>();
+		
+		dataSets.add(new byte[64]);
+		dataSets.add(new byte[64]);
+		Arrays.fill(dataSets.get(1), (byte) 0xFF);
+		
+		for(int size : new int[] { 2, 17, 1000 }) {
+			
+			byte[] data = new byte[size];
+			new Random(size).nextBytes(data);
+			
+			dataSets.add(data);
+			
+		} // rof
+		
+		for(byte[] data : dataSets) {
+			
+			Mpf1Protocol cut = new Mpf1Protocol();
+			cut.setFileName(data.length);
+			cut.setStartAddress(0x1800);
+			cut.setEndAddress(0x1800 + data.length - 1);
+			
+			ByteBuffer samples = cut.compile(ByteBuffer.wrap(data));
+			EdgeTape edgeTape = cut.compileEdges(ByteBuffer.wrap(data));
+			
+			assertEquals(cut.getSamplingRate(), edgeTape.getSamplingRate());
+			assertEquals(samples.remaining(), edgeTape.getSampleCount(), data.length + " bytes");
+			assertEquals(samples.remaining(), edgeTape.toSamples().remaining());
+			
+		} // rof
+		
+	} // testCompileEdges()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileTimeline(java.nio.ByteBuffer)}.
+	 * 
+	 * Rendered at the protocol's sampling rate the timeline gives the samples of compile().
+	 * Every edge of the tape falls on a sample at that rate, so at 44.1 kHz the tape is as long 
+	 * as the samples of compile() scaled to 44.1 kHz.
+	 */
+	@Test
+	final void testCompileTimeline() {
+		LOGGER.info("testCompileTimeline()");
+		
+		byte[] data = new byte[1000];
+		new Random(1000).nextBytes(data);
+		
+		Mpf1Protocol cut = new Mpf1Protocol();
+		cut.setFileName(0x0001);
+		cut.setStartAddress(0x1800);
+		cut.setEndAddress(0x1800 + data.length - 1);
+		
+		ByteBuffer samples = cut.compile(ByteBuffer.wrap(data));
+		EdgeTimeline timeline = cut.compileTimeline(ByteBuffer.wrap(data));
+		
+		TimelineRenderer renderer = new TimelineRenderer(cut.getSamplingRate());
+		
+		assertEquals(samples.remaining(), renderer.getSampleCount(timeline));
+		assertEquals(samples.remaining(), renderer.toSamples(timeline).remaining());
+		
+		renderer = new TimelineRenderer(44100);
+		
+		long expected = Math.round(samples.remaining() * 44100.0 / cut.getSamplingRate());
+		
+		assertEquals(expected, renderer.getSampleCount(timeline));
+		assertEquals(expected, renderer.toSamples(timeline).remaining());
+		
+	} // testCompileTimeline()
 	
 
 	/**
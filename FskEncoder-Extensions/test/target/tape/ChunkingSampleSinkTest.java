@@ -0,0 +1,124 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : ChunkingSampleSinkTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class ChunkingSampleSink
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class ChunkingSampleSinkTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.ChunkingSampleSink#ChunkingSampleSink(int, SampleSink)}.
+	 */
+	@Test
+	final void testChunkingSampleSink() {
+		LOGGER.info("testChunkingSampleSink()");
+		
+		assertThrows(IllegalArgumentException.class, () -> new ChunkingSampleSink(0, samples -> {}));
+		assertThrows(IllegalArgumentException.class, () -> new ChunkingSampleSink(1, null));
+		
+	} // testChunkingSampleSink()
+
+
+	/**
+	 * Test method for {@link target.tape.ChunkingSampleSink#write(ByteBuffer)} 
+	 * and {@link target.tape.ChunkingSampleSink#flush()}.
+	 */
+	@Test
+	final void testWrite() throws Exception {
+		LOGGER.info("testWrite()");
+		
+		List<Integer> chunks = new ArrayList<>();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		
+		ChunkingSampleSink cut = new ChunkingSampleSink(4, samples -> {
+			chunks.add(samples.remaining());
+			while(samples.hasRemaining()) content.write(samples.get());
+		});
+		
+		byte[] expected = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+		
+		cut.write(ByteBuffer.wrap(expected, 0, 3));
+		cut.write(ByteBuffer.wrap(expected, 3, 1));
+		cut.write(ByteBuffer.wrap(expected, 4, 6));
+		cut.write(ByteBuffer.wrap(expected, 10, 1));
+		cut.flush();
+		
+		LOGGER.info("chunks: {}", chunks);
+		
+		assertEquals(List.of(4, 4, 3), chunks);
+		assertArrayEquals(expected, content.toByteArray());
+		assertEquals(11, cut.getSampleCount());
+		
+	} // testWrite()
+
+
+} // class
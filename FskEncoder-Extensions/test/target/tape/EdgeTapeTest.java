@@ -0,0 +1,197 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : EdgeTapeTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class EdgeTape
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class EdgeTapeTest {
+
+	private static Logger LOGGER = null;
+
+	private static final byte H = EdgeTape.HIGH_LEVEL;
+	private static final byte L = EdgeTape.LOW_LEVEL;
+	private static final byte S = EdgeTape.SILENCE_LEVEL;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTape#EdgeTape(int)}.
+	 */
+	@Test
+	final void testEdgeTape() {
+		LOGGER.info("testEdgeTape()");
+		
+		assertThrows(IllegalArgumentException.class, () -> new EdgeTape(0));
+		
+		EdgeTape cut = new EdgeTape(8000);
+		
+		assertEquals(8000, cut.getSamplingRate());
+		assertEquals(0, cut.getSampleCount());
+		assertEquals(0, cut.getEntryCount());
+		
+	} // testEdgeTape()
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTape#append(int, int, int)}.
+	 * 
+	 * Runs of the same shape are merged up to 65535 cycles per entry.
+	 */
+	@Test
+	final void testAppend() {
+		LOGGER.info("testAppend()");
+		
+		EdgeTape cut = new EdgeTape(8000);
+		
+		cut.append(4, 4, 3);
+		cut.append(4, 4, 2);
+		
+		assertEquals(1, cut.getEntryCount());
+		assertEquals(40, cut.getSampleCount());
+		
+		cut.append(2, 2, 1);
+		
+		assertEquals(2, cut.getEntryCount());
+		assertEquals(44, cut.getSampleCount());
+		
+		cut.append(2, 2, 0xFFFF);
+		
+		assertEquals(3, cut.getEntryCount());
+		assertEquals(44 + 4 * 0xFFFF, cut.getSampleCount());
+		assertEquals(3 * Integer.BYTES, cut.getByteSize());
+		
+	} // testAppend()
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTape#append(int, int, int)}.
+	 * 
+	 * Silence counts samples, it's merged like cycles.
+	 */
+	@Test
+	final void testAppend_Silence() {
+		LOGGER.info("testAppend_Silence()");
+		
+		EdgeTape cut = new EdgeTape(8000);
+		
+		cut.append(0, 0, 4000);
+		cut.append(0, 0, 4000);
+		
+		assertEquals(1, cut.getEntryCount());
+		assertEquals(8000, cut.getSampleCount());
+		
+		cut.append(0, 0, 0x20000);
+		
+		assertEquals(3, cut.getEntryCount());
+		assertEquals(8000 + 0x20000, cut.getSampleCount());
+		
+	} // testAppend_Silence()
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTape#expand(SampleSink, int)}.
+	 */
+	@Test
+	final void testExpand() throws Exception {
+		LOGGER.info("testExpand()");
+		
+		EdgeTape cut = new EdgeTape(8000);
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.expand(null, 4));
+		assertThrows(IllegalArgumentException.class, () -> cut.expand(samples -> {}, 0));
+		
+		cut.append(0, 0, 2);
+		cut.append(2, 2, 2);
+		cut.append(3, 2, 1);
+		cut.append(0, 0, 1);
+		
+		List<Integer> chunks = new ArrayList<>();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		
+		cut.expand(samples -> {
+			chunks.add(samples.remaining());
+			while(samples.hasRemaining()) content.write(samples.get());
+		}, 4);
+		
+		byte[] expected = new byte[] {S, S, H, H, L, L, H, H, L, L, H, H, H, L, L, S};
+		
+		LOGGER.info("chunks: {}", chunks);
+		
+		assertEquals(List.of(4, 4, 4, 4), chunks);
+		assertArrayEquals(expected, content.toByteArray());
+		
+		ByteBuffer samples = cut.toSamples();
+		byte[] actual = new byte[samples.remaining()];
+		samples.get(actual);
+		
+		assertArrayEquals(expected, actual);
+		
+	} // testExpand()
+
+
+} // class
@@ -0,0 +1,140 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : EdgeTimelineTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class EdgeTimeline
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class EdgeTimelineTest {
+
+	private static Logger LOGGER = null;
+
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTimeline#cycles(int, int)}.
+	 */
+	@Test
+	final void testCycles() {
+		LOGGER.info("testCycles()");
+		
+		EdgeTimeline cut = new EdgeTimeline();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.cycles(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> cut.cycles(3, 1));
+		assertThrows(IllegalArgumentException.class, () -> cut.cycles(1000, -1));
+		
+		cut.cycles(1000, 3);
+		cut.cycles(1000, 2);
+		
+		assertEquals(1, cut.getEntryCount());
+		assertEquals(5, cut.getCount(0));
+		assertEquals(500_000, cut.getHigh(0));
+		assertEquals(500_000, cut.getLow(0));
+		assertFalse(cut.isSilence(0));
+		assertEquals(5_000_000, cut.getDuration());
+		
+		cut.cycles(3000, 1);
+		
+		assertEquals(2, cut.getEntryCount());
+		assertEquals(166_666, cut.getHigh(1));
+		assertEquals(166_667, cut.getLow(1));
+		assertEquals(5_333_333, cut.getDuration());
+		
+		cut.cycles(3000, 0xFFFF);
+		
+		assertEquals(3, cut.getEntryCount());
+		assertEquals(0xFFFF, cut.getCount(1));
+		assertEquals(1, cut.getCount(2));
+		assertEquals(3 * Long.BYTES, cut.getByteSize());
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> cut.getCount(3));
+		
+	} // testCycles()
+
+
+	/**
+	 * Test method for {@link target.tape.EdgeTimeline#silence(int)}.
+	 */
+	@Test
+	final void testSilence() {
+		LOGGER.info("testSilence()");
+		
+		EdgeTimeline cut = new EdgeTimeline();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.silence(-1));
+		
+		cut.silence(200);
+		cut.silence(300);
+		
+		assertEquals(1, cut.getEntryCount());
+		assertEquals(500, cut.getCount(0));
+		assertEquals(0, cut.getHigh(0));
+		assertTrue(cut.isSilence(0));
+		assertEquals(500 * 1_000_000L, cut.getDuration());
+		
+	} // testSilence()
+
+
+} // class
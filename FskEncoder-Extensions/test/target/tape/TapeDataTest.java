@@ -0,0 +1,134 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeDataTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class TapeData
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class TapeDataTest {
+
+	private static Logger LOGGER = null;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.TapeData#TapeData(int, java.util.function.IntSupplier, TapeData.BlockSource)}.
+	 */
+	@Test
+	final void testTapeData() {
+		LOGGER.info("testTapeData()");
+		
+		assertThrows(IllegalArgumentException.class, () -> new TapeData(-1, () -> 0, (position, length) -> null));
+		assertThrows(IllegalArgumentException.class, () -> new TapeData(1, null, (position, length) -> null));
+		assertThrows(IllegalArgumentException.class, () -> new TapeData(1, () -> 0, null));
+		assertThrows(IllegalArgumentException.class, () -> TapeData.of(null, () -> 0));
+		
+		TapeData cut = new TapeData(10, () -> 0x42, (position, length) -> null);
+		
+		assertEquals(10, cut.getSize());
+		assertEquals(0x42, cut.getChecksum());
+		assertEquals("TapeData [size=10]", cut.toString());
+		
+	} // testTapeData()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeData#blocks(int)}.
+	 * 
+	 * The blocks of a data buffer are views of it, the last one holds the rest.
+	 */
+	@Test
+	final void testBlocks() {
+		LOGGER.info("testBlocks()");
+		
+		byte[] data = new byte[10];
+		for(int n = 0; n < data.length; n++) data[n] = (byte) n;
+		
+		TapeData cut = TapeData.of(ByteBuffer.wrap(data), () -> 0);
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.blocks(0));
+		
+		List<ByteBuffer> blocks = cut.blocks(4);
+		
+		assertEquals(3, blocks.size());
+		assertEquals(4, blocks.get(0).limit());
+		assertEquals(4, blocks.get(1).limit());
+		assertEquals(2, blocks.get(2).limit());
+		assertEquals(0, blocks.get(1).position());
+		assertEquals(4, blocks.get(1).get(0));
+		assertEquals(9, blocks.get(2).get(1));
+		
+		data[5] = 55;
+		
+		assertEquals(55, blocks.get(1).get(1));
+		
+		List<ByteBuffer> empty = TapeData.of(ByteBuffer.allocate(0), () -> 0).blocks(4);
+		
+		assertEquals(1, empty.size());
+		assertEquals(0, empty.get(0).limit());
+		
+	} // testBlocks()
+
+
+} // class
@@ -0,0 +1,295 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeEncodingServiceTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import target.microprofessor1.Mpf1Protocol;
+import target.z80trainer.Z80TrainerProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class TapeEncodingService
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * Mpf1Protocol and Z80TrainerProtocol as reference.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * Many jobs with different data and parameters run on a few threads, 
+ * each result must match the tape encoded by a fresh protocol instance.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class TapeEncodingServiceTest {
+
+	private static Logger LOGGER = null;
+
+	private static final int JOBS = 24;
+
+	@TempDir
+	protected Path tempDir;
+	
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.TapeEncodingService#TapeEncodingService(Supplier, ExecutorService)}.
+	 */
+	@Test
+	final void testTapeEncodingService() {
+		LOGGER.info("testTapeEncodingService()");
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		try {
+			
+			Throwable thrown = assertThrows(IllegalArgumentException.class, () -> new TapeEncodingService(null, executor));
+			assertEquals("aProtocolFactory can't be null", thrown.getMessage());
+			
+			thrown = assertThrows(IllegalArgumentException.class, () -> new TapeEncodingService(Mpf1Protocol::new, null));
+			assertEquals("aExecutor can't be null", thrown.getMessage());
+			
+			try(TapeEncodingService cut = new TapeEncodingService(Mpf1Protocol::new, executor)) {
+				
+				thrown = assertThrows(IllegalArgumentException.class, () -> cut.submit(null));
+				assertEquals("aJob can't be null", thrown.getMessage());
+				
+				thrown = assertThrows(IllegalArgumentException.class, () -> cut.submit(TapeJob.of(data(1, 4), 0x1800, 1), (Path) null));
+				assertEquals("aWavFile can't be null", thrown.getMessage());
+				
+			} // yrt
+			
+			/*
+			 * A shared executor survives the service.
+			 */
+			assertTrue(! executor.isShutdown());
+			
+		}
+		finally {
+			
+			executor.shutdown();
+			
+		} // yrt
+		
+	} // testTapeEncodingService()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeJob#TapeJob(ByteBuffer, long, long, int)}.
+	 */
+	@Test
+	final void testTapeJob() {
+		LOGGER.info("testTapeJob()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> new TapeJob(null, 0, 0, 0));
+		assertEquals("aData can't be null", thrown.getMessage());
+		
+		ByteBuffer data = data(7, 16);
+		TapeJob cut = TapeJob.of(data, 0x1800, 3);
+		
+		assertEquals(0x180F, cut.getEndAddress());
+		
+		/*
+		 * Later changes of the caller's buffer don't affect the job.
+		 */
+		data.put(0, (byte) 0xFF);
+		assertEquals(data(7, 16), cut.getData());
+		
+	} // testTapeJob()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeEncodingService#submit(TapeJob)}.
+	 */
+	@Test
+	final void testSubmit_Mpf1() throws Exception {
+		LOGGER.info("testSubmit_Mpf1()");
+		
+		verifySubmit(Mpf1Protocol::new);
+		
+	} // testSubmit_Mpf1()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeEncodingService#submit(TapeJob)}.
+	 */
+	@Test
+	final void testSubmit_Z80Trainer() throws Exception {
+		LOGGER.info("testSubmit_Z80Trainer()");
+		
+		verifySubmit(Z80TrainerProtocol::new);
+		
+	} // testSubmit_Z80Trainer()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeEncodingService#submit(TapeJob, Path)}.
+	 */
+	@Test
+	final void testSubmit_Wav() throws Exception {
+		LOGGER.info("testSubmit_Wav()");
+		
+		List<TapeJob> jobs = jobs();
+		List<Future<Boolean>> results = new ArrayList<>();
+		
+		try(TapeEncodingService cut = new TapeEncodingService(Mpf1Protocol::new)) {
+			
+			for(int n = 0; n < jobs.size(); n++) {
+				results.add(cut.submit(jobs.get(n), tempDir.resolve("tape" + n + ".wav")));
+			} // rof
+			
+			for(int n = 0; n < jobs.size(); n++) {
+				
+				assertTrue(results.get(n).get());
+				
+				ByteBuffer expected = reference(Mpf1Protocol::new, jobs.get(n));
+				byte[] content = Files.readAllBytes(tempDir.resolve("tape" + n + ".wav"));
+				
+				assertEquals(WavSampleSink.HEADER_SIZE + expected.remaining() + (expected.remaining() & 1), content.length);
+				
+				for(int i = 0; i < expected.remaining(); i++) {
+					assertEquals((byte) (expected.get(i) ^ 0x80), content[WavSampleSink.HEADER_SIZE + i]);
+				} // rof
+				
+			} // rof
+			
+		} // yrt
+		
+	} // testSubmit_Wav()
+
+
+	/*
+	 * Runs all jobs on a small shared pool and compares each result with a sequential reference.
+	 */
+	private void verifySubmit(final Supplier<? extends TapeProtocol> aFactory) throws Exception {
+		
+		List<TapeJob> jobs = jobs();
+		List<Future<ByteBuffer>> results = new ArrayList<>();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try(TapeEncodingService cut = new TapeEncodingService(aFactory, executor)) {
+			
+			for(TapeJob job : jobs) {
+				results.add(cut.submit(job));
+			} // rof
+			
+			for(int n = 0; n < jobs.size(); n++) {
+				assertEquals(reference(aFactory, jobs.get(n)), results.get(n).get(), jobs.get(n).toString());
+			} // rof
+			
+		}
+		finally {
+			
+			executor.shutdown();
+			
+		} // yrt
+		
+	} // verifySubmit()
+
+
+	/*
+	 * Jobs differing in size, content, addresses and name.
+	 */
+	private List<TapeJob> jobs() {
+		
+		List<TapeJob> jobs = new ArrayList<>();
+		
+		for(int n = 0; n < JOBS; n++) {
+			jobs.add(TapeJob.of(data(n, 2 + n * 37), 0x1800 + n * 0x100, n + 1));
+		} // rof
+		
+		return jobs;
+		
+	} // jobs()
+
+
+	/*
+	 * Encodes a job with a fresh protocol instance.
+	 */
+	private ByteBuffer reference(final Supplier<? extends TapeProtocol> aFactory, final TapeJob aJob) {
+		
+		TapeProtocol protocol = aFactory.get();
+		protocol.configure(aJob);
+		
+		return protocol.compile(aJob.getData());
+		
+	} // reference()
+
+
+	private ByteBuffer data(final int aSeed, final int aSize) {
+		
+		ByteBuffer data = ByteBuffer.allocate(aSize);
+		
+		for(int n = 0; n < aSize; n++) {
+			data.put((byte) (aSeed * 31 + n * 7));
+		} // rof
+		
+		data.flip();
+		
+		return data;
+		
+	} // data()
+
+
+} // class
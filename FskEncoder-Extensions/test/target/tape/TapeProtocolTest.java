@@ -0,0 +1,462 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TapeProtocolTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import extension.protocol.DefaultChecksumCalculator;
+import extension.protocol.Modulo256ChecksumCalculator;
+import target.microprofessor1.Mpf1Protocol;
+import target.z80trainer.Z80TrainerProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class TapeProtocol
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * Mpf1Protocol and Z80TrainerProtocol as concrete protocols.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test, the abstract class is tested through the concrete protocols.
+ * The word-at-a-time sum must give the same result as the byte-by-byte ChecksumCalculator.
+ * A section that can't be rendered must never end up in a tape reported as complete.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class TapeProtocolTest {
+
+	private static Logger LOGGER = null;
+
+	@TempDir
+	protected Path tempDir;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(ByteBuffer, SampleSink, int)}.
+	 * 
+	 * The in-memory, streaming and WAV variants fail instead of delivering a truncated tape, 
+	 * for a data buffer as well as for a DataStream. A stopped translation leaves no WAV file either.
+	 */
+	@Test
+	final void testCompile_BrokenSection() throws Exception {
+		LOGGER.info("testCompile_BrokenSection()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[100]);
+		
+		TapeProtocol cut = brokenProtocol(3);
+		
+		Throwable thrown = assertThrows(IOException.class, () -> cut.compile(dataBuffer.duplicate(), new ByteBufferSampleSink(1024), 256));
+		assertEquals("section broken can't be rendered", thrown.getMessage());
+		assertTrue(thrown.getCause() instanceof IllegalAccessException);
+		
+		assertNull(cut.compile(dataBuffer.duplicate()));
+		
+		Path wavFile = tempDir.resolve("broken.wav");
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(dataBuffer.duplicate(), wavFile, 256));
+		assertEquals("section broken can't be rendered", thrown.getMessage());
+		assertFalse(Files.exists(wavFile));
+		
+		assertTrue(brokenProtocol(-1).compile(dataBuffer.duplicate(), wavFile, 256));
+		assertTrue(Files.exists(wavFile));
+		
+		DataStream dataStream = new ByteBufferDataStream(dataBuffer);
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(dataStream, new ByteBufferSampleSink(1024), 256));
+		assertEquals("section broken can't be rendered", thrown.getMessage());
+		assertTrue(thrown.getCause() instanceof IllegalAccessException);
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(dataStream, wavFile, 256));
+		assertEquals("section broken can't be rendered", thrown.getMessage());
+		assertFalse(Files.exists(wavFile));
+		
+		assertTrue(brokenProtocol(-1).compile(dataStream, wavFile, 256));
+		assertTrue(Files.exists(wavFile));
+		
+		assertFalse(stoppedProtocol(3).compile(dataBuffer.duplicate(), wavFile, 256));
+		assertFalse(Files.exists(wavFile));
+		
+		assertTrue(brokenProtocol(-1).compile(dataBuffer.duplicate(), wavFile, 256));
+		
+		assertFalse(stoppedProtocol(3).compile(dataStream, wavFile, 256));
+		assertFalse(Files.exists(wavFile));
+		
+	} // testCompile_BrokenSection()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(DataStream, SampleSink, int)}.
+	 * 
+	 * The size and checksum of a stream belong to its compile only, 
+	 * a data buffer translated while the stream is rendered keeps its own.
+	 */
+	@Test
+	final void testCompile_DataStreamIsolated() throws Exception {
+		LOGGER.info("testCompile_DataStreamIsolated()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[1000]);
+		new Random(17).nextBytes(dataBuffer.array());
+		
+		ByteBuffer otherBuffer = ByteBuffer.wrap(new byte[100]);
+		new Random(18).nextBytes(otherBuffer.array());
+		
+		int[] probe = new int[2];
+		
+		Mpf1Protocol cut = new Mpf1Protocol() {
+			
+			@Override
+			protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+				
+				List<TapeSection> layout = new ArrayList<>(super.tapeLayout(aTapeData, aBlockSize));
+				
+				layout.add(new TapeSection("probe", 0, 0, sampleSink -> {
+					probe[0] = dataChecksum(otherBuffer);
+					probe[1] = tapeData(otherBuffer).blocks(64).size();
+				}));
+				
+				return layout;
+				
+			} // tapeLayout()
+			
+		};
+		
+		cut.setFileName(0x0001);
+		cut.setStartAddress(0x1800);
+		cut.setEndAddress(0x1BE7);
+		
+		ByteBufferSampleSink expected = new ByteBufferSampleSink(1024);
+		ByteBufferSampleSink actual = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(dataBuffer.duplicate(), expected, 256));
+		assertTrue(cut.compile(new ByteBufferDataStream(dataBuffer), actual, 256));
+		
+		assertEquals(expected.getSampleBuffer(), actual.getSampleBuffer());
+		assertEquals(cut.dataChecksum(otherBuffer), probe[0]);
+		assertEquals(2, probe[1]);
+		
+	} // testCompile_DataStreamIsolated()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(ByteBuffer, ForkJoinPool)}.
+	 * 
+	 * A sequential section that can't be rendered stops the translation before the parallel part,
+	 * a concurrent one fails the parallel part. Both return null.
+	 */
+	@Test
+	final void testCompile_Pool_BrokenSection() throws Exception {
+		LOGGER.info("testCompile_Pool_BrokenSection()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[100]);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		
+		try {
+			
+			assertNull(brokenProtocol(0).compile(dataBuffer.duplicate(), pool));
+			assertNull(brokenProtocol(3).compile(dataBuffer.duplicate(), pool));
+			
+			// in front of the first data section, rendered by the pool
+			assertNull(brokenProtocol(7, true).compile(dataBuffer.duplicate(), pool));
+			
+			assertEquals(brokenProtocol(-1).compile(dataBuffer.duplicate()), brokenProtocol(-1).compile(dataBuffer.duplicate(), pool));
+			
+		}
+		finally {
+			pool.shutdown();
+		} // yrt
+		
+	} // testCompile_Pool_BrokenSection()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(ByteBuffer, Path, int)}.
+	 * 
+	 * The WAV file holds the samples of compile() in the format of getAudioFormat().
+	 */
+	@Test
+	final void testCompile_WavFile() throws Exception {
+		LOGGER.info("testCompile_WavFile()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[100]);
+		new Random(9).nextBytes(dataBuffer.array());
+		
+		TapeProtocol cut = brokenProtocol(-1);
+		
+		ByteBuffer samples = cut.compile(dataBuffer.duplicate());
+		
+		Path wavFile = tempDir.resolve("tape.wav");
+		
+		assertTrue(cut.compile(dataBuffer.duplicate(), wavFile, 256));
+		
+		byte[] content = Files.readAllBytes(wavFile);
+		
+		assertEquals(WavSampleSink.header(cut.getSamplingRate(), samples.remaining()), ByteBuffer.wrap(content, 0, WavSampleSink.HEADER_SIZE));
+		
+		int flip = cut.getAudioFormat().getEncoding() == AudioFormat.Encoding.PCM_SIGNED ? 0x80 : 0x00;
+		
+		for(int n = 0; n < samples.remaining(); n++) {
+			assertEquals((byte) (samples.get(n) ^ flip), content[WavSampleSink.HEADER_SIZE + n]);
+		}
+		
+	} // testCompile_WavFile()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#stream(ByteBuffer, int)}.
+	 * 
+	 * The pull variants fail at the broken section instead of ending the tape early.
+	 */
+	@Test
+	final void testStream_BrokenSection() throws Exception {
+		LOGGER.info("testStream_BrokenSection()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[100]);
+		
+		TapeProtocol cut = brokenProtocol(3);
+		
+		SampleBlockIterator blocks = cut.stream(dataBuffer.duplicate(), 256);
+		
+		Throwable thrown = assertThrows(UncheckedIOException.class, () -> { while(blocks.hasNext()) blocks.next(); });
+		assertEquals("section broken can't be rendered", thrown.getCause().getMessage());
+		
+		ReadableByteChannel channel = cut.channel(dataBuffer.duplicate(), 256);
+		ByteBuffer block = ByteBuffer.allocate(256);
+		
+		thrown = assertThrows(IOException.class, () -> { while(channel.read(block) >= 0) block.clear(); });
+		assertEquals("section broken can't be rendered", thrown.getMessage());
+		
+	} // testStream_BrokenSection()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#byteSum(ByteBuffer, int, int)}.
+	 * 
+	 * Any range, any byte order and enough 0xFF bytes to fill the 16 bit lanes of several runs.
+	 */
+	@Test
+	final void testByteSum() {
+		LOGGER.info("testByteSum()");
+		
+		byte[] data = new byte[TapeProtocol.SUM_RUN * Long.BYTES * 3 + 13];
+		new Random(4711).nextBytes(data);
+		
+		for(ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+			
+			ByteBuffer dataBuffer = ByteBuffer.wrap(data).order(order);
+			
+			for(int from = 0; from < 9; from++) {
+				
+				for(int to = from; to < data.length; to += 7) {
+					assertEquals(sum(data, from, to), TapeProtocol.byteSum(dataBuffer, from, to));
+				} // rof
+				
+				assertEquals(sum(data, from, data.length), TapeProtocol.byteSum(dataBuffer, from, data.length));
+				
+			} // rof
+			
+			assertEquals(0, dataBuffer.position());
+			assertEquals(data.length, dataBuffer.limit());
+			
+		} // rof
+		
+		ByteBuffer ones = ByteBuffer.allocateDirect(TapeProtocol.SUM_RUN * Long.BYTES * 5);
+		while(ones.hasRemaining()) ones.put((byte) 0xFF);
+		
+		assertEquals(0xFFL * ones.capacity(), TapeProtocol.byteSum(ones, 0, ones.capacity()));
+		
+	} // testByteSum()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#dataChecksum(ByteBuffer)}.
+	 * 
+	 * Both protocols get the same checksum as their ChecksumCalculator.
+	 */
+	@Test
+	final void testDataChecksum() {
+		LOGGER.info("testDataChecksum()");
+		
+		Random random = new Random(815);
+		
+		Mpf1Protocol mpf1 = new Mpf1Protocol();
+		Z80TrainerProtocol z80 = new Z80TrainerProtocol();
+		
+		DefaultChecksumCalculator mpf1Calculator = new DefaultChecksumCalculator(0x00FF);
+		Modulo256ChecksumCalculator z80Calculator = new Modulo256ChecksumCalculator();
+		
+		for(int size = 0; size < 2000; size += 37) {
+			
+			byte[] data = new byte[size];
+			random.nextBytes(data);
+			
+			ByteBuffer dataBuffer = ByteBuffer.wrap(data);
+			
+			mpf1Calculator.clear();
+			z80Calculator.clear();
+			
+			for(byte value : data) {
+				mpf1Calculator.sumUp(value);
+				z80Calculator.sumUp(value);
+			} // rof
+			
+			assertEquals(mpf1Calculator.getCheckSum(), mpf1.dataChecksum(dataBuffer));
+			assertEquals(z80Calculator.getCheckSum(), z80.dataChecksum(dataBuffer));
+			
+		} // rof
+		
+	} // testDataChecksum()
+
+
+	/*
+	 * An MPF-1 protocol with a section at index aIndex of the layout whose encoder refuses to work.
+	 * A negative index leaves the layout unchanged.
+	 */
+	protected TapeProtocol brokenProtocol(final int aIndex) {
+		
+		return brokenProtocol(aIndex, false);
+		
+	} // brokenProtocol()
+
+
+	/*
+	 * As brokenProtocol(int), the broken section is a concurrent one if aConcurrent is set.
+	 */
+	protected TapeProtocol brokenProtocol(final int aIndex, final boolean aConcurrent) {
+		
+		Mpf1Protocol protocol = new Mpf1Protocol() {
+			
+			@Override
+			protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+				
+				List<TapeSection> layout = new ArrayList<>(super.tapeLayout(aTapeData, aBlockSize));
+				
+				if(aIndex >= 0) {
+					layout.add(aIndex, new TapeSection("broken", 10, 0, sampleSink -> { throw new IllegalAccessException("encoder not ready"); }, aConcurrent));
+				}
+				
+				return layout;
+				
+			} // tapeLayout()
+			
+		};
+		
+		protocol.setFileName(0x0001);
+		protocol.setStartAddress(0x1800);
+		protocol.setEndAddress(0x1863);
+		
+		return protocol;
+		
+	} // brokenProtocol()
+
+
+	/*
+	 * An MPF-1 protocol that is stopped by a section at index aIndex of the layout.
+	 */
+	protected TapeProtocol stoppedProtocol(final int aIndex) {
+		
+		Mpf1Protocol protocol = new Mpf1Protocol() {
+			
+			@Override
+			protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+				
+				List<TapeSection> layout = new ArrayList<>(super.tapeLayout(aTapeData, aBlockSize));
+				
+				layout.add(aIndex, new TapeSection("stop", 0, 0, sampleSink -> isRunning = false));
+				
+				return layout;
+				
+			} // tapeLayout()
+			
+		};
+		
+		protocol.setFileName(0x0001);
+		protocol.setStartAddress(0x1800);
+		protocol.setEndAddress(0x1863);
+		
+		return protocol;
+		
+	} // stoppedProtocol()
+
+
+	/*
+	 * Reference sum, one byte at a time.
+	 */
+	protected long sum(final byte[] aData, final int aFrom, final int aTo) {
+		
+		long sum = 0;
+		
+		for(int n = aFrom; n < aTo; n++) sum += aData[n] & 0xFF;
+		
+		return sum;
+		
+	} // sum()
+
+
+} // class
@@ -0,0 +1,179 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : TimelineRendererTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class TimelineRenderer
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class TimelineRendererTest {
+
+	private static Logger LOGGER = null;
+
+
+	private static final byte H = EdgeTape.HIGH_LEVEL;
+	private static final byte L = EdgeTape.LOW_LEVEL;
+	private static final byte S = EdgeTape.SILENCE_LEVEL;
+
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.TimelineRenderer#TimelineRenderer(int)}.
+	 */
+	@Test
+	final void testTimelineRenderer() {
+		LOGGER.info("testTimelineRenderer()");
+		
+		assertThrows(IllegalArgumentException.class, () -> new TimelineRenderer(0));
+		
+		assertEquals(8000, new TimelineRenderer(8000).getSamplingRate());
+		
+	} // testTimelineRenderer()
+
+
+	/**
+	 * Test method for {@link target.tape.TimelineRenderer#render(EdgeTimeline, SampleSink, int)}
+	 * and {@link target.tape.TimelineRenderer#toSamples(EdgeTimeline)}.
+	 */
+	@Test
+	final void testRender() throws Exception {
+		LOGGER.info("testRender()");
+		
+		TimelineRenderer cut = new TimelineRenderer(8000);
+		EdgeTimeline timeline = timeline();
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.render(null, samples -> {}, 4));
+		assertThrows(IllegalArgumentException.class, () -> cut.render(timeline, null, 4));
+		assertThrows(IllegalArgumentException.class, () -> cut.render(timeline, samples -> {}, 0));
+		
+		List<Integer> chunks = new ArrayList<>();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		
+		cut.render(timeline, samples -> {
+			chunks.add(samples.remaining());
+			while(samples.hasRemaining()) content.write(samples.get());
+		}, 8);
+		
+		/*
+		 * The 3 kHz cycle takes 2.67 samples, its edges are placed on the nearest sample.
+		 */
+		byte[] expected = new byte[] {S, S, S, S, S, S, S, S, H, H, L, L, H, H, L, L, H, L, L};
+		
+		LOGGER.info("chunks: {}", chunks);
+		
+		assertEquals(List.of(8, 8, 3), chunks);
+		assertArrayEquals(expected, content.toByteArray());
+		assertEquals(19, cut.getSampleCount(timeline));
+		
+		ByteBuffer samples = cut.toSamples(timeline);
+		byte[] actual = new byte[samples.remaining()];
+		samples.get(actual);
+		
+		assertArrayEquals(expected, actual);
+		
+		assertEquals(103, new TimelineRenderer(44100).toSamples(timeline).remaining());
+		
+	} // testRender()
+
+
+	/**
+	 * Test method for {@link target.tape.TimelineRenderer#toEdgeTape(EdgeTimeline)}.
+	 */
+	@Test
+	final void testToEdgeTape() {
+		LOGGER.info("testToEdgeTape()");
+		
+		EdgeTimeline timeline = timeline();
+		
+		assertThrows(IllegalArgumentException.class, () -> new TimelineRenderer(8000).toEdgeTape(null));
+		assertThrows(IllegalArgumentException.class, () -> new TimelineRenderer(1000).toEdgeTape(timeline));
+		
+		EdgeTape edgeTape = new TimelineRenderer(8000).toEdgeTape(timeline);
+		
+		assertEquals(8000, edgeTape.getSamplingRate());
+		assertEquals(3, edgeTape.getEntryCount());
+		assertEquals(18, edgeTape.getSampleCount());
+		
+	} // testToEdgeTape()
+
+
+	/*
+	 * 1 ms silence, 2 cycles of 2 kHz and 1 cycle of 3 kHz.
+	 */
+	private EdgeTimeline timeline() {
+		
+		EdgeTimeline timeline = new EdgeTimeline();
+		
+		timeline.silence(1);
+		timeline.cycles(2000, 2);
+		timeline.cycles(3000, 1);
+		
+		return timeline;
+		
+	} // timeline()
+
+
+} // class
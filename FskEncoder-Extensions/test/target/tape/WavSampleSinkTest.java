@@ -0,0 +1,213 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : WavSampleSinkTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class WavSampleSink
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * Java Sound to read the WAV files back.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class WavSampleSinkTest {
+
+	private static Logger LOGGER = null;
+
+	@TempDir
+	protected Path tempDir;
+	
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.WavSampleSink#WavSampleSink(Path, int, boolean)}.
+	 */
+	@Test
+	final void testWavSampleSink() {
+		LOGGER.info("testWavSampleSink()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> new WavSampleSink(null, 8000));
+		assertEquals("aFile can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new WavSampleSink(tempDir.resolve("x.wav"), 0));
+		assertEquals("aSamplingRate must be greater than 0", thrown.getMessage());
+		
+	} // testWavSampleSink()
+
+
+	/**
+	 * Test method for {@link target.tape.WavSampleSink#write(ByteBuffer)}.
+	 */
+	@Test
+	final void testWrite_Signed() throws Exception {
+		LOGGER.info("testWrite_Signed()");
+		
+		Path file = tempDir.resolve("signed.wav");
+		
+		byte[] samples = new byte[100_001];
+		for(int n = 0; n < samples.length; n++) samples[n] = (byte) n;
+		
+		try(WavSampleSink cut = new WavSampleSink(file, 9600)) {
+			
+			cut.write(ByteBuffer.wrap(samples, 0, 1));
+			cut.write(ByteBuffer.wrap(samples, 1, samples.length - 1));
+			
+			assertEquals(samples.length, cut.getDataSize());
+			
+		} // yrt
+		
+		byte[] content = Files.readAllBytes(file);
+		
+		/*
+		 * header + odd number of samples + pad byte
+		 */
+		assertEquals(WavSampleSink.HEADER_SIZE + samples.length + 1, content.length);
+		assertEquals(content.length - 8, riffInt(content, 4));
+		assertEquals(samples.length, riffInt(content, 40));
+		
+		for(int n = 0; n < samples.length; n++) {
+			assertEquals((byte) (samples[n] ^ 0x80), content[WavSampleSink.HEADER_SIZE + n]);
+		} // rof
+		
+		try(AudioInputStream stream = AudioSystem.getAudioInputStream(file.toFile())) {
+			
+			AudioFormat format = stream.getFormat();
+			
+			assertEquals(AudioFormat.Encoding.PCM_UNSIGNED, format.getEncoding());
+			assertEquals(9600f, format.getSampleRate());
+			assertEquals(8, format.getSampleSizeInBits());
+			assertEquals(1, format.getChannels());
+			assertEquals(samples.length, stream.getFrameLength());
+			
+		} // yrt
+		
+	} // testWrite_Signed()
+
+
+	/**
+	 * Test method for {@link target.tape.WavSampleSink#write(ByteBuffer)}.
+	 */
+	@Test
+	final void testWrite_Unsigned() throws Exception {
+		LOGGER.info("testWrite_Unsigned()");
+		
+		Path file = tempDir.resolve("unsigned.wav");
+		
+		byte[] samples = new byte[] { 0x00, 0x7F, (byte) 0x80, (byte) 0xFF };
+		
+		try(WavSampleSink cut = new WavSampleSink(file, 8000, false)) {
+			
+			cut.write(ByteBuffer.wrap(samples));
+			
+		} // yrt
+		
+		byte[] content = Files.readAllBytes(file);
+		
+		assertEquals(WavSampleSink.HEADER_SIZE + samples.length, content.length);
+		assertArrayEquals(samples, Arrays.copyOfRange(content, WavSampleSink.HEADER_SIZE, content.length));
+		
+		assertEquals(WavSampleSink.header(8000, samples.length), ByteBuffer.wrap(content, 0, WavSampleSink.HEADER_SIZE));
+		
+	} // testWrite_Unsigned()
+
+
+	/**
+	 * Test method for {@link target.tape.WavSampleSink#close()}.
+	 */
+	@Test
+	final void testClose() throws Exception {
+		LOGGER.info("testClose()");
+		
+		Path file = tempDir.resolve("empty.wav");
+		
+		WavSampleSink cut = new WavSampleSink(file, 8000);
+		
+		cut.close();
+		cut.close();
+		
+		assertEquals(WavSampleSink.header(8000, 0), ByteBuffer.wrap(Files.readAllBytes(file)));
+		
+		Throwable thrown = assertThrows(IOException.class, () -> cut.write(ByteBuffer.allocate(1)));
+		assertEquals("WavSampleSink is closed", thrown.getMessage());
+		
+	} // testClose()
+	
+	
+	/*
+	 * Reads a little endian int of the header.
+	 */
+	protected long riffInt(final byte[] aContent, final int aOffset) {
+		
+		return ByteBuffer.wrap(aContent, aOffset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+		
+	} // riffInt()
+
+
+} // class
@@ -0,0 +1,192 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder
+ * FILENAME      : WaveformCacheTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Extensions
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package target.tape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import target.microprofessor1.Mpf1Protocol;
+import target.z80trainer.Z80TrainerProtocol;
+
+/**
+ * Responsibilities:<br>
+ * Verification of the correct behavior of the class WaveformCache
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * Mpf1Protocol and Z80TrainerProtocol as users of the cache.
+ * 
+ * <p>
+ * Description:<br>
+ * Unit test for the class under test.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class WaveformCacheTest {
+
+	private static Logger LOGGER = null;
+	
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link target.tape.WaveformCache#get(WaveformCache.Key, WaveformCache.WaveformRenderer)}.
+	 */
+	@Test
+	final void testGet() throws Exception {
+		LOGGER.info("testGet()");
+		
+		WaveformCache cut = new WaveformCache();
+		WaveformCache.Key key = new WaveformCache.Key("p", "wave cycle", 2000, 4000, 8000);
+		
+		AtomicInteger renderings = new AtomicInteger();
+		
+		WaveformCache.WaveformRenderer renderer = () -> {
+			renderings.incrementAndGet();
+			return ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+		};
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.get(null, renderer));
+		assertEquals("aKey can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.get(key, null));
+		assertEquals("aRenderer can't be null", thrown.getMessage());
+		
+		ByteBuffer first = cut.get(key, renderer);
+		first.get();
+		
+		ByteBuffer second = cut.get(new WaveformCache.Key("p", "wave cycle", 2000, 4000, 8000), renderer);
+		
+		assertEquals(1, renderings.get());
+		assertEquals(1, cut.size());
+		assertTrue(second.isReadOnly());
+		assertEquals(0, second.position());
+		assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), second);
+		
+		cut.get(new WaveformCache.Key("p", "wave cycle", 2000, 4000, 9600), renderer);
+		
+		assertEquals(2, renderings.get());
+		
+		cut.clear();
+		
+		assertEquals(0, cut.size());
+		
+	} // testGet()
+
+
+	/**
+	 * Test method for {@link target.tape.WaveformCache.Key#Key(String, String, int, int, int)}.
+	 */
+	@Test
+	final void testKey() {
+		LOGGER.info("testKey()");
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> new WaveformCache.Key(null, "silence", 0, 500, 8000));
+		assertEquals("aProtocol can't be null", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new WaveformCache.Key("p", null, 0, 500, 8000));
+		assertEquals("aWaveform can't be null", thrown.getMessage());
+		
+		WaveformCache.Key key = new WaveformCache.Key("p", "silence", 0, 500, 8000);
+		
+		assertEquals(key, new WaveformCache.Key("p", "silence", 0, 500, 8000));
+		assertEquals(key.hashCode(), new WaveformCache.Key("p", "silence", 0, 500, 8000).hashCode());
+		assertNotEquals(key, new WaveformCache.Key("q", "silence", 0, 500, 8000));
+		assertNotEquals(key, new WaveformCache.Key("p", "silence", 1, 500, 8000));
+		assertNotEquals(key, new WaveformCache.Key("p", "silence", 0, 501, 8000));
+		
+	} // testKey()
+
+
+	/**
+	 * Verifies that a cached compile equals an uncached one and that equal waveforms share an entry.
+	 */
+	@Test
+	final void testProtocols() {
+		LOGGER.info("testProtocols()");
+		
+		ByteBuffer data = ByteBuffer.allocate(300);
+		for(int n = 0; n < data.limit(); n++) data.put((byte) (n * 13));
+		data.flip();
+		
+		WaveformCache cache = new WaveformCache();
+		
+		Mpf1Protocol mpf1 = new Mpf1Protocol();
+		mpf1.configure(TapeJob.of(data, 0x1800, 1));
+		
+		mpf1.setWaveformCache(null);
+		ByteBuffer expected = mpf1.compile(data.duplicate());
+		
+		mpf1.setWaveformCache(cache);
+		assertEquals(expected, mpf1.compile(data.duplicate()));
+		assertEquals(expected, mpf1.compile(data.duplicate()));
+		
+		// silence, lead sync, mid and tail sync
+		assertEquals(3, cache.size());
+		
+		Z80TrainerProtocol z80 = new Z80TrainerProtocol();
+		z80.configure(TapeJob.of(data, 0x1800, 1));
+		
+		z80.setWaveformCache(null);
+		expected = z80.compile(data.duplicate());
+		
+		z80.setWaveformCache(cache);
+		assertEquals(expected, z80.compile(data.duplicate()));
+		assertEquals(expected, z80.compile(data.duplicate()));
+		
+		// silence, lead in, sync, idle time
+		assertEquals(3 + 4, cache.size());
+		
+	} // testProtocols()
+
+
+} // class
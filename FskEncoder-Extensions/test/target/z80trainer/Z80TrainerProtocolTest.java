@@ -29,6 +29,7 @@
 
 package target.z80trainer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -42,9 +43,16 @@ import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -58,10 +66,21 @@ import org.mockito.MockedConstruction;
 import org.mockito.Mockito;
 
 import extension.control.BackgroundExecutor;
+import extension.encoder.BitEncoder;
 import extension.encoder.BitValue;
 import extension.encoder.Encoder;
+import extension.encoder.FskBitEncoder;
+import extension.encoder.WaveCycleEncoder;
 import target.support.Journal;
 import target.support.Step;
+import target.tape.ByteBufferDataStream;
+import target.tape.ByteBufferSampleSink;
+import target.tape.DataStream;
+import target.tape.EdgeTape;
+import target.tape.EdgeTimeline;
+import target.tape.TapeData;
+import target.tape.TapeSection;
+import target.tape.TimelineRenderer;
 
 /**
  * Responsibilities:<br>
@@ -313,6 +332,9 @@ class Z80TrainerProtocolTest {
 			cut.setProgramNbr(prgNumber);
 			cut.setStartAddress(startAdr);
 			
+			// the mocked encoder must see every section
+			cut.setWaveformCache(null);
+			
 			cut.compile(dataBuffer);
 			
 		} // yrt
@@ -326,19 +348,16 @@ class Z80TrainerProtocolTest {
 				new Step( 3, "withStopBits",			new Object[] {3, BitValue.HIGH.toString()}),
 
 				new Step( 4, "encodeSilence",		new Object[] {500}),
-				new Step( 5, "encodeBit",			new Object[] {1, 12288}),
-				new Step( 6, "encodeBit",			new Object[] {0, 1}),
-				new Step( 7, "encodeBit",			new Object[] {1, 16}),
-				new Step( 8, "encodeWord",			new Object[] {4660, true}),
-				new Step( 9, "encodeWord",			new Object[] {9029, true}),
-				new Step(10, "encodeByte",			new Object[] { 104, true}),
-				new Step(11, "encodeWord",			new Object[] {8, true}),
-				new Step(12, "encodeByte",			new Object[] {8, true}),
-				new Step(13, "encodeBit",			new Object[] {1, 64}),
-				new Step(14, "encodeByteBuffer",	new Object[] {new byte[] {0, 5, 80, 10, -96, 90, -91, -1}, true}),
-				new Step(15, "encodeByte",			new Object[] {-3, true}),
-				new Step(16, "encodeSilence",		new Object[] {500}),
-				new Step(17, "getSampleBuffer",		new Object[] {})
+				new Step( 5, "getSampleBuffer",		new Object[] {}),
+				new Step( 6, "encodeBit",			new Object[] {1, 12288}),
+				new Step( 7, "getSampleBuffer",		new Object[] {}),
+				new Step( 8, "encodeBit",			new Object[] {0, 1}),
+				new Step( 9, "encodeBit",			new Object[] {1, 16}),
+				new Step(10, "getSampleBuffer",		new Object[] {}),
+				new Step(11, "encodeBit",			new Object[] {1, 64}),
+				new Step(12, "getSampleBuffer",		new Object[] {}),
+				new Step(13, "encodeSilence",		new Object[] {500}),
+				new Step(14, "getSampleBuffer",		new Object[] {})
 			);
 
 		List<Step> steps = journal.getSteps();
@@ -398,6 +417,459 @@ class Z80TrainerProtocolTest {
 		} // rof
 		
 	} // testCompile()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#stream(java.nio.ByteBuffer, int)} 
+	 * and {@link target.tape.TapeProtocol#channel(java.nio.ByteBuffer, int)}.
+	 * 
+	 * Every encoded section delivers 128 samples from the mocked encoder,
+	 * header fields and data are taken from the envelope cache.
+	 */
+	@Test
+	final void testStream() throws Exception {
+		LOGGER.info("testStream()");
+		
+		Journal journal = new Journal(128);
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(8);
+		
+		List<Integer> blocks = new ArrayList<>();
+		int channelSamples = 0;
+		
+		try(
+			MockedConstruction<Encoder> encoderMock = Mockito.mockConstruction(Encoder.class,
+				(mock, context) -> {
+				
+					doAnswer(journal).when(mock).withSilenceEncoder(any());
+					doAnswer(journal).when(mock).withWaveCycleEncoder(any());
+					doAnswer(journal).when(mock).withStartBits(anyInt(), any());
+					doAnswer(journal).when(mock).withStopBits(anyInt(),  any());
+
+					doAnswer(journal).when(mock).getSampleBuffer();
+	
+					when(mock.getSampleSize()).thenReturn(sampleSize);
+								
+			} // ->
+		  ) // mockConstruction(...)
+		) {
+
+			Z80TrainerProtocol cut = new Z80TrainerProtocol();
+			cut.setProgramNbr(1);
+			cut.setStartAddress(0x1800);
+			
+			// the mocked encoder must see every section
+			cut.setWaveformCache(null);
+			
+			Iterator<ByteBuffer> iterator = cut.stream(dataBuffer, 512);
+			
+			while(iterator.hasNext()) {
+				blocks.add(iterator.next().remaining());
+			}
+			
+			assertThrows(NoSuchElementException.class, () -> iterator.next());
+			
+			ReadableByteChannel channel = cut.channel(dataBuffer, 512);
+			ByteBuffer samples = ByteBuffer.allocate(1000);
+			int count;
+			
+			while((count = channel.read(samples)) >= 0) {
+				channelSamples += count;
+				samples.clear();
+			}
+			
+		} // yrt
+		
+		LOGGER.info("blocks: {}", blocks);
+		
+		// silence, lead in, sync, idle time and silence by the encoder, the rest by the envelope cache
+		int samples = 5 * 128 + envelopes(
+				0x00, 0x01,					// program number
+				0x18, 0x00, 0x18,			// start address
+				0x00, 0x08, 0x08,			// block length
+				0, 0, 0, 0, 0, 0, 0, 0,		// data
+				0x00						// data checksum
+				);
+		
+		for(int n = 0; n < blocks.size() - 1; n++) {
+			assertEquals(512, blocks.get(n).intValue());
+		}
+		
+		assertEquals(samples, blocks.stream().mapToInt(Integer::intValue).sum());
+		assertEquals(samples, channelSamples);
+		
+	} // testStream()
+
+	
+	/**
+	 * Test method for {@link target.z80trainer.Z80TrainerProtocol#tapeLayout(TapeData, int)}.
+	 * 
+	 * Header fields, data and checksums are rendered by the envelope cache, high byte first.
+	 */
+	@Test
+	final void testHeaderAndData() throws Exception {
+		LOGGER.info("testHeaderAndData()");
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[] {0x00, 0x05, 0x50, 0x0A, (byte) 0xA0, 0x5A, (byte) 0xA5, (byte) 0xFF});
+		
+		Z80TrainerProtocol cut = new Z80TrainerProtocol();
+		cut.setProgramNbr(0x1234);
+		cut.setStartAddress(0x2345);
+		
+		List<TapeSection> layout = cut.tapeLayout(TapeData.of(dataBuffer, () -> 0xFD), dataBuffer.limit());
+		
+		assertArrayEquals(envelopeSamples(0x12, 0x34), render(layout.get(3)));
+		assertArrayEquals(envelopeSamples(0x23, 0x45, 0x68), render(layout.get(4)));
+		assertArrayEquals(envelopeSamples(0x00, 0x08, 0x08), render(layout.get(5)));
+		assertArrayEquals(envelopeSamples(0x00, 0x05, 0x50, 0x0A, 0xA0, 0x5A, 0xA5, 0xFF, 0xFD), render(layout.get(7)));
+		
+	} // testHeaderAndData()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compile(target.tape.DataStream, target.tape.SampleSink, int)}.
+	 * 
+	 * The data stream, read block by block, renders the same samples as the complete data buffer.
+	 * A stream that delivers less bytes than announced is rejected by the pre-scan.
+	 */
+	@Test
+	final void testCompileDataStream() throws Exception {
+		LOGGER.info("testCompileDataStream()");
+		
+		int size = 1000;
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(size);
+		for(int n = 0; n < size; n++) dataBuffer.put((byte) (n * 131 + 7));
+		dataBuffer.rewind();
+		
+		Z80TrainerProtocol cut = new Z80TrainerProtocol();
+		cut.setProgramNbr(0x1234);
+		cut.setStartAddress(0x2345);
+		
+		Throwable thrown = assertThrows(IllegalArgumentException.class, () -> cut.compile((DataStream) null, new ByteBufferSampleSink(1), 1));
+		assertEquals("aDataStream can't be null", thrown.getMessage());
+		
+		ByteBufferSampleSink expected = new ByteBufferSampleSink(1024);
+		ByteBufferSampleSink actual = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(dataBuffer.duplicate(), expected, 4096));
+		assertTrue(cut.compile(new ByteBufferDataStream(dataBuffer), actual, 4096));
+		
+		assertEquals(expected.getSampleBuffer(), actual.getSampleBuffer());
+		
+		DataStream shortStream = new DataStream() {
+			
+			@Override
+			public int size() { return size + 1; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { return new ByteBufferDataStream(dataBuffer).open(); }
+			
+		};
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(shortStream, new ByteBufferSampleSink(1024), 4096));
+		assertEquals("data stream delivered 1000 instead of 1001 bytes", thrown.getMessage());
+		
+		// the byte sum of the pre-scan gives the checksum, the stream is read once
+		int[] passes = new int[1];
+		
+		DataStream summedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { passes[0]++; return new ByteBufferDataStream(dataBuffer).open(); }
+			
+			@Override
+			public long byteSum() { return new ByteBufferDataStream(dataBuffer).byteSum(); }
+			
+		};
+		
+		ByteBufferSampleSink summed = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(summedStream, summed, 4096));
+		assertEquals(1, passes[0]);
+		assertEquals(expected.getSampleBuffer(), summed.getSampleBuffer());
+		
+		// without a byte sum the checksum takes an extra pass
+		passes[0] = 0;
+		
+		DataStream unsummedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { passes[0]++; return new ByteBufferDataStream(dataBuffer).open(); }
+			
+		};
+		
+		ByteBufferSampleSink unsummed = new ByteBufferSampleSink(1024);
+		
+		assertTrue(cut.compile(unsummedStream, unsummed, 4096));
+		assertEquals(2, passes[0]);
+		assertEquals(expected.getSampleBuffer(), unsummed.getSampleBuffer());
+		
+		DataStream shortSummedStream = new DataStream() {
+			
+			@Override
+			public int size() { return size + 1; }
+			
+			@Override
+			public ReadableByteChannel open() throws IOException { return new ByteBufferDataStream(dataBuffer).open(); }
+			
+			@Override
+			public long byteSum() { return 0; }
+			
+		};
+		
+		thrown = assertThrows(IOException.class, () -> cut.compile(shortSummedStream, new ByteBufferSampleSink(1024), 4096));
+		assertEquals("data stream ended after 1000 of 1001 bytes", thrown.getMessage());
+		
+	} // testCompileDataStream()
+
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileIncremental(java.nio.ByteBuffer)}.
+	 * 
+	 * Changed data bytes patch the data envelopes and the checksum behind the last one.
+	 * A '0' bit takes twice as long as a '1' bit, a byte with a different number of '1' bits moves the following samples,
+	 * the patched tape is then returned in a new buffer.
+	 * A changed size or a changed header renders the tape completely.
+	 */
+	@Test
+	final void testCompileIncremental() {
+		LOGGER.info("testCompileIncremental()");
+		
+		byte[] data = new byte[1000];
+		for(int n = 0; n < data.length; n++) data[n] = (byte) (n * 131 + 7);
+		
+		int[] layouts = new int[1];
+		
+		Z80TrainerProtocol cut = new Z80TrainerProtocol() {
+			
+			@Override
+			protected List<TapeSection> tapeLayout(final TapeData aTapeData, final int aBlockSize) {
+				
+				layouts[0]++;
+				
+				return super.tapeLayout(aTapeData, aBlockSize);
+				
+			} // tapeLayout()
+			
+		};
+		
+		Z80TrainerProtocol reference = new Z80TrainerProtocol();
+		
+		cut.setProgramNbr(1);
+		cut.setStartAddress(0x1800);
+		
+		reference.setProgramNbr(1);
+		reference.setStartAddress(0x1800);
+		
+		ByteBuffer first = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), first);
+		
+		// bytes with the same number of '1' bits, the sum and so the checksum envelope keep their size too
+		swap(data, 0, 2);		// 0x07 <-> 0x0D
+		swap(data, 500, 13);	// 0xE3 <-> 0xAE
+		swap(data, 999, 5);		// 0x3C <-> 0x96
+		
+		ByteBuffer patched = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		
+		// patched in place
+		assertTrue(patched.array() == first.array());
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), patched);
+		assertEquals(1, layouts[0]);
+		
+		// one '1' bit more, the envelope of the byte and the tape get shorter
+		data[500] = (byte) 0xAF;
+		
+		ByteBuffer shorter = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		
+		assertTrue(shorter.array() != first.array());
+		assertTrue(shorter.remaining() < patched.remaining());
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), shorter);
+		
+		// ordinary edits, envelopes and checksum change their size
+		data[0] ^= 0x55;
+		data[17] = (byte) 0xFF;
+		data[999] = 0x00;
+		
+		ByteBuffer edited = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), edited);
+		
+		// the moved offsets are kept, a same-size edit patches the new buffer in place
+		swap(data, 0, 2);
+		
+		ByteBuffer again = cut.compileIncremental(ByteBuffer.wrap(data.clone()));
+		
+		assertTrue(again.array() == edited.array());
+		assertEquals(reference.compile(ByteBuffer.wrap(data.clone())), again);
+		assertEquals(1, layouts[0]);
+		
+		ByteBuffer resized = cut.compileIncremental(ByteBuffer.wrap(data, 0, 999).slice());
+		
+		assertTrue(resized.array() != again.array());
+		assertEquals(reference.compile(ByteBuffer.wrap(data, 0, 999).slice()), resized);
+		assertEquals(2, layouts[0]);
+		
+		cut.resetIncremental();
+		
+		assertTrue(cut.compileIncremental(ByteBuffer.wrap(data, 0, 999).slice()).array() != resized.array());
+		
+	} // testCompileIncremental()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileEdges(java.nio.ByteBuffer)}.
+	 * 
+	 * The edges take exactly the samples of compile(), silence, header, data and checksum included.
+	 * All '0' bits, all '1' bits and random data give envelopes and checksums of different lengths.
+	 */
+	@Test
+	final void testCompileEdges() {
+		LOGGER.info("testCompileEdges()");
+		
+		List<byte[]> dataSets = new ArrayList<>();
+		
+		dataSets.add(new byte[64]);
+		dataSets.add(new byte[64]);
+		Arrays.fill(dataSets.get(1), (byte) 0xFF);
+		
+		for(int size : new int[] { 2, 17, 1000 }) {
+			
+			byte[] data = new byte[size];
+			new Random(size).nextBytes(data);
+			
+			dataSets.add(data);
+			
+		} // rof
+		
+		for(byte[] data : dataSets) {
+			
+			Z80TrainerProtocol cut = new Z80TrainerProtocol();
+			cut.setProgramNbr(data.length);
+			cut.setStartAddress(0x1800);
+			
+			ByteBuffer samples = cut.compile(ByteBuffer.wrap(data));
+			EdgeTape edgeTape = cut.compileEdges(ByteBuffer.wrap(data));
+			
+			assertEquals(cut.getSamplingRate(), edgeTape.getSamplingRate());
+			assertEquals(samples.remaining(), edgeTape.getSampleCount(), data.length + " bytes");
+			assertEquals(samples.remaining(), edgeTape.toSamples().remaining());
+			
+		} // rof
+		
+	} // testCompileEdges()
+
+	/**
+	 * Test method for {@link target.tape.TapeProtocol#compileTimeline(java.nio.ByteBuffer)}.
+	 * 
+	 * Rendered at the protocol's sampling rate the timeline gives the samples of compile().
+	 * Every edge of the tape falls on a sample at that rate, so at 44.1 kHz the tape is as long 
+	 * as the samples of compile() scaled to 44.1 kHz.
+	 */
+	@Test
+	final void testCompileTimeline() {
+		LOGGER.info("testCompileTimeline()");
+		
+		byte[] data = new byte[1000];
+		new Random(1000).nextBytes(data);
+		
+		Z80TrainerProtocol cut = new Z80TrainerProtocol();
+		cut.setProgramNbr(1);
+		cut.setStartAddress(0x1800);
+		
+		ByteBuffer samples = cut.compile(ByteBuffer.wrap(data));
+		EdgeTimeline timeline = cut.compileTimeline(ByteBuffer.wrap(data));
+		
+		TimelineRenderer renderer = new TimelineRenderer(cut.getSamplingRate());
+		
+		assertEquals(samples.remaining(), renderer.getSampleCount(timeline));
+		assertEquals(samples.remaining(), renderer.toSamples(timeline).remaining());
+		
+		renderer = new TimelineRenderer(44100);
+		
+		long expected = Math.round(samples.remaining() * 44100.0 / cut.getSamplingRate());
+		
+		assertEquals(expected, renderer.getSampleCount(timeline));
+		assertEquals(expected, renderer.toSamples(timeline).remaining());
+		
+	} // testCompileTimeline()
+	
+	
+	/*
+	 * Exchanges two data bytes.
+	 */
+	protected void swap(final byte[] aData, final int aIndex1, final int aIndex2) {
+		
+		byte value = aData[aIndex1];
+		
+		aData[aIndex1] = aData[aIndex2];
+		aData[aIndex2] = value;
+		
+	} // swap()
+	
+	
+	/*
+	 * Renders a single section.
+	 */
+	protected byte[] render(final TapeSection aSection) throws Exception {
+		
+		ByteBufferSampleSink sink = new ByteBufferSampleSink(aSection.getSampleCount());
+		aSection.render(sink);
+		
+		ByteBuffer samples = sink.getSampleBuffer();
+		byte[] result = new byte[samples.remaining()];
+		samples.get(result);
+		
+		return result;
+		
+	} // render()
+	
+	
+	/*
+	 * Assembles the envelopes of the given bytes bit by bit: start bit '0', 8 data bits lsb first, 3 stop bits '1'.
+	 */
+	protected byte[] envelopeSamples(final int... aBytes) {
+		
+		BitEncoder bitEncoder = new FskBitEncoder(Z80TrainerProtocol.F_LOW, Z80TrainerProtocol.F_HIGH, new WaveCycleEncoder(samplingRate));
+		ByteArrayOutputStream samples = new ByteArrayOutputStream();
+		
+		for(int value : aBytes) {
+			
+			append(samples, bitEncoder.encode(0, 1));
+			
+			for(int bit = 0; bit < 8; bit++) {
+				append(samples, bitEncoder.encode((value >> bit) & 0x01, 1));
+			}
+			
+			for(int n = 0; n < 3; n++) {
+				append(samples, bitEncoder.encode(1, 1));
+			}
+			
+		} // rof
+		
+		return samples.toByteArray();
+		
+	} // envelopeSamples()
+	
+	
+	protected int envelopes(final int... aBytes) {
+		
+		return envelopeSamples(aBytes).length;
+		
+	} // envelopes()
+	
+	
+	protected void append(final ByteArrayOutputStream aSamples, final ByteBuffer aBitSamples) {
+		
+		for(int n = 0; n < aBitSamples.limit(); n++) {
+			aSamples.write(aBitSamples.get(n));
+		}
+		
+	} // append()
 	
 	
 	/**